@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.benchmark;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.druid.data.input.MapBasedRow;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.groupby.GroupByQueryConfig;
+import org.apache.druid.query.groupby.GroupByStatsProvider;
+import org.apache.druid.query.groupby.epinephelinae.ConcurrentGrouper;
+import org.apache.druid.query.groupby.epinephelinae.GroupByTestColumnSelectorFactory;
+import org.apache.druid.query.groupby.epinephelinae.Grouper;
+import org.apache.druid.query.groupby.epinephelinae.IntKey;
+import org.apache.druid.query.groupby.epinephelinae.IntKeySerde;
+import org.apache.druid.query.groupby.epinephelinae.LimitedTemporaryStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link ConcurrentGrouper}, comparing thread-local tables against a single table shared by all
+ * threads ("mergeSharedTable"). Each invocation aggregates {@link #ROWS_PER_THREAD} rows on every thread and then
+ * reads back the sorted results, as a groupBy merge on a data server would.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseG1GC")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentGrouperBenchmark
+{
+  private static final int ROWS_PER_THREAD = 200_000;
+  private static final int BUFFER_SIZE = 64 * 1024 * 1024;
+
+  private static final AggregatorFactory[] AGGREGATORS = new AggregatorFactory[]{
+      new CountAggregatorFactory("rows"),
+      new LongSumAggregatorFactory("sum", "value")
+  };
+
+  @Param({"8", "16", "32"})
+  private int numThreads;
+
+  @Param({"1000", "100000", "1000000"})
+  private int cardinality;
+
+  @Param({"false", "true"})
+  private boolean mergeSharedTable;
+
+  private ExecutorService exec;
+  private ListeningExecutorService sortExec;
+  private ByteBuffer buffer;
+  private File tmpDir;
+  private int[][] keys;
+  private GroupByQueryConfig config;
+  private final GroupByTestColumnSelectorFactory columnSelectorFactory = new GroupByTestColumnSelectorFactory();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException
+  {
+    exec = Execs.multiThreaded(numThreads, "ConcurrentGrouperBenchmark-%d");
+    sortExec = MoreExecutors.listeningDecorator(Execs.multiThreaded(numThreads, "ConcurrentGrouperBenchmark-sort-%d"));
+    buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    tmpDir = FileUtils.createTempDir();
+
+    final Random random = new Random(0);
+    keys = new int[numThreads][ROWS_PER_THREAD];
+    for (int t = 0; t < numThreads; t++) {
+      for (int i = 0; i < ROWS_PER_THREAD; i++) {
+        keys[t][i] = random.nextInt(cardinality);
+      }
+    }
+
+    final boolean shared = mergeSharedTable;
+    config = new GroupByQueryConfig()
+    {
+      @Override
+      public boolean isMergeSharedTable()
+      {
+        return shared;
+      }
+    };
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException
+  {
+    exec.shutdownNow();
+    sortExec.shutdownNow();
+    ByteBufferUtils.free(buffer);
+    FileUtils.deleteDirectory(tmpDir);
+  }
+
+  @Benchmark
+  public void aggregateAndIterate(Blackhole blackhole) throws ExecutionException, InterruptedException, IOException
+  {
+    final GroupByStatsProvider.PerQueryStats perQueryStats = new GroupByStatsProvider.PerQueryStats();
+    final LimitedTemporaryStorage temporaryStorage =
+        new LimitedTemporaryStorage(tmpDir, Long.MAX_VALUE, Integer.MAX_VALUE, perQueryStats);
+
+    try (
+        final ConcurrentGrouper<IntKey> grouper = new ConcurrentGrouper<>(
+            config,
+            () -> buffer,
+            null,
+            IntKeySerdeFactory.INSTANCE,
+            IntKeySerdeFactory.INSTANCE,
+            columnSelectorFactory,
+            AGGREGATORS,
+            temporaryStorage,
+            new DefaultObjectMapper(),
+            numThreads,
+            null,
+            false,
+            sortExec,
+            0,
+            false,
+            0,
+            perQueryStats
+        )
+    ) {
+      grouper.init();
+
+      final Future<?>[] futures = new Future[numThreads];
+      for (int t = 0; t < numThreads; t++) {
+        final int[] threadKeys = keys[t];
+        futures[t] = exec.submit(() -> {
+          columnSelectorFactory.setRow(new MapBasedRow(0, Map.of("value", 1L)));
+          final IntKey key = new IntKey(0);
+          for (int keyValue : threadKeys) {
+            key.setValue(keyValue);
+            if (!grouper.aggregate(key).isOk()) {
+              throw new ISE("Grouper is full");
+            }
+          }
+        });
+      }
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      try (CloseableIterator<Grouper.Entry<IntKey>> iterator = grouper.iterator(true)) {
+        while (iterator.hasNext()) {
+          blackhole.consume(iterator.next());
+        }
+      }
+    }
+    finally {
+      temporaryStorage.close();
+    }
+  }
+
+  private static class IntKeySerdeFactory implements Grouper.KeySerdeFactory<IntKey>
+  {
+    private static final IntKeySerdeFactory INSTANCE = new IntKeySerdeFactory();
+
+    @Override
+    public long getMaxDictionarySize()
+    {
+      return 0;
+    }
+
+    @Override
+    public Grouper.KeySerde<IntKey> factorize()
+    {
+      return new IntKeySerde();
+    }
+
+    @Override
+    public Grouper.KeySerde<IntKey> factorizeWithDictionary(List<String> dictionary)
+    {
+      return factorize();
+    }
+
+    @Override
+    public boolean usesRuntimeDictionary()
+    {
+      return false;
+    }
+
+    @Override
+    public IntKey copyKey(IntKey key)
+    {
+      return new IntKey(key.intValue());
+    }
+
+    @Override
+    public Comparator<Grouper.Entry<IntKey>> objectComparator(boolean forceDefaultOrder)
+    {
+      return Comparator.comparingInt(o -> o.getKey().intValue());
+    }
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark;
+
+import org.apache.druid.math.expr.ExpressionProcessing;
+import org.apache.druid.query.filter.DruidDoublePredicate;
+import org.apache.druid.query.filter.DruidFloatPredicate;
+import org.apache.druid.query.filter.DruidLongPredicate;
+import org.apache.druid.query.filter.DruidObjectPredicate;
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.RangeFilter;
+import org.apache.druid.query.filter.TypedInFilter;
+import org.apache.druid.query.filter.vector.DoubleVectorValueMatcher;
+import org.apache.druid.query.filter.vector.FloatVectorValueMatcher;
+import org.apache.druid.query.filter.vector.LongVectorValueMatcher;
+import org.apache.druid.query.filter.vector.ReadableVectorMatch;
+import org.apache.druid.query.filter.vector.VectorMatch;
+import org.apache.druid.query.filter.vector.VectorValueMatcher;
+import org.apache.druid.query.filter.vector.VectorValueMatcherFactory;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and SIMD vectorized value matchers for numeric equality, range and small IN filters, see
+ * {@link NumericKeyRanges}. Values are uniformly distributed in [0, 1000), so "range" keeps about a tenth of the rows
+ * and "equality" and "in" keep very few, which is the case where the per-row branch of the scalar matchers is most
+ * predictable; "sparse" masks exercise the gathering path.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumericVectorValueMatcherBenchmark
+{
+  @Param({"512", "4096"})
+  private int vectorSize;
+
+  @Param({"long", "float", "double"})
+  private String type;
+
+  @Param({"equality", "range", "in"})
+  private String filter;
+
+  @Param({"all", "sparse"})
+  private String mask;
+
+  @Param({"false", "true"})
+  private boolean hasNulls;
+
+  private ReadableVectorMatch vectorMask;
+  private VectorValueMatcher scalarMatcher;
+  private VectorValueMatcher simdMatcher;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    final Random random = new Random(0xC0FFEEL);
+    final long[] longs = new long[vectorSize];
+    final float[] floats = new float[vectorSize];
+    final double[] doubles = new double[vectorSize];
+    final boolean[] nulls = hasNulls ? new boolean[vectorSize] : null;
+    for (int i = 0; i < vectorSize; i++) {
+      longs[i] = random.nextInt(1000);
+      floats[i] = longs[i];
+      doubles[i] = longs[i];
+      if (nulls != null) {
+        nulls[i] = i % 17 == 0;
+      }
+    }
+    final VectorValueSelector selector = new FakeVectorValueSelector(vectorSize, longs, floats, doubles, nulls);
+
+    if ("all".equals(mask)) {
+      vectorMask = VectorMatch.allTrue(vectorSize);
+    } else {
+      final int[] selection = new int[vectorSize];
+      int size = 0;
+      for (int i = 0; i < vectorSize; i++) {
+        if (random.nextBoolean()) {
+          selection[size++] = i;
+        }
+      }
+      vectorMask = VectorMatch.wrap(selection).setSelectionSize(size);
+    }
+
+    // the vector API setting is read when matchers and predicates are created
+    ExpressionProcessing.initializeForTests();
+    scalarMatcher = makeMatcher(selector);
+    ExpressionProcessing.initializeForVectorApiTests();
+    simdMatcher = makeMatcher(selector);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+  {
+    ExpressionProcessing.initializeForTests();
+  }
+
+  @Benchmark
+  public void scalar(final Blackhole blackhole)
+  {
+    blackhole.consume(scalarMatcher.match(vectorMask, false).getSelectionSize());
+  }
+
+  @Benchmark
+  public void simd(final Blackhole blackhole)
+  {
+    blackhole.consume(simdMatcher.match(vectorMask, false).getSelectionSize());
+  }
+
+  private VectorValueMatcher makeMatcher(final VectorValueSelector selector)
+  {
+    final VectorValueMatcherFactory matcherFactory = switch (type) {
+      case "long" -> new LongVectorValueMatcher(selector);
+      case "float" -> new FloatVectorValueMatcher(selector);
+      case "double" -> new DoubleVectorValueMatcher(selector);
+      default -> throw new IllegalStateException("Unsupported type[" + type + "]");
+    };
+
+    return switch (filter) {
+      case "equality" -> matcherFactory.makeMatcher(500L, ColumnType.LONG);
+      case "range" -> matcherFactory.makeMatcher(new RangePredicateFactory(100, 200));
+      case "in" -> {
+        final List<Long> values = Arrays.asList(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L);
+        yield matcherFactory.makeMatcher(new TypedInFilter.PredicateFactory(values, ColumnType.LONG));
+      }
+      default -> throw new IllegalStateException("Unsupported filter[" + filter + "]");
+    };
+  }
+
+  /**
+   * Builds the same predicates as a closed {@link RangeFilter} with numeric bounds.
+   */
+  private static final class RangePredicateFactory implements DruidPredicateFactory
+  {
+    private final long lower;
+    private final long upper;
+
+    RangePredicateFactory(final long lower, final long upper)
+    {
+      this.lower = lower;
+      this.upper = upper;
+    }
+
+    @Override
+    public DruidObjectPredicate<String> makeStringPredicate()
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DruidLongPredicate makeLongPredicate()
+    {
+      return NumericKeyRanges.withKeyRanges(
+          RangeFilter.makeLongPredicate(RangeFilter.RangeType.CLOSED, lower, upper),
+          NumericKeyRanges.longRange(RangeFilter.RangeType.CLOSED, lower, upper)
+      );
+    }
+
+    @Override
+    public DruidFloatPredicate makeFloatPredicate()
+    {
+      final DruidDoublePredicate doublePredicate =
+          RangeFilter.makeDoublePredicate(RangeFilter.RangeType.CLOSED, lower, upper);
+      final DruidFloatPredicate floatPredicate = doublePredicate::applyDouble;
+      return NumericKeyRanges.withKeyRanges(
+          floatPredicate,
+          NumericKeyRanges.floatRange(RangeFilter.RangeType.CLOSED, lower, upper)
+      );
+    }
+
+    @Override
+    public DruidDoublePredicate makeDoublePredicate()
+    {
+      return NumericKeyRanges.withKeyRanges(
+          RangeFilter.makeDoublePredicate(RangeFilter.RangeType.CLOSED, lower, upper),
+          NumericKeyRanges.doubleRange(RangeFilter.RangeType.CLOSED, lower, upper)
+      );
+    }
+  }
+
+  private static final class FakeVectorValueSelector implements VectorValueSelector
+  {
+    private final int size;
+    private final long[] longs;
+    private final float[] floats;
+    private final double[] doubles;
+    @Nullable
+    private final boolean[] nulls;
+
+    FakeVectorValueSelector(
+        final int size,
+        final long[] longs,
+        final float[] floats,
+        final double[] doubles,
+        @Nullable final boolean[] nulls
+    )
+    {
+      this.size = size;
+      this.longs = longs;
+      this.floats = floats;
+      this.doubles = doubles;
+      this.nulls = nulls;
+    }
+
+    @Override
+    public long[] getLongVector()
+    {
+      return longs;
+    }
+
+    @Override
+    public float[] getFloatVector()
+    {
+      return floats;
+    }
+
+    @Override
+    public double[] getDoubleVector()
+    {
+      return doubles;
+    }
+
+    @Nullable
+    @Override
+    public boolean[] getNullVector()
+    {
+      return nulls;
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return size;
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return size;
+    }
+  }
+}
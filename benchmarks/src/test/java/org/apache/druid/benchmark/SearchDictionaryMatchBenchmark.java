@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.benchmark;
+
+import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.query.search.ContainsSearchQuerySpec;
+import org.apache.druid.query.search.FragmentSearchQuerySpec;
+import org.apache.druid.query.search.SearchQuerySpec;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.data.FrontCodedIndexed;
+import org.apache.druid.segment.data.FrontCodedIndexedWriter;
+import org.apache.druid.segment.data.GenericIndexed;
+import org.apache.druid.segment.data.Indexed;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares matching a {@link SearchQuerySpec} against every entry of a UTF-8 value dictionary by decoding each entry
+ * to a {@link String} first, as search queries used to do, against matching the UTF-8 bytes directly with
+ * {@link SearchQuerySpec#acceptUtf8} and decoding only the accepted entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchDictionaryMatchBenchmark
+{
+  @Param({"10000", "100000"})
+  public int numElements;
+
+  @Param({"16"})
+  public int width;
+
+  @Param({
+      "generic",
+      "front-coded-v1-4",
+      "front-coded-v1-16"
+  })
+  public String indexType;
+
+  @Param({
+      "contains",
+      "insensitive_contains",
+      "fragment"
+  })
+  public String searchType;
+
+  private Indexed<ByteBuffer> indexed;
+  private SearchQuerySpec searchQuerySpec;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException
+  {
+    final TreeSet<String> set = new TreeSet<>(ColumnType.STRING.getStrategy());
+    while (set.size() < numElements) {
+      set.add(getRandomId(width));
+    }
+
+    if ("generic".equals(indexType)) {
+      indexed = GenericIndexed.fromIterable(
+          () -> set.stream().map(StringUtils::toUtf8ByteBuffer).iterator(),
+          GenericIndexed.UTF8_STRATEGY
+      ).singleThreaded();
+    } else {
+      final FrontCodedIndexedWriter writer = new FrontCodedIndexedWriter(
+          new OnHeapMemorySegmentWriteOutMedium(),
+          ByteOrder.nativeOrder(),
+          "front-coded-v1-4".equals(indexType) ? 4 : 16,
+          FrontCodedIndexed.V1
+      );
+      writer.open();
+      for (String value : set) {
+        writer.write(StringUtils.toUtf8Nullable(value));
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writer.writeTo(Channels.newChannel(out), null);
+      indexed = FrontCodedIndexed.read(
+          ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.nativeOrder()),
+          ByteOrder.nativeOrder()
+      ).get();
+    }
+
+    switch (searchType) {
+      case "contains":
+        searchQuerySpec = new ContainsSearchQuerySpec("abc", true);
+        break;
+      case "insensitive_contains":
+        searchQuerySpec = new ContainsSearchQuerySpec("ABC", false);
+        break;
+      case "fragment":
+        searchQuerySpec = new FragmentSearchQuerySpec(Arrays.asList("ab", "pa"), false);
+        break;
+      default:
+        throw new IllegalArgumentException(searchType);
+    }
+
+    // sanity test
+    Preconditions.checkArgument(countDecodeAndMatch() == countMatchUtf8(), "match counts not equal");
+  }
+
+  @Benchmark
+  public void decodeAndMatch(Blackhole blackhole)
+  {
+    final Iterator<ByteBuffer> iterator = indexed.iterator();
+    while (iterator.hasNext()) {
+      final String value = StringUtils.fromUtf8Nullable(iterator.next());
+      if (searchQuerySpec.accept(value)) {
+        blackhole.consume(value);
+      }
+    }
+  }
+
+  @Benchmark
+  public void matchUtf8(Blackhole blackhole)
+  {
+    final Iterator<ByteBuffer> iterator = indexed.iterator();
+    while (iterator.hasNext()) {
+      final ByteBuffer buffer = iterator.next();
+      if (searchQuerySpec.acceptUtf8(buffer)) {
+        blackhole.consume(buffer == null ? null : StringUtils.fromUtf8(buffer.duplicate()));
+      }
+    }
+  }
+
+  private int countDecodeAndMatch()
+  {
+    int matches = 0;
+    final Iterator<ByteBuffer> iterator = indexed.iterator();
+    while (iterator.hasNext()) {
+      if (searchQuerySpec.accept(StringUtils.fromUtf8Nullable(iterator.next()))) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  private int countMatchUtf8()
+  {
+    int matches = 0;
+    final Iterator<ByteBuffer> iterator = indexed.iterator();
+    while (iterator.hasNext()) {
+      if (searchQuerySpec.acceptUtf8(iterator.next())) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  private static String getRandomId(int width)
+  {
+    final StringBuilder suffix = new StringBuilder(width);
+    for (int i = 0; i < width; ++i) {
+      suffix.append((char) ('a' + ((ThreadLocalRandom.current().nextInt() >>> (i * 4)) & 0x0F)));
+    }
+    return suffix.toString();
+  }
+
+  public static void main(String[] args) throws RunnerException
+  {
+    Options opt = new OptionsBuilder()
+        .include(SearchDictionaryMatchBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
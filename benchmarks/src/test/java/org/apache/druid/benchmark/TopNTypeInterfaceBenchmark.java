@@ -20,6 +20,7 @@
 package org.apache.druid.benchmark;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import org.apache.druid.benchmark.query.QueryBenchmarkUtil;
 import org.apache.druid.collections.StupidPool;
 import org.apache.druid.data.input.InputRow;
@@ -31,6 +32,7 @@ import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.offheap.OffheapBufferGenerator;
 import org.apache.druid.query.FinalizeResultsQueryRunner;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerFactory;
@@ -46,6 +48,7 @@ import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesSerde;
 import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.dimension.ExtractionDimensionSpec;
 import org.apache.druid.query.extraction.IdentityExtractionFn;
+import org.apache.druid.query.extraction.TimeFormatExtractionFn;
 import org.apache.druid.query.ordering.StringComparators;
 import org.apache.druid.query.spec.MultipleIntervalSegmentSpec;
 import org.apache.druid.query.spec.QuerySegmentSpec;
@@ -62,6 +65,7 @@ import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.QueryableIndexSegment;
 import org.apache.druid.segment.column.ColumnConfig;
+import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.generator.DataGenerator;
 import org.apache.druid.segment.generator.GeneratorBasicSchemas;
 import org.apache.druid.segment.generator.GeneratorSchemaInfo;
@@ -126,6 +130,8 @@ public class TopNTypeInterfaceBenchmark
   private TopNQuery stringQuery;
   private TopNQuery longQuery;
   private TopNQuery floatQuery;
+  private TopNQuery timeExtractionHourQuery;
+  private TopNQuery timeExtractionMinuteQuery;
 
   static {
     JSON_MAPPER = new DefaultObjectMapper();
@@ -219,6 +225,41 @@ public class TopNTypeInterfaceBenchmark
       basicQueries.put("alphanumericSort", queryBuilderA);
     }
 
+    { // basic.timeExtraction
+      QuerySegmentSpec intervalSpec = new MultipleIntervalSegmentSpec(Collections.singletonList(basicSchema.getDataInterval()));
+
+      List<AggregatorFactory> queryAggs = new ArrayList<>();
+      queryAggs.add(new LongSumAggregatorFactory("sumLongSequential", "sumLongSequential"));
+      queryAggs.add(new DoubleSumAggregatorFactory("sumFloatNormal", "sumFloatNormal"));
+
+      // Extraction on __time uses TimeExtractionTopNAlgorithm when not vectorized, and VectorTopNEngine otherwise.
+      // Granular buckets exercise reuse of the aggregation buffer across buckets.
+      final ExtractionDimensionSpec secondOfMinute = new ExtractionDimensionSpec(
+          ColumnHolder.TIME_COLUMN_NAME,
+          "second",
+          new TimeFormatExtractionFn("ss", null, null, null, false)
+      );
+
+      TopNQueryBuilder queryBuilderHour = new TopNQueryBuilder()
+          .dataSource("blah")
+          .granularity(Granularities.HOUR)
+          .dimension(secondOfMinute)
+          .metric("sumFloatNormal")
+          .intervals(intervalSpec)
+          .aggregators(queryAggs);
+
+      TopNQueryBuilder queryBuilderMinute = new TopNQueryBuilder()
+          .dataSource("blah")
+          .granularity(Granularities.MINUTE)
+          .dimension(secondOfMinute)
+          .metric("sumFloatNormal")
+          .intervals(intervalSpec)
+          .aggregators(queryAggs);
+
+      basicQueries.put("timeExtractionHour", queryBuilderHour);
+      basicQueries.put("timeExtractionMinute", queryBuilderMinute);
+    }
+
     SCHEMA_QUERY_MAP.put("basic", basicQueries);
   }
 
@@ -245,6 +286,14 @@ public class TopNTypeInterfaceBenchmark
     floatBuilder.threshold(threshold);
     floatQuery = floatBuilder.build();
 
+    TopNQueryBuilder timeExtractionHourBuilder = SCHEMA_QUERY_MAP.get("basic").get("timeExtractionHour");
+    timeExtractionHourBuilder.threshold(threshold);
+    timeExtractionHourQuery = timeExtractionHourBuilder.build();
+
+    TopNQueryBuilder timeExtractionMinuteBuilder = SCHEMA_QUERY_MAP.get("basic").get("timeExtractionMinute");
+    timeExtractionMinuteBuilder.threshold(threshold);
+    timeExtractionMinuteQuery = timeExtractionMinuteBuilder.build();
+
     incIndexes = new ArrayList<>();
     for (int i = 0; i < numSegments; i++) {
       log.info("Generating rows for segment " + i);
@@ -620,4 +669,54 @@ public class TopNTypeInterfaceBenchmark
       blackhole.consume(result);
     }
   }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void querySingleQueryableIndexTimeExtractionHourHeap(Blackhole blackhole)
+  {
+    runTimeExtractionQuery(timeExtractionHourQuery, "false", blackhole);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void querySingleQueryableIndexTimeExtractionHourVectorized(Blackhole blackhole)
+  {
+    runTimeExtractionQuery(timeExtractionHourQuery, "force", blackhole);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void querySingleQueryableIndexTimeExtractionMinuteHeap(Blackhole blackhole)
+  {
+    runTimeExtractionQuery(timeExtractionMinuteQuery, "false", blackhole);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void querySingleQueryableIndexTimeExtractionMinuteVectorized(Blackhole blackhole)
+  {
+    runTimeExtractionQuery(timeExtractionMinuteQuery, "force", blackhole);
+  }
+
+  private void runTimeExtractionQuery(TopNQuery query, String vectorize, Blackhole blackhole)
+  {
+    QueryRunner<Result<TopNResultValue>> runner = QueryBenchmarkUtil.makeQueryRunner(
+        factory,
+        Q_INDEX_SEGMENT_ID,
+        new QueryableIndexSegment(qIndexes.get(0), Q_INDEX_SEGMENT_ID)
+    );
+
+    List<Result<TopNResultValue>> results = TopNTypeInterfaceBenchmark.runQuery(
+        factory,
+        runner,
+        query.withOverriddenContext(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, vectorize))
+    );
+    for (Result<TopNResultValue> result : results) {
+      blackhole.consume(result);
+    }
+  }
 }
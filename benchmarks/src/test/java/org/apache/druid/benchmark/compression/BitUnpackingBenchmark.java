@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark.compression;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.math.expr.ExpressionProcessing;
+import org.apache.druid.segment.data.ColumnarInts;
+import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSupplier;
+import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.VSizeLongSerde;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scalar and Vector API unpacking of the contiguous vectorized reads of {@link VSizeLongSerde}, which backs
+ * delta and table encoded long columns, and of {@link CompressedVSizeColumnarIntsSupplier}, which backs dictionary
+ * encoded string columns. For the ints, bitsPerValue is rounded up to whole bytes.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BitUnpackingBenchmark
+{
+  private static final int NUM_ROWS = 1 << 20;
+
+  @Param({"1", "2", "4", "8", "12", "16", "20", "24", "32"})
+  private int bitsPerValue;
+
+  @Param({"512"})
+  private int vectorSize;
+
+  @Param({"false", "true"})
+  private boolean simd;
+
+  private VSizeLongSerde.LongDeserializer deserializer;
+  private ColumnarInts columnarInts;
+  private Closer closer;
+  private long[] longs;
+  private int[] ints;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException
+  {
+    if (simd) {
+      ExpressionProcessing.initializeForVectorApiTests();
+    } else {
+      ExpressionProcessing.initializeForTests();
+    }
+
+    final Random random = new Random(0);
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(VSizeLongSerde.getSerializedSize(bitsPerValue, NUM_ROWS));
+    final VSizeLongSerde.LongSerializer serializer = VSizeLongSerde.getSerializer(bitsPerValue, buffer, 0);
+    final int[] values = new int[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      values[i] = (int) (random.nextLong() & ((1L << bitsPerValue) - 1));
+      serializer.write(values[i] & 0xFFFFFFFFL);
+    }
+    serializer.close();
+    deserializer = VSizeLongSerde.getDeserializer(bitsPerValue, buffer, 0);
+
+    closer = Closer.create();
+    final int numBytes = (bitsPerValue + Byte.SIZE - 1) / Byte.SIZE;
+    // CompressedVSizeColumnarIntsSupplier only allows non-negative values
+    for (int i = 0; i < NUM_ROWS; i++) {
+      values[i] &= Integer.MAX_VALUE;
+    }
+    columnarInts = CompressedVSizeColumnarIntsSupplier.fromList(
+        IntArrayList.wrap(values),
+        numBytes == Integer.BYTES ? Integer.MAX_VALUE : (1 << (numBytes * Byte.SIZE)) - 1,
+        CompressedVSizeColumnarIntsSupplier.maxIntsInBufferForBytes(numBytes),
+        ByteOrder.nativeOrder(),
+        CompressionStrategy.LZ4,
+        closer
+    ).get();
+    closer.register(columnarInts);
+
+    longs = new long[vectorSize];
+    ints = new int[vectorSize];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException
+  {
+    closer.close();
+    ExpressionProcessing.initializeForTests();
+  }
+
+  @Benchmark
+  public void readLongs(Blackhole blackhole)
+  {
+    for (int start = 0; start < NUM_ROWS; start += vectorSize) {
+      deserializer.getDelta(longs, 0, start, Math.min(vectorSize, NUM_ROWS - start), 0);
+      blackhole.consume(longs);
+    }
+  }
+
+  @Benchmark
+  public void readInts(Blackhole blackhole)
+  {
+    for (int start = 0; start < NUM_ROWS; start += vectorSize) {
+      columnarInts.get(ints, start, Math.min(vectorSize, NUM_ROWS - start));
+      blackhole.consume(ints);
+    }
+  }
+}
@@ -62,6 +62,8 @@ public class PeonProcessingModule implements Module
   public void configure(Binder binder)
   {
     DruidProcessingModule.registerConfigsAndMonitor(binder);
+    DruidProcessingModule.registerDecompressedBlockCache(binder);
+    DruidProcessingModule.registerSegmentReadahead(binder);
   }
 
   @Provides
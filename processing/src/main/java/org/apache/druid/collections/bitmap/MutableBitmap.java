@@ -56,6 +56,19 @@ public interface MutableBitmap extends ImmutableBitmap
    */
   void add(int entry);
 
+  /**
+   * Add all integers from start (inclusive) to end (exclusive) to the bitmap.
+   *
+   * @param start first integer to be added
+   * @param end   integer after the last one to be added
+   */
+  default void addRange(int start, int end)
+  {
+    for (int i = start; i < end; i++) {
+      add(i);
+    }
+  }
+
   /**
    * Remove the specified integer to the bitmap. This is equivalent to setting the
    * ith bit to the value 1.
@@ -139,6 +139,18 @@ public class WrappedRoaringBitmap implements MutableBitmap
     }
   }
 
+  @Override
+  public void addRange(int start, int end)
+  {
+    if (start < 0) {
+      throw new IllegalArgumentException("Cannot add negative ints");
+    } else if (start < end) {
+      initializeWriterIfNeeded();
+      smallArray = null;
+      writer.add((long) start, (long) end);
+    }
+  }
+
   @Override
   public int size()
   {
@@ -99,6 +99,16 @@ public class ExpressionProcessing
     return INSTANCE.useVectorApi();
   }
 
+  /**
+   * Same as {@link #useVectorApi()}, but returns false instead of failing if expression processing has not been
+   * initialized. For use by segment reading code, which also runs in tools and tests that never set it up.
+   */
+  public static boolean useVectorApiIfInitialized()
+  {
+    final ExpressionProcessingConfig config = INSTANCE;
+    return config != null && config.useVectorApi();
+  }
+
   private static void checkInitialized()
   {
     // this should only be null in a unit test context, in production this will be injected by the null handling module
@@ -48,6 +48,7 @@ public class QueryContexts
   public static final String PER_SEGMENT_TIMEOUT_KEY = "perSegmentTimeout";
   public static final String MAX_SCATTER_GATHER_BYTES_KEY = "maxScatterGatherBytes";
   public static final String MAX_QUEUED_BYTES_KEY = "maxQueuedBytes";
+  public static final String FRAME_RESULT_TRANSPORT_KEY = "frameResultTransport";
   public static final String DEFAULT_TIMEOUT_KEY = "defaultTimeout";
   public static final String BROKER_PARALLEL_MERGE_KEY = "enableParallelMerge";
   public static final String BROKER_PARALLEL_MERGE_INITIAL_YIELD_ROWS_KEY = "parallelMergeInitialYieldRows";
@@ -66,6 +67,7 @@ public class QueryContexts
   public static final String JOIN_FILTER_REWRITE_MAX_SIZE_KEY = "joinFilterRewriteMaxSize";
   public static final String MAX_NUMERIC_IN_FILTERS = "maxNumericInFilters";
   public static final String CURSOR_AUTO_ARRANGE_FILTERS = "cursorAutoArrangeFilters";
+  public static final String CURSOR_RESTRICT_FILTER_TO_INTERVAL = "cursorRestrictFilterToInterval";
   public static final String CLONE_QUERY_MODE = "cloneQueryMode";
   /**
    * This flag controls whether {@link AggregatorFactory#optimizeForSegment(PerSegmentQueryOptimizationContext)}
@@ -165,6 +167,7 @@ public class QueryContexts
 
   // Defaults
   public static final boolean DEFAULT_BY_SEGMENT = false;
+  public static final boolean DEFAULT_FRAME_RESULT_TRANSPORT = false;
   public static final boolean DEFAULT_POPULATE_CACHE = true;
   public static final boolean DEFAULT_USE_CACHE = true;
   public static final boolean DEFAULT_POPULATE_RESULTLEVEL_CACHE = true;
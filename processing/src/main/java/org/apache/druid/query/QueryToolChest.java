@@ -423,6 +423,42 @@ public abstract class QueryToolChest<ResultType, QueryType extends Query<ResultT
     return Optional.empty();
   }
 
+  /**
+   * Returns the signature of results of this query as they are sent from data servers to the Broker when
+   * {@link QueryContexts#FRAME_RESULT_TRANSPORT_KEY} is set, or null if this query type (or this particular query)
+   * cannot be sent as frames. Unlike {@link #resultArraySignature}, this covers the unmerged, per-server results that
+   * {@link #makePreComputeManipulatorFn} is applied to, so it does not include post-aggregators.
+   * <p>
+   * Every column of the returned signature must have a known type.
+   */
+  @Nullable
+  public RowSignature frameTransportSignature(QueryType query)
+  {
+    return null;
+  }
+
+  /**
+   * Returns a function that converts a result into an array matching {@link #frameTransportSignature}. The returned
+   * array may be longer than the signature; trailing elements are ignored.
+   *
+   * @throws UnsupportedOperationException if {@link #frameTransportSignature} returns null for this query
+   */
+  public Function<ResultType, Object[]> makeToFrameTransportFn(QueryType query)
+  {
+    throw new UOE("Query type '%s' does not support frame transport", query.getType());
+  }
+
+  /**
+   * Returns a function that converts an array matching {@link #frameTransportSignature} back into a result. This is
+   * the inverse of {@link #makeToFrameTransportFn}.
+   *
+   * @throws UnsupportedOperationException if {@link #frameTransportSignature} returns null for this query
+   */
+  public Function<Object[], ResultType> makeFromFrameTransportFn(QueryType query)
+  {
+    throw new UOE("Query type '%s' does not support frame transport", query.getType());
+  }
+
   public <T> boolean canExecuteFully(Query<T> query)
   {
     DataSource dataSourceFromQuery = query.getDataSource();
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+
+/**
+ * {@link BitmapResultFactory} that restricts every bitmap it is given to the rows in [startRow, endRow) before passing
+ * it on to a delegate. Used when a cursor only reads a contiguous range of rows, such as the rows of a time-ordered
+ * segment that fall within the cursor interval. Intersecting each dimension value bitmap with the range up front
+ * means that the unions, intersections, and complements computed while building a
+ * {@link org.apache.druid.query.filter.FilterBundle} only touch the part of each bitmap that the cursor will read.
+ * <p>
+ * Bitmaps produced through this factory are only guaranteed to be correct for rows within the range.
+ */
+public final class RangeRestrictedBitmapResultFactory<T> implements BitmapResultFactory<T>
+{
+  private final BitmapResultFactory<T> delegate;
+  private final ImmutableBitmap range;
+
+  public RangeRestrictedBitmapResultFactory(
+      final BitmapResultFactory<T> delegate,
+      final BitmapFactory bitmapFactory,
+      final int startRow,
+      final int endRow
+  )
+  {
+    this.delegate = delegate;
+    // complement of [0, startRow) over endRow rows is [startRow, endRow)
+    this.range = bitmapFactory.complement(
+        bitmapFactory.complement(bitmapFactory.makeEmptyImmutableBitmap(), startRow),
+        endRow
+    );
+  }
+
+  @Override
+  public T wrapDimensionValue(ImmutableBitmap bitmap)
+  {
+    return delegate.wrapDimensionValue(restrict(bitmap));
+  }
+
+  @Override
+  public T wrapAllFalse(ImmutableBitmap allFalseBitmap)
+  {
+    return delegate.wrapAllFalse(allFalseBitmap);
+  }
+
+  @Override
+  public T wrapAllTrue(ImmutableBitmap allTrueBitmap)
+  {
+    return delegate.wrapAllTrue(range);
+  }
+
+  @Override
+  public boolean isEmpty(T bitmapResult)
+  {
+    return delegate.isEmpty(bitmapResult);
+  }
+
+  @Override
+  public T intersection(Iterable<T> bitmapResults)
+  {
+    return delegate.intersection(bitmapResults);
+  }
+
+  @Override
+  public T union(Iterable<T> bitmapResults)
+  {
+    return delegate.union(bitmapResults);
+  }
+
+  @Override
+  public T unionDimensionValueBitmaps(Iterable<ImmutableBitmap> dimensionValueBitmaps)
+  {
+    return delegate.unionDimensionValueBitmaps(Iterables.transform(dimensionValueBitmaps, this::restrict));
+  }
+
+  @Override
+  public T complement(T bitmapResult, int numRows)
+  {
+    // The complement sets every row outside the range, so restrict it again.
+    return delegate.intersection(
+        ImmutableList.of(delegate.complement(bitmapResult, numRows), delegate.wrapAllTrue(range))
+    );
+  }
+
+  @Override
+  public ImmutableBitmap toImmutableBitmap(T bitmapResult)
+  {
+    return delegate.toImmutableBitmap(bitmapResult);
+  }
+
+  private ImmutableBitmap restrict(final ImmutableBitmap bitmap)
+  {
+    return bitmap.intersection(range);
+  }
+}
@@ -0,0 +1,459 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter;
+
+import org.apache.druid.math.expr.ExpressionProcessing;
+import org.apache.druid.query.filter.vector.DoubleVectorValueMatcher;
+import org.apache.druid.query.filter.vector.FloatVectorValueMatcher;
+import org.apache.druid.query.filter.vector.LongVectorValueMatcher;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * Describes the non-null values matched by a numeric predicate as a union of closed ranges of "sortable keys", so
+ * that vectorized value matchers can evaluate the predicate with a handful of SIMD comparisons per vector instead of
+ * calling the predicate once per row. See {@link LongVectorValueMatcher}, {@link FloatVectorValueMatcher} and
+ * {@link DoubleVectorValueMatcher}.
+ *
+ * The key of a long is the long itself. The key of a double is its {@link Double#doubleToLongBits} with the non-sign
+ * bits flipped for negative values, and the key of a float is the same transform of {@link Float#floatToIntBits}.
+ * Ordering keys as signed integers gives the same order as {@link Double#compare} and {@link Float#compare}, with
+ * -0.0 before 0.0 and a single canonical NaN after positive infinity, which is what the scalar predicates of
+ * {@link RangeFilter} and {@link TypedInFilter} use.
+ *
+ * Ranges are stored as a flat array of inclusive bounds: {@code [lo0, hi0, lo1, hi1, ...]}. An empty array matches
+ * no non-null values.
+ */
+public final class NumericKeyRanges
+{
+  /**
+   * Largest number of ranges a predicate may carry. Larger value sets are better served by the hash or binary search
+   * lookups of the scalar predicates than by one comparison per range.
+   */
+  public static final int MAX_RANGES = 16;
+
+  private static final long[] EMPTY = new long[0];
+
+  private NumericKeyRanges()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Implemented by numeric predicates that can describe their matching values as key ranges.
+   */
+  public interface Provider
+  {
+    long[] getKeyRanges();
+  }
+
+  public static long doubleKey(double value)
+  {
+    final long bits = Double.doubleToLongBits(value);
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  public static int floatKey(float value)
+  {
+    final int bits = Float.floatToIntBits(value);
+    return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+  }
+
+  static float keyToFloat(int key)
+  {
+    // the transform is its own inverse, since it never changes the sign bit
+    return Float.intBitsToFloat(key ^ ((key >> 31) & Integer.MAX_VALUE));
+  }
+
+  /**
+   * Ranges matching {@code ==} on long values.
+   */
+  public static long[] longEquals(long value)
+  {
+    return new long[]{value, value};
+  }
+
+  /**
+   * Ranges matching {@code ==} on double values, which unlike {@link Double#compare} treats -0.0 and 0.0 as equal
+   * and never matches NaN.
+   */
+  public static long[] doubleEquals(double value)
+  {
+    if (Double.isNaN(value)) {
+      return EMPTY;
+    } else if (value == 0) {
+      return new long[]{doubleKey(-0.0), doubleKey(0.0)};
+    }
+    final long key = doubleKey(value);
+    return new long[]{key, key};
+  }
+
+  /**
+   * Ranges matching {@code ==} on float values, see {@link #doubleEquals}.
+   */
+  public static long[] floatEquals(float value)
+  {
+    if (Float.isNaN(value)) {
+      return EMPTY;
+    } else if (value == 0) {
+      return new long[]{floatKey(-0.0f), floatKey(0.0f)};
+    }
+    final long key = floatKey(value);
+    return new long[]{key, key};
+  }
+
+  /**
+   * Ranges matching the same long values as {@link RangeFilter#makeLongPredicate}.
+   */
+  public static long[] longRange(RangeFilter.RangeType rangeType, long lowerBound, long upperBound)
+  {
+    long lo = Long.MIN_VALUE;
+    long hi = Long.MAX_VALUE;
+    if (hasLower(rangeType)) {
+      if (isLowerOpen(rangeType)) {
+        if (lowerBound == Long.MAX_VALUE) {
+          return EMPTY;
+        }
+        lo = lowerBound + 1;
+      } else {
+        lo = lowerBound;
+      }
+    }
+    if (hasUpper(rangeType)) {
+      if (isUpperOpen(rangeType)) {
+        if (upperBound == Long.MIN_VALUE) {
+          return EMPTY;
+        }
+        hi = upperBound - 1;
+      } else {
+        hi = upperBound;
+      }
+    }
+    return lo <= hi ? new long[]{lo, hi} : EMPTY;
+  }
+
+  /**
+   * Ranges matching the same double values as {@link RangeFilter#makeDoublePredicate}. Since every key between two
+   * doubles is itself a double, stepping a key by one yields the adjacent double for open bounds.
+   */
+  public static long[] doubleRange(RangeFilter.RangeType rangeType, double lowerBound, double upperBound)
+  {
+    long lo = Long.MIN_VALUE;
+    long hi = Long.MAX_VALUE;
+    if (hasLower(rangeType)) {
+      // the canonical NaN has the largest key of any double, but is still well below Long.MAX_VALUE
+      lo = doubleKey(lowerBound) + (isLowerOpen(rangeType) ? 1 : 0);
+    }
+    if (hasUpper(rangeType)) {
+      hi = doubleKey(upperBound) - (isUpperOpen(rangeType) ? 1 : 0);
+    }
+    return lo <= hi ? new long[]{lo, hi} : EMPTY;
+  }
+
+  /**
+   * Ranges matching the same float values as the double predicate of {@link RangeFilter#makeDoublePredicate}, applied
+   * to floats widened to double. The bounds are doubles, so the float nearest to each bound is found first, and then
+   * its neighbors are checked against the actual comparison to find the first and last matching float.
+   */
+  public static long[] floatRange(RangeFilter.RangeType rangeType, double lowerBound, double upperBound)
+  {
+    final DruidDoublePredicate predicate = RangeFilter.makeDoublePredicate(rangeType, lowerBound, upperBound);
+    long lo = Integer.MIN_VALUE;
+    long hi = Integer.MAX_VALUE;
+    if (hasLower(rangeType)) {
+      if (Double.isNaN(lowerBound)) {
+        // only NaN itself compares equal to NaN, and nothing compares above it
+        if (isLowerOpen(rangeType)) {
+          return EMPTY;
+        }
+        lo = floatKey(Float.NaN);
+      } else {
+        final Integer first = firstMatching(predicate, floatKey((float) lowerBound), new int[]{-1, 0, 1});
+        if (first != null) {
+          lo = first;
+        } else if (predicate.applyDouble(Double.NaN).matches(false)) {
+          // no ordinary float is above the bound, but NaN sorts after positive infinity
+          lo = floatKey(Float.NaN);
+        } else {
+          return EMPTY;
+        }
+      }
+    }
+    if (hasUpper(rangeType)) {
+      if (Double.isNaN(upperBound)) {
+        hi = isUpperOpen(rangeType) ? floatKey(Float.POSITIVE_INFINITY) : Integer.MAX_VALUE;
+      } else {
+        final Integer last = firstMatching(predicate, floatKey((float) upperBound), new int[]{1, 0, -1});
+        if (last == null) {
+          return EMPTY;
+        }
+        hi = last;
+      }
+    }
+    return lo <= hi ? new long[]{lo, hi} : EMPTY;
+  }
+
+  /**
+   * Ranges matching any of the given long values, or null if there are too many values to be worth it.
+   */
+  @Nullable
+  public static long[] longValues(Collection<Long> values)
+  {
+    if (values.size() > MAX_RANGES) {
+      return null;
+    }
+    final long[] ranges = new long[values.size() * 2];
+    int i = 0;
+    for (long value : values) {
+      ranges[i++] = value;
+      ranges[i++] = value;
+    }
+    return ranges;
+  }
+
+  /**
+   * Ranges matching any of the given double values using {@link Double#equals} semantics, or null if there are too
+   * many values to be worth it.
+   */
+  @Nullable
+  public static long[] doubleValues(Collection<Double> values)
+  {
+    if (values.size() > MAX_RANGES) {
+      return null;
+    }
+    final long[] ranges = new long[values.size() * 2];
+    int i = 0;
+    for (double value : values) {
+      final long key = doubleKey(value);
+      ranges[i++] = key;
+      ranges[i++] = key;
+    }
+    return ranges;
+  }
+
+  /**
+   * Ranges matching any of the given float values using {@link Float#equals} semantics, or null if there are too
+   * many values to be worth it.
+   */
+  @Nullable
+  public static long[] floatValues(Collection<Float> values)
+  {
+    if (values.size() > MAX_RANGES) {
+      return null;
+    }
+    final long[] ranges = new long[values.size() * 2];
+    int i = 0;
+    for (float value : values) {
+      final long key = floatKey(value);
+      ranges[i++] = key;
+      ranges[i++] = key;
+    }
+    return ranges;
+  }
+
+  /**
+   * Attaches key ranges to a long predicate if {@link ExpressionProcessing#useVectorApi()} is enabled, so that
+   * vectorized matchers can use them. Otherwise, or if ranges is null, returns the predicate unchanged.
+   */
+  public static DruidLongPredicate withKeyRanges(DruidLongPredicate predicate, @Nullable long[] ranges)
+  {
+    if (ranges == null || !ExpressionProcessing.useVectorApi()) {
+      return predicate;
+    }
+    return new LongPredicate(predicate, ranges);
+  }
+
+  /**
+   * See {@link #withKeyRanges(DruidLongPredicate, long[])}.
+   */
+  public static DruidFloatPredicate withKeyRanges(DruidFloatPredicate predicate, @Nullable long[] ranges)
+  {
+    if (ranges == null || !ExpressionProcessing.useVectorApi()) {
+      return predicate;
+    }
+    return new FloatPredicate(predicate, ranges);
+  }
+
+  /**
+   * See {@link #withKeyRanges(DruidLongPredicate, long[])}.
+   */
+  public static DruidDoublePredicate withKeyRanges(DruidDoublePredicate predicate, @Nullable long[] ranges)
+  {
+    if (ranges == null || !ExpressionProcessing.useVectorApi()) {
+      return predicate;
+    }
+    return new DoublePredicate(predicate, ranges);
+  }
+
+  @Nullable
+  private static Integer firstMatching(DruidDoublePredicate predicate, int key, int[] offsets)
+  {
+    for (int offset : offsets) {
+      final long candidate = (long) key + offset;
+      if (candidate < Integer.MIN_VALUE || candidate > Integer.MAX_VALUE) {
+        continue;
+      }
+      final float value = keyToFloat((int) candidate);
+      // neighbors of the infinities are NaN bit patterns, which must not stand in for an ordinary bound
+      if (Float.isNaN(value)) {
+        continue;
+      }
+      if (predicate.applyDouble(value).matches(false)) {
+        return (int) candidate;
+      }
+    }
+    return null;
+  }
+
+  private static boolean hasLower(RangeFilter.RangeType rangeType)
+  {
+    switch (rangeType) {
+      case OPEN:
+      case CLOSED:
+      case LOWER_CLOSED_UPPER_OPEN:
+      case LOWER_OPEN_UPPER_CLOSED:
+      case LOWER_OPEN_UPPER_UNBOUNDED:
+      case LOWER_CLOSED_UPPER_UNBOUNDED:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean hasUpper(RangeFilter.RangeType rangeType)
+  {
+    switch (rangeType) {
+      case OPEN:
+      case CLOSED:
+      case LOWER_CLOSED_UPPER_OPEN:
+      case LOWER_OPEN_UPPER_CLOSED:
+      case LOWER_UNBOUNDED_UPPER_OPEN:
+      case LOWER_UNBOUNDED_UPPER_CLOSED:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isLowerOpen(RangeFilter.RangeType rangeType)
+  {
+    return rangeType == RangeFilter.RangeType.OPEN
+           || rangeType == RangeFilter.RangeType.LOWER_OPEN_UPPER_CLOSED
+           || rangeType == RangeFilter.RangeType.LOWER_OPEN_UPPER_UNBOUNDED;
+  }
+
+  private static boolean isUpperOpen(RangeFilter.RangeType rangeType)
+  {
+    return rangeType == RangeFilter.RangeType.OPEN
+           || rangeType == RangeFilter.RangeType.LOWER_CLOSED_UPPER_OPEN
+           || rangeType == RangeFilter.RangeType.LOWER_UNBOUNDED_UPPER_OPEN;
+  }
+
+  private static final class LongPredicate implements DruidLongPredicate, Provider
+  {
+    private final DruidLongPredicate delegate;
+    private final long[] ranges;
+
+    private LongPredicate(DruidLongPredicate delegate, long[] ranges)
+    {
+      this.delegate = delegate;
+      this.ranges = ranges;
+    }
+
+    @Override
+    public DruidPredicateMatch applyLong(long input)
+    {
+      return delegate.applyLong(input);
+    }
+
+    @Override
+    public DruidPredicateMatch applyNull()
+    {
+      return delegate.applyNull();
+    }
+
+    @Override
+    public long[] getKeyRanges()
+    {
+      return ranges;
+    }
+  }
+
+  private static final class FloatPredicate implements DruidFloatPredicate, Provider
+  {
+    private final DruidFloatPredicate delegate;
+    private final long[] ranges;
+
+    private FloatPredicate(DruidFloatPredicate delegate, long[] ranges)
+    {
+      this.delegate = delegate;
+      this.ranges = ranges;
+    }
+
+    @Override
+    public DruidPredicateMatch applyFloat(float input)
+    {
+      return delegate.applyFloat(input);
+    }
+
+    @Override
+    public DruidPredicateMatch applyNull()
+    {
+      return delegate.applyNull();
+    }
+
+    @Override
+    public long[] getKeyRanges()
+    {
+      return ranges;
+    }
+  }
+
+  private static final class DoublePredicate implements DruidDoublePredicate, Provider
+  {
+    private final DruidDoublePredicate delegate;
+    private final long[] ranges;
+
+    private DoublePredicate(DruidDoublePredicate delegate, long[] ranges)
+    {
+      this.delegate = delegate;
+      this.ranges = ranges;
+    }
+
+    @Override
+    public DruidPredicateMatch applyDouble(double input)
+    {
+      return delegate.applyDouble(input);
+    }
+
+    @Override
+    public DruidPredicateMatch applyNull()
+    {
+      return delegate.applyNull();
+    }
+
+    @Override
+    public long[] getKeyRanges()
+    {
+      return ranges;
+    }
+  }
+}
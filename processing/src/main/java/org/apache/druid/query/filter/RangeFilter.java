@@ -54,6 +54,7 @@ import org.apache.druid.segment.index.BitmapColumnIndex;
 import org.apache.druid.segment.index.semantic.DruidPredicateIndexes;
 import org.apache.druid.segment.index.semantic.LexicographicalRangeIndexes;
 import org.apache.druid.segment.index.semantic.NumericRangeIndexes;
+import org.apache.druid.segment.index.semantic.NumericZoneMapIndexes;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
@@ -330,6 +331,15 @@ public class RangeFilter extends AbstractOptimizableDimFilter implements Filter
     if (predicateIndexes != null) {
       return predicateIndexes.forPredicate(getPredicateFactory());
     }
+    if (matchValueType.isNumeric()) {
+      // inexact index of the blocks of rows which may match, the value matcher is still applied to those rows
+      final NumericZoneMapIndexes zoneMapIndexes = indexSupplier.as(NumericZoneMapIndexes.class);
+      if (zoneMapIndexes != null) {
+        final Number lower = (Number) lowerEval.value();
+        final Number upper = (Number) upperEval.value();
+        return zoneMapIndexes.forRange(lower, lowerOpen, upper, upperOpen);
+      }
+    }
     // index doesn't exist
     return null;
   }
@@ -551,7 +561,10 @@ public class RangeFilter extends AbstractOptimizableDimFilter implements Filter
         upperBound = Long.MAX_VALUE;
       }
       final RangeType rangeType = RangeType.of(hasLowerBound, lowerOpen, hasUpperBound, upperOpen);
-      return makeLongPredicate(rangeType, lowerBound, upperBound);
+      return NumericKeyRanges.withKeyRanges(
+          makeLongPredicate(rangeType, lowerBound, upperBound),
+          NumericKeyRanges.longRange(rangeType, lowerBound, upperBound)
+      );
     });
   }
 
@@ -559,53 +572,68 @@ public class RangeFilter extends AbstractOptimizableDimFilter implements Filter
   {
     return Suppliers.memoize(() -> {
       DruidDoublePredicate doublePredicate = makeDoublePredicateSupplier().get();
-      return doublePredicate::applyDouble;
+      final DruidFloatPredicate floatPredicate = doublePredicate::applyDouble;
+      return NumericKeyRanges.withKeyRanges(floatPredicate, applyDoubleBounds(NumericKeyRanges::floatRange, null));
     });
   }
 
   private Supplier<DruidDoublePredicate> makeDoublePredicateSupplier()
   {
-    return Suppliers.memoize(() -> {
-      final boolean hasLowerBound;
-      final boolean hasUpperBound;
-      final double lowerBound;
-      final double upperBound;
+    return Suppliers.memoize(() -> applyDoubleBounds(
+        (rangeType, lowerBound, upperBound) -> NumericKeyRanges.withKeyRanges(
+            makeDoublePredicate(rangeType, lowerBound, upperBound),
+            NumericKeyRanges.doubleRange(rangeType, lowerBound, upperBound)
+        ),
+        DruidDoublePredicate.ALWAYS_FALSE_WITH_NULL_UNKNOWN
+    ));
+  }
 
-      if (hasLowerBound()) {
-        ExprEval<?> lowerCast = lowerEval.castTo(ExpressionType.DOUBLE);
-        if (lowerCast.isNumericNull()) {
-          // lower value is not null, but isn't convertible to a long so is effectively null, nothing matches
-          // this shouldn't be possible because we only use numeric predicates when the match value type is numeric
-          // but just in case...
-          return DruidDoublePredicate.ALWAYS_FALSE_WITH_NULL_UNKNOWN;
-        } else {
-          lowerBound = lowerCast.asDouble();
-          hasLowerBound = true;
-        }
+  /**
+   * Casts the bounds to doubles and passes them to the given function, or returns whenNotCastable if either bound
+   * cannot be cast to a double.
+   */
+  @Nullable
+  private <T> T applyDoubleBounds(DoubleRangeFunction<T> function, @Nullable T whenNotCastable)
+  {
+    final boolean hasLowerBound;
+    final boolean hasUpperBound;
+    final double lowerBound;
+    final double upperBound;
+
+    if (hasLowerBound()) {
+      ExprEval<?> lowerCast = lowerEval.castTo(ExpressionType.DOUBLE);
+      if (lowerCast.isNumericNull()) {
+        // lower value is not null, but isn't convertible to a long so is effectively null, nothing matches
+        // this shouldn't be possible because we only use numeric predicates when the match value type is numeric
+        // but just in case...
+        return whenNotCastable;
       } else {
-        hasLowerBound = false;
-        lowerBound = Double.NEGATIVE_INFINITY;
+        lowerBound = lowerCast.asDouble();
+        hasLowerBound = true;
       }
+    } else {
+      hasLowerBound = false;
+      lowerBound = Double.NEGATIVE_INFINITY;
+    }
 
-      if (hasUpperBound()) {
-        ExprEval<?> upperCast = upperEval.castTo(ExpressionType.DOUBLE);
-        if (upperCast.isNumericNull()) {
-          // upper value is not null, but isn't convertible to a long so is effectively null, nothing matches
-          // this shouldn't be possible because we only use numeric predicates when the match value type is numeric
-          // but just in case...
-          return DruidDoublePredicate.ALWAYS_FALSE_WITH_NULL_UNKNOWN;
-        } else {
-          hasUpperBound = true;
-          upperBound = upperCast.asDouble();
-        }
+    if (hasUpperBound()) {
+      ExprEval<?> upperCast = upperEval.castTo(ExpressionType.DOUBLE);
+      if (upperCast.isNumericNull()) {
+        // upper value is not null, but isn't convertible to a long so is effectively null, nothing matches
+        // this shouldn't be possible because we only use numeric predicates when the match value type is numeric
+        // but just in case...
+        return whenNotCastable;
       } else {
-        hasUpperBound = false;
-        upperBound = Double.POSITIVE_INFINITY;
+        hasUpperBound = true;
+        upperBound = upperCast.asDouble();
       }
+    } else {
+      hasUpperBound = false;
+      upperBound = Double.POSITIVE_INFINITY;
+    }
 
-      RangeType rangeType = RangeType.of(hasLowerBound, lowerOpen, hasUpperBound, upperOpen);
-      return makeDoublePredicate(rangeType, lowerBound, upperBound);
-    });
+    RangeType rangeType = RangeType.of(hasLowerBound, lowerOpen, hasUpperBound, upperOpen);
+    return function.apply(rangeType, lowerBound, upperBound);
   }
 
   private Supplier<DruidObjectPredicate<String>> makeStringPredicateSupplier()
@@ -1097,6 +1125,12 @@ public class RangeFilter extends AbstractOptimizableDimFilter implements Filter
     }
   }
 
+  @FunctionalInterface
+  private interface DoubleRangeFunction<T>
+  {
+    T apply(RangeType rangeType, double lowerBound, double upperBound);
+  }
+
   private static class NumericStringArrayComparator implements Comparator<Object[]>
   {
     @Override
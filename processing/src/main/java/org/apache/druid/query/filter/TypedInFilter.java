@@ -605,7 +605,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
     boolean matchNulls = !sortedValues.isEmpty() && sortedValues.get(0) == null;
     if (matchValueType.is(ValueType.LONG)) {
       final Comparator<Object> comparator = matchValueType.getNullableStrategy();
-      return new DruidLongPredicate()
+      final DruidLongPredicate predicate = new DruidLongPredicate()
       {
         @Override
         public DruidPredicateMatch applyLong(long input)
@@ -620,6 +620,10 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
           return matchNulls ? DruidPredicateMatch.TRUE : DruidPredicateMatch.UNKNOWN;
         }
       };
+      return NumericKeyRanges.withKeyRanges(
+          predicate,
+          NumericKeyRanges.longValues(nonNullValues(sortedValues, matchNulls))
+      );
     }
     // Convert set to longs, dropping any values which cannot be equal to a long.
     final ExpressionType matchExpressionType = ExpressionType.fromColumnTypeStrict(matchValueType);
@@ -635,7 +639,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
         longs.add(castForComparison.asLong());
       }
     }
-    return new DruidLongPredicate()
+    final DruidLongPredicate predicate = new DruidLongPredicate()
     {
       @Override
       public DruidPredicateMatch applyLong(long input)
@@ -649,6 +653,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
         return matchNulls ? DruidPredicateMatch.TRUE : DruidPredicateMatch.UNKNOWN;
       }
     };
+    return NumericKeyRanges.withKeyRanges(predicate, NumericKeyRanges.longValues(longs));
   }
 
   private static DruidFloatPredicate createFloatPredicate(final List<?> sortedValues, ColumnType matchValueType)
@@ -656,7 +661,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
     boolean matchNulls = !sortedValues.isEmpty() && sortedValues.get(0) == null;
     if (matchValueType.is(ValueType.FLOAT)) {
       final Comparator<Object> comparator = matchValueType.getNullableStrategy();
-      return new DruidFloatPredicate()
+      final DruidFloatPredicate predicate = new DruidFloatPredicate()
       {
         @Override
         public DruidPredicateMatch applyFloat(float input)
@@ -671,6 +676,10 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
           return matchNulls ? DruidPredicateMatch.TRUE : DruidPredicateMatch.UNKNOWN;
         }
       };
+      return NumericKeyRanges.withKeyRanges(
+          predicate,
+          NumericKeyRanges.floatValues(nonNullValues(sortedValues, matchNulls))
+      );
     }
     // convert set to floats
     final FloatOpenHashSet floatSet = new FloatOpenHashSet();
@@ -680,7 +689,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
         floatSet.add(floatValue.floatValue());
       }
     }
-    return new DruidFloatPredicate()
+    final DruidFloatPredicate predicate = new DruidFloatPredicate()
     {
       @Override
       public DruidPredicateMatch applyFloat(float input)
@@ -694,6 +703,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
         return matchNulls ? DruidPredicateMatch.TRUE : DruidPredicateMatch.UNKNOWN;
       }
     };
+    return NumericKeyRanges.withKeyRanges(predicate, NumericKeyRanges.floatValues(floatSet));
   }
 
   private static DruidDoublePredicate createDoublePredicate(final List<?> sortedValues, ColumnType matchValueType)
@@ -701,7 +711,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
     boolean matchNulls = !sortedValues.isEmpty() && sortedValues.get(0) == null;
     if (matchValueType.is(ValueType.DOUBLE)) {
       final Comparator<Object> comparator = matchValueType.getNullableStrategy();
-      return new DruidDoublePredicate()
+      final DruidDoublePredicate predicate = new DruidDoublePredicate()
       {
         @Override
         public DruidPredicateMatch applyDouble(double input)
@@ -716,6 +726,10 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
           return matchNulls ? DruidPredicateMatch.TRUE : DruidPredicateMatch.UNKNOWN;
         }
       };
+      return NumericKeyRanges.withKeyRanges(
+          predicate,
+          NumericKeyRanges.doubleValues(nonNullValues(sortedValues, matchNulls))
+      );
     }
 
     // convert set to doubles
@@ -726,7 +740,7 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
         doubleSet.add(doubleValue.doubleValue());
       }
     }
-    return new DruidDoublePredicate()
+    final DruidDoublePredicate predicate = new DruidDoublePredicate()
     {
       @Override
       public DruidPredicateMatch applyDouble(double input)
@@ -740,6 +754,14 @@ public class TypedInFilter extends AbstractOptimizableDimFilter implements Filte
         return matchNulls ? DruidPredicateMatch.TRUE : DruidPredicateMatch.UNKNOWN;
       }
     };
+    return NumericKeyRanges.withKeyRanges(predicate, NumericKeyRanges.doubleValues(doubleSet));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T> nonNullValues(final List<?> sortedValues, final boolean matchNulls)
+  {
+    // values are already coerced to the match value type, and nulls sort first and are handled by applyNull
+    return (List<T>) (matchNulls ? sortedValues.subList(1, sortedValues.size()) : sortedValues);
   }
 
   public static class PredicateFactory implements DruidPredicateFactory
@@ -20,9 +20,13 @@
 package org.apache.druid.query.filter.vector;
 
 import org.apache.druid.math.expr.ExprEval;
+import org.apache.druid.math.expr.ExpressionProcessing;
 import org.apache.druid.math.expr.ExpressionType;
 import org.apache.druid.query.filter.DruidDoublePredicate;
 import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.vector.simd.SimdDoubleVectorValueMatcher;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.vector.VectorValueSelector;
@@ -68,6 +72,14 @@ public class DoubleVectorValueMatcher implements VectorValueMatcherFactory
 
   private BaseVectorValueMatcher makeDoubleMatcher(double matchValDouble)
   {
+    if (ExpressionProcessing.useVectorApi()) {
+      return new SimdDoubleVectorValueMatcher(
+          selector,
+          NumericKeyRanges.doubleEquals(matchValDouble),
+          DruidPredicateMatch.UNKNOWN
+      );
+    }
+
     return new BaseVectorValueMatcher(selector)
     {
       final VectorMatch match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
@@ -103,6 +115,9 @@ public class DoubleVectorValueMatcher implements VectorValueMatcherFactory
   public VectorValueMatcher makeMatcher(final DruidPredicateFactory predicateFactory)
   {
     final DruidDoublePredicate predicate = predicateFactory.makeDoublePredicate();
+    if (predicate instanceof NumericKeyRanges.Provider provider) {
+      return new SimdDoubleVectorValueMatcher(selector, provider.getKeyRanges(), predicate.applyNull());
+    }
 
     return new BaseVectorValueMatcher(selector)
     {
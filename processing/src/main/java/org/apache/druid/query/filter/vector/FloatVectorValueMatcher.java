@@ -20,9 +20,13 @@
 package org.apache.druid.query.filter.vector;
 
 import org.apache.druid.math.expr.ExprEval;
+import org.apache.druid.math.expr.ExpressionProcessing;
 import org.apache.druid.math.expr.ExpressionType;
 import org.apache.druid.query.filter.DruidFloatPredicate;
 import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.vector.simd.SimdFloatVectorValueMatcher;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.vector.VectorValueSelector;
@@ -70,6 +74,14 @@ public class FloatVectorValueMatcher implements VectorValueMatcherFactory
 
   private BaseVectorValueMatcher makeFloatMatcher(float matchValFloat)
   {
+    if (ExpressionProcessing.useVectorApi()) {
+      return new SimdFloatVectorValueMatcher(
+          selector,
+          NumericKeyRanges.floatEquals(matchValFloat),
+          DruidPredicateMatch.UNKNOWN
+      );
+    }
+
     return new BaseVectorValueMatcher(selector)
     {
       final VectorMatch match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
@@ -105,6 +117,9 @@ public class FloatVectorValueMatcher implements VectorValueMatcherFactory
   public VectorValueMatcher makeMatcher(final DruidPredicateFactory predicateFactory)
   {
     final DruidFloatPredicate predicate = predicateFactory.makeFloatPredicate();
+    if (predicate instanceof NumericKeyRanges.Provider provider) {
+      return new SimdFloatVectorValueMatcher(selector, provider.getKeyRanges(), predicate.applyNull());
+    }
 
     return new BaseVectorValueMatcher(selector)
     {
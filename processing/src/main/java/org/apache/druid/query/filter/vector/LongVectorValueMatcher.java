@@ -20,9 +20,13 @@
 package org.apache.druid.query.filter.vector;
 
 import org.apache.druid.math.expr.ExprEval;
+import org.apache.druid.math.expr.ExpressionProcessing;
 import org.apache.druid.math.expr.ExpressionType;
 import org.apache.druid.query.filter.DruidLongPredicate;
 import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.vector.simd.SimdLongVectorValueMatcher;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.vector.VectorValueSelector;
@@ -69,6 +73,14 @@ public class LongVectorValueMatcher implements VectorValueMatcherFactory
 
   private BaseVectorValueMatcher makeLongMatcher(long matchValLong)
   {
+    if (ExpressionProcessing.useVectorApi()) {
+      return new SimdLongVectorValueMatcher(
+          selector,
+          NumericKeyRanges.longEquals(matchValLong),
+          DruidPredicateMatch.UNKNOWN
+      );
+    }
+
     return new BaseVectorValueMatcher(selector)
     {
       final VectorMatch match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
@@ -104,6 +116,9 @@ public class LongVectorValueMatcher implements VectorValueMatcherFactory
   public VectorValueMatcher makeMatcher(final DruidPredicateFactory predicateFactory)
   {
     final DruidLongPredicate predicate = predicateFactory.makeLongPredicate();
+    if (predicate instanceof NumericKeyRanges.Provider provider) {
+      return new SimdLongVectorValueMatcher(selector, provider.getKeyRanges(), predicate.applyNull());
+    }
 
     return new BaseVectorValueMatcher(selector)
     {
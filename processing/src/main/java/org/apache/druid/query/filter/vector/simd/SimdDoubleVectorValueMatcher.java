@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter.vector.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.vector.DoubleVectorValueMatcher;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+/**
+ * SIMD specialization of the matchers built by {@link DoubleVectorValueMatcher} for equality, ranges and small sets.
+ * Values are reinterpreted as longs and turned into {@link NumericKeyRanges#doubleKey} keys lane-wise, with NaN lanes
+ * replaced by the key of the canonical NaN, so the comparisons follow {@link Double#compare} ordering.
+ */
+public final class SimdDoubleVectorValueMatcher extends SimdKeyRangeVectorValueMatcher
+{
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> KEY_SPECIES = SPECIES.withLanes(long.class);
+  private static final long NAN_KEY = NumericKeyRanges.doubleKey(Double.NaN);
+
+  private double[] vector;
+
+  public SimdDoubleVectorValueMatcher(VectorValueSelector selector, long[] ranges, DruidPredicateMatch nullMatch)
+  {
+    super(selector, ranges, nullMatch);
+  }
+
+  @Override
+  int laneCount()
+  {
+    return SPECIES.length();
+  }
+
+  @Override
+  void loadVector()
+  {
+    vector = selector.getDoubleVector();
+  }
+
+  @Override
+  long matchContiguous(int offset)
+  {
+    return matchValues(DoubleVector.fromArray(SPECIES, vector, offset));
+  }
+
+  @Override
+  long matchGather(int[] rowNumbers, int offset)
+  {
+    return matchValues(DoubleVector.fromArray(SPECIES, vector, 0, rowNumbers, offset));
+  }
+
+  @Override
+  boolean matchRow(int rowNum)
+  {
+    return inRanges(ranges, NumericKeyRanges.doubleKey(vector[rowNum]));
+  }
+
+  private long matchValues(DoubleVector values)
+  {
+    final LongVector bits = values.viewAsIntegralLanes();
+    final LongVector keys = bits.lanewise(VectorOperators.XOR, bits.lanewise(VectorOperators.ASHR, 63)
+                                                                   .lanewise(VectorOperators.AND, Long.MAX_VALUE))
+                                .blend(NAN_KEY, values.test(VectorOperators.IS_NAN).cast(KEY_SPECIES));
+    VectorMask<Long> matches = KEY_SPECIES.maskAll(false);
+    for (int r = 0; r < ranges.length; r += 2) {
+      matches = matches.or(SimdLongVectorValueMatcher.matchRange(keys, ranges[r], ranges[r + 1]));
+    }
+    return matches.toLong();
+  }
+}
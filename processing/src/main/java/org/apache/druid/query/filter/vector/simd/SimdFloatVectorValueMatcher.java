@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter.vector.simd;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.vector.FloatVectorValueMatcher;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+/**
+ * SIMD specialization of the matchers built by {@link FloatVectorValueMatcher} for equality, ranges and small sets.
+ * Works like {@link SimdDoubleVectorValueMatcher} on {@link NumericKeyRanges#floatKey} keys, which fit in an int, so
+ * twice as many rows are compared per instruction.
+ */
+public final class SimdFloatVectorValueMatcher extends SimdKeyRangeVectorValueMatcher
+{
+  private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> KEY_SPECIES = SPECIES.withLanes(int.class);
+  private static final int NAN_KEY = NumericKeyRanges.floatKey(Float.NaN);
+
+  private final int[] intRanges;
+  private float[] vector;
+
+  public SimdFloatVectorValueMatcher(VectorValueSelector selector, long[] ranges, DruidPredicateMatch nullMatch)
+  {
+    super(selector, ranges, nullMatch);
+    this.intRanges = new int[ranges.length];
+    for (int i = 0; i < ranges.length; i++) {
+      // float keys always fit in an int
+      intRanges[i] = Math.toIntExact(ranges[i]);
+    }
+  }
+
+  @Override
+  int laneCount()
+  {
+    return SPECIES.length();
+  }
+
+  @Override
+  void loadVector()
+  {
+    vector = selector.getFloatVector();
+  }
+
+  @Override
+  long matchContiguous(int offset)
+  {
+    return matchValues(FloatVector.fromArray(SPECIES, vector, offset));
+  }
+
+  @Override
+  long matchGather(int[] rowNumbers, int offset)
+  {
+    return matchValues(FloatVector.fromArray(SPECIES, vector, 0, rowNumbers, offset));
+  }
+
+  @Override
+  boolean matchRow(int rowNum)
+  {
+    return inRanges(ranges, NumericKeyRanges.floatKey(vector[rowNum]));
+  }
+
+  private long matchValues(FloatVector values)
+  {
+    final IntVector bits = values.viewAsIntegralLanes();
+    final IntVector keys = bits.lanewise(VectorOperators.XOR, bits.lanewise(VectorOperators.ASHR, 31)
+                                                                  .lanewise(VectorOperators.AND, Integer.MAX_VALUE))
+                               .blend(NAN_KEY, values.test(VectorOperators.IS_NAN).cast(KEY_SPECIES));
+    VectorMask<Integer> matches = KEY_SPECIES.maskAll(false);
+    for (int r = 0; r < intRanges.length; r += 2) {
+      matches = matches.or(matchRange(keys, intRanges[r], intRanges[r + 1]));
+    }
+    return matches.toLong();
+  }
+
+  private static VectorMask<Integer> matchRange(IntVector keys, int lo, int hi)
+  {
+    if (lo == hi) {
+      return keys.compare(VectorOperators.EQ, lo);
+    } else if (lo == Integer.MIN_VALUE) {
+      return keys.compare(VectorOperators.LE, hi);
+    } else if (hi == Integer.MAX_VALUE) {
+      return keys.compare(VectorOperators.GE, lo);
+    }
+    return keys.compare(VectorOperators.GE, lo).and(keys.compare(VectorOperators.LE, hi));
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter.vector.simd;
+
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.vector.BaseVectorValueMatcher;
+import org.apache.druid.query.filter.vector.ReadableVectorMatch;
+import org.apache.druid.query.filter.vector.VectorMatch;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+/**
+ * Base class of the SIMD numeric value matchers, which match rows whose value falls into any of a set of
+ * {@link NumericKeyRanges}. Subclasses compare a full species worth of values at a time and return the matching lanes
+ * as a bit set; this class takes care of nulls, of the scalar tail, and of turning the bit set into row numbers.
+ *
+ * When the mask selects every row of the vector, values are loaded contiguously; otherwise they are gathered through
+ * the mask selection.
+ */
+abstract class SimdKeyRangeVectorValueMatcher extends BaseVectorValueMatcher
+{
+  protected final VectorValueSelector selector;
+  protected final long[] ranges;
+  private final DruidPredicateMatch nullMatch;
+  private final VectorMatch match;
+
+  SimdKeyRangeVectorValueMatcher(VectorValueSelector selector, long[] ranges, DruidPredicateMatch nullMatch)
+  {
+    super(selector);
+    this.selector = selector;
+    this.ranges = ranges;
+    this.nullMatch = nullMatch;
+    this.match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
+  }
+
+  /**
+   * Number of lanes compared by {@link #matchContiguous} and {@link #matchGather}, at most 64.
+   */
+  abstract int laneCount();
+
+  /**
+   * Fetches the current vector from the selector, called once at the start of each {@link #match}.
+   */
+  abstract void loadVector();
+
+  /**
+   * Bit set of lanes in rows [offset, offset + laneCount()) that fall into the ranges, ignoring nulls.
+   */
+  abstract long matchContiguous(int offset);
+
+  /**
+   * Bit set of lanes in rows rowNumbers[offset], ..., rowNumbers[offset + laneCount() - 1] that fall into the
+   * ranges, ignoring nulls.
+   */
+  abstract long matchGather(int[] rowNumbers, int offset);
+
+  /**
+   * Whether a single non-null row falls into the ranges.
+   */
+  abstract boolean matchRow(int rowNum);
+
+  @Override
+  public ReadableVectorMatch match(final ReadableVectorMatch mask, final boolean includeUnknown)
+  {
+    loadVector();
+    final boolean[] nulls = selector.getNullVector();
+    final boolean matchNulls = nullMatch.matches(includeUnknown);
+    final int[] maskSelection = mask.getSelection();
+    final int maskSize = mask.getSelectionSize();
+    // an all-true mask selects rows [0, size), so mask positions double as row numbers
+    final boolean contiguous = mask.isAllTrue(selector.getCurrentVectorSize());
+    final int[] selection = match.getSelection();
+    final int laneCount = laneCount();
+    final int upperBound = maskSize - maskSize % laneCount;
+
+    int numRows = 0;
+    int i = 0;
+    for (; i < upperBound; i += laneCount) {
+      long bits = contiguous ? matchContiguous(i) : matchGather(maskSelection, i);
+      if (nulls != null) {
+        long nullBits = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+          if (nulls[maskSelection[i + lane]]) {
+            nullBits |= 1L << lane;
+          }
+        }
+        bits = matchNulls ? bits | nullBits : bits & ~nullBits;
+      }
+      while (bits != 0) {
+        selection[numRows++] = maskSelection[i + Long.numberOfTrailingZeros(bits)];
+        bits &= bits - 1;
+      }
+    }
+    for (; i < maskSize; i++) {
+      final int rowNum = maskSelection[i];
+      if (nulls != null && nulls[rowNum]) {
+        if (matchNulls) {
+          selection[numRows++] = rowNum;
+        }
+      } else if (matchRow(rowNum)) {
+        selection[numRows++] = rowNum;
+      }
+    }
+
+    match.setSelectionSize(numRows);
+    return match;
+  }
+
+  static boolean inRanges(long[] ranges, long key)
+  {
+    for (int r = 0; r < ranges.length; r += 2) {
+      if (key >= ranges[r] && key <= ranges[r + 1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter.vector.simd;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.vector.LongVectorValueMatcher;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+/**
+ * SIMD specialization of the matchers built by {@link LongVectorValueMatcher} for equality, ranges and small sets.
+ * Each range costs one or two {@link LongVector#compare} per species worth of rows.
+ */
+public final class SimdLongVectorValueMatcher extends SimdKeyRangeVectorValueMatcher
+{
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+  private long[] vector;
+
+  public SimdLongVectorValueMatcher(VectorValueSelector selector, long[] ranges, DruidPredicateMatch nullMatch)
+  {
+    super(selector, ranges, nullMatch);
+  }
+
+  @Override
+  int laneCount()
+  {
+    return SPECIES.length();
+  }
+
+  @Override
+  void loadVector()
+  {
+    vector = selector.getLongVector();
+  }
+
+  @Override
+  long matchContiguous(int offset)
+  {
+    return matchKeys(LongVector.fromArray(SPECIES, vector, offset));
+  }
+
+  @Override
+  long matchGather(int[] rowNumbers, int offset)
+  {
+    return matchKeys(LongVector.fromArray(SPECIES, vector, 0, rowNumbers, offset));
+  }
+
+  @Override
+  boolean matchRow(int rowNum)
+  {
+    return inRanges(ranges, vector[rowNum]);
+  }
+
+  private long matchKeys(LongVector keys)
+  {
+    VectorMask<Long> matches = SPECIES.maskAll(false);
+    for (int r = 0; r < ranges.length; r += 2) {
+      matches = matches.or(matchRange(keys, ranges[r], ranges[r + 1]));
+    }
+    return matches.toLong();
+  }
+
+  static VectorMask<Long> matchRange(LongVector keys, long lo, long hi)
+  {
+    if (lo == hi) {
+      return keys.compare(VectorOperators.EQ, lo);
+    } else if (lo == Long.MIN_VALUE) {
+      return keys.compare(VectorOperators.LE, hi);
+    } else if (hi == Long.MAX_VALUE) {
+      return keys.compare(VectorOperators.GE, lo);
+    }
+    return keys.compare(VectorOperators.GE, lo).and(keys.compare(VectorOperators.LE, hi));
+  }
+}
@@ -59,6 +59,8 @@ public class GroupByQueryConfig
   private static final String CTX_KEY_INTERMEDIATE_COMBINE_DEGREE = "intermediateCombineDegree";
   private static final String CTX_KEY_NUM_PARALLEL_COMBINE_THREADS = "numParallelCombineThreads";
   private static final String CTX_KEY_MERGE_THREAD_LOCAL = "mergeThreadLocal";
+  private static final String CTX_KEY_MERGE_SHARED_TABLE = "mergeSharedTable";
+  private static final String CTX_KEY_MERGE_SHARED_STRING_DICTIONARY = "mergeSharedStringDictionary";
 
   // Constants for sizing merging and selector dictionaries. Rationale for these constants:
   //  1) In no case do we want total aggregate dictionary size to exceed 40% of max memory.
@@ -139,6 +141,12 @@ public class GroupByQueryConfig
   @JsonProperty
   private boolean mergeThreadLocal = false;
 
+  @JsonProperty
+  private boolean mergeSharedTable = false;
+
+  @JsonProperty
+  private boolean mergeSharedStringDictionary = false;
+
   @JsonProperty
   private DeferExpressionDimensions deferExpressionDimensions = DeferExpressionDimensions.FIXED_WIDTH_NON_NUMERIC;
 
@@ -310,6 +318,16 @@ public class GroupByQueryConfig
     return mergeThreadLocal;
   }
 
+  public boolean isMergeSharedTable()
+  {
+    return mergeSharedTable;
+  }
+
+  public boolean isMergeSharedStringDictionary()
+  {
+    return mergeSharedStringDictionary;
+  }
+
   public DeferExpressionDimensions getDeferExpressionDimensions()
   {
     return deferExpressionDimensions;
@@ -397,6 +415,11 @@ public class GroupByQueryConfig
         getNumParallelCombineThreads()
     );
     newConfig.mergeThreadLocal = queryContext.getBoolean(CTX_KEY_MERGE_THREAD_LOCAL, isMergeThreadLocal());
+    newConfig.mergeSharedTable = queryContext.getBoolean(CTX_KEY_MERGE_SHARED_TABLE, isMergeSharedTable());
+    newConfig.mergeSharedStringDictionary = queryContext.getBoolean(
+        CTX_KEY_MERGE_SHARED_STRING_DICTIONARY,
+        isMergeSharedStringDictionary()
+    );
     newConfig.deferExpressionDimensions =
         Optional.ofNullable(queryContext.getString(CTX_KEY_DEFER_EXPRESSION_DIMENSIONS))
                 .map(DeferExpressionDimensions::fromString)
@@ -431,6 +454,8 @@ public class GroupByQueryConfig
            ", forcePushDownNestedQuery=" + forcePushDownNestedQuery +
            ", enableMultiValueUnnesting=" + enableMultiValueUnnesting +
            ", mergeThreadLocal=" + mergeThreadLocal +
+           ", mergeSharedTable=" + mergeSharedTable +
+           ", mergeSharedStringDictionary=" + mergeSharedStringDictionary +
            ", deferExpressionDimensions=" + deferExpressionDimensions +
            '}';
   }
@@ -809,6 +809,37 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<ResultRow, GroupB
     return Optional.of(frames.map(frame -> new FrameSignaturePair(frame, modifiedRowSignature)));
   }
 
+  @Nullable
+  @Override
+  public RowSignature frameTransportSignature(final GroupByQuery query)
+  {
+    // Data servers send rows without post-aggregators; they are computed on the Broker.
+    final RowSignature signature = query.getResultRowSignature(
+        query.context().isFinalize(true) ? RowSignature.Finalization.YES : RowSignature.Finalization.NO
+    );
+    final RowSignature.Builder builder = RowSignature.builder();
+    for (int i = 0; i < query.getResultRowSizeWithoutPostAggregators(); i++) {
+      final Optional<ColumnType> columnType = signature.getColumnType(i);
+      if (!columnType.isPresent()) {
+        return null;
+      }
+      builder.add(signature.getColumnName(i), columnType.get());
+    }
+    return builder.build();
+  }
+
+  @Override
+  public Function<ResultRow, Object[]> makeToFrameTransportFn(final GroupByQuery query)
+  {
+    return ResultRow::getArray;
+  }
+
+  @Override
+  public Function<Object[], ResultRow> makeFromFrameTransportFn(final GroupByQuery query)
+  {
+    return ResultRow::of;
+  }
+
   /**
    * This function checks the query for dimensions which can be optimized by applying the dimension extraction
    * as the final step of the query instead of on every event.
@@ -30,6 +30,7 @@ import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryDataSource;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.groupby.epinephelinae.SharedStringDictionary;
 import org.apache.druid.segment.Segment;
 
 import javax.annotation.Nullable;
@@ -38,11 +39,13 @@ import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * This class contains resources required for a groupBy query execution.
- * Currently, it contains only merge buffers, but any additional resources can be added in the future.
+ * It contains merge buffers and, if the query merges with one, the {@link SharedStringDictionary} shared by the
+ * segment runners and the merge.
  *
  * It contains merge buffers for the execution of
  * a) {@link GroupByQueryQueryToolChest#mergeResults(QueryRunner)} - Required for merging the results of the subqueries
@@ -134,6 +137,8 @@ public class GroupByQueryResources implements Closeable
 
   private final Deque<ByteBuffer> mergingQueryRunnerMergeBuffers = new ArrayDeque<>();
 
+  private final AtomicReference<SharedStringDictionary> sharedStringDictionary = new AtomicReference<>();
+
   public GroupByQueryResources(
       @Nullable List<ReferenceCountingResourceHolder<ByteBuffer>> toolchestMergeBuffersHolders,
       @Nullable List<ReferenceCountingResourceHolder<ByteBuffer>> mergingQueryRunnerMergeBuffersHolders
@@ -173,6 +178,30 @@ public class GroupByQueryResources implements Closeable
     return mergingQueryRunnerMergeBuffers.size();
   }
 
+  /**
+   * Returns the dictionary shared by the segment runners merged by
+   * {@link org.apache.druid.query.groupby.epinephelinae.GroupByMergingQueryRunner}, creating it with the given
+   * footprint bound if there is none yet.
+   */
+  public SharedStringDictionary getOrCreateSharedStringDictionary(long maxFootprint)
+  {
+    final SharedStringDictionary existing = sharedStringDictionary.get();
+    if (existing != null) {
+      return existing;
+    }
+    sharedStringDictionary.compareAndSet(null, new SharedStringDictionary(maxFootprint));
+    return sharedStringDictionary.get();
+  }
+
+  /**
+   * Returns the dictionary created by {@link #getOrCreateSharedStringDictionary}, or null if there is none.
+   */
+  @Nullable
+  public SharedStringDictionary getSharedStringDictionary()
+  {
+    return sharedStringDictionary.get();
+  }
+
   /**
    * Get a merge buffer from the pre-acquired resources.
    *
@@ -27,7 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Collects groupBy query metrics (spilled bytes, merge buffer usage, dictionary size) per-query, then
+ * Collects groupBy query metrics (spilled bytes, spill time, merge buffer usage, dictionary size) per-query, then
  * aggregates them when queries complete. Stats are retrieved and reset periodically via {@link #getStatsSince()}.
  */
 @LazySingleton
@@ -76,6 +76,8 @@ public class GroupByStatsProvider
     private long spilledQueries = 0;
     private long spilledBytes = 0;
     private long maxSpilledBytes = 0;
+    private long spillTimeNs = 0;
+    private long spillMergeTimeNs = 0;
     private long mergeDictionarySize = 0;
     private long maxMergeDictionarySize = 0;
 
@@ -94,6 +96,8 @@ public class GroupByStatsProvider
           aggregateStats.spilledQueries,
           aggregateStats.spilledBytes,
           aggregateStats.maxSpilledBytes,
+          aggregateStats.spillTimeNs,
+          aggregateStats.spillMergeTimeNs,
           aggregateStats.mergeDictionarySize,
           aggregateStats.maxMergeDictionarySize
       );
@@ -111,6 +115,37 @@ public class GroupByStatsProvider
         long mergeDictionarySize,
         long maxMergeDictionarySize
     )
+    {
+      this(
+          mergeBufferQueries,
+          mergeBufferAcquisitionTimeNs,
+          maxMergeBufferAcquisitionTimeNs,
+          totalMergeBufferUsedBytes,
+          maxMergeBufferUsedBytes,
+          spilledQueries,
+          spilledBytes,
+          maxSpilledBytes,
+          0,
+          0,
+          mergeDictionarySize,
+          maxMergeDictionarySize
+      );
+    }
+
+    public AggregateStats(
+        long mergeBufferQueries,
+        long mergeBufferAcquisitionTimeNs,
+        long maxMergeBufferAcquisitionTimeNs,
+        long totalMergeBufferUsedBytes,
+        long maxMergeBufferUsedBytes,
+        long spilledQueries,
+        long spilledBytes,
+        long maxSpilledBytes,
+        long spillTimeNs,
+        long spillMergeTimeNs,
+        long mergeDictionarySize,
+        long maxMergeDictionarySize
+    )
     {
       this.mergeBufferQueries = mergeBufferQueries;
       this.mergeBufferAcquisitionTimeNs = mergeBufferAcquisitionTimeNs;
@@ -120,6 +155,8 @@ public class GroupByStatsProvider
       this.spilledQueries = spilledQueries;
       this.spilledBytes = spilledBytes;
       this.maxSpilledBytes = maxSpilledBytes;
+      this.spillTimeNs = spillTimeNs;
+      this.spillMergeTimeNs = spillMergeTimeNs;
       this.mergeDictionarySize = mergeDictionarySize;
       this.maxMergeDictionarySize = maxMergeDictionarySize;
     }
@@ -164,6 +201,16 @@ public class GroupByStatsProvider
       return maxSpilledBytes;
     }
 
+    public long getSpillTimeNs()
+    {
+      return spillTimeNs;
+    }
+
+    public long getSpillMergeTimeNs()
+    {
+      return spillMergeTimeNs;
+    }
+
     public long getMergeDictionarySize()
     {
       return mergeDictionarySize;
@@ -193,6 +240,9 @@ public class GroupByStatsProvider
         maxSpilledBytes = Math.max(maxSpilledBytes, perQueryStats.getSpilledBytes());
       }
 
+      spillTimeNs += perQueryStats.getSpillTimeNs();
+      spillMergeTimeNs += perQueryStats.getSpillMergeTimeNs();
+
       mergeDictionarySize += perQueryStats.getMergeDictionarySize();
       maxMergeDictionarySize = Math.max(maxMergeDictionarySize, perQueryStats.getMergeDictionarySize());
     }
@@ -207,6 +257,8 @@ public class GroupByStatsProvider
       this.spilledQueries = 0;
       this.spilledBytes = 0;
       this.maxSpilledBytes = 0;
+      this.spillTimeNs = 0;
+      this.spillMergeTimeNs = 0;
       this.mergeDictionarySize = 0;
       this.maxMergeDictionarySize = 0;
     }
@@ -217,6 +269,8 @@ public class GroupByStatsProvider
     private final AtomicLong mergeBufferAcquisitionTimeNs = new AtomicLong(0);
     private final AtomicLong maxMergeBufferUsedBytes = new AtomicLong(0);
     private final AtomicLong spilledBytes = new AtomicLong(0);
+    private final AtomicLong spillTimeNs = new AtomicLong(0);
+    private final AtomicLong spillMergeTimeNs = new AtomicLong(0);
     private final AtomicLong mergeDictionarySize = new AtomicLong(0);
 
     public void mergeBufferAcquisitionTime(long delay)
@@ -234,6 +288,22 @@ public class GroupByStatsProvider
       spilledBytes.addAndGet(bytes);
     }
 
+    /**
+     * Time spent writing sorted runs of a grouper's contents when it spills.
+     */
+    public void spillTime(long timeNs)
+    {
+      spillTimeNs.addAndGet(timeNs);
+    }
+
+    /**
+     * Time spent merging sorted runs that were spilled in memory into a spill file.
+     */
+    public void spillMergeTime(long timeNs)
+    {
+      spillMergeTimeNs.addAndGet(timeNs);
+    }
+
     public void dictionarySize(long size)
     {
       mergeDictionarySize.addAndGet(size);
@@ -254,6 +324,16 @@ public class GroupByStatsProvider
       return spilledBytes.get();
     }
 
+    public long getSpillTimeNs()
+    {
+      return spillTimeNs.get();
+    }
+
+    public long getSpillMergeTimeNs()
+    {
+      return spillMergeTimeNs.get();
+    }
+
     public long getMergeDictionarySize()
     {
       return mergeDictionarySize.get();
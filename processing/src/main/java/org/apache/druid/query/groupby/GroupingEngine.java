@@ -26,7 +26,6 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import org.apache.druid.collections.BlockingPool;
 import org.apache.druid.collections.NonBlockingPool;
@@ -70,6 +69,7 @@ import org.apache.druid.query.groupby.epinephelinae.GroupByQueryEngine;
 import org.apache.druid.query.groupby.epinephelinae.GroupByResultMergeFn;
 import org.apache.druid.query.groupby.epinephelinae.GroupByRowProcessor;
 import org.apache.druid.query.groupby.epinephelinae.GroupingSelector;
+import org.apache.druid.query.groupby.epinephelinae.SharedStringDictionary;
 import org.apache.druid.query.groupby.epinephelinae.vector.VectorGroupByEngine;
 import org.apache.druid.query.groupby.orderby.DefaultLimitSpec;
 import org.apache.druid.query.groupby.orderby.LimitSpec;
@@ -524,6 +524,20 @@ public class GroupingEngine
     return processWithCursorHolder(query, cursorFactory, cursorHolder, timeBoundaryInspector, bufferPool, buildSpec);
   }
 
+  /**
+   * Returns the dictionary created by the {@link GroupByMergingQueryRunner} merging this query's segments, if any. It
+   * lives in the query's {@link GroupByQueryResources}, alongside the merge buffers reserved for that runner.
+   */
+  @Nullable
+  private SharedStringDictionary findSharedStringDictionary(GroupByQuery query)
+  {
+    if (query.context().getString(QueryContexts.QUERY_RESOURCE_ID) == null) {
+      return null;
+    }
+    final GroupByQueryResources resources = groupByResourcesReservationPool.fetch(query.context().getQueryResourceId());
+    return resources == null ? null : resources.getSharedStringDictionary();
+  }
+
   private static void validateForProcess(GroupByQuery query, @Nullable CursorFactory cursorFactory)
   {
     if (cursorFactory == null) {
@@ -556,6 +570,8 @@ public class GroupingEngine
     final GroupByQueryConfig querySpecificConfig;
     try {
       querySpecificConfig = configSupplier.get().withOverrides(query);
+      final SharedStringDictionary sharedStringDictionary =
+          querySpecificConfig.isMergeSharedStringDictionary() ? findSharedStringDictionary(query) : null;
 
       final ResourceHolder<ByteBuffer> bufferHolder = bufferPool.take();
       closer.register(bufferHolder);
@@ -584,7 +600,8 @@ public class GroupingEngine
             fudgeTimestamp,
             buildSpec.getInterval(),
             querySpecificConfig,
-            processingConfig
+            processingConfig,
+            sharedStringDictionary
         );
       } else {
         result = GroupByQueryEngine.process(
@@ -595,7 +612,8 @@ public class GroupingEngine
             bufferHolder.get(),
             fudgeTimestamp,
             querySpecificConfig,
-            processingConfig
+            processingConfig,
+            sharedStringDictionary
         );
       }
 
@@ -939,10 +957,14 @@ public class GroupingEngine
 
 
   /**
-   * Returns the cardinality of array needed to do array-based aggregation, or -1 if array-based aggregation
-   * is impossible.
+   * Returns the cardinalities of the grouping dimensions, for array-based aggregation, or null if array-based
+   * aggregation is impossible. Array-based aggregation is possible when every dimension is a string column with a
+   * known cardinality, and an array with a slot for every combination of values (see
+   * {@link BufferArrayGrouper#requiredBufferCapacity(int[], AggregatorFactory[])}) fits in the buffer. With more than
+   * one dimension, every dimension must also be single-valued.
    */
-  public static int getCardinalityForArrayAggregation(
+  @Nullable
+  public static int[] getCardinalitiesForArrayAggregation(
       GroupByQueryConfig querySpecificConfig,
       GroupByQuery query,
       ColumnInspector columnInspector,
@@ -951,55 +973,55 @@ public class GroupingEngine
   )
   {
     if (querySpecificConfig.isForceHashAggregation()) {
-      return -1;
+      return null;
     }
 
     final List<DimensionSpec> dimensions = query.getDimensions();
-    final ColumnCapabilities columnCapabilities;
-    final int cardinality;
-
-    // Find cardinality
     if (dimensions.isEmpty()) {
-      columnCapabilities = null;
-      cardinality = 1;
-    } else if (dimensions.size() == 1) {
+      return null;
+    }
+
+    final int[] cardinalities = new int[dimensions.size()];
+    for (int i = 0; i < dimensions.size(); i++) {
+      final DimensionSpec dimension = dimensions.get(i);
+
       // Only real columns can use array-based aggregation, since virtual columns cannot currently report their
       // cardinality. We need to check if a virtual column exists with the same name, since virtual columns can shadow
       // real columns, and we might miss that since we're going directly to the CursorFactory (which only knows about
       // real columns).
-      if (query.getVirtualColumns().exists(Iterables.getOnlyElement(dimensions).getDimension())) {
-        return -1;
+      if (query.getVirtualColumns().exists(dimension.getDimension())) {
+        return null;
       }
       // We cannot support array-based aggregation on array based grouping as we we donot have all the indexes up front
       // to allocate appropriate values
-      if (dimensions.get(0).getOutputType().isArray()) {
-        return -1;
+      if (dimension.getOutputType().isArray()) {
+        return null;
       }
 
-      final String columnName = Iterables.getOnlyElement(dimensions).getDimension();
-      columnCapabilities = columnInspector.getColumnCapabilities(columnName);
-      cardinality = groupingSelectors.get(0).getValueCardinality();
-    } else {
-      // Cannot use array-based aggregation with more than one dimension.
-      return -1;
-    }
+      final ColumnCapabilities columnCapabilities = columnInspector.getColumnCapabilities(dimension.getDimension());
+      final int cardinality = groupingSelectors.get(i).getValueCardinality();
 
-    // Choose array-based aggregation if the grouping key is a single string dimension of a known cardinality
-    if (Types.is(columnCapabilities, ValueType.STRING) && cardinality > 0) {
-      final AggregatorFactory[] aggregatorFactories = query.getAggregatorSpecs().toArray(new AggregatorFactory[0]);
-      final long requiredBufferCapacity = BufferArrayGrouper.requiredBufferCapacity(
-          cardinality,
-          aggregatorFactories
-      );
+      // Choose array-based aggregation only if every grouping key is a string dimension of a known cardinality
+      if (!Types.is(columnCapabilities, ValueType.STRING) || cardinality <= 0) {
+        return null;
+      }
 
-      // Check that all keys and aggregated values can be contained in the buffer
-      if (requiredBufferCapacity < 0 || requiredBufferCapacity > buffer.capacity()) {
-        return -1;
-      } else {
-        return cardinality;
+      // Multi-value dimensions are only handled for a single grouping dimension, where each value maps to one slot.
+      if (dimensions.size() > 1 && !columnCapabilities.hasMultipleValues().isFalse()) {
+        return null;
       }
+
+      cardinalities[i] = cardinality;
+    }
+
+    final AggregatorFactory[] aggregatorFactories = query.getAggregatorSpecs().toArray(new AggregatorFactory[0]);
+    final long requiredBufferCapacity = BufferArrayGrouper.requiredBufferCapacity(cardinalities, aggregatorFactories);
+
+    // Check that all keys and aggregated values can be contained in the buffer
+    if (requiredBufferCapacity < 0 || requiredBufferCapacity > buffer.capacity()) {
+      return null;
     } else {
-      return -1;
+      return cardinalities;
     }
   }
 
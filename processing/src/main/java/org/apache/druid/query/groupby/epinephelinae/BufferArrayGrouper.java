@@ -48,15 +48,20 @@ import java.util.NoSuchElementException;
  * buffer is used to store aggregated values.  The first index is reserved for
  * {@link GroupByColumnSelectorStrategy#GROUP_BY_MISSING_VALUE}.
  * <p>
- * This grouper is available only when the grouping key is a single indexed dimension of a known cardinality because it
- * directly uses the dimension value as the index for array access.  Since the cardinality for the grouping key across
- * different segments cannot be currently retrieved, this grouper can be used only when performing per-segment query
- * execution.
+ * This grouper is available only when the grouping key is made of indexed dimensions of known cardinalities because it
+ * directly uses the dimension values as the index for array access.  With more than one dimension, the index is
+ * computed in mixed radix: each dimension value, shifted by +1 so that the missing value is 0, is multiplied by the
+ * product of the cardinalities (plus one) of the dimensions before it.  Since the cardinality for the grouping key
+ * across different segments cannot be currently retrieved, this grouper can be used only when performing per-segment
+ * query execution.
  */
 public class BufferArrayGrouper implements VectorGrouper, IntGrouper
 {
   private final Supplier<ByteBuffer> bufferSupplier;
   private final AggregatorAdapters aggregators;
+  private final int[] cardinalities;
+  private final int[] strides;
+  private final int keySize; // size of keys in the keySpace given to aggregateVector()
   private final int cardinalityWithMissingValue;
   private final int recordSize; // size of all aggregated values
 
@@ -79,7 +84,19 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
    */
   public static long requiredBufferCapacity(int cardinality, AggregatorFactory[] aggregatorFactories)
   {
-    final long cardinalityWithMissingValue = computeCardinalityWithMissingValue(cardinality);
+    return requiredBufferCapacity(new int[]{cardinality}, aggregatorFactories);
+  }
+
+  /**
+   * Computes required buffer capacity for a grouping key made of dimensions of the given cardinalities, which must
+   * not count nulls.
+   *
+   * Returns -1 if the product of each cardinality + 1 (for null) > Integer.MAX_VALUE. Returns computed required buffer
+   * capacity otherwise.
+   */
+  public static long requiredBufferCapacity(int[] cardinalities, AggregatorFactory[] aggregatorFactories)
+  {
+    final long cardinalityWithMissingValue = computeCardinalityWithMissingValue(cardinalities);
     // Cardinality should be in the integer range. See DimensionDictionarySelector.
     if (cardinalityWithMissingValue > Integer.MAX_VALUE) {
       return -1;
@@ -92,9 +109,34 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
            cardinalityWithMissingValue * recordSize;                 // total values size
   }
 
-  private static long computeCardinalityWithMissingValue(int cardinality)
+  /**
+   * Returns the product of each cardinality + 1, or some value greater than Integer.MAX_VALUE if the product is.
+   */
+  private static long computeCardinalityWithMissingValue(int[] cardinalities)
+  {
+    long product = 1;
+    for (int cardinality : cardinalities) {
+      product *= (long) cardinality + 1;
+      if (product > Integer.MAX_VALUE) {
+        break;
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Returns the multiplier of each dimension's value in the array index for a grouping key made of dimensions of the
+   * given cardinalities.
+   */
+  static int[] computeStrides(int[] cardinalities)
   {
-    return (long) cardinality + 1;
+    final int[] strides = new int[cardinalities.length];
+    int stride = 1;
+    for (int i = 0; i < cardinalities.length; i++) {
+      strides[i] = stride;
+      stride *= cardinalities[i] + 1;
+    }
+    return strides;
   }
 
   /**
@@ -111,13 +153,29 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
       final AggregatorAdapters aggregators,
       final int cardinality
   )
+  {
+    this(bufferSupplier, aggregators, new int[]{cardinality});
+  }
+
+  public BufferArrayGrouper(
+      // the buffer returned from the below supplier can have dirty bits and should be cleared during initialization
+      final Supplier<ByteBuffer> bufferSupplier,
+      final AggregatorAdapters aggregators,
+      final int[] cardinalities
+  )
   {
     Preconditions.checkNotNull(aggregators, "aggregators");
-    Preconditions.checkArgument(cardinality > 0, "Cardinality must a non-zero positive number");
+    Preconditions.checkArgument(cardinalities.length > 0, "Must have at least one cardinality");
+    for (int cardinality : cardinalities) {
+      Preconditions.checkArgument(cardinality > 0, "Cardinality must a non-zero positive number");
+    }
 
     this.bufferSupplier = Preconditions.checkNotNull(bufferSupplier, "bufferSupplier");
     this.aggregators = aggregators;
-    this.cardinalityWithMissingValue = Ints.checkedCast(computeCardinalityWithMissingValue(cardinality));
+    this.cardinalities = cardinalities.clone();
+    this.cardinalityWithMissingValue = Ints.checkedCast(computeCardinalityWithMissingValue(cardinalities));
+    this.strides = computeStrides(cardinalities);
+    this.keySize = cardinalities.length * Integer.BYTES;
     this.recordSize = aggregators.spaceNeeded();
   }
 
@@ -191,7 +249,7 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
     final int numRows = endRow - startRow;
 
     // Hoisted bounds check on keySpace.
-    if (keySpace.getCapacity() < (long) numRows * Integer.BYTES) {
+    if (keySpace.getCapacity() < (long) numRows * keySize) {
       throw new IAE("Not enough keySpace capacity for the provided start/end rows");
     }
 
@@ -218,8 +276,10 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
       );
     } else {
       for (int i = 0; i < numRows; i++) {
-        // +1 matches what hashFunction() would do.
-        final int dimIndex = keySpace.getInt(((long) i) * Integer.BYTES) + 1;
+        final int dimIndex = strides.length == 1
+                             // +1 matches what hashFunction() would do.
+                             ? keySpace.getInt(((long) i) * Integer.BYTES) + 1
+                             : computeCompositeDimIndex(keySpace, ((long) i) * keySize);
 
         if (dimIndex < 0 || dimIndex >= cardinalityWithMissingValue) {
           throw new IAE("Invalid dimIndex[%s]", dimIndex);
@@ -241,6 +301,44 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
     return AggregateResult.ok();
   }
 
+  private int computeCompositeDimIndex(Memory keySpace, long keyOffset)
+  {
+    int dimIndex = 0;
+    for (int i = 0; i < strides.length; i++) {
+      final int value = keySpace.getInt(keyOffset + (long) i * Integer.BYTES) + 1;
+      if (value < 0 || value > cardinalities[i]) {
+        throw new IAE("Invalid value[%s] for dimension[%s]", value - 1, i);
+      }
+      dimIndex += value * strides[i];
+    }
+    return dimIndex;
+  }
+
+  /**
+   * Returns the key to pass to {@link #aggregate(int)} for a combination of dimension values, one per dimension, each
+   * of which may be {@link GroupByColumnSelectorStrategy#GROUP_BY_MISSING_VALUE}. The strides must be computed by
+   * {@link #computeStrides(int[])}.
+   */
+  static int computeCompositeKey(int[] values, int[] strides)
+  {
+    int dimIndex = 0;
+    for (int i = 0; i < strides.length; i++) {
+      dimIndex += (values[i] + 1) * strides[i];
+    }
+    // -1 to undo the +1 done by hashFunction()
+    return dimIndex - 1;
+  }
+
+  /**
+   * Returns the value of one dimension of a key returned by {@link #iterator(boolean)}. For a single dimension, this is
+   * the key itself. The strides must be computed by {@link #computeStrides(int[])}.
+   */
+  static int getDimensionValue(int key, int dimension, int[] strides, int[] cardinalities)
+  {
+    // shift by +1 to get the array index, as hashFunction() does, and then by -1 to get the dimension value back
+    return (key + 1) / strides[dimension] % (cardinalities[dimension] + 1) - 1;
+  }
+
   private void initializeSlotIfNeeded(int dimIndex)
   {
     final int index = dimIndex / Byte.SIZE;
@@ -288,7 +386,7 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
   public CloseableIterator<Entry<MemoryPointer>> iterator()
   {
     final CloseableIterator<Entry<IntKey>> iterator = iterator(false);
-    final WritableMemory keyMemory = WritableMemory.allocate(Integer.BYTES);
+    final WritableMemory keyMemory = WritableMemory.allocate(keySize);
     final MemoryPointer reusableKey = new MemoryPointer(keyMemory, 0);
     final ReusableEntry<MemoryPointer> reusableEntry = new ReusableEntry<>(reusableKey, new Object[aggregators.size()]);
 
@@ -304,7 +402,14 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
       public Entry<MemoryPointer> next()
       {
         final Entry<IntKey> integerEntry = iterator.next();
-        keyMemory.putInt(0, integerEntry.getKey().intValue());
+        final int key = integerEntry.getKey().intValue();
+        if (strides.length == 1) {
+          keyMemory.putInt(0, key);
+        } else {
+          for (int i = 0; i < strides.length; i++) {
+            keyMemory.putInt((long) i * Integer.BYTES, getDimensionValue(key, i, strides, cardinalities));
+          }
+        }
         reusableEntry.setValues(integerEntry.getValues());
         return reusableEntry;
       }
@@ -350,7 +350,7 @@ public class ByteBufferHashTable
   /**
    * Compare keys using long/int comparisons for better performance than byte-by-byte.
    */
-  private static boolean keysEqual(
+  static boolean keysEqual(
       final ByteBuffer tableBuffer,
       int tableOffset,
       final ByteBuffer keyBuffer,
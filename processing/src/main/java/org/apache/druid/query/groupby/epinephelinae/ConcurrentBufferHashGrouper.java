@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.groupby.epinephelinae;
+
+import com.google.common.base.Supplier;
+import org.apache.druid.java.util.common.CloseableIterators;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
+import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.segment.ColumnSelectorFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash grouper over a single buffer that is shared by all processing threads. Thread-safe.
+ * <p>
+ * Used by {@link ConcurrentGrouper} when "mergeSharedTable" is enabled, so that every thread can use the whole merge
+ * buffer before anything spills, rather than each thread filling its own fixed-size slice. Buckets have the same
+ * layout as {@link ByteBufferHashTable}: a hash word carrying {@link Groupers#USED_FLAG_BIT}, the key, and then the
+ * aggregators. Threads claim empty buckets by compare-and-set on the hash word, and aggregate into a bucket while
+ * holding a lock striped by bucket number. The table does not grow: it spans the whole buffer from {@link #init()}
+ * onwards, and {@link #aggregate} reports it as full once the load factor is reached.
+ * <p>
+ * Each thread serializes keys with its own {@link KeySerde} and aggregates with its own aggregators, so this grouper is
+ * only usable when keys are serialized without a runtime dictionary, and every aggregator keeps all of its state in the
+ * buffer; see {@link #canUse}.
+ */
+public class ConcurrentBufferHashGrouper<KeyType> implements Grouper<KeyType>
+{
+  private static final int HASH_SIZE = Integer.BYTES;
+  private static final int NUM_STRIPES = 1024;
+  private static final float DEFAULT_MAX_LOAD_FACTOR = 0.7f;
+
+  /**
+   * Hash word of a bucket that a thread has claimed, but whose key and aggregators are not yet written. Nonzero and
+   * without {@link Groupers#USED_FLAG_BIT}, so it cannot be mistaken for an empty or a used bucket.
+   */
+  private static final int CLAIMED = 1;
+
+  private static final VarHandle HASH_WORD = MethodHandles.byteBufferViewVarHandle(
+      int[].class,
+      ByteOrder.nativeOrder()
+  );
+
+  private final Supplier<ByteBuffer> bufferSupplier;
+  private final ThreadLocal<KeySerde<KeyType>> threadKeySerdes;
+  // Used to read and sort keys, which any serde from the factory can do, since none of them has a dictionary
+  private final KeySerde<KeyType> keySerde;
+  private final int keySize;
+  private final ColumnSelectorFactory columnSelectorFactory;
+  private final List<AggregatorFactory> aggregatorFactories;
+  private final float maxLoadFactor;
+  private final int bufferGrouperMaxSize; // Integer.MAX_VALUE in production, only used for unit tests
+  private final int baseAggregatorOffset;
+  private final int bucketSize;
+  private final Object[] stripes = new Object[NUM_STRIPES];
+  private final AtomicInteger size = new AtomicInteger();
+
+  // Aggregators are per-thread, since the selectors behind them are not thread-safe. All of them are tracked so they
+  // can be reset together; any one of them can read any bucket, since their state lives in the buffer.
+  private final Queue<AggregatorAdapters> allAggregators = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<AggregatorAdapters> threadAggregators;
+  private final AggregatorAdapters aggregators;
+
+  private volatile boolean initialized = false;
+  private ByteBuffer tableBuffer;
+  private ByteBuffer offsetListBuffer;
+  private int maxBuckets;
+  private int maxSize;
+  private long maxMergeBufferUsedBytes;
+
+  public ConcurrentBufferHashGrouper(
+      final Supplier<ByteBuffer> bufferSupplier,
+      final KeySerdeFactory<KeyType> keySerdeFactory,
+      final ColumnSelectorFactory columnSelectorFactory,
+      final AggregatorFactory[] aggregatorFactories,
+      final int bufferGrouperMaxSize,
+      final float maxLoadFactor
+  )
+  {
+    if (!canUse(keySerdeFactory, aggregatorFactories)) {
+      throw new IAE("Keys and aggregators must not keep state outside of the buffer");
+    }
+
+    this.bufferSupplier = bufferSupplier;
+    this.keySerde = keySerdeFactory.factorize();
+    this.threadKeySerdes = ThreadLocal.withInitial(keySerdeFactory::factorize);
+    this.keySize = keySerde.keySize();
+    this.columnSelectorFactory = columnSelectorFactory;
+    this.aggregatorFactories = Arrays.asList(aggregatorFactories);
+    this.bufferGrouperMaxSize = bufferGrouperMaxSize;
+    this.maxLoadFactor = maxLoadFactor > 0 ? maxLoadFactor : DEFAULT_MAX_LOAD_FACTOR;
+
+    if (this.maxLoadFactor >= 1.0f) {
+      throw new IAE("Invalid maxLoadFactor[%f], must be < 1.0", maxLoadFactor);
+    }
+
+    this.aggregators = makeAggregators();
+    this.baseAggregatorOffset = HASH_SIZE + keySize;
+
+    // Round up so that every hash word is aligned, as required for compare-and-set.
+    final int unalignedBucketSize = HASH_SIZE + keySize + aggregators.spaceNeeded();
+    this.bucketSize = (unalignedBucketSize + Integer.BYTES - 1) / Integer.BYTES * Integer.BYTES;
+
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      stripes[i] = new Object();
+    }
+
+    this.threadAggregators = ThreadLocal.withInitial(this::makeAggregators);
+  }
+
+  /**
+   * Whether this grouper can be used with the given keys and aggregators. Keys must be serialized without a runtime
+   * dictionary, so that the serdes of different threads agree on them. Aggregators with numeric intermediate types keep
+   * all of their state in the buffer, so they can be updated by any thread through its own aggregator instances.
+   * Aggregators of other types may hold state on the heap, keyed by bucket position, which a per-thread instance would
+   * not see.
+   */
+  public static boolean canUse(
+      final KeySerdeFactory<?> keySerdeFactory,
+      final AggregatorFactory[] aggregatorFactories
+  )
+  {
+    if (keySerdeFactory.usesRuntimeDictionary()) {
+      return false;
+    }
+    for (AggregatorFactory factory : aggregatorFactories) {
+      if (!factory.getIntermediateType().isNumeric()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void init()
+  {
+    if (!initialized) {
+      final ByteBuffer buffer = bufferSupplier.get();
+
+      final int tableArenaSize = ByteBufferHashTable.calculateTableArenaSizeWithPerBucketAdditionalSize(
+          buffer.capacity(),
+          bucketSize,
+          Integer.BYTES
+      );
+
+      maxBuckets = tableArenaSize / bucketSize;
+      if (maxBuckets < 1) {
+        throw new IAE(
+            "Not enough capacity for even one row! Need[%,d] but have[%,d].",
+            bucketSize + Integer.BYTES,
+            buffer.capacity()
+        );
+      }
+      maxSize = Math.min(Math.max(1, (int) (maxBuckets * maxLoadFactor)), bufferGrouperMaxSize);
+
+      tableBuffer = buffer.duplicate();
+      tableBuffer.position(0);
+      tableBuffer.limit(tableArenaSize);
+      tableBuffer = tableBuffer.slice();
+
+      // Offsets of used buckets, in the order they were claimed. Used for iteration and sorting.
+      offsetListBuffer = buffer.duplicate();
+      offsetListBuffer.position(tableArenaSize);
+      offsetListBuffer.limit(buffer.capacity());
+      offsetListBuffer = offsetListBuffer.slice();
+
+      reset();
+      initialized = true;
+    }
+  }
+
+  @Override
+  public boolean isInitialized()
+  {
+    return initialized;
+  }
+
+  @Override
+  public AggregateResult aggregate(final KeyType key, final int keyHash)
+  {
+    final ByteBuffer keyBuffer = threadKeySerdes.get().toByteBuffer(key);
+    if (keyBuffer == null) {
+      // This may just trigger a spill and get ignored, which is ok. If it bubbles up to the user, the message will
+      // be correct.
+      return Groupers.dictionaryFull(0);
+    }
+
+    if (keyBuffer.remaining() != keySize) {
+      throw new IAE(
+          "keySerde.toByteBuffer(key).remaining[%s] != keySerde.keySize[%s], buffer was the wrong size?!",
+          keyBuffer.remaining(),
+          keySize
+      );
+    }
+
+    final int bucket = findOrClaimBucket(keyBuffer, keyHash);
+    if (bucket < 0) {
+      // This may just trigger a spill and get ignored, which is ok. If it bubbles up to the user, the message will
+      // be correct.
+      return Groupers.hashTableFull(0);
+    }
+
+    final AggregatorAdapters adapters = threadAggregators.get();
+    synchronized (stripes[bucket & (NUM_STRIPES - 1)]) {
+      adapters.aggregateBuffered(tableBuffer, bucket * bucketSize + baseAggregatorOffset);
+    }
+
+    return AggregateResult.ok();
+  }
+
+  /**
+   * Finds the bucket holding a key, claiming and initializing a new one if the key is not in the table yet.
+   *
+   * @param keyBuffer serialized key, from its position to its limit
+   *
+   * @return bucket number, or -1 if the key is not in the table and the table is full
+   */
+  private int findOrClaimBucket(final ByteBuffer keyBuffer, final int keyHash)
+  {
+    // startBucket will never be negative since keyHash is always positive (see Groupers.hash)
+    final int startBucket = keyHash % maxBuckets;
+    final int keyHashWithUsedFlag = Groupers.getUsedFlag(keyHash);
+    int bucket = startBucket;
+
+    while (true) {
+      final int bucketOffset = bucket * bucketSize;
+      final int hashWord = (int) HASH_WORD.getAcquire(tableBuffer, bucketOffset);
+
+      if (hashWord == 0) {
+        if (size.get() >= maxSize) {
+          return -1;
+        }
+        if (HASH_WORD.compareAndSet(tableBuffer, bucketOffset, 0, CLAIMED)) {
+          return initializeClaimedBucket(bucket, keyBuffer, keyHashWithUsedFlag);
+        }
+        // Lost the race for this bucket; look at it again to see whose key it got.
+        continue;
+      }
+
+      if ((hashWord & Groupers.USED_FLAG_BIT) == 0) {
+        // Claimed by another thread that is still writing its key.
+        Thread.onSpinWait();
+        continue;
+      }
+
+      if (hashWord == keyHashWithUsedFlag
+          && ByteBufferHashTable.keysEqual(
+              tableBuffer,
+              bucketOffset + HASH_SIZE,
+              keyBuffer,
+              keyBuffer.position(),
+              keySize
+          )) {
+        return bucket;
+      }
+
+      // Move to next bucket (linear probing)
+      bucket += 1;
+      if (bucket == maxBuckets) {
+        bucket = 0;
+      }
+
+      if (bucket == startBucket) {
+        return -1;
+      }
+    }
+  }
+
+  private int initializeClaimedBucket(final int bucket, final ByteBuffer keyBuffer, final int keyHashWithUsedFlag)
+  {
+    final int bucketOffset = bucket * bucketSize;
+    final int index = size.getAndIncrement();
+
+    if (index >= maxSize) {
+      // Another thread filled the table between our size check and our claim. Give the bucket back.
+      size.decrementAndGet();
+      HASH_WORD.setRelease(tableBuffer, bucketOffset, 0);
+      return -1;
+    }
+
+    tableBuffer.put(bucketOffset + HASH_SIZE, keyBuffer, keyBuffer.position(), keySize);
+    threadAggregators.get().init(tableBuffer, bucketOffset + baseAggregatorOffset);
+    offsetListBuffer.putInt(index * Integer.BYTES, bucketOffset);
+
+    // Publish the bucket. Threads waiting on it see the key and initialized aggregators after this.
+    HASH_WORD.setRelease(tableBuffer, bucketOffset, keyHashWithUsedFlag);
+    return bucket;
+  }
+
+  @Override
+  public void reset()
+  {
+    updateMaxMergeBufferUsedBytes();
+    size.set(0);
+
+    for (int i = 0; i < maxBuckets; i++) {
+      tableBuffer.putInt(i * bucketSize, 0);
+    }
+
+    keySerde.reset();
+    allAggregators.forEach(AggregatorAdapters::reset);
+  }
+
+  @Override
+  public void close()
+  {
+    keySerde.reset();
+    allAggregators.forEach(AggregatorAdapters::reset);
+  }
+
+  public int getSize()
+  {
+    return Math.min(size.get(), maxSize);
+  }
+
+  public List<String> getDictionary()
+  {
+    return keySerde.getDictionary();
+  }
+
+  public long getDictionarySize()
+  {
+    return keySerde.getDictionarySize();
+  }
+
+  public long getMaxMergeBufferUsedBytes()
+  {
+    updateMaxMergeBufferUsedBytes();
+    return maxMergeBufferUsedBytes;
+  }
+
+  /**
+   * Iterates over the table. Must not be called while other threads are aggregating.
+   */
+  @Override
+  public CloseableIterator<Entry<KeyType>> iterator(final boolean sorted)
+  {
+    if (!initialized) {
+      return CloseableIterators.withEmptyBaggage(Collections.emptyIterator());
+    }
+
+    final int numEntries = getSize();
+
+    if (sorted) {
+      final BufferComparator comparator = keySerde.bufferComparator();
+
+      @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
+      final List<Integer> wrappedOffsets = new AbstractList<>()
+      {
+        @Override
+        public Integer get(int index)
+        {
+          return offsetListBuffer.getInt(index * Integer.BYTES);
+        }
+
+        @Override
+        public Integer set(int index, Integer element)
+        {
+          final Integer oldValue = get(index);
+          offsetListBuffer.putInt(index * Integer.BYTES, element);
+          return oldValue;
+        }
+
+        @Override
+        public int size()
+        {
+          return numEntries;
+        }
+      };
+
+      // Sort offsets in-place.
+      Collections.sort(
+          wrappedOffsets,
+          (lhs, rhs) -> comparator.compare(tableBuffer, tableBuffer, lhs + HASH_SIZE, rhs + HASH_SIZE)
+      );
+    }
+
+    return new CloseableIterator<>()
+    {
+      final ReusableEntry<KeyType> reusableEntry = ReusableEntry.create(keySerde, aggregatorFactories.size());
+
+      int curr = 0;
+
+      @Override
+      public boolean hasNext()
+      {
+        return curr < numEntries;
+      }
+
+      @Override
+      public Entry<KeyType> next()
+      {
+        if (curr >= numEntries) {
+          throw new NoSuchElementException();
+        }
+
+        final int bucketOffset = offsetListBuffer.getInt(curr++ * Integer.BYTES);
+        keySerde.readFromByteBuffer(reusableEntry.getKey(), tableBuffer, bucketOffset + HASH_SIZE);
+        for (int i = 0; i < aggregatorFactories.size(); i++) {
+          reusableEntry.getValues()[i] = aggregators.get(tableBuffer, bucketOffset + baseAggregatorOffset, i);
+        }
+        return reusableEntry;
+      }
+
+      @Override
+      public void close()
+      {
+        // do nothing
+      }
+    };
+  }
+
+  private AggregatorAdapters makeAggregators()
+  {
+    final AggregatorAdapters adapters = AggregatorAdapters.factorizeBuffered(columnSelectorFactory, aggregatorFactories);
+    allAggregators.add(adapters);
+    return adapters;
+  }
+
+  private void updateMaxMergeBufferUsedBytes()
+  {
+    maxMergeBufferUsedBytes = Math.max(maxMergeBufferUsedBytes, (long) getSize() * (bucketSize + Integer.BYTES));
+  }
+}
@@ -44,6 +44,7 @@ import org.apache.druid.query.groupby.orderby.DefaultLimitSpec;
 import org.apache.druid.segment.ColumnSelectorFactory;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -56,6 +57,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Collectors;
 
 /**
@@ -66,6 +68,11 @@ import java.util.stream.Collectors;
  * partitioned between buffers based on their hash, and multiple threads can write into the same buffer. When
  * it becomes clear that the result set does not fit in memory, the table switches to a mode where each thread
  * gets its own buffer and its own spill files on disk.
+ * <p>
+ * With "mergeSharedTable", and keys that are stored without a dictionary, the buffer is instead used as a single
+ * {@link ConcurrentBufferHashGrouper} shared by all threads until it is full, so skewed keys can use the whole buffer.
+ * When it fills up, its contents are spilled, the buffer is cut up into slices as above, and grouping continues in
+ * thread-local mode.
  */
 public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
 {
@@ -96,9 +103,17 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
   @Nullable
   private final ParallelCombiner<KeyType> parallelCombiner;
   private final boolean mergeThreadLocal;
+  private final boolean mergeSharedTable;
   private final long minSpillFileSize;
   private final GroupByStatsProvider.PerQueryStats perQueryStats;
 
+  // Guards the switch from the shared table to thread-local groupers. Aggregating into the shared table holds a read
+  // lock, and the switch holds the write lock.
+  private final StampedLock sharedTableLock = new StampedLock();
+  @Nullable
+  private final ConcurrentBufferHashGrouper<KeyType> sharedTable;
+  private ByteBuffer buffer;
+
   private volatile boolean initialized = false;
 
   public ConcurrentGrouper(
@@ -143,6 +158,7 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
         groupByQueryConfig.getIntermediateCombineDegree(),
         groupByQueryConfig.getNumParallelCombineThreads(),
         groupByQueryConfig.isMergeThreadLocal(),
+        groupByQueryConfig.isMergeSharedTable(),
         groupByQueryConfig.getMinSpillFileSize(),
         perQueryStats
     );
@@ -170,6 +186,7 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
       final int intermediateCombineDegree,
       final int numParallelCombineThreads,
       final boolean mergeThreadLocal,
+      final boolean mergeSharedTable,
       final long minSpillFileSize,
       final GroupByStatsProvider.PerQueryStats perQueryStats
   )
@@ -223,6 +240,24 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
     this.mergeThreadLocal = mergeThreadLocal;
     this.minSpillFileSize = minSpillFileSize;
     this.perQueryStats = perQueryStats;
+
+    // The shared table does not support limit push down, and is pointless if every thread gets its own buffer anyway.
+    this.mergeSharedTable = mergeSharedTable
+                            && !mergeThreadLocal
+                            && limitSpec == null
+                            && ConcurrentBufferHashGrouper.canUse(keySerdeFactory, aggregatorFactories);
+    if (this.mergeSharedTable) {
+      this.sharedTable = new ConcurrentBufferHashGrouper<>(
+          () -> buffer,
+          keySerdeFactory,
+          columnSelectorFactory,
+          aggregatorFactories,
+          bufferGrouperMaxSize,
+          bufferGrouperMaxLoadFactor
+      );
+    } else {
+      this.sharedTable = null;
+    }
   }
 
   @Override
@@ -231,34 +266,12 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
     if (!initialized) {
       synchronized (bufferSupplier) {
         if (!initialized) {
-          final ByteBuffer buffer = bufferSupplier.get();
-          final int sliceSize = (buffer.capacity() / concurrencyHint);
-
-          for (int i = 0; i < concurrencyHint; i++) {
-            final ByteBuffer slice = Groupers.getSlice(buffer, sliceSize, i);
-            final SpillingGrouper<KeyType> grouper = new SpillingGrouper<>(
-                Suppliers.ofInstance(slice),
-                keySerdeFactory,
-                columnSelectorFactory,
-                aggregatorFactories,
-                bufferGrouperMaxSize,
-                bufferGrouperMaxLoadFactor,
-                bufferGrouperInitialBuckets,
-                temporaryStorage,
-                spillMapper,
-                false,
-                limitSpec,
-                sortHasNonGroupingFields,
-                sliceSize,
-                minSpillFileSize,
-                perQueryStats
-            );
-            grouper.init();
-            groupers.add(grouper);
-
-            if (mergeThreadLocal) {
-              grouper.setSpillingAllowed(true);
-            }
+          buffer = bufferSupplier.get();
+
+          if (sharedTable != null) {
+            sharedTable.init();
+          } else {
+            createGroupers(true);
           }
 
           initialized = true;
@@ -267,6 +280,45 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
     }
   }
 
+  /**
+   * Cuts the buffer up into one slice per thread, and creates a {@link SpillingGrouper} for each.
+   *
+   * @param initialize whether to initialize the groupers, which writes to their slices
+   */
+  private void createGroupers(final boolean initialize)
+  {
+    final int sliceSize = (buffer.capacity() / concurrencyHint);
+
+    for (int i = 0; i < concurrencyHint; i++) {
+      final ByteBuffer slice = Groupers.getSlice(buffer, sliceSize, i);
+      final SpillingGrouper<KeyType> grouper = new SpillingGrouper<>(
+          Suppliers.ofInstance(slice),
+          keySerdeFactory,
+          columnSelectorFactory,
+          aggregatorFactories,
+          bufferGrouperMaxSize,
+          bufferGrouperMaxLoadFactor,
+          bufferGrouperInitialBuckets,
+          temporaryStorage,
+          spillMapper,
+          false,
+          limitSpec,
+          sortHasNonGroupingFields,
+          sliceSize,
+          minSpillFileSize,
+          perQueryStats
+      );
+      if (initialize) {
+        grouper.init();
+      }
+      groupers.add(grouper);
+
+      if (mergeThreadLocal) {
+        grouper.setSpillingAllowed(true);
+      }
+    }
+  }
+
   @Override
   public boolean isInitialized()
   {
@@ -284,6 +336,32 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
       throw new ISE("Grouper is closed");
     }
 
+    if (sharedTable != null) {
+      if (!spilling) {
+        final long stamp = sharedTableLock.readLock();
+        try {
+          if (!spilling) {
+            final AggregateResult aggregateResult = sharedTable.aggregate(key, keyHash);
+            if (aggregateResult.isOk()) {
+              return aggregateResult;
+            }
+            // Expecting all-or-nothing behavior.
+            assert aggregateResult.getCount() == 0;
+          }
+        }
+        finally {
+          sharedTableLock.unlockRead(stamp);
+        }
+
+        final AggregateResult switchResult = switchFromSharedTable();
+        if (!switchResult.isOk()) {
+          return switchResult;
+        }
+      }
+
+      // Fall through to do the aggregation with tlGrouper.
+    }
+
     final SpillingGrouper<KeyType> tlGrouper = threadLocalGrouper.get();
 
     if (mergeThreadLocal) {
@@ -327,6 +405,53 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
     }
   }
 
+  /**
+   * Switches from the shared table to thread-local groupers once the shared table is full: its contents are spilled,
+   * and the buffer is cut up into thread-local slices. Does nothing if another thread already made the switch.
+   *
+   * @return ok, or the reason the shared table could not be spilled
+   */
+  private AggregateResult switchFromSharedTable()
+  {
+    final long stamp = sharedTableLock.writeLock();
+    try {
+      if (spilling) {
+        return AggregateResult.ok();
+      }
+
+      if (temporaryStorage.maxSize() <= 0) {
+        // Spilling is disabled, so there is nowhere for the shared table to go.
+        return Groupers.hashTableFull(0);
+      }
+
+      recordSharedTableStats();
+
+      // Spill before creating the groupers, since initializing them overwrites the shared table.
+      createGroupers(false);
+      final AggregateResult spillResult;
+      try (CloseableIterator<Entry<KeyType>> iterator = sharedTable.iterator(true)) {
+        spillResult = groupers.get(0).spillEntries(iterator, sharedTable.getDictionary());
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+
+      sharedTable.close();
+      groupers.forEach(SpillingGrouper::init);
+      spilling = true;
+      return spillResult;
+    }
+    finally {
+      sharedTableLock.unlockWrite(stamp);
+    }
+  }
+
+  private void recordSharedTableStats()
+  {
+    perQueryStats.dictionarySize(sharedTable.getDictionarySize());
+    perQueryStats.maxMergeBufferUsedBytes(sharedTable.getMaxMergeBufferUsedBytes());
+  }
+
   @Override
   public void reset()
   {
@@ -338,6 +463,10 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
       throw new ISE("Grouper is closed");
     }
 
+    if (sharedTable != null && !spilling) {
+      sharedTable.reset();
+    }
+
     groupers.forEach(SpillingGrouper::reset);
   }
 
@@ -352,6 +481,14 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
       throw new ISE("Grouper is closed");
     }
 
+    if (sharedTable != null && !spilling) {
+      // Everything is still in the shared table, where it is fully combined.
+      if (sorted && hasQueryTimeout && System.currentTimeMillis() >= queryTimeoutAt) {
+        throw new QueryTimeoutException();
+      }
+      return sharedTable.iterator(sorted);
+    }
+
     final List<CloseableIterator<Entry<KeyType>>> sortedIterators = sorted && isParallelizable() ?
                                                                     parallelSortAndGetGroupersIterator() :
                                                                     getGroupersIterator(sorted);
@@ -504,6 +641,12 @@ public class ConcurrentGrouper<KeyType> implements Grouper<KeyType>
   {
     if (!closed) {
       closed = true;
+      if (sharedTable != null) {
+        if (!spilling) {
+          recordSharedTableStats();
+        }
+        sharedTable.close();
+      }
       groupers.forEach(SpillingGrouper::close);
     }
   }
@@ -162,6 +162,18 @@ public class GroupByMergingQueryRunner implements QueryRunner<ResultRow>
 
     final boolean isSingleThreaded = querySpecificConfig.isSingleThreaded();
 
+    // Segment runners below find this in the query's resources. If another merging runner of the same query has
+    // already created one, share it: any dictionary gives the same values, and sharing only helps.
+    if (querySpecificConfig.isMergeSharedStringDictionary()) {
+      final GroupByQueryResources resources =
+          groupByResourcesReservationPool.fetch(query.context().getQueryResourceId());
+      if (resources != null) {
+        resources.getOrCreateSharedStringDictionary(
+            querySpecificConfig.getActualMaxMergingDictionarySize(processingConfig)
+        );
+      }
+    }
+
     final File temporaryStorageDirectory = new File(
         processingTmpDir,
         StringUtils.format("druid-groupBy-%s_%s", UUID.randomUUID(), query.getId())
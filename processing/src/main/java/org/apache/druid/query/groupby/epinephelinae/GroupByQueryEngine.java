@@ -101,7 +101,8 @@ public class GroupByQueryEngine
       final ByteBuffer processingBuffer,
       @Nullable final DateTime fudgeTimestamp,
       final GroupByQueryConfig querySpecificConfig,
-      final DruidProcessingConfig processingConfig
+      final DruidProcessingConfig processingConfig,
+      @Nullable final SharedStringDictionary sharedStringDictionary
   )
   {
     final Cursor cursor = cursorHolder.asCursor();
@@ -123,7 +124,9 @@ public class GroupByQueryEngine
         .createColumnSelectorPluses(
             STRATEGY_FACTORY,
             query.getDimensions(),
-            columnSelectorFactory
+            sharedStringDictionary == null
+            ? columnSelectorFactory
+            : sharedStringDictionary.decorate(columnSelectorFactory)
         );
     final GroupByColumnSelectorPlus[] dims = new GroupByColumnSelectorPlus[selectorPlus.length];
     int curPos = 0;
@@ -136,7 +139,7 @@ public class GroupByQueryEngine
       curPos += dims[i].getColumnSelectorStrategy().getGroupingKeySizeBytes();
     }
 
-    final int cardinalityForArrayAggregation = GroupingEngine.getCardinalityForArrayAggregation(
+    final int[] cardinalitiesForArrayAggregation = GroupingEngine.getCardinalitiesForArrayAggregation(
         querySpecificConfig,
         query,
         columnSelectorFactory,
@@ -151,7 +154,7 @@ public class GroupByQueryEngine
           fudgeTimestamp,
           querySpecificConfig,
           processingConfig,
-          cardinalityForArrayAggregation,
+          cardinalitiesForArrayAggregation,
           cursor,
           granularizer,
           dims,
@@ -170,7 +173,7 @@ public class GroupByQueryEngine
                           fudgeTimestamp,
                           querySpecificConfig,
                           processingConfig,
-                          cardinalityForArrayAggregation,
+                          cardinalitiesForArrayAggregation,
                           cursor,
                           granularizer,
                           dims,
@@ -185,7 +188,7 @@ public class GroupByQueryEngine
       @Nullable DateTime fudgeTimestamp,
       GroupByQueryConfig querySpecificConfig,
       DruidProcessingConfig processingConfig,
-      int cardinalityForArrayAggregation,
+      @Nullable int[] cardinalitiesForArrayAggregation,
       Cursor cursor,
       CursorGranularizer granularizer,
       GroupByColumnSelectorPlus[] dims,
@@ -198,7 +201,10 @@ public class GroupByQueryEngine
           @Override
           public GroupByEngineIterator<?> make()
           {
-            if (cardinalityForArrayAggregation >= 0) {
+            final boolean allSingleValueDims = hasNoImplicitUnnestDimensions(columnSelectorFactory, query.getDimensions());
+            // Composite keys of more than one dimension can only be built from single-valued rows.
+            if (cardinalitiesForArrayAggregation != null
+                && (cardinalitiesForArrayAggregation.length == 1 || allSingleValueDims)) {
               return new ArrayAggregateIterator(
                   query,
                   querySpecificConfig,
@@ -208,8 +214,8 @@ public class GroupByQueryEngine
                   processingBuffer,
                   fudgeTimestamp,
                   dims,
-                  hasNoImplicitUnnestDimensions(columnSelectorFactory, query.getDimensions()),
-                  cardinalityForArrayAggregation
+                  allSingleValueDims,
+                  cardinalitiesForArrayAggregation
               );
             } else {
               return new HashAggregateIterator(
@@ -221,7 +227,7 @@ public class GroupByQueryEngine
                   processingBuffer,
                   fudgeTimestamp,
                   dims,
-                  hasNoImplicitUnnestDimensions(columnSelectorFactory, query.getDimensions())
+                  allSingleValueDims
               );
             }
           }
@@ -705,10 +711,17 @@ public class GroupByQueryEngine
 
   private static class ArrayAggregateIterator extends GroupByEngineIterator<IntKey>
   {
-    private final int cardinality;
+    private final int[] cardinalities;
+    private final int[] strides;
 
+    /**
+     * Set when grouping on a single dimension, in which case the dictionary id is the grouper key. Null when grouping
+     * on more than one dimension, in which case the key is computed by
+     * {@link BufferArrayGrouper#computeCompositeKey(int[], int[])}.
+     */
     @Nullable
     private final GroupByColumnSelectorPlus dim;
+    private final int[] compositeValues;
 
     @Nullable
     private IndexedInts multiValues;
@@ -724,18 +737,20 @@ public class GroupByQueryEngine
         @Nullable DateTime fudgeTimestamp,
         GroupByColumnSelectorPlus[] dims,
         boolean allSingleValueDims,
-        int cardinality
+        int[] cardinalities
     )
     {
       super(query, querySpecificConfig, processingConfig, cursor, granularizer, buffer, fudgeTimestamp, dims, allSingleValueDims);
-      this.cardinality = cardinality;
-      if (dims.length == 1) {
-        this.dim = dims[0];
-      } else if (dims.length == 0) {
-        this.dim = null;
-      } else {
-        throw new IAE("Group key should be a single dimension");
+      if (dims.length != cardinalities.length) {
+        throw new IAE("Expected [%d] cardinalities, got [%d]", dims.length, cardinalities.length);
+      }
+      if (dims.length > 1 && !allSingleValueDims) {
+        throw new IAE("Group key of more than one dimension should be single-valued");
       }
+      this.cardinalities = cardinalities;
+      this.strides = BufferArrayGrouper.computeStrides(cardinalities);
+      this.dim = dims.length == 1 ? dims[0] : null;
+      this.compositeValues = new int[dims.length];
     }
 
     @Override
@@ -744,7 +759,7 @@ public class GroupByQueryEngine
       return new BufferArrayGrouper(
           Suppliers.ofInstance(buffer),
           AggregatorAdapters.factorizeBuffered(cursor.getColumnSelectorFactory(), query.getAggregatorSpecs()),
-          cardinality
+          cardinalities
       );
     }
 
@@ -772,7 +787,11 @@ public class GroupByQueryEngine
           final IndexedInts indexedInts = ((DimensionSelector) dim.getSelector()).getRow();
           key = getSingleValue(indexedInts);
         } else {
-          key = 0;
+          for (int i = 0; i < dims.length; i++) {
+            // dims are always indexed string dimensions
+            compositeValues[i] = getSingleValue(((DimensionSelector) dims[i].getSelector()).getRow());
+          }
+          key = BufferArrayGrouper.computeCompositeKey(compositeValues, strides);
         }
         if (!grouper.aggregate(key).isOk()) {
           return;
@@ -833,13 +852,26 @@ public class GroupByQueryEngine
     {
       final int intKey = key.intValue();
       if (dim != null) {
-        if (intKey != GroupByColumnSelectorStrategy.GROUP_BY_MISSING_VALUE) {
-          resultRow.set(dim.getResultRowPosition(), ((DimensionSelector) dim.getSelector()).lookupName(intKey));
-        } else {
-          resultRow.set(dim.getResultRowPosition(), null);
+        putDimensionValueToRow(dim, intKey, resultRow);
+      } else {
+        for (int i = 0; i < dims.length; i++) {
+          putDimensionValueToRow(
+              dims[i],
+              BufferArrayGrouper.getDimensionValue(intKey, i, strides, cardinalities),
+              resultRow
+          );
         }
       }
     }
+
+    private static void putDimensionValueToRow(GroupByColumnSelectorPlus dim, int value, ResultRow resultRow)
+    {
+      if (value != GroupByColumnSelectorStrategy.GROUP_BY_MISSING_VALUE) {
+        resultRow.set(dim.getResultRowPosition(), ((DimensionSelector) dim.getSelector()).lookupName(value));
+      } else {
+        resultRow.set(dim.getResultRowPosition(), null);
+      }
+    }
   }
 
   private static class GroupByEngineKeySerde implements Grouper.KeySerde<ByteBuffer>
@@ -26,6 +26,9 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Comparator;
 import java.util.List;
@@ -146,6 +149,15 @@ public interface Grouper<KeyType> extends Closeable
      */
     KeySerde<T> factorizeWithDictionary(List<String> dictionary);
 
+    /**
+     * Whether the {@link KeySerde}s from {@link #factorize()} build a dictionary at runtime. If they do not, every one
+     * of them serializes a key to the same bytes, so keys from different serdes can be stored in the same table.
+     */
+    default boolean usesRuntimeDictionary()
+    {
+      return true;
+    }
+
     /**
      * Copies a key. Required if the key from an {@link Entry} from {@link #iterator} will be retained past the
      * following call to next().
@@ -248,6 +260,17 @@ public interface Grouper<KeyType> extends Closeable
       return spillMapper;
     }
 
+    /**
+     * Returns a codec that the {@link SpillingGrouper} can use to write grouping keys to spilled files in binary form,
+     * which is much cheaper to write and read back than JSON. Returns null if keys can only be spilled as JSON, using
+     * the mapper from {@link #decorateObjectMapper}.
+     */
+    @Nullable
+    default SpillKeyCodec<T> spillKeyCodec()
+    {
+      return null;
+    }
+
     /**
      * Reset the keySerde to its initial state. After this method is called, {@link #readFromByteBuffer}
      * and {@link #bufferComparator()} may no longer work properly on previously-serialized keys.
@@ -255,6 +278,21 @@ public interface Grouper<KeyType> extends Closeable
     void reset();
   }
 
+  /**
+   * Writes grouping keys to, and reads them back from, spilled files in binary form. Unlike
+   * {@link KeySerde#toByteBuffer}, the binary form must not depend on the state of the key serde, such as its
+   * dictionary, since that is reset after each spill.
+   */
+  interface SpillKeyCodec<T>
+  {
+    void write(T key, DataOutput out) throws IOException;
+
+    /**
+     * Reads a key written by {@link #write}. Returns a new key object each time.
+     */
+    T read(DataInput in) throws IOException;
+  }
+
   interface BufferComparator
   {
     int compare(ByteBuffer lhsBuffer, ByteBuffer rhsBuffer, int lhsPosition, int rhsPosition);
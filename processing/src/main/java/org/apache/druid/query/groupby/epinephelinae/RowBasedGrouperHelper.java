@@ -91,6 +91,8 @@ import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -875,6 +877,18 @@ public class RowBasedGrouperHelper
       );
     }
 
+    @Override
+    public boolean usesRuntimeDictionary()
+    {
+      // Only numeric keys are stored without a dictionary
+      for (ColumnType valueType : valueTypes) {
+        if (!valueType.isNumeric()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
     @Override
     public RowBasedKey copyKey(RowBasedKey key)
     {
@@ -1157,6 +1171,57 @@ public class RowBasedGrouperHelper
     return DictionaryBuildingUtils.estimateEntryFootprint((key == null ? 0 : key.length()) * Character.BYTES);
   }
 
+  /**
+   * Binary spill format for {@link RowBasedKey} with primitive dimension types: the timestamp, if included, followed by
+   * each dimension value as written by {@link SpillingGrouper#writeNullableValue}.
+   */
+  private static class RowBasedKeySpillCodec implements Grouper.SpillKeyCodec<RowBasedKey>
+  {
+    private final boolean includeTimestamp;
+    private final ValueType[] dimTypes;
+
+    RowBasedKeySpillCodec(final boolean includeTimestamp, final List<ColumnType> valueTypes)
+    {
+      this.includeTimestamp = includeTimestamp;
+      this.dimTypes = valueTypes.stream().map(ColumnType::getType).toArray(ValueType[]::new);
+    }
+
+    @Override
+    public void write(final RowBasedKey key, final DataOutput out) throws IOException
+    {
+      final Object[] values = key.getKey();
+      final int dimStart;
+
+      if (includeTimestamp) {
+        out.writeLong((long) values[0]);
+        dimStart = 1;
+      } else {
+        dimStart = 0;
+      }
+
+      for (int i = 0; i < dimTypes.length; i++) {
+        SpillingGrouper.writeNullableValue(out, dimTypes[i], values[dimStart + i]);
+      }
+    }
+
+    @Override
+    public RowBasedKey read(final DataInput in) throws IOException
+    {
+      final int dimStart = includeTimestamp ? 1 : 0;
+      final Object[] values = new Object[dimStart + dimTypes.length];
+
+      if (includeTimestamp) {
+        values[0] = in.readLong();
+      }
+
+      for (int i = 0; i < dimTypes.length; i++) {
+        values[dimStart + i] = SpillingGrouper.readNullableValue(in, dimTypes[i]);
+      }
+
+      return new RowBasedKey(values);
+    }
+  }
+
   private static class RowBasedKeySerde implements Grouper.KeySerde<RowBasedGrouperHelper.RowBasedKey>
   {
     private final boolean includeTimestamp;
@@ -1445,6 +1510,21 @@ public class RowBasedGrouperHelper
       return newObjectMapper;
     }
 
+    @Nullable
+    @Override
+    public Grouper.SpillKeyCodec<RowBasedKey> spillKeyCodec()
+    {
+      // Array and complex dimensions are stored using runtime dictionaries in the key buffer, and have no simple
+      // binary form of their own, so keys containing them are spilled as JSON.
+      for (ColumnType valueType : valueTypes) {
+        if (!valueType.isPrimitive()) {
+          return null;
+        }
+      }
+
+      return new RowBasedKeySpillCodec(includeTimestamp, valueTypes);
+    }
+
     @Override
     public void reset()
     {
@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.groupby.epinephelinae;
+
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.AbstractDimensionSelector;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.DimensionDictionarySelector;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.IdLookup;
+import org.apache.druid.segment.RowIdSupplier;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dictionary of string values shared by the segments merged by one {@link GroupByMergingQueryRunner}. It is held by
+ * the query's {@link org.apache.druid.query.groupby.GroupByQueryResources}.
+ * <p>
+ * Segment engines decode string dimensions through selectors wrapped by {@link #decorate}, which decode each dictionary
+ * id at most once per segment and return the shared instance of each value. Equal values from different segments are
+ * then the same object, which the merging key serdes of {@link RowBasedGrouperHelper} find in their dictionaries by
+ * identity, using the hash code computed when the value was first added here. This also keeps a single copy of each
+ * value on heap while the merge holds it.
+ * <p>
+ * This class is thread-safe. Its size is bounded by an estimated footprint; once the bound is reached, values that are
+ * not already present are returned as decoded.
+ */
+public class SharedStringDictionary
+{
+  /**
+   * Selectors with larger dictionaries share values, but do not cache them by dictionary id.
+   */
+  private static final int MAX_CACHED_CARDINALITY = 1 << 20;
+
+  private final ConcurrentMap<String, String> values = new ConcurrentHashMap<>();
+  private final AtomicLong footprint = new AtomicLong();
+  private final long maxFootprint;
+
+  public SharedStringDictionary(final long maxFootprint)
+  {
+    this.maxFootprint = maxFootprint;
+  }
+
+  /**
+   * Returns the shared instance of a value equal to the given value, adding it if there is none and the footprint
+   * bound allows.
+   */
+  @Nullable
+  public String canonicalize(@Nullable final String value)
+  {
+    if (value == null) {
+      return null;
+    }
+
+    final String existing = values.get(value);
+    if (existing != null) {
+      return existing;
+    }
+
+    if (footprint.get() >= maxFootprint) {
+      return value;
+    }
+
+    final String prior = values.putIfAbsent(value, value);
+    if (prior != null) {
+      return prior;
+    }
+
+    footprint.addAndGet(DictionaryBuildingUtils.estimateEntryFootprint(value.length() * Character.BYTES));
+    return value;
+  }
+
+  public int size()
+  {
+    return values.size();
+  }
+
+  /**
+   * Returns a factory whose dimension selectors decode values through this dictionary.
+   */
+  public ColumnSelectorFactory decorate(final ColumnSelectorFactory factory)
+  {
+    return new ColumnSelectorFactory()
+    {
+      @Override
+      public DimensionSelector makeDimensionSelector(DimensionSpec dimensionSpec)
+      {
+        return decorate(factory.makeDimensionSelector(dimensionSpec));
+      }
+
+      @Override
+      public ColumnValueSelector makeColumnValueSelector(String columnName)
+      {
+        return factory.makeColumnValueSelector(columnName);
+      }
+
+      @Nullable
+      @Override
+      public ColumnCapabilities getColumnCapabilities(String column)
+      {
+        return factory.getColumnCapabilities(column);
+      }
+
+      @Nullable
+      @Override
+      public RowIdSupplier getRowIdSupplier()
+      {
+        return factory.getRowIdSupplier();
+      }
+    };
+  }
+
+  /**
+   * Returns a selector that decodes values through this dictionary.
+   */
+  public DimensionSelector decorate(final DimensionSelector selector)
+  {
+    return new SharedDictionaryDimensionSelector(selector, new Decoder(selector));
+  }
+
+  /**
+   * Returns a selector that decodes values through this dictionary.
+   */
+  public SingleValueDimensionVectorSelector decorate(final SingleValueDimensionVectorSelector selector)
+  {
+    return new SharedDictionarySingleValueDimensionVectorSelector(selector, new Decoder(selector));
+  }
+
+  /**
+   * Decodes the ids of one selector. Not thread-safe, like the selector itself.
+   */
+  private class Decoder
+  {
+    private final DimensionDictionarySelector selector;
+
+    /**
+     * Decoded values by dictionary id, if ids are known in advance. Null values are not cached, since they are cheap
+     * to decode again.
+     */
+    @Nullable
+    private final String[] cache;
+
+    private Decoder(final DimensionDictionarySelector selector)
+    {
+      this.selector = selector;
+
+      final int cardinality = selector.getValueCardinality();
+      if (selector.nameLookupPossibleInAdvance()
+          && cardinality >= 0
+          && cardinality <= MAX_CACHED_CARDINALITY) {
+        this.cache = new String[cardinality];
+      } else {
+        this.cache = null;
+      }
+    }
+
+    @Nullable
+    private String lookupName(final int id)
+    {
+      if (cache == null) {
+        return canonicalize(selector.lookupName(id));
+      }
+
+      String value = cache[id];
+      if (value == null) {
+        value = canonicalize(selector.lookupName(id));
+        cache[id] = value;
+      }
+      return value;
+    }
+  }
+
+  private static class SharedDictionaryDimensionSelector extends AbstractDimensionSelector
+  {
+    private final DimensionSelector delegate;
+    private final Decoder decoder;
+
+    private SharedDictionaryDimensionSelector(final DimensionSelector delegate, final Decoder decoder)
+    {
+      this.delegate = delegate;
+      this.decoder = decoder;
+    }
+
+    @Override
+    public IndexedInts getRow()
+    {
+      return delegate.getRow();
+    }
+
+    @Override
+    public ValueMatcher makeValueMatcher(@Nullable String value)
+    {
+      return delegate.makeValueMatcher(value);
+    }
+
+    @Override
+    public ValueMatcher makeValueMatcher(DruidPredicateFactory predicateFactory)
+    {
+      return delegate.makeValueMatcher(predicateFactory);
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return delegate.getValueCardinality();
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return decoder.lookupName(id);
+    }
+
+    @Nullable
+    @Override
+    public ByteBuffer lookupNameUtf8(int id)
+    {
+      return delegate.lookupNameUtf8(id);
+    }
+
+    @Override
+    public boolean supportsLookupNameUtf8()
+    {
+      return delegate.supportsLookupNameUtf8();
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return delegate.nameLookupPossibleInAdvance();
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return delegate.idLookup();
+    }
+
+    @Override
+    public Class<?> classOfObject()
+    {
+      return delegate.classOfObject();
+    }
+
+    @Override
+    public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+    {
+      inspector.visit("delegate", delegate);
+    }
+  }
+
+  private static class SharedDictionarySingleValueDimensionVectorSelector implements SingleValueDimensionVectorSelector
+  {
+    private final SingleValueDimensionVectorSelector delegate;
+    private final Decoder decoder;
+
+    private SharedDictionarySingleValueDimensionVectorSelector(
+        final SingleValueDimensionVectorSelector delegate,
+        final Decoder decoder
+    )
+    {
+      this.delegate = delegate;
+      this.decoder = decoder;
+    }
+
+    @Override
+    public int[] getRowVector()
+    {
+      return delegate.getRowVector();
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return delegate.getValueCardinality();
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return decoder.lookupName(id);
+    }
+
+    @Nullable
+    @Override
+    public ByteBuffer lookupNameUtf8(int id)
+    {
+      return delegate.lookupNameUtf8(id);
+    }
+
+    @Override
+    public boolean supportsLookupNameUtf8()
+    {
+      return delegate.supportsLookupNameUtf8();
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return delegate.nameLookupPossibleInAdvance();
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return delegate.idLookup();
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return delegate.getMaxVectorSize();
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return delegate.getCurrentVectorSize();
+    }
+  }
+}
@@ -29,7 +29,9 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.Iterators;
 import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
+import org.apache.druid.error.DruidException;
 import org.apache.druid.java.util.common.CloseableIterators;
+import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.jackson.JacksonUtils;
 import org.apache.druid.java.util.common.logger.Logger;
@@ -41,8 +43,15 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.groupby.GroupByStatsProvider;
 import org.apache.druid.query.groupby.orderby.DefaultLimitSpec;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.column.TypeStrategies;
+import org.apache.druid.segment.column.ValueType;
 
+import javax.annotation.Nullable;
 import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -56,12 +65,15 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
  * Grouper based around a single underlying {@link BufferHashGrouper}. Not thread-safe.
  *
- * When the underlying grouper is full, its contents are sorted and written to temporary files using "spillMapper".
+ * When the underlying grouper is full, its contents are sorted and written to temporary files. If the key serde
+ * provides a {@link SpillKeyCodec} and all aggregators have numeric intermediate types, entries are written in a
+ * compact binary form. Otherwise, they are written as JSON using "spillMapper".
  */
 public class SpillingGrouper<KeyType> implements Grouper<KeyType>
 {
@@ -85,12 +97,17 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
   private final GroupByStatsProvider.PerQueryStats perQueryStats;
   private final long minSpillFileSize;
 
+  // Non-null if entries are spilled in binary form, in which case aggregatorTypes holds the type of each value.
+  @Nullable
+  private final SpillKeyCodec<KeyType> spillKeyCodec;
+  private final ValueType[] aggregatorTypes;
+
   private final List<File> files = new ArrayList<>();
   private final List<File> dictionaryFiles = new ArrayList<>();
   private final boolean sortHasNonGroupingFields;
 
   // Pending spill runs not yet written to disk. Each entry is one buffer flush serialized as a
-  // LZ4-compressed JSON byte array — the same format as an on-disk spill file, so it can be
+  // LZ4-compressed byte array — the same format as an on-disk spill file, so it can be
   // re-read with the same read() path. Runs are held in heap memory and merged into a single
   // sorted file only when pendingSpillBytes reaches minSpillFileSize.
   private final List<byte[]> pendingSpillRuns = new ArrayList<>();
@@ -178,6 +195,14 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
     this.sortHasNonGroupingFields = sortHasNonGroupingFields;
     this.minSpillFileSize = minSpillFileSize;
     this.perQueryStats = perQueryStats;
+
+    this.aggregatorTypes = new ValueType[aggregatorFactories.length];
+    boolean numericAggregators = true;
+    for (int i = 0; i < aggregatorFactories.length; i++) {
+      aggregatorTypes[i] = aggregatorFactories[i].getIntermediateType().getType();
+      numericAggregators &= aggregatorTypes[i].isNumeric();
+    }
+    this.spillKeyCodec = numericAggregators ? keySerde.spillKeyCodec() : null;
   }
 
   @Override
@@ -355,9 +380,9 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
 
     final Closer closer = Closer.create();
     for (final File file : files) {
-      final MappingIterator<Entry<KeyType>> fileIterator = read(file, keySerde.keyClazz());
+      final CloseableIterator<Entry<KeyType>> fileIterator = read(file);
 
-      iterators.add(deserializeIterator(fileIterator));
+      iterators.add(fileIterator);
       closer.register(fileIterator);
     }
 
@@ -373,15 +398,51 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
     return CloseableIterators.wrap(baseIterator, closer);
   }
 
+  /**
+   * Spills entries that were grouped outside of this grouper, as if they had been aggregated here and then spilled.
+   * Used by {@link ConcurrentGrouper} to hand off the contents of its shared table when it switches to thread-local
+   * grouping. Entries must be sorted like {@link #iterator(boolean)} sorts them, and must not be in this grouper's
+   * buffer, since this grouper may not be initialized yet.
+   *
+   * @return ok, or the reason spilling failed
+   */
+  AggregateResult spillEntries(final Iterator<Entry<KeyType>> sortedEntries, final List<String> dictionary)
+  {
+    try {
+      spill(sortedEntries, dictionary);
+      return AggregateResult.ok();
+    }
+    catch (TemporaryStorageFullException e) {
+      diskFull = true;
+      return DISK_FULL;
+    }
+    catch (TemporaryStorageFileLimitException e) {
+      maxFileCount = true;
+      return MAX_FILE;
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private void spill() throws IOException
   {
-    final SpillOutputStream spillOut = new SpillOutputStream(temporaryStorage, minSpillFileSize);
     try (CloseableIterator<Entry<KeyType>> iterator = grouper.iterator(true)) {
-      serializeToStream(iterator, spillOut);
+      spill(iterator, keySerde.getDictionary());
     }
+  }
 
-    pendingDictionaryEntries.addAll(keySerde.getDictionary());
-    grouper.reset();
+  private void spill(final Iterator<Entry<KeyType>> sortedEntries, final List<String> dictionary) throws IOException
+  {
+    final long startTimeNs = System.nanoTime();
+    final SpillOutputStream spillOut = new SpillOutputStream(temporaryStorage, minSpillFileSize);
+    serializeEntriesToStream(sortedEntries, spillOut);
+    perQueryStats.spillTime(System.nanoTime() - startTimeNs);
+
+    pendingDictionaryEntries.addAll(dictionary);
+    if (grouper.isInitialized()) {
+      grouper.reset();
+    }
 
     if (spillOut.isInMemory()) {
       final byte[] bytes = spillOut.toByteArray();
@@ -404,8 +465,9 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
    * so the output file is fully sorted, as required by iterator()'s mergeSorted across files.
    * <p>
    * We always merge-sort rather than concatenating runs (regardless of sorted / sortHasNonGroupingFields flags).
-   * The processing cost is dominated by JSON deserialization and re-serialization; the merge-sort comparison itself
-   * is O(N log K) key comparisons and negligible relative to the serde overhead, so concatenation would save little.
+   * The processing cost is dominated by deserialization and re-serialization (especially for JSON runs); the
+   * merge-sort comparison itself is O(N log K) key comparisons and negligible relative to the serde overhead, so
+   * concatenation would save little.
    * <p>
    * An alternative approach of writing each pending run's raw byte[] sequentially into one file
    * (avoiding serde entirely) was rejected because at read time each sub-stream would require its own
@@ -419,26 +481,20 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
       return;
     }
 
+    final long startTimeNs = System.nanoTime();
     final Comparator<Entry<KeyType>> sortComparator =
         sortHasNonGroupingFields ? defaultOrderKeyObjComparator : keyObjComparator;
 
-    final List<MappingIterator<Entry<KeyType>>> readers = new ArrayList<>(pendingSpillRuns.size());
+    final List<CloseableIterator<Entry<KeyType>>> readers = new ArrayList<>(pendingSpillRuns.size());
     try {
       for (final byte[] runBytes : pendingSpillRuns) {
-        readers.add(spillMapper.readValues(
-            spillMapper.getFactory().createParser(new LZ4BlockInputStream(new ByteArrayInputStream(runBytes))),
-            spillMapper.getTypeFactory().constructParametricType(ReusableEntry.class, keySerde.keyClazz())
-        ));
-      }
-      final List<CloseableIterator<Entry<KeyType>>> iterators = new ArrayList<>(readers.size());
-      for (final MappingIterator<Entry<KeyType>> reader : readers) {
-        iterators.add(deserializeIterator(reader));
+        readers.add(readEntries(new ByteArrayInputStream(runBytes)));
       }
-      files.add(spill(CloseableIterators.mergeSorted(iterators, sortComparator)));
+      files.add(spillEntriesToFile(CloseableIterators.mergeSorted(readers, sortComparator)));
       dictionaryFiles.add(spill(pendingDictionaryEntries.iterator()));
     }
     finally {
-      for (final MappingIterator<Entry<KeyType>> reader : readers) {
+      for (final CloseableIterator<Entry<KeyType>> reader : readers) {
         try {
           reader.close();
         }
@@ -449,6 +505,7 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
       pendingSpillRuns.clear();
       pendingSpillBytes = 0;
       pendingDictionaryEntries.clear();
+      perQueryStats.spillMergeTime(System.nanoTime() - startTimeNs);
     }
   }
 
@@ -480,6 +537,31 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
     );
   }
 
+  private void serializeEntriesToStream(Iterator<Entry<KeyType>> iterator, OutputStream out) throws IOException
+  {
+    if (spillKeyCodec == null) {
+      serializeToStream(iterator, out);
+      return;
+    }
+
+    try (
+        final LZ4BlockOutputStream compressedOut = new LZ4BlockOutputStream(out);
+        final DataOutputStream dataOut = new DataOutputStream(compressedOut)
+    ) {
+      while (iterator.hasNext()) {
+        BaseQuery.checkInterrupted();
+        final Entry<KeyType> entry = iterator.next();
+        dataOut.writeBoolean(true);
+        spillKeyCodec.write(entry.getKey(), dataOut);
+        for (int i = 0; i < aggregatorTypes.length; i++) {
+          writeNullableValue(dataOut, aggregatorTypes[i], entry.getValues()[i]);
+        }
+      }
+      // End-of-run marker.
+      dataOut.writeBoolean(false);
+    }
+  }
+
   private <T> void serializeToStream(Iterator<T> iterator, OutputStream out) throws IOException
   {
     try (
@@ -494,6 +576,14 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
     }
   }
 
+  private File spillEntriesToFile(Iterator<Entry<KeyType>> iterator) throws IOException
+  {
+    try (final LimitedTemporaryStorage.LimitedOutputStream out = temporaryStorage.createFile()) {
+      serializeEntriesToStream(iterator, out);
+      return out.getFile();
+    }
+  }
+
   private <T> File spill(Iterator<T> iterator) throws IOException
   {
     try (final LimitedTemporaryStorage.LimitedOutputStream out = temporaryStorage.createFile()) {
@@ -502,19 +592,84 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
     }
   }
 
-  private MappingIterator<Entry<KeyType>> read(final File file, final Class<KeyType> keyClazz)
+  private CloseableIterator<Entry<KeyType>> read(final File file)
   {
     try {
-      return spillMapper.readValues(
-          spillMapper.getFactory().createParser(new LZ4BlockInputStream(new FileInputStream(file))),
-          spillMapper.getTypeFactory().constructParametricType(ReusableEntry.class, keyClazz)
-      );
+      return readEntries(new FileInputStream(file));
     }
     catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Reads entries written by {@link #serializeEntriesToStream}.
+   */
+  private CloseableIterator<Entry<KeyType>> readEntries(final InputStream in) throws IOException
+  {
+    if (spillKeyCodec == null) {
+      final MappingIterator<Entry<KeyType>> mappingIterator = spillMapper.readValues(
+          spillMapper.getFactory().createParser(new LZ4BlockInputStream(in)),
+          spillMapper.getTypeFactory().constructParametricType(ReusableEntry.class, keySerde.keyClazz())
+      );
+      return CloseableIterators.wrap(deserializeIterator(mappingIterator), mappingIterator);
+    } else {
+      return new BinaryEntryIterator(new DataInputStream(new LZ4BlockInputStream(in)));
+    }
+  }
+
+  static void writeNullableValue(final DataOutput out, final ValueType type, @Nullable final Object value)
+      throws IOException
+  {
+    if (value == null) {
+      out.writeByte(TypeStrategies.IS_NULL_BYTE);
+      return;
+    }
+
+    out.writeByte(TypeStrategies.IS_NOT_NULL_BYTE);
+    switch (type) {
+      case LONG:
+        out.writeLong(((Number) value).longValue());
+        break;
+      case FLOAT:
+        out.writeFloat(((Number) value).floatValue());
+        break;
+      case DOUBLE:
+        out.writeDouble(((Number) value).doubleValue());
+        break;
+      case STRING:
+        final byte[] bytes = StringUtils.toUtf8((String) value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        break;
+      default:
+        throw DruidException.defensive("Cannot spill value of type[%s]", type);
+    }
+  }
+
+  @Nullable
+  static Object readNullableValue(final DataInput in, final ValueType type) throws IOException
+  {
+    if (in.readByte() == TypeStrategies.IS_NULL_BYTE) {
+      return null;
+    }
+
+    switch (type) {
+      case LONG:
+        return in.readLong();
+      case FLOAT:
+        return in.readFloat();
+      case DOUBLE:
+        return in.readDouble();
+      case STRING:
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return StringUtils.fromUtf8(bytes);
+      default:
+        throw DruidException.defensive("Cannot read spilled value of type[%s]", type);
+    }
+  }
+
   private void deleteFiles()
   {
     for (final File file : files) {
@@ -526,4 +681,54 @@ public class SpillingGrouper<KeyType> implements Grouper<KeyType>
     }
     dictionaryFiles.clear();
   }
+
+  /**
+   * Reads entries written in binary form by {@link #serializeEntriesToStream}.
+   */
+  private class BinaryEntryIterator implements CloseableIterator<Entry<KeyType>>
+  {
+    private final DataInputStream in;
+    private final ReusableEntry<KeyType> reusableEntry = ReusableEntry.create(keySerde, aggregatorTypes.length);
+    private boolean hasNext;
+
+    BinaryEntryIterator(final DataInputStream in) throws IOException
+    {
+      this.in = in;
+      this.hasNext = in.readBoolean();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return hasNext;
+    }
+
+    @Override
+    public Entry<KeyType> next()
+    {
+      if (!hasNext) {
+        throw new NoSuchElementException();
+      }
+
+      try {
+        reusableEntry.setKey(spillKeyCodec.read(in));
+        final Object[] values = reusableEntry.getValues();
+        for (int i = 0; i < aggregatorTypes.length; i++) {
+          values[i] = readNullableValue(in, aggregatorTypes[i]);
+        }
+        hasNext = in.readBoolean();
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+
+      return reusableEntry;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      in.close();
+    }
+  }
 }
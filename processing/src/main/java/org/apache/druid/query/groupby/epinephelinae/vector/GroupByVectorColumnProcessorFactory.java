@@ -20,6 +20,7 @@
 package org.apache.druid.query.groupby.epinephelinae.vector;
 
 import com.google.common.base.Preconditions;
+import org.apache.druid.query.groupby.epinephelinae.SharedStringDictionary;
 import org.apache.druid.segment.VectorColumnProcessorFactory;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
@@ -28,13 +29,18 @@ import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
 import org.apache.druid.segment.vector.VectorObjectSelector;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
+import javax.annotation.Nullable;
+
 public class GroupByVectorColumnProcessorFactory implements VectorColumnProcessorFactory<GroupByVectorColumnSelector>
 {
-  private static final GroupByVectorColumnProcessorFactory INSTANCE = new GroupByVectorColumnProcessorFactory();
+  private static final GroupByVectorColumnProcessorFactory INSTANCE = new GroupByVectorColumnProcessorFactory(null);
+
+  @Nullable
+  private final SharedStringDictionary sharedStringDictionary;
 
-  private GroupByVectorColumnProcessorFactory()
+  private GroupByVectorColumnProcessorFactory(@Nullable final SharedStringDictionary sharedStringDictionary)
   {
-    // Singleton.
+    this.sharedStringDictionary = sharedStringDictionary;
   }
 
   public static GroupByVectorColumnProcessorFactory instance()
@@ -42,6 +48,16 @@ public class GroupByVectorColumnProcessorFactory implements VectorColumnProcesso
     return INSTANCE;
   }
 
+  /**
+   * Returns a factory whose single-valued string processors decode values through the given dictionary.
+   */
+  public static GroupByVectorColumnProcessorFactory withSharedStringDictionary(
+      final SharedStringDictionary sharedStringDictionary
+  )
+  {
+    return new GroupByVectorColumnProcessorFactory(sharedStringDictionary);
+  }
+
   @Override
   public GroupByVectorColumnSelector makeSingleValueDimensionProcessor(
       final ColumnCapabilities capabilities,
@@ -52,7 +68,9 @@ public class GroupByVectorColumnProcessorFactory implements VectorColumnProcesso
         capabilities.is(ValueType.STRING),
         "groupBy dimension processors must be STRING typed"
     );
-    return new SingleValueStringGroupByVectorColumnSelector(selector);
+    return new SingleValueStringGroupByVectorColumnSelector(
+        sharedStringDictionary == null ? selector : sharedStringDictionary.decorate(selector)
+    );
   }
 
   @Override
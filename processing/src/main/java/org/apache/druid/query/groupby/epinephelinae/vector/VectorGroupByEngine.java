@@ -39,6 +39,7 @@ import org.apache.druid.query.groupby.epinephelinae.AggregateResult;
 import org.apache.druid.query.groupby.epinephelinae.BufferArrayGrouper;
 import org.apache.druid.query.groupby.epinephelinae.CloseableGrouperIterator;
 import org.apache.druid.query.groupby.epinephelinae.HashVectorGrouper;
+import org.apache.druid.query.groupby.epinephelinae.SharedStringDictionary;
 import org.apache.druid.query.groupby.epinephelinae.VectorGrouper;
 import org.apache.druid.query.groupby.epinephelinae.collection.MemoryPointer;
 import org.apache.druid.query.vector.VectorCursorGranularizer;
@@ -85,7 +86,8 @@ public class VectorGroupByEngine
       @Nullable final DateTime fudgeTimestamp,
       final Interval interval,
       final GroupByQueryConfig config,
-      final DruidProcessingConfig processingConfig
+      final DruidProcessingConfig processingConfig,
+      @Nullable final SharedStringDictionary sharedStringDictionary
   )
   {
     return new BaseSequence<>(
@@ -123,7 +125,14 @@ public class VectorGroupByEngine
             final VectorColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
             final List<GroupByVectorColumnSelector> dimensions = query.getDimensions().stream().map(
                 dimensionSpec -> {
-                  if (dimensionSpec instanceof DefaultDimensionSpec) {
+                  if (sharedStringDictionary != null
+                      && !query.getVirtualColumns().exists(dimensionSpec.getDimension())) {
+                    return ColumnProcessors.makeVectorProcessor(
+                        dimensionSpec,
+                        GroupByVectorColumnProcessorFactory.withSharedStringDictionary(sharedStringDictionary),
+                        columnSelectorFactory
+                    );
+                  } else if (dimensionSpec instanceof DefaultDimensionSpec) {
                     // Delegate creation of GroupByVectorColumnSelector to the column selector factory, so that
                     // virtual columns (like ExpressionVirtualColumn) can control their own grouping behavior.
                     return columnSelectorFactory.makeGroupByVectorColumnSelector(
@@ -327,7 +336,7 @@ public class VectorGroupByEngine
       final VectorGrouper grouper;
       final VectorColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
 
-      final int cardinalityForArrayAggregation = GroupingEngine.getCardinalityForArrayAggregation(
+      final int[] cardinalitiesForArrayAggregation = GroupingEngine.getCardinalitiesForArrayAggregation(
           querySpecificConfig,
           query,
           columnSelectorFactory,
@@ -335,14 +344,16 @@ public class VectorGroupByEngine
           processingBuffer
       );
 
-      if (cardinalityForArrayAggregation >= 0) {
+      // BufferArrayGrouper reads one dictionary id per dimension from the key space.
+      if (cardinalitiesForArrayAggregation != null
+          && keySize == cardinalitiesForArrayAggregation.length * Integer.BYTES) {
         grouper = new BufferArrayGrouper(
             Suppliers.ofInstance(processingBuffer),
             AggregatorAdapters.factorizeVector(
                 columnSelectorFactory,
                 query.getAggregatorSpecs()
             ),
-            cardinalityForArrayAggregation
+            cardinalitiesForArrayAggregation
         );
       } else {
         grouper = new HashVectorGrouper(
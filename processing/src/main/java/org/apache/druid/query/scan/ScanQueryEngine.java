@@ -31,10 +31,13 @@ import org.apache.druid.java.util.common.guava.BaseSequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.query.Order;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.QueryTimeoutException;
 import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.segment.BaseObjectColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
+import org.apache.druid.segment.ColumnProcessors;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.CursorBuildSpec;
@@ -48,6 +51,8 @@ import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.column.RowSignature;
 import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
 import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
@@ -137,6 +142,18 @@ public class ScanQueryEngine
           @Override
           public Iterator<ScanResultValue> make()
           {
+            if (shouldVectorize(query, cursorFactory, cursorHolder, allColumns)) {
+              return makeVectorizedIterator(
+                  query,
+                  segment,
+                  cursorHolder,
+                  allColumns,
+                  limit,
+                  responseContext,
+                  hasTimeout,
+                  timeoutAt
+              );
+            }
             final Cursor cursor = cursorHolder.asCursor();
             if (cursor == null) {
               return Collections.emptyIterator();
@@ -242,6 +259,146 @@ public class ScanQueryEngine
     ).withBaggage(cursorHolder);
   }
 
+  /**
+   * Whether to read rows through {@link CursorHolder#asVectorCursor()}. The vectorized path reads each column a batch
+   * at a time into typed arrays, and is used when the query context allows vectorization, the cursor can vectorize,
+   * and all columns are primitive (string or numeric). Otherwise, rows are read one at a time through
+   * {@link CursorHolder#asCursor()}, even if {@link QueryContexts.Vectorize#FORCE} is set.
+   */
+  private static boolean shouldVectorize(
+      final ScanQuery query,
+      final CursorFactory cursorFactory,
+      final CursorHolder cursorHolder,
+      final List<String> columns
+  )
+  {
+    if (query.context().getVectorize() == QueryContexts.Vectorize.FALSE) {
+      return false;
+    }
+
+    final ColumnInspector inspector = query.getVirtualColumns().wrapInspector(cursorFactory);
+    for (String column : columns) {
+      final ColumnCapabilities capabilities = inspector.getColumnCapabilities(column);
+      if (capabilities != null && !capabilities.isPrimitive()) {
+        return false;
+      }
+    }
+
+    return cursorHolder.canVectorize();
+  }
+
+  private static Iterator<ScanResultValue> makeVectorizedIterator(
+      final ScanQuery query,
+      final Segment segment,
+      final CursorHolder cursorHolder,
+      final List<String> allColumns,
+      final long limit,
+      final ResponseContext responseContext,
+      final boolean hasTimeout,
+      @Nullable final Long timeoutAt
+  )
+  {
+    final VectorCursor cursor = cursorHolder.asVectorCursor();
+    if (cursor == null) {
+      return Collections.emptyIterator();
+    }
+    final List<ScanVectorColumnReader> columnReaders = new ArrayList<>(allColumns.size());
+    final RowSignature.Builder rowSignatureBuilder = RowSignature.builder();
+    final VectorColumnSelectorFactory factory = cursor.getColumnSelectorFactory();
+
+    for (String column : allColumns) {
+      columnReaders.add(
+          ColumnProcessors.makeVectorProcessor(column, ScanVectorColumnProcessorFactory.instance(), factory)
+      );
+      rowSignatureBuilder.add(column, ColumnType.fromCapabilities(factory.getColumnCapabilities(column)));
+    }
+
+    final RowSignature rowSignature = rowSignatureBuilder.build();
+    final int batchSize = query.getBatchSize();
+    final int numColumns = allColumns.size();
+    readVectors(cursor, columnReaders);
+
+    return new Iterator<>()
+    {
+      private long offset = 0;
+
+      // Position of the next row to read within the current vector of the cursor.
+      private int vectorOffset = 0;
+
+      @Override
+      public boolean hasNext()
+      {
+        return !cursor.isDone() && offset < limit;
+      }
+
+      @Override
+      public ScanResultValue next()
+      {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if (hasTimeout && System.currentTimeMillis() >= timeoutAt) {
+          throw new QueryTimeoutException(StringUtils.nonStrictFormat("Query [%s] timed out", query.getId()));
+        }
+        final long lastOffset = offset;
+        final ScanQuery.ResultFormat resultFormat = query.getResultFormat();
+        final boolean compacted;
+        if (ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST.equals(resultFormat)) {
+          compacted = true;
+        } else if (ScanQuery.ResultFormat.RESULT_FORMAT_LIST.equals(resultFormat)) {
+          compacted = false;
+        } else {
+          throw new UOE("resultFormat[%s] is not supported", resultFormat.toString());
+        }
+
+        final List<Object> events = new ArrayList<>(batchSize);
+        final long iterLimit = Math.min(limit, offset + batchSize);
+        while (!cursor.isDone() && offset < iterLimit) {
+          // Copy rows out of the current vector until the batch is full or the vector is exhausted.
+          final int vectorEnd = (int) Math.min(cursor.getCurrentVectorSize(), vectorOffset + (iterLimit - offset));
+          for (; vectorOffset < vectorEnd; vectorOffset++, offset++) {
+            if (compacted) {
+              final Object[] theEvent = new Object[numColumns];
+              for (int j = 0; j < numColumns; j++) {
+                theEvent[j] = columnReaders.get(j).get(vectorOffset);
+              }
+              events.add(Arrays.asList(theEvent));
+            } else {
+              final Map<String, Object> theEvent = new LinkedHashMap<>();
+              for (int j = 0; j < numColumns; j++) {
+                theEvent.put(allColumns.get(j), columnReaders.get(j).get(vectorOffset));
+              }
+              events.add(theEvent);
+            }
+          }
+
+          if (vectorOffset == cursor.getCurrentVectorSize()) {
+            cursor.advance();
+            vectorOffset = 0;
+            readVectors(cursor, columnReaders);
+          }
+        }
+
+        responseContext.addRowScanCount(offset - lastOffset);
+        return new ScanResultValue(
+            segment.getId() == null ? null : segment.getId().toString(),
+            allColumns,
+            events,
+            rowSignature
+        );
+      }
+    };
+  }
+
+  private static void readVectors(final VectorCursor cursor, final List<ScanVectorColumnReader> columnReaders)
+  {
+    if (!cursor.isDone()) {
+      for (ScanVectorColumnReader columnReader : columnReaders) {
+        columnReader.readVector();
+      }
+    }
+  }
+
   /**
    * If we're performing time-ordering, we want to scan through the first `limit` rows in each segment ignoring the number
    * of rows already counted on other segments.
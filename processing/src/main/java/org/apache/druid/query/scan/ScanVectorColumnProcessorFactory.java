@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+
+/**
+ * Creates {@link ScanVectorColumnReader} for the vectorized scan path of {@link ScanQueryEngine}. Numeric columns are
+ * read into primitive arrays and only boxed for rows that are actually emitted, and dictionary encoded strings are
+ * read as dictionary ids and looked up per row.
+ */
+public class ScanVectorColumnProcessorFactory implements VectorColumnProcessorFactory<ScanVectorColumnReader>
+{
+  private static final ScanVectorColumnProcessorFactory INSTANCE = new ScanVectorColumnProcessorFactory();
+
+  private ScanVectorColumnProcessorFactory()
+  {
+    // Singleton.
+  }
+
+  public static ScanVectorColumnProcessorFactory instance()
+  {
+    return INSTANCE;
+  }
+
+  @Override
+  public ScanVectorColumnReader makeSingleValueDimensionProcessor(
+      final ColumnCapabilities capabilities,
+      final SingleValueDimensionVectorSelector selector
+  )
+  {
+    return new ScanVectorColumnReader()
+    {
+      private int[] rowVector;
+
+      @Override
+      public void readVector()
+      {
+        rowVector = selector.getRowVector();
+      }
+
+      @Nullable
+      @Override
+      public Object get(final int row)
+      {
+        return selector.lookupName(rowVector[row]);
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeMultiValueDimensionProcessor(
+      final ColumnCapabilities capabilities,
+      final MultiValueDimensionVectorSelector selector
+  )
+  {
+    return new ScanVectorColumnReader()
+    {
+      private IndexedInts[] rowVector;
+
+      @Override
+      public void readVector()
+      {
+        rowVector = selector.getRowVector();
+      }
+
+      @Nullable
+      @Override
+      public Object get(final int row)
+      {
+        return DimensionSelector.rowToObject(rowVector[row], selector);
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeFloatProcessor(
+      final ColumnCapabilities capabilities,
+      final VectorValueSelector selector
+  )
+  {
+    return new ScanVectorColumnReader()
+    {
+      private float[] vector;
+      @Nullable
+      private boolean[] nullVector;
+
+      @Override
+      public void readVector()
+      {
+        vector = selector.getFloatVector();
+        nullVector = selector.getNullVector();
+      }
+
+      @Nullable
+      @Override
+      public Object get(final int row)
+      {
+        return nullVector != null && nullVector[row] ? null : vector[row];
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeDoubleProcessor(
+      final ColumnCapabilities capabilities,
+      final VectorValueSelector selector
+  )
+  {
+    return new ScanVectorColumnReader()
+    {
+      private double[] vector;
+      @Nullable
+      private boolean[] nullVector;
+
+      @Override
+      public void readVector()
+      {
+        vector = selector.getDoubleVector();
+        nullVector = selector.getNullVector();
+      }
+
+      @Nullable
+      @Override
+      public Object get(final int row)
+      {
+        return nullVector != null && nullVector[row] ? null : vector[row];
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeLongProcessor(
+      final ColumnCapabilities capabilities,
+      final VectorValueSelector selector
+  )
+  {
+    return new ScanVectorColumnReader()
+    {
+      private long[] vector;
+      @Nullable
+      private boolean[] nullVector;
+
+      @Override
+      public void readVector()
+      {
+        vector = selector.getLongVector();
+        nullVector = selector.getNullVector();
+      }
+
+      @Nullable
+      @Override
+      public Object get(final int row)
+      {
+        return nullVector != null && nullVector[row] ? null : vector[row];
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeArrayProcessor(
+      final ColumnCapabilities capabilities,
+      final VectorObjectSelector selector
+  )
+  {
+    return makeObjectProcessor(capabilities, selector);
+  }
+
+  @Override
+  public ScanVectorColumnReader makeObjectProcessor(
+      final ColumnCapabilities capabilities,
+      final VectorObjectSelector selector
+  )
+  {
+    return new ScanVectorColumnReader()
+    {
+      private Object[] vector;
+
+      @Override
+      public void readVector()
+      {
+        vector = selector.getObjectVector();
+      }
+
+      @Nullable
+      @Override
+      public Object get(final int row)
+      {
+        return vector[row];
+      }
+    };
+  }
+}
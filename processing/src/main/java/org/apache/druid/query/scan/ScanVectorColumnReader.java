@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads one column of a {@link org.apache.druid.segment.vector.VectorCursor} for the vectorized scan path of
+ * {@link ScanQueryEngine}. Each call to {@link #readVector()} pulls the current vector from the underlying selector
+ * into a typed array, and {@link #get(int)} then returns the value of a single row of that vector, with the same
+ * representation as {@link org.apache.druid.segment.ColumnValueSelector#getObject()} in the non-vectorized path.
+ *
+ * @see ScanVectorColumnProcessorFactory
+ */
+public interface ScanVectorColumnReader
+{
+  /**
+   * Read the current vector of the cursor. Must be called once each time the cursor moves to a new vector, before
+   * any calls to {@link #get(int)}.
+   */
+  void readVector();
+
+  /**
+   * Returns the value of a row within the vector last read by {@link #readVector()}.
+   */
+  @Nullable
+  Object get(int row);
+}
@@ -20,6 +20,7 @@
 package org.apache.druid.query.search;
 
 import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 
 /**
  */
@@ -33,6 +34,12 @@ public class AllSearchQuerySpec implements SearchQuerySpec
     return true;
   }
 
+  @Override
+  public boolean acceptUtf8(@Nullable ByteBuffer dimValUtf8)
+  {
+    return true;
+  }
+
   @Override
   public byte[] getCacheKey()
   {
@@ -37,6 +37,13 @@ public class ContainsSearchQuerySpec implements SearchQuerySpec
   private final String value;
   private final boolean caseSensitive;
 
+  /**
+   * UTF-8 form of {@link #value} used by {@link #acceptUtf8}: as-is when case-sensitive, lowercased when
+   * case-insensitive and ASCII, null otherwise.
+   */
+  @Nullable
+  private final byte[] valueUtf8;
+
   @JsonCreator
   public ContainsSearchQuerySpec(
       @JsonProperty("value") String value,
@@ -45,6 +52,13 @@ public class ContainsSearchQuerySpec implements SearchQuerySpec
   {
     this.value = value;
     this.caseSensitive = caseSensitive;
+    if (value == null) {
+      this.valueUtf8 = null;
+    } else if (caseSensitive) {
+      this.valueUtf8 = StringUtils.toUtf8(value);
+    } else {
+      this.valueUtf8 = Utf8SearchMatcher.toLowerCaseAsciiUtf8(value);
+    }
   }
 
   @JsonProperty
@@ -71,6 +85,24 @@ public class ContainsSearchQuerySpec implements SearchQuerySpec
     return org.apache.commons.lang3.StringUtils.containsIgnoreCase(dimVal, value);
   }
 
+  @Override
+  public boolean acceptUtf8(@Nullable ByteBuffer dimValUtf8)
+  {
+    if (dimValUtf8 == null || value == null) {
+      return false;
+    }
+    if (caseSensitive) {
+      return Utf8SearchMatcher.contains(dimValUtf8, valueUtf8);
+    }
+    if (valueUtf8 != null) {
+      final int match = Utf8SearchMatcher.containsIgnoreCaseAscii(dimValUtf8, valueUtf8);
+      if (match != Utf8SearchMatcher.UNKNOWN) {
+        return match == Utf8SearchMatcher.MATCH;
+      }
+    }
+    return SearchQuerySpec.super.acceptUtf8(dimValUtf8);
+  }
+
   @Override
   public byte[] getCacheKey()
   {
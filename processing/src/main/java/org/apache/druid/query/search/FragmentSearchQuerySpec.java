@@ -41,6 +41,13 @@ public class FragmentSearchQuerySpec implements SearchQuerySpec
 
   private final String[] target;
 
+  /**
+   * UTF-8 forms of {@link #target} used by {@link #acceptUtf8}: as-is when case-sensitive, lowercased when
+   * case-insensitive and all ASCII, null otherwise.
+   */
+  @Nullable
+  private final byte[][] targetUtf8;
+
   public FragmentSearchQuerySpec(
       List<String> values
   )
@@ -61,6 +68,7 @@ public class FragmentSearchQuerySpec implements SearchQuerySpec
       set.addAll(values);
     }
     target = set.toArray(new String[0]);
+    targetUtf8 = makeTargetUtf8(target, caseSensitive);
   }
 
   @JsonProperty
@@ -92,6 +100,45 @@ public class FragmentSearchQuerySpec implements SearchQuerySpec
     return true;
   }
 
+  @Override
+  public boolean acceptUtf8(@Nullable ByteBuffer dimValUtf8)
+  {
+    if (dimValUtf8 == null || values == null) {
+      return false;
+    }
+    if (targetUtf8 == null) {
+      return SearchQuerySpec.super.acceptUtf8(dimValUtf8);
+    }
+    for (byte[] search : targetUtf8) {
+      if (caseSensitive) {
+        if (!Utf8SearchMatcher.contains(dimValUtf8, search)) {
+          return false;
+        }
+      } else {
+        final int match = Utf8SearchMatcher.containsIgnoreCaseAscii(dimValUtf8, search);
+        if (match == Utf8SearchMatcher.UNKNOWN) {
+          return SearchQuerySpec.super.acceptUtf8(dimValUtf8);
+        } else if (match == Utf8SearchMatcher.NO_MATCH) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Nullable
+  private static byte[][] makeTargetUtf8(String[] target, boolean caseSensitive)
+  {
+    final byte[][] retVal = new byte[target.length][];
+    for (int i = 0; i < target.length; i++) {
+      retVal[i] = caseSensitive ? StringUtils.toUtf8(target[i]) : Utf8SearchMatcher.toLowerCaseAsciiUtf8(target[i]);
+      if (retVal[i] == null) {
+        return null;
+      }
+    }
+    return retVal;
+  }
+
   private boolean containsAny(String[] target, String input)
   {
     for (String value : target) {
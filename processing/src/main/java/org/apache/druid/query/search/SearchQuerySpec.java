@@ -23,8 +23,10 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import org.apache.druid.annotations.SubclassesMustOverrideEqualsAndHashCode;
 import org.apache.druid.java.util.common.Cacheable;
+import org.apache.druid.java.util.common.StringUtils;
 
 import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 
 /**
  */
@@ -40,4 +42,14 @@ import javax.annotation.Nullable;
 public interface SearchQuerySpec extends Cacheable
 {
   boolean accept(@Nullable String dimVal);
+
+  /**
+   * Equivalent to {@link #accept(String)} on the decoded value, for callers that hold dictionary values as UTF-8
+   * bytes. Implementations that can match without decoding should override this. The position and limit of
+   * {@code dimValUtf8} must be left unchanged.
+   */
+  default boolean acceptUtf8(@Nullable ByteBuffer dimValUtf8)
+  {
+    return accept(dimValUtf8 == null ? null : StringUtils.fromUtf8(dimValUtf8.duplicate()));
+  }
 }
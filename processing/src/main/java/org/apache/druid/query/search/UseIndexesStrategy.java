@@ -26,6 +26,7 @@ import org.apache.druid.collections.bitmap.BitmapFactory;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.collections.bitmap.MutableBitmap;
 import org.apache.druid.java.util.common.NonnullPair;
+import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.query.DefaultBitmapResultFactory;
 import org.apache.druid.query.Order;
@@ -45,9 +46,11 @@ import org.apache.druid.segment.column.ColumnIndexSupplier;
 import org.apache.druid.segment.column.NumericColumn;
 import org.apache.druid.segment.index.BitmapColumnIndex;
 import org.apache.druid.segment.index.semantic.DictionaryEncodedStringValueIndex;
+import org.apache.druid.segment.index.semantic.DictionaryEncodedUtf8ValueIndex;
 import org.joda.time.Interval;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -94,12 +97,12 @@ public class UseIndexesStrategy extends SearchStrategy
       final List<DimensionSpec> nonBitmapSuppDims = pair.rhs;
 
       if (!bitmapSuppDims.isEmpty()) {
-        // Index-only plan is used only when any filter is not specified or the filter supports bitmap indexes.
+        // Index-only plan is used only when any filter is not specified or the filter supports exact bitmap indexes.
         //
         // Note: if some filters support bitmap indexes but others are not, the current implementation always employs
         // the cursor-based plan. This can be more optimized. One possible optimization is generating a bitmap index
         // from the non-bitmap-support filter, and then use it to compute the filtered result by intersecting bitmaps.
-        if ((filter == null || filter.getBitmapColumnIndex(selector) != null)
+        if ((filter == null || hasExactIndex(filter, selector))
             && Cursors.getTimeOrdering(index.getOrdering()) == Order.ASCENDING) {
           final ImmutableBitmap timeFilteredBitmap = makeTimeFilteredBitmap(
               index,
@@ -159,6 +162,15 @@ public class UseIndexesStrategy extends SearchStrategy
     return new NonnullPair<>(bitmapDims, nonBitmapDims);
   }
 
+  /**
+   * Index-only execution uses the filter bitmap as the final set of matching rows, so the index must be exact.
+   */
+  private static boolean hasExactIndex(Filter filter, ColumnIndexSelector selector)
+  {
+    final BitmapColumnIndex columnIndex = filter.getBitmapColumnIndex(selector);
+    return columnIndex != null && columnIndex.getIndexCapabilities().isExact();
+  }
+
   static ImmutableBitmap makeTimeFilteredBitmap(
       final QueryableIndex index,
       final Segment segment,
@@ -302,6 +314,33 @@ public class UseIndexesStrategy extends SearchStrategy
                 return retVal;
               }
             }
+          } else if (dimension.getExtractionFn() == null
+                     && indexSupplier.as(DictionaryEncodedUtf8ValueIndex.class) != null) {
+            // match the UTF-8 dictionary directly, only decoding the values that are accepted
+            final DictionaryEncodedUtf8ValueIndex bitmapIndex =
+                indexSupplier.as(DictionaryEncodedUtf8ValueIndex.class);
+            final Iterator<ByteBuffer> iterator = bitmapIndex.getValueIterator();
+            int i = 0;
+            while (iterator.hasNext()) {
+              final ByteBuffer dimValUtf8 = iterator.next();
+              if (!searchQuerySpec.acceptUtf8(dimValUtf8)) {
+                i++;
+                continue;
+              }
+              ImmutableBitmap bitmap = bitmapIndex.getBitmap(i);
+              if (timeFilteredBitmap != null) {
+                bitmap = bitmapFactory.intersection(Arrays.asList(timeFilteredBitmap, bitmap));
+              }
+              if (!bitmap.isEmpty()) {
+                // decode from a duplicate, since the dictionary's buffers must not be moved
+                final String dimVal = dimValUtf8 == null ? null : StringUtils.fromUtf8(dimValUtf8.duplicate());
+                retVal.addTo(new SearchHit(dimension.getOutputName(), dimVal), bitmap.size());
+                if (retVal.size() >= limit) {
+                  return retVal;
+                }
+              }
+              i++;
+            }
           } else {
             // these were checked to be non-null in partitionDimensionList
             final DictionaryEncodedStringValueIndex bitmapIndex =
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.search;
+
+import org.apache.druid.java.util.common.StringUtils;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Substring matching over UTF-8 encoded dictionary values, used by {@link SearchQuerySpec#acceptUtf8} implementations
+ * to avoid decoding every dictionary entry to a {@link String}.
+ *
+ * Case-sensitive matching is exact on raw bytes, since UTF-8 is self-synchronizing: a valid encoded needle can only
+ * match at a character boundary. Case-insensitive matching is only done on bytes when both the needle and the value
+ * are ASCII; otherwise {@link #containsIgnoreCaseAscii} returns {@link #UNKNOWN} and callers must decode the value,
+ * since Unicode case folding can map non-ASCII characters onto ASCII ones.
+ */
+final class Utf8SearchMatcher
+{
+  static final int NO_MATCH = 0;
+  static final int MATCH = 1;
+  static final int UNKNOWN = -1;
+
+  private Utf8SearchMatcher()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Returns the lowercased UTF-8 encoding of an all-ASCII needle, or null if the needle has non-ASCII characters.
+   */
+  @Nullable
+  static byte[] toLowerCaseAsciiUtf8(final String needle)
+  {
+    for (int i = 0; i < needle.length(); i++) {
+      if (needle.charAt(i) >= 0x80) {
+        return null;
+      }
+    }
+    return StringUtils.toUtf8(StringUtils.toLowerCase(needle));
+  }
+
+  /**
+   * Whether the remaining bytes of {@code haystack} contain {@code needle}. Does not modify the buffer position.
+   */
+  static boolean contains(final ByteBuffer haystack, final byte[] needle)
+  {
+    final int start = haystack.position();
+    final int last = haystack.limit() - needle.length;
+    for (int i = start; i <= last; i++) {
+      if (regionMatches(haystack, i, needle)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * ASCII case-insensitive variant of {@link #contains}, where {@code lowerCaseNeedle} must come from
+   * {@link #toLowerCaseAsciiUtf8}. Returns {@link #UNKNOWN} if {@code haystack} has non-ASCII bytes.
+   */
+  static int containsIgnoreCaseAscii(final ByteBuffer haystack, final byte[] lowerCaseNeedle)
+  {
+    final int start = haystack.position();
+    final int limit = haystack.limit();
+    for (int i = start; i < limit; i++) {
+      if (haystack.get(i) < 0) {
+        return UNKNOWN;
+      }
+    }
+
+    final int last = limit - lowerCaseNeedle.length;
+    for (int i = start; i <= last; i++) {
+      if (regionMatchesIgnoreCaseAscii(haystack, i, lowerCaseNeedle)) {
+        return MATCH;
+      }
+    }
+    return NO_MATCH;
+  }
+
+  private static boolean regionMatches(final ByteBuffer haystack, final int offset, final byte[] needle)
+  {
+    for (int j = 0; j < needle.length; j++) {
+      if (haystack.get(offset + j) != needle[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean regionMatchesIgnoreCaseAscii(
+      final ByteBuffer haystack,
+      final int offset,
+      final byte[] lowerCaseNeedle
+  )
+  {
+    for (int j = 0; j < lowerCaseNeedle.length; j++) {
+      final byte b = haystack.get(offset + j);
+      final byte lower = b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+      if (lower != lowerCaseNeedle[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
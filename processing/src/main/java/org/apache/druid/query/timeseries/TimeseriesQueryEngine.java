@@ -26,6 +26,7 @@ import com.google.inject.Inject;
 import org.apache.druid.collections.NonBlockingPool;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.collections.StupidPool;
+import org.apache.druid.collections.bitmap.BitmapFactory;
 import org.apache.druid.guice.annotations.Global;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.granularity.Granularities;
@@ -33,12 +34,17 @@ import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.CursorGranularizer;
+import org.apache.druid.query.Order;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.Result;
 import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorAdapters;
 import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.filter.FilterBundle;
+import org.apache.druid.query.spec.MultipleIntervalSegmentSpec;
 import org.apache.druid.query.vector.VectorCursorGranularizer;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.Cursor;
@@ -55,7 +61,10 @@ import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 /**
@@ -99,10 +108,120 @@ public class TimeseriesQueryEngine
       );
     }
 
-    final Interval interval = Iterables.getOnlyElement(query.getIntervals());
+    final Sequence<Result<TimeseriesResultValue>> result;
+    if (shouldProcessInWindows(query, timeBoundaryInspector)) {
+      result = processInWindows(query, cursorFactory, timeBoundaryInspector, timeseriesQueryMetrics);
+    } else {
+      result = processInterval(query, cursorFactory, timeBoundaryInspector, timeseriesQueryMetrics);
+    }
+
+    final int limit = query.getLimit();
+    if (limit < Integer.MAX_VALUE) {
+      return result.limit(limit);
+    } else {
+      return result;
+    }
+  }
+
+  /**
+   * Whether to split the query interval into windows of granularity buckets, each with its own cursor. This is only
+   * worthwhile when the query has a limit, so processing can stop after the first few windows, and a filter, whose
+   * bitmaps would otherwise be computed for the entire query interval before the first row is read.
+   */
+  private static boolean shouldProcessInWindows(
+      final TimeseriesQuery query,
+      @Nullable final TimeBoundaryInspector timeBoundaryInspector
+  )
+  {
+    return query.getLimit() < Integer.MAX_VALUE
+           && query.getFilter() != null
+           && !Granularities.ALL.equals(query.getGranularity())
+           && timeBoundaryInspector != null
+           && query.context().getBoolean(TimeseriesQuery.CTX_LIMIT_EARLY_TERMINATION, true);
+  }
+
+  /**
+   * Process the query interval lazily, one window of granularity buckets at a time, in query order. The first window
+   * holds as many buckets as the query limit, and each following window holds twice as many as the one before, so a
+   * query that reaches its limit early only builds filter bitmaps over the rows of the windows it actually read.
+   * Each window's cursor computes filter bitmaps for just the rows within the window; see
+   * {@link QueryContexts#CURSOR_RESTRICT_FILTER_TO_INTERVAL}. This requires the segment to be sorted by __time first,
+   * so the whole interval is processed at once if the cursor of the first window is not time-ordered.
+   * <p>
+   * Metrics of the windows' cursors are reported once for the segment; see {@link WindowedQueryMetrics}.
+   */
+  private Sequence<Result<TimeseriesResultValue>> processInWindows(
+      final TimeseriesQuery query,
+      final CursorFactory cursorFactory,
+      final TimeBoundaryInspector timeBoundaryInspector,
+      @Nullable final TimeseriesQueryMetrics timeseriesQueryMetrics
+  )
+  {
     final Granularity gran = query.getGranularity();
 
+    // Clip to the data interval in the same way as the granularizers, so the same buckets are produced.
+    final Interval clippedInterval = query.getSingleInterval().overlap(
+        new Interval(timeBoundaryInspector.getMinTime(), gran.bucketEnd(timeBoundaryInspector.getMaxTime()))
+    );
+    if (clippedInterval == null) {
+      return Sequences.empty();
+    }
+
+    final TimeseriesQuery windowQueryBase =
+        query.withOverriddenContext(Map.of(QueryContexts.CURSOR_RESTRICT_FILTER_TO_INTERVAL, true));
+    final WindowedQueryMetrics windowMetrics =
+        timeseriesQueryMetrics == null ? null : new WindowedQueryMetrics(timeseriesQueryMetrics);
+    final Iterator<Interval> windows =
+        new BucketWindowIterator(clippedInterval, gran, query.isDescending(), query.getLimit());
+    if (!windows.hasNext()) {
+      return Sequences.empty();
+    }
+
+    final TimeseriesQuery firstWindowQuery =
+        windowQueryBase.withQuerySegmentSpec(new MultipleIntervalSegmentSpec(List.of(windows.next())));
+    final CursorHolder firstCursorHolder =
+        cursorFactory.makeCursorHolder(makeCursorBuildSpec(firstWindowQuery, windowMetrics));
+    if (firstCursorHolder.getTimeOrder() == Order.NONE) {
+      firstCursorHolder.close();
+      return processInterval(query, cursorFactory, timeBoundaryInspector, timeseriesQueryMetrics);
+    }
+
+    final Sequence<Result<TimeseriesResultValue>> result = Sequences.concat(
+        processCursorHolder(firstWindowQuery, firstCursorHolder, timeBoundaryInspector),
+        Sequences.concat(
+            Sequences.simple((Iterable<Interval>) () -> windows).map(
+                window -> processInterval(
+                    windowQueryBase.withQuerySegmentSpec(new MultipleIntervalSegmentSpec(List.of(window))),
+                    cursorFactory,
+                    timeBoundaryInspector,
+                    windowMetrics
+                )
+            )
+        )
+    );
+    return windowMetrics == null ? result : Sequences.withBaggage(result, windowMetrics::reportTotals);
+  }
+
+  private Sequence<Result<TimeseriesResultValue>> processInterval(
+      TimeseriesQuery query,
+      final CursorFactory cursorFactory,
+      @Nullable TimeBoundaryInspector timeBoundaryInspector,
+      @Nullable final TimeseriesQueryMetrics timeseriesQueryMetrics
+  )
+  {
     final CursorHolder cursorHolder = cursorFactory.makeCursorHolder(makeCursorBuildSpec(query, timeseriesQueryMetrics));
+    return processCursorHolder(query, cursorHolder, timeBoundaryInspector);
+  }
+
+  private Sequence<Result<TimeseriesResultValue>> processCursorHolder(
+      TimeseriesQuery query,
+      final CursorHolder cursorHolder,
+      @Nullable TimeBoundaryInspector timeBoundaryInspector
+  )
+  {
+    final Interval interval = Iterables.getOnlyElement(query.getIntervals());
+    final Granularity gran = query.getGranularity();
+
     if (cursorHolder.isPreAggregated()) {
       query = query.withAggregatorSpecs(Preconditions.checkNotNull(cursorHolder.getAggregatorsForPreAggregated()));
     }
@@ -115,12 +234,7 @@ public class TimeseriesQueryEngine
         result = processNonVectorized(query, cursorHolder, timeBoundaryInspector, interval, gran);
       }
 
-      final int limit = query.getLimit();
-      if (limit < Integer.MAX_VALUE) {
-        return result.limit(limit).withBaggage(cursorHolder);
-      } else {
-        return result.withBaggage(cursorHolder);
-      }
+      return result.withBaggage(cursorHolder);
     }
     catch (Throwable t) {
       cursorHolder.close();
@@ -345,4 +459,151 @@ public class TimeseriesQueryEngine
                        .build()
     );
   }
+
+  /**
+   * Metrics given to the cursors of the windows of {@link #processInWindows}, which would otherwise report metrics of
+   * the segment once per window. Segment rows and filter details are passed on for the first window only, and bitmap
+   * construction time and pre-filtered rows are summed over all windows and passed on by {@link #reportTotals}.
+   */
+  private static class WindowedQueryMetrics extends DefaultTimeseriesQueryMetrics
+  {
+    private final TimeseriesQueryMetrics delegate;
+    private boolean reportedSegmentRows = false;
+    private boolean reportedFilterBundle = false;
+    private int numFilteredWindows = 0;
+    private long bitmapConstructionTimeNs = 0;
+    private long preFilteredRows = 0;
+
+    private WindowedQueryMetrics(TimeseriesQueryMetrics delegate)
+    {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void projection(String projection)
+    {
+      delegate.projection(projection);
+    }
+
+    @Override
+    public void vectorized(boolean vectorized)
+    {
+      delegate.vectorized(vectorized);
+    }
+
+    @Override
+    public BitmapResultFactory<?> makeBitmapResultFactory(BitmapFactory factory)
+    {
+      return delegate.makeBitmapResultFactory(factory);
+    }
+
+    @Override
+    public void filterBundle(FilterBundle.BundleInfo bundleInfo)
+    {
+      if (!reportedFilterBundle) {
+        delegate.filterBundle(bundleInfo);
+        reportedFilterBundle = true;
+      }
+    }
+
+    @Override
+    public QueryMetrics<TimeseriesQuery> reportSegmentRows(long numRows)
+    {
+      if (!reportedSegmentRows) {
+        delegate.reportSegmentRows(numRows);
+        reportedSegmentRows = true;
+      }
+      return this;
+    }
+
+    @Override
+    public QueryMetrics<TimeseriesQuery> reportBitmapConstructionTime(long timeNs)
+    {
+      bitmapConstructionTimeNs += timeNs;
+      return this;
+    }
+
+    @Override
+    public QueryMetrics<TimeseriesQuery> reportPreFilteredRows(long numRows)
+    {
+      numFilteredWindows++;
+      preFilteredRows += numRows;
+      return this;
+    }
+
+    private void reportTotals()
+    {
+      if (numFilteredWindows > 0) {
+        delegate.reportBitmapConstructionTime(bitmapConstructionTimeNs);
+        delegate.reportPreFilteredRows(preFilteredRows);
+      }
+    }
+  }
+
+  /**
+   * Splits an interval into consecutive windows of whole granularity buckets, clipped to the interval, in ascending
+   * or descending order. The first window has {@code initialNumBuckets} buckets, and each following window has twice
+   * as many as the one before.
+   */
+  @VisibleForTesting
+  static class BucketWindowIterator implements Iterator<Interval>
+  {
+    private final Interval interval;
+    private final Granularity granularity;
+    private final boolean descending;
+    private int numBuckets;
+
+    // Start of the next window when ascending, end of the next window when descending.
+    private long boundary;
+
+    BucketWindowIterator(
+        final Interval interval,
+        final Granularity granularity,
+        final boolean descending,
+        final int initialNumBuckets
+    )
+    {
+      this.interval = interval;
+      this.granularity = granularity;
+      this.descending = descending;
+      this.numBuckets = Math.max(1, initialNumBuckets);
+      this.boundary = descending ? interval.getEndMillis() : interval.getStartMillis();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return descending ? boundary > interval.getStartMillis() : boundary < interval.getEndMillis();
+    }
+
+    @Override
+    public Interval next()
+    {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      final Interval window;
+      if (descending) {
+        long windowStart = boundary;
+        for (int i = 0; i < numBuckets && windowStart > interval.getStartMillis(); i++) {
+          windowStart = granularity.bucketStart(windowStart - 1);
+        }
+        windowStart = Math.max(windowStart, interval.getStartMillis());
+        window = new Interval(windowStart, boundary, interval.getChronology());
+        boundary = windowStart;
+      } else {
+        long windowEnd = granularity.bucketStart(boundary);
+        for (int i = 0; i < numBuckets && windowEnd < interval.getEndMillis(); i++) {
+          windowEnd = granularity.increment(windowEnd);
+        }
+        windowEnd = Math.min(windowEnd, interval.getEndMillis());
+        window = new Interval(boundary, windowEnd, interval.getChronology());
+        boundary = windowEnd;
+      }
+
+      numBuckets = numBuckets > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : numBuckets * 2;
+      return window;
+    }
+  }
 }
@@ -493,6 +493,54 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
     return Optional.of(frames.map(frame -> new FrameSignaturePair(frame, modifiedRowSignature)));
   }
 
+  @Nullable
+  @Override
+  public RowSignature frameTransportSignature(final TimeseriesQuery query)
+  {
+    // Data servers send the time and aggregators only; post-aggregators are computed on the Broker.
+    final RowSignature signature =
+        RowSignature.builder()
+                    .addTimeColumn()
+                    .addAggregators(
+                        query.getAggregatorSpecs(),
+                        query.context().isFinalize(true) ? RowSignature.Finalization.YES : RowSignature.Finalization.NO
+                    )
+                    .build();
+    for (int i = 0; i < signature.size(); i++) {
+      if (!signature.getColumnType(i).isPresent()) {
+        return null;
+      }
+    }
+    return signature;
+  }
+
+  @Override
+  public Function<Result<TimeseriesResultValue>, Object[]> makeToFrameTransportFn(final TimeseriesQuery query)
+  {
+    final List<AggregatorFactory> aggregatorSpecs = query.getAggregatorSpecs();
+    return result -> {
+      final Object[] retVal = new Object[aggregatorSpecs.size() + 1];
+      retVal[0] = result.getTimestamp().getMillis();
+      for (int i = 0; i < aggregatorSpecs.size(); i++) {
+        retVal[i + 1] = result.getValue().getMetric(aggregatorSpecs.get(i).getName());
+      }
+      return retVal;
+    };
+  }
+
+  @Override
+  public Function<Object[], Result<TimeseriesResultValue>> makeFromFrameTransportFn(final TimeseriesQuery query)
+  {
+    final List<AggregatorFactory> aggregatorSpecs = query.getAggregatorSpecs();
+    return array -> {
+      final Map<String, Object> values = Maps.newHashMapWithExpectedSize(aggregatorSpecs.size());
+      for (int i = 0; i < aggregatorSpecs.size(); i++) {
+        values.put(aggregatorSpecs.get(i).getName(), array[i + 1]);
+      }
+      return new Result<>(DateTimes.utc(((Number) array[0]).longValue()), new TimeseriesResultValue(values));
+    };
+  }
+
   private Function<Result<TimeseriesResultValue>, Result<TimeseriesResultValue>> makeComputeManipulatorFn(
       final TimeseriesQuery query,
       final MetricManipulationFn fn,
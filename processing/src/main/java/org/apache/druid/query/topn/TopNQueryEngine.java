@@ -36,6 +36,7 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.extraction.ExtractionFn;
 import org.apache.druid.query.topn.types.TopNColumnAggregatesProcessor;
 import org.apache.druid.query.topn.types.TopNColumnAggregatesProcessorFactory;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.CursorBuildSpec;
@@ -97,13 +98,25 @@ public class TopNQueryEngine
       if (cursorHolder.isPreAggregated()) {
         query = query.withAggregatorSpecs(Preconditions.checkNotNull(cursorHolder.getAggregatorsForPreAggregated()));
       }
+      final TimeBoundaryInspector timeBoundaryInspector = segment.as(TimeBoundaryInspector.class);
+
+      if (shouldVectorize(query, cursorFactory, cursorHolder)) {
+        return VectorTopNEngine.process(
+            query,
+            cursorFactory,
+            buildSpec,
+            cursorHolder,
+            timeBoundaryInspector,
+            bufferPool,
+            queryMetrics
+        ).withBaggage(cursorHolder);
+      }
+
       final Cursor cursor = cursorHolder.asCursor();
       if (cursor == null) {
         return Sequences.withBaggage(Sequences.empty(), cursorHolder);
       }
 
-      final TimeBoundaryInspector timeBoundaryInspector = segment.as(TimeBoundaryInspector.class);
-
       final ColumnSelectorFactory factory = cursor.getColumnSelectorFactory();
 
       final ColumnSelectorPlus<TopNColumnAggregatesProcessor<?>> selectorPlus =
@@ -155,6 +168,25 @@ public class TopNQueryEngine
     }
   }
 
+  /**
+   * Whether to process the query with {@link VectorTopNEngine}. Unlike the other vectorized engines, a topN query that
+   * cannot vectorize silently falls back to the non-vectorized {@link TopNAlgorithm} implementations rather than
+   * failing when {@link QueryContexts.Vectorize#FORCE} is set, since the fallback algorithms remain the most efficient
+   * choice for dimensions that are not dictionary encoded.
+   */
+  private static boolean shouldVectorize(
+      final TopNQuery query,
+      final CursorFactory cursorFactory,
+      final CursorHolder cursorHolder
+  )
+  {
+    if (query.context().getVectorize() == QueryContexts.Vectorize.FALSE) {
+      return false;
+    }
+    final ColumnInspector inspector = query.getVirtualColumns().wrapInspector(cursorFactory);
+    return VectorTopNEngine.canVectorize(query, inspector) && cursorHolder.canVectorize();
+  }
+
   /**
    * Choose the best {@link TopNAlgorithm} for the given query.
    */
@@ -0,0 +1,809 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import org.apache.druid.collections.NonBlockingPool;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.error.DruidException;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.extraction.ExtractionFn;
+import org.apache.druid.query.vector.VectorCursorGranularizer;
+import org.apache.druid.segment.ColumnInspector;
+import org.apache.druid.segment.CursorBuildSpec;
+import org.apache.druid.segment.CursorFactory;
+import org.apache.druid.segment.CursorHolder;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.TimeBoundaryInspector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.column.Types;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Vectorized counterpart of {@link PooledTopNAlgorithm}. Reads batches of dictionary ids from a
+ * {@link SingleValueDimensionVectorSelector} and aggregates them into a pooled buffer, one slot per dictionary id, using
+ * {@link org.apache.druid.query.aggregation.VectorAggregator} with position arrays. When the buffer cannot hold a slot
+ * for every dictionary id, each time bucket is processed in multiple passes over a contiguous range of ids. Passes
+ * after the first read the bucket with a cursor over just its rows; see {@link BucketCursors}.
+ * <p>
+ * Also handles the queries served by {@link TimeExtractionTopNAlgorithm}, where the dimension is {@code __time} with an
+ * {@link ExtractionFn}. These read batches of timestamps, apply the extractionFn once per distinct timestamp, and
+ * assign each distinct extracted value a slot in the same pooled buffer, making more passes over a bucket if its
+ * values do not all fit. The buffer is reused across every time bucket, rather than allocating a map of
+ * {@link org.apache.druid.query.aggregation.Aggregator} per bucket.
+ * <p>
+ * Used by {@link TopNQueryEngine#query} when {@link #canVectorize} is true and the query context allows vectorization.
+ * Anything else falls back to the non-vectorized {@link TopNAlgorithm} implementations.
+ */
+public class VectorTopNEngine
+{
+  private VectorTopNEngine()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Whether the dimension of a topN query can be processed by this engine. Like {@link PooledTopNAlgorithm}, this
+   * requires a single-valued, dictionary encoded string column with unique dictionary values, so that rows can be
+   * aggregated directly on dictionary ids. Cursor-level concerns such as filters, virtual columns, and aggregators are
+   * checked separately by {@link CursorHolder#canVectorize()}.
+   * <p>
+   * Like {@link TimeExtractionTopNAlgorithm}, the {@code __time} column with an extractionFn is also supported, with
+   * any output type.
+   */
+  public static boolean canVectorize(final TopNQuery query, final ColumnInspector inspector)
+  {
+    final DimensionSpec dimensionSpec = query.getDimensionSpec();
+
+    if (isTimeExtraction(dimensionSpec)) {
+      return !dimensionSpec.mustDecorate()
+             && Types.is(inspector.getColumnCapabilities(ColumnHolder.TIME_COLUMN_NAME), ValueType.LONG);
+    }
+
+    if (!dimensionSpec.canVectorize() || dimensionSpec.mustDecorate() || dimensionSpec.getExtractionFn() != null) {
+      return false;
+    }
+
+    if (!dimensionSpec.getOutputType().is(ValueType.STRING)) {
+      return false;
+    }
+
+    final ColumnCapabilities capabilities = inspector.getColumnCapabilities(dimensionSpec.getDimension());
+    return Types.is(capabilities, ValueType.STRING)
+           && capabilities.isDictionaryEncoded().isTrue()
+           && capabilities.areDictionaryValuesUnique().isTrue()
+           && !capabilities.hasMultipleValues().isMaybeTrue();
+  }
+
+  /**
+   * Run a single-segment topN query on a {@link CursorHolder} that {@link CursorHolder#canVectorize()}, made from the
+   * given cursor factory and build spec, which are also used to make cursors over single buckets that need multiple
+   * passes. The cursor holder is not closed by this method; callers are expected to attach it as baggage to the
+   * returned sequence.
+   */
+  public static Sequence<Result<TopNResultValue>> process(
+      final TopNQuery query,
+      final CursorFactory cursorFactory,
+      final CursorBuildSpec buildSpec,
+      final CursorHolder cursorHolder,
+      @Nullable final TimeBoundaryInspector timeBoundaryInspector,
+      final NonBlockingPool<ByteBuffer> bufferPool,
+      @Nullable final TopNQueryMetrics queryMetrics
+  )
+  {
+    final VectorCursor cursor = cursorHolder.asVectorCursor();
+    if (cursor == null) {
+      return Sequences.empty();
+    }
+
+    final Closer closer = Closer.create();
+    try {
+      final VectorCursorGranularizer granularizer = VectorCursorGranularizer.create(
+          cursor,
+          timeBoundaryInspector,
+          cursorHolder.getTimeOrder(),
+          query.getGranularity(),
+          buildSpec.getInterval()
+      );
+
+      if (granularizer == null) {
+        return Sequences.withBaggage(Sequences.empty(), closer);
+      }
+
+      final AggregatorAdapters aggregators =
+          AggregatorAdapters.factorizeVector(cursor.getColumnSelectorFactory(), query.getAggregatorSpecs());
+      closer.register(aggregators::reset);
+
+      final ResourceHolder<ByteBuffer> bufferHolder = closer.register(bufferPool.take());
+      final ByteBuffer buffer = bufferHolder.get();
+
+      final int numBytesPerRecord = aggregators.spaceNeeded();
+      if (numBytesPerRecord > buffer.remaining()) {
+        throw new ISE(
+            "Not enough space for aggregators, needed [%,d] bytes but have only [%,d].",
+            numBytesPerRecord,
+            buffer.remaining()
+        );
+      }
+
+      final BucketCursors bucketCursors =
+          new BucketCursors(query, cursorFactory, buildSpec, cursorHolder, cursor, timeBoundaryInspector);
+      final Function<Interval, Result<TopNResultValue>> bucketProcessor;
+      if (isTimeExtraction(query.getDimensionSpec())) {
+        bucketProcessor = new TimeExtractionScanner(
+            query,
+            cursor,
+            bucketCursors,
+            granularizer,
+            aggregators,
+            buffer,
+            queryMetrics
+        )::processBucket;
+      } else {
+        final SingleValueDimensionVectorSelector dimSelector =
+            cursor.getColumnSelectorFactory().makeSingleValueDimensionSelector(query.getDimensionSpec());
+        final int cardinality = dimSelector.getValueCardinality();
+        if (cardinality < 0) {
+          throw DruidException.defensive(
+              "Cannot vectorize topN on dimension[%s] with unknown cardinality",
+              query.getDimensionSpec().getDimension()
+          );
+        }
+
+        final int numValuesPerPass =
+            numBytesPerRecord > 0 ? Math.min(cardinality, buffer.remaining() / numBytesPerRecord) : cardinality;
+
+        if (queryMetrics != null) {
+          queryMetrics.dimensionCardinality(cardinality);
+        }
+
+        bucketProcessor = new Scanner(
+            query,
+            cursor,
+            bucketCursors,
+            granularizer,
+            dimSelector,
+            aggregators,
+            buffer,
+            cardinality,
+            numValuesPerPass,
+            queryMetrics
+        )::processBucket;
+      }
+
+      return Sequences.withBaggage(
+          Sequences.simple(granularizer.getBucketIterable()).map(bucketProcessor),
+          closer
+      );
+    }
+    catch (Throwable t) {
+      try {
+        closer.close();
+      }
+      catch (Throwable t2) {
+        t.addSuppressed(t2);
+      }
+      throw t;
+    }
+  }
+
+  private static boolean isTimeExtraction(final DimensionSpec dimensionSpec)
+  {
+    return dimensionSpec.getExtractionFn() != null
+           && ColumnHolder.TIME_COLUMN_NAME.equals(dimensionSpec.getDimension());
+  }
+
+  /**
+   * Provides cursors for the passes over a time bucket after the first. The first pass over each bucket is read by the
+   * segment cursor as it moves through the buckets in order, so it ends up at the start of the next bucket. Later
+   * passes over the same bucket use a cursor over just the rows of that bucket, so that each pass costs as much as the
+   * bucket has rows, rather than every row of the segment up to the bucket.
+   * <p>
+   * A cursor over a narrower interval may read a different table than the segment cursor, such as an aggregate
+   * projection aligned to the bucket, so it is only used if neither of them reads pre-aggregated rows and both have the
+   * same ordering. Otherwise, later passes reset the segment cursor, and skip rows up to the bucket again, in the same
+   * way as {@link BaseTopNAlgorithm}.
+   */
+  private static class BucketCursors
+  {
+    private final TopNQuery query;
+    private final CursorFactory cursorFactory;
+    private final CursorBuildSpec buildSpec;
+    private final CursorHolder segmentCursorHolder;
+    private final VectorCursor segmentCursor;
+    @Nullable
+    private final TimeBoundaryInspector timeBoundaryInspector;
+
+    BucketCursors(
+        TopNQuery query,
+        CursorFactory cursorFactory,
+        CursorBuildSpec buildSpec,
+        CursorHolder segmentCursorHolder,
+        VectorCursor segmentCursor,
+        @Nullable TimeBoundaryInspector timeBoundaryInspector
+    )
+    {
+      this.query = query;
+      this.cursorFactory = cursorFactory;
+      this.buildSpec = buildSpec;
+      this.segmentCursorHolder = segmentCursorHolder;
+      this.segmentCursor = segmentCursor;
+      this.timeBoundaryInspector = timeBoundaryInspector;
+    }
+
+    /**
+     * Returns a holder of a vector cursor over the rows of the given bucket, which reads the same table as the segment
+     * cursor, or null if there is no such cursor and the caller must {@link #rewind} instead. Filter bitmaps are only
+     * computed for the rows of the bucket, and cursor metrics are not reported again.
+     */
+    @Nullable
+    CursorHolder open(final Interval bucketInterval)
+    {
+      final Interval interval = bucketInterval.overlap(buildSpec.getInterval());
+      if (segmentCursorHolder.isPreAggregated() || interval == null) {
+        return null;
+      }
+
+      final CursorHolder holder = cursorFactory.makeCursorHolder(
+          CursorBuildSpec.builder(buildSpec)
+                         .setInterval(interval)
+                         .setQueryContext(
+                             buildSpec.getQueryContext()
+                                      .override(Map.of(QueryContexts.CURSOR_RESTRICT_FILTER_TO_INTERVAL, true))
+                         )
+                         .setQueryMetrics(null)
+                         .build()
+      );
+      if (holder.isPreAggregated()
+          || !holder.getOrdering().equals(segmentCursorHolder.getOrdering())
+          || !holder.canVectorize()) {
+        holder.close();
+        return null;
+      }
+      return holder;
+    }
+
+    /**
+     * Returns a granularizer of a cursor made by {@link #open}, or null if the cursor has no rows in the bucket.
+     */
+    @Nullable
+    VectorCursorGranularizer granularize(
+        final CursorHolder holder,
+        final VectorCursor cursor,
+        final Interval bucketInterval
+    )
+    {
+      final Interval interval = bucketInterval.overlap(buildSpec.getInterval());
+      return VectorCursorGranularizer.create(
+          cursor,
+          timeBoundaryInspector,
+          holder.getTimeOrder(),
+          query.getGranularity(),
+          interval
+      );
+    }
+
+    /**
+     * Resets the segment cursor to the start of the segment, and returns a new granularizer for it. Scanning a bucket
+     * with it reads every row before the bucket again, which the granularizer skips.
+     */
+    VectorCursorGranularizer rewind()
+    {
+      segmentCursor.reset();
+      return VectorCursorGranularizer.create(
+          segmentCursor,
+          timeBoundaryInspector,
+          segmentCursorHolder.getTimeOrder(),
+          query.getGranularity(),
+          buildSpec.getInterval()
+      );
+    }
+  }
+
+  /**
+   * Holds the per-segment state of a vectorized topN scan, and processes one time bucket at a time.
+   */
+  private static class Scanner
+  {
+    private final TopNQuery query;
+    private final VectorCursor cursor;
+    private final BucketCursors bucketCursors;
+    private final SingleValueDimensionVectorSelector dimSelector;
+    private final AggregatorAdapters aggregators;
+    private final ByteBuffer buffer;
+    private final int cardinality;
+    private final int numValuesPerPass;
+    private final int numBytesPerRecord;
+    private final Comparator<?> comparator;
+    @Nullable
+    private final TopNQueryMetrics queryMetrics;
+
+    // Buffer position of each dictionary id in the current pass, or -1 if the id has not been seen yet.
+    private final int[] slotPositions;
+
+    // Scratch arrays passed to AggregatorAdapters#aggregateVector.
+    private final int[] vectorPositions;
+    private final int[] vectorRows;
+
+    private VectorCursorGranularizer granularizer;
+
+    Scanner(
+        TopNQuery query,
+        VectorCursor cursor,
+        BucketCursors bucketCursors,
+        VectorCursorGranularizer granularizer,
+        SingleValueDimensionVectorSelector dimSelector,
+        AggregatorAdapters aggregators,
+        ByteBuffer buffer,
+        int cardinality,
+        int numValuesPerPass,
+        @Nullable TopNQueryMetrics queryMetrics
+    )
+    {
+      this.query = query;
+      this.cursor = cursor;
+      this.bucketCursors = bucketCursors;
+      this.granularizer = granularizer;
+      this.dimSelector = dimSelector;
+      this.aggregators = aggregators;
+      this.buffer = buffer;
+      this.cardinality = cardinality;
+      this.numValuesPerPass = numValuesPerPass;
+      this.numBytesPerRecord = aggregators.spaceNeeded();
+      this.comparator = query.getTopNMetricSpec()
+                             .getComparator(query.getAggregatorSpecs(), query.getPostAggregatorSpecs());
+      this.queryMetrics = queryMetrics;
+      this.slotPositions = new int[numValuesPerPass];
+      this.vectorPositions = new int[cursor.getMaxVectorSize()];
+      this.vectorRows = new int[cursor.getMaxVectorSize()];
+    }
+
+    Result<TopNResultValue> processBucket(final Interval bucketInterval)
+    {
+      final TopNResultBuilder resultBuilder = query.getTopNMetricSpec().getResultBuilder(
+          DateTimes.utc(bucketInterval.getStartMillis()),
+          query.getDimensionSpec(),
+          query.getThreshold(),
+          comparator,
+          query.getAggregatorSpecs(),
+          query.getPostAggregatorSpecs()
+      );
+
+      if (queryMetrics != null) {
+        queryMetrics.startRecordingScanTime();
+      }
+
+      final int numValuesInFirstPass = Math.min(numValuesPerPass, cardinality);
+      final long processedRows =
+          scanAndAggregate(bucketInterval, cursor, granularizer, dimSelector, aggregators, 0, numValuesInFirstPass);
+      updateResults(resultBuilder, dimSelector, aggregators, 0, numValuesInFirstPass);
+      aggregators.reset();
+
+      // If the bucket has no rows, later passes have nothing to read either.
+      if (processedRows > 0) {
+        for (int passStart = numValuesPerPass; passStart < cardinality; passStart += numValuesPerPass) {
+          scanAgain(bucketInterval, resultBuilder, passStart, Math.min(numValuesPerPass, cardinality - passStart));
+        }
+      }
+
+      if (queryMetrics != null) {
+        queryMetrics.addProcessedRows(processedRows);
+        queryMetrics.stopRecordingScanTime();
+      }
+
+      return resultBuilder.build();
+    }
+
+    /**
+     * Aggregates a range of dictionary ids over a bucket that the segment cursor has already moved past, with a cursor
+     * from {@link BucketCursors}.
+     */
+    private void scanAgain(
+        final Interval bucketInterval,
+        final TopNResultBuilder resultBuilder,
+        final int passStart,
+        final int numValuesInPass
+    )
+    {
+      final CursorHolder bucketCursorHolder = bucketCursors.open(bucketInterval);
+      if (bucketCursorHolder != null) {
+        try (bucketCursorHolder) {
+          final VectorCursor bucketCursor = bucketCursorHolder.asVectorCursor();
+          if (bucketCursor == null) {
+            return;
+          }
+          final SingleValueDimensionVectorSelector bucketDimSelector =
+              bucketCursor.getColumnSelectorFactory().makeSingleValueDimensionSelector(query.getDimensionSpec());
+          // Dictionary ids are only comparable between selectors of the same column.
+          if (bucketDimSelector.getValueCardinality() == cardinality) {
+            final VectorCursorGranularizer bucketGranularizer =
+                bucketCursors.granularize(bucketCursorHolder, bucketCursor, bucketInterval);
+            if (bucketGranularizer == null) {
+              return;
+            }
+            final AggregatorAdapters bucketAggregators =
+                AggregatorAdapters.factorizeVector(bucketCursor.getColumnSelectorFactory(), query.getAggregatorSpecs());
+            try {
+              scanAndAggregate(
+                  bucketInterval,
+                  bucketCursor,
+                  bucketGranularizer,
+                  bucketDimSelector,
+                  bucketAggregators,
+                  passStart,
+                  numValuesInPass
+              );
+              updateResults(resultBuilder, bucketDimSelector, bucketAggregators, passStart, numValuesInPass);
+            }
+            finally {
+              bucketAggregators.reset();
+            }
+            return;
+          }
+        }
+      }
+
+      granularizer = bucketCursors.rewind();
+      scanAndAggregate(bucketInterval, cursor, granularizer, dimSelector, aggregators, passStart, numValuesInPass);
+      updateResults(resultBuilder, dimSelector, aggregators, passStart, numValuesInPass);
+      aggregators.reset();
+    }
+
+    private long scanAndAggregate(
+        final Interval bucketInterval,
+        final VectorCursor cursor,
+        final VectorCursorGranularizer granularizer,
+        final SingleValueDimensionVectorSelector dimSelector,
+        final AggregatorAdapters aggregators,
+        final int passStart,
+        final int numValuesInPass
+    )
+    {
+      Arrays.fill(slotPositions, 0, numValuesInPass, -1);
+      long processedRows = 0;
+
+      while (!cursor.isDone()) {
+        granularizer.setCurrentOffsets(bucketInterval);
+
+        final int startOffset = granularizer.getStartOffset();
+        final int endOffset = granularizer.getEndOffset();
+
+        if (endOffset > startOffset) {
+          final int[] rowVector = dimSelector.getRowVector();
+          int numRows = 0;
+
+          for (int i = startOffset; i < endOffset; i++) {
+            final int slot = rowVector[i] - passStart;
+            if (slot >= 0 && slot < numValuesInPass) {
+              int position = slotPositions[slot];
+              if (position < 0) {
+                position = slot * numBytesPerRecord;
+                aggregators.init(buffer, position);
+                slotPositions[slot] = position;
+              }
+              vectorPositions[numRows] = position;
+              vectorRows[numRows] = i;
+              numRows++;
+            }
+          }
+
+          if (numRows > 0) {
+            // When every row of the vector is included, rows map one-to-one onto positions.
+            final boolean allRows = startOffset == 0 && numRows == endOffset;
+            aggregators.aggregateVector(buffer, numRows, vectorPositions, allRows ? null : vectorRows);
+          }
+          processedRows += endOffset - startOffset;
+        }
+
+        if (!granularizer.advanceCursorWithinBucket()) {
+          break;
+        }
+      }
+
+      return processedRows;
+    }
+
+    private void updateResults(
+        final TopNResultBuilder resultBuilder,
+        final SingleValueDimensionVectorSelector dimSelector,
+        final AggregatorAdapters aggregators,
+        final int passStart,
+        final int numValuesInPass
+    )
+    {
+      for (int slot = 0; slot < numValuesInPass; slot++) {
+        final int position = slotPositions[slot];
+        if (position >= 0) {
+          final Object[] vals = new Object[aggregators.size()];
+          for (int j = 0; j < vals.length; j++) {
+            vals[j] = aggregators.get(buffer, position, j);
+          }
+
+          final int dictId = passStart + slot;
+          // Output type must be STRING in order to vectorize, so there is no need to convert the value.
+          resultBuilder.addEntry(dimSelector.lookupName(dictId), dictId, vals);
+        }
+      }
+    }
+  }
+
+  /**
+   * Holds the per-segment state of a vectorized topN scan on {@code __time} with an extractionFn, and processes one
+   * time bucket at a time. Extracted values are not known up front, so slots are assigned in order of first
+   * appearance within a bucket. If a bucket has more distinct values than fit in the pooled buffer, the values that do
+   * not fit are skipped and picked up by further passes over the bucket, in the same way as {@link Scanner}.
+   */
+  private static class TimeExtractionScanner
+  {
+    private final TopNQuery query;
+    private final VectorCursor cursor;
+    private final BucketCursors bucketCursors;
+    private final VectorValueSelector timeSelector;
+    private final ExtractionFn extractionFn;
+    private final Function<Object, Object> dimensionValueConverter;
+    private final AggregatorAdapters aggregators;
+    private final ByteBuffer buffer;
+    private final int numBytesPerRecord;
+    private final int numValuesPerPass;
+    private final Comparator<?> comparator;
+    @Nullable
+    private final TopNQueryMetrics queryMetrics;
+
+    // Buffer position of each extracted value aggregated in the current pass.
+    private final Object2IntOpenHashMap<Object> keyPositions;
+
+    // Extracted values aggregated by earlier passes over the current bucket.
+    private final ObjectOpenHashSet<Object> completedKeys;
+
+    // Scratch arrays passed to AggregatorAdapters#aggregateVector.
+    private final int[] vectorPositions;
+    private final int[] vectorRows;
+
+    private VectorCursorGranularizer granularizer;
+
+    // Whether the current pass skipped extracted values because the buffer was full.
+    private boolean hasSkippedKeys;
+
+    TimeExtractionScanner(
+        TopNQuery query,
+        VectorCursor cursor,
+        BucketCursors bucketCursors,
+        VectorCursorGranularizer granularizer,
+        AggregatorAdapters aggregators,
+        ByteBuffer buffer,
+        @Nullable TopNQueryMetrics queryMetrics
+    )
+    {
+      this.query = query;
+      this.cursor = cursor;
+      this.bucketCursors = bucketCursors;
+      this.granularizer = granularizer;
+      this.timeSelector = cursor.getColumnSelectorFactory().makeValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+      this.extractionFn = query.getDimensionSpec().getExtractionFn();
+      // ExtractionFns always return STRING, so we need to convert from STRING to the desired output type.
+      this.dimensionValueConverter = DimensionHandlerUtils.converterFromTypeToType(
+          ColumnType.STRING,
+          query.getDimensionSpec().getOutputType()
+      );
+      this.aggregators = aggregators;
+      this.buffer = buffer;
+      this.numBytesPerRecord = aggregators.spaceNeeded();
+      this.numValuesPerPass = numBytesPerRecord > 0 ? buffer.remaining() / numBytesPerRecord : Integer.MAX_VALUE;
+      this.comparator = query.getTopNMetricSpec()
+                             .getComparator(query.getAggregatorSpecs(), query.getPostAggregatorSpecs());
+      this.queryMetrics = queryMetrics;
+      this.keyPositions = new Object2IntOpenHashMap<>();
+      this.keyPositions.defaultReturnValue(-1);
+      this.completedKeys = new ObjectOpenHashSet<>();
+      this.vectorPositions = new int[cursor.getMaxVectorSize()];
+      this.vectorRows = new int[cursor.getMaxVectorSize()];
+    }
+
+    Result<TopNResultValue> processBucket(final Interval bucketInterval)
+    {
+      final TopNResultBuilder resultBuilder = query.getTopNMetricSpec().getResultBuilder(
+          DateTimes.utc(bucketInterval.getStartMillis()),
+          query.getDimensionSpec(),
+          query.getThreshold(),
+          comparator,
+          query.getAggregatorSpecs(),
+          query.getPostAggregatorSpecs()
+      );
+
+      if (queryMetrics != null) {
+        queryMetrics.startRecordingScanTime();
+      }
+
+      hasSkippedKeys = false;
+      final long processedRows = scanAndAggregate(bucketInterval, cursor, granularizer, timeSelector, aggregators);
+      finishPass(resultBuilder, aggregators);
+      aggregators.reset();
+
+      while (hasSkippedKeys) {
+        hasSkippedKeys = false;
+        scanAgain(bucketInterval, resultBuilder);
+      }
+      completedKeys.clear();
+
+      if (queryMetrics != null) {
+        queryMetrics.addProcessedRows(processedRows);
+        queryMetrics.stopRecordingScanTime();
+      }
+
+      return resultBuilder.build();
+    }
+
+    /**
+     * Aggregates the extracted values skipped by earlier passes over a bucket that the segment cursor has already moved
+     * past, with a cursor from {@link BucketCursors}.
+     */
+    private void scanAgain(final Interval bucketInterval, final TopNResultBuilder resultBuilder)
+    {
+      final CursorHolder bucketCursorHolder = bucketCursors.open(bucketInterval);
+      if (bucketCursorHolder != null) {
+        try (bucketCursorHolder) {
+          final VectorCursor bucketCursor = bucketCursorHolder.asVectorCursor();
+          final VectorCursorGranularizer bucketGranularizer = bucketCursor == null
+                                                               ? null
+                                                               : bucketCursors.granularize(
+                                                                   bucketCursorHolder,
+                                                                   bucketCursor,
+                                                                   bucketInterval
+                                                               );
+          if (bucketGranularizer == null) {
+            return;
+          }
+          final AggregatorAdapters bucketAggregators =
+              AggregatorAdapters.factorizeVector(bucketCursor.getColumnSelectorFactory(), query.getAggregatorSpecs());
+          try {
+            scanAndAggregate(
+                bucketInterval,
+                bucketCursor,
+                bucketGranularizer,
+                bucketCursor.getColumnSelectorFactory().makeValueSelector(ColumnHolder.TIME_COLUMN_NAME),
+                bucketAggregators
+            );
+            finishPass(resultBuilder, bucketAggregators);
+          }
+          finally {
+            bucketAggregators.reset();
+          }
+          return;
+        }
+      }
+
+      granularizer = bucketCursors.rewind();
+      scanAndAggregate(bucketInterval, cursor, granularizer, timeSelector, aggregators);
+      finishPass(resultBuilder, aggregators);
+      aggregators.reset();
+    }
+
+    private long scanAndAggregate(
+        final Interval bucketInterval,
+        final VectorCursor cursor,
+        final VectorCursorGranularizer granularizer,
+        final VectorValueSelector timeSelector,
+        final AggregatorAdapters aggregators
+    )
+    {
+      long processedRows = 0;
+
+      while (!cursor.isDone()) {
+        granularizer.setCurrentOffsets(bucketInterval);
+
+        final int startOffset = granularizer.getStartOffset();
+        final int endOffset = granularizer.getEndOffset();
+
+        if (endOffset > startOffset) {
+          final long[] timestamps = timeSelector.getLongVector();
+          int numRows = 0;
+
+          // Rows with the same timestamp are usually adjacent, so only look up a slot when the timestamp changes.
+          long lastTimestamp = timestamps[startOffset];
+          int lastPosition = getOrInitPosition(lastTimestamp, aggregators);
+          for (int i = startOffset; i < endOffset; i++) {
+            if (timestamps[i] != lastTimestamp) {
+              lastTimestamp = timestamps[i];
+              lastPosition = getOrInitPosition(lastTimestamp, aggregators);
+            }
+            if (lastPosition >= 0) {
+              vectorPositions[numRows] = lastPosition;
+              vectorRows[numRows] = i;
+              numRows++;
+            }
+          }
+
+          if (numRows > 0) {
+            // When every row of the vector is included, rows map one-to-one onto positions.
+            final boolean allRows = startOffset == 0 && numRows == endOffset;
+            aggregators.aggregateVector(buffer, numRows, vectorPositions, allRows ? null : vectorRows);
+          }
+          processedRows += endOffset - startOffset;
+        }
+
+        if (!granularizer.advanceCursorWithinBucket()) {
+          break;
+        }
+      }
+
+      return processedRows;
+    }
+
+    /**
+     * Returns the buffer position of the extracted value of the given timestamp, or -1 if that value is not aggregated
+     * in this pass.
+     */
+    private int getOrInitPosition(final long timestamp, final AggregatorAdapters aggregators)
+    {
+      final Object key = dimensionValueConverter.apply(extractionFn.apply(timestamp));
+      int position = keyPositions.getInt(key);
+      if (position < 0 && !completedKeys.contains(key)) {
+        if (keyPositions.size() < numValuesPerPass) {
+          position = keyPositions.size() * numBytesPerRecord;
+          aggregators.init(buffer, position);
+          keyPositions.put(key, position);
+        } else {
+          hasSkippedKeys = true;
+        }
+      }
+      return position;
+    }
+
+    /**
+     * Adds the values aggregated by a pass to the results, and marks them as done for the rest of the bucket.
+     */
+    private void finishPass(final TopNResultBuilder resultBuilder, final AggregatorAdapters aggregators)
+    {
+      for (final Object2IntMap.Entry<Object> entry : keyPositions.object2IntEntrySet()) {
+        final int position = entry.getIntValue();
+        final Object[] vals = new Object[aggregators.size()];
+        for (int j = 0; j < vals.length; j++) {
+          vals[j] = aggregators.get(buffer, position, j);
+        }
+        resultBuilder.addEntry(entry.getKey(), entry.getKey(), vals);
+      }
+      completedKeys.addAll(keyPositions.keySet());
+      keyPositions.clear();
+    }
+  }
+}
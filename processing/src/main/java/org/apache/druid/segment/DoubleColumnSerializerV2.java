@@ -24,14 +24,17 @@ import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.collections.bitmap.MutableBitmap;
 import org.apache.druid.common.utils.SerializerUtils;
 import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.query.filter.NumericKeyRanges;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.ByteBufferWriter;
 import org.apache.druid.segment.data.ColumnarDoublesSerializer;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
@@ -39,17 +42,23 @@ import java.nio.channels.WritableByteChannel;
 /**
  * Column Serializer for double column.
  * The column is serialized in two parts, first a bitmap indicating the nullability of row values
- * and second the actual row values.
+ * and second the actual row values. Optionally, a {@link NumericZoneMap} of the values follows the bitmap.
  * This class is unsafe for concurrent use from multiple threads.
  */
 public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
 {
+  /**
+   * Rows per block of the {@link NumericZoneMap}, the same as the rows per block of compressed doubles.
+   */
+  private static final int ZONE_MAP_ROWS_PER_BLOCK = CompressedPools.BUFFER_SIZE / Double.BYTES;
+
   public static DoubleColumnSerializerV2 create(
       String columnName,
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       CompressionStrategy compression,
-      BitmapSerdeFactory bitmapSerdeFactory
+      BitmapSerdeFactory bitmapSerdeFactory,
+      boolean writeZoneMap
   )
   {
     return new DoubleColumnSerializerV2(
@@ -58,7 +67,8 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
         filenameBase,
         IndexIO.BYTE_ORDER,
         compression,
-        bitmapSerdeFactory
+        bitmapSerdeFactory,
+        writeZoneMap
     );
   }
 
@@ -68,10 +78,13 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
   private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final boolean writeZoneMap;
 
   private ColumnarDoublesSerializer writer;
   private ByteBufferWriter<ImmutableBitmap> nullValueBitmapWriter;
   private MutableBitmap nullRowsBitmap;
+  @Nullable
+  private NumericZoneMap.Writer zoneMapWriter;
   private int rowCount = 0;
 
   private DoubleColumnSerializerV2(
@@ -80,7 +93,8 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
       String filenameBase,
       ByteOrder byteOrder,
       CompressionStrategy compression,
-      BitmapSerdeFactory bitmapSerdeFactory
+      BitmapSerdeFactory bitmapSerdeFactory,
+      boolean writeZoneMap
   )
   {
     this.columnName = columnName;
@@ -89,6 +103,7 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     this.byteOrder = byteOrder;
     this.compression = compression;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.writeZoneMap = writeZoneMap;
   }
 
   @Override
@@ -109,6 +124,9 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     );
     nullValueBitmapWriter.open();
     nullRowsBitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyMutableBitmap();
+    if (writeZoneMap) {
+      zoneMapWriter = new NumericZoneMap.Writer(ZONE_MAP_ROWS_PER_BLOCK);
+    }
   }
 
   @Override
@@ -117,8 +135,15 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     if (selector.isNull()) {
       nullRowsBitmap.add(rowCount);
       writer.add(0D);
+      if (zoneMapWriter != null) {
+        zoneMapWriter.addNull();
+      }
     } else {
-      writer.add(selector.getDouble());
+      final double value = selector.getDouble();
+      writer.add(value);
+      if (zoneMapWriter != null) {
+        zoneMapWriter.add(NumericKeyRanges.doubleKey(value));
+      }
     }
     rowCount++;
   }
@@ -127,6 +152,13 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
   public long getSerializedSize() throws IOException
   {
     nullValueBitmapWriter.write(bitmapSerdeFactory.getBitmapFactory().makeImmutableBitmap(nullRowsBitmap));
+    if (zoneMapWriter != null) {
+      // the zone map follows the null bitmap, so the bitmap is written even if empty
+      return Integer.BYTES
+             + writer.getSerializedSize()
+             + nullValueBitmapWriter.getSerializedSize()
+             + zoneMapWriter.getSerializedSize();
+    }
     long bitmapSize = nullRowsBitmap.isEmpty()
                       ? 0L
                       : nullValueBitmapWriter.getSerializedSize();
@@ -138,7 +170,10 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
   {
     SerializerUtils.writeInt(channel, Ints.checkedCast(writer.getSerializedSize()));
     writer.writeTo(channel, fileBuilder);
-    if (!nullRowsBitmap.isEmpty()) {
+    if (zoneMapWriter != null) {
+      nullValueBitmapWriter.writeTo(channel, fileBuilder);
+      zoneMapWriter.writeTo(channel);
+    } else if (!nullRowsBitmap.isEmpty()) {
       nullValueBitmapWriter.writeTo(channel, fileBuilder);
     }
   }
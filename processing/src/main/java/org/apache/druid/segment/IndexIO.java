@@ -70,6 +70,7 @@ import org.apache.druid.segment.data.VSizeColumnarMultiInts;
 import org.apache.druid.segment.file.SegmentFileMapper;
 import org.apache.druid.segment.file.SegmentFileMapperV10;
 import org.apache.druid.segment.file.SegmentFileMetadata;
+import org.apache.druid.segment.file.SegmentReadahead;
 import org.apache.druid.segment.projections.AggregateProjectionSchema;
 import org.apache.druid.segment.projections.BaseTableProjectionSchema;
 import org.apache.druid.segment.projections.ClusteredValueGroupsBaseTableSchema;
@@ -96,6 +97,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -1067,6 +1069,26 @@ public class IndexIO
         {
           return reconstructedMetadata;
         }
+
+        @Override
+        public void prefetchColumns(Set<String> columns)
+        {
+          if (isClusteredSummary || !SegmentReadahead.isEnabled()) {
+            return;
+          }
+          final Set<String> smooshNames = new LinkedHashSet<>();
+          for (String column : columns) {
+            final String physical =
+                ColumnHolder.TIME_COLUMN_NAME.equals(column) ? baseSchema.getTimeColumnName() : column;
+            if (physical != null) {
+              final String smooshName = Projections.getProjectionSegmentInternalFileName(baseSchema, physical);
+              if (metadata.getColumnDescriptors().containsKey(smooshName)) {
+                smooshNames.add(smooshName);
+              }
+            }
+          }
+          SegmentReadahead.submit(fileMapper, smooshNames);
+        }
       };
     }
 
@@ -1140,7 +1140,8 @@ public abstract class IndexMergerBase implements IndexMerger
         columnName,
         indexSpec.getMetricCompression(),
         indexSpec.getLongEncoding(),
-        indexSpec.getBitmapSerdeFactory()
+        indexSpec.getBitmapSerdeFactory(),
+        Boolean.TRUE.equals(indexSpec.getNumericZoneMaps())
     );
   }
 
@@ -1155,7 +1156,8 @@ public abstract class IndexMergerBase implements IndexMerger
         segmentWriteOutMedium,
         columnName,
         indexSpec.getMetricCompression(),
-        indexSpec.getBitmapSerdeFactory()
+        indexSpec.getBitmapSerdeFactory(),
+        Boolean.TRUE.equals(indexSpec.getNumericZoneMaps())
     );
   }
 
@@ -1170,7 +1172,8 @@ public abstract class IndexMergerBase implements IndexMerger
         segmentWriteOutMedium,
         columnName,
         indexSpec.getMetricCompression(),
-        indexSpec.getBitmapSerdeFactory()
+        indexSpec.getBitmapSerdeFactory(),
+        Boolean.TRUE.equals(indexSpec.getNumericZoneMaps())
     );
   }
 
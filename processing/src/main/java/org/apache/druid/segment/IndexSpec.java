@@ -79,6 +79,8 @@ public class IndexSpec
   private final StringColumnFormatSpec stringColumnFormatSpec;
   @Nullable
   private final CompressionStrategy metadataCompression;
+  @Nullable
+  private final Boolean numericZoneMaps;
 
   /**
    * Creates an IndexSpec with the given storage format settings.
@@ -114,6 +116,10 @@ public class IndexSpec
    *                                 auto columns. Defaults to null upon calling {@link #getEffectiveSpec()}.
    * @param stringColumnFormatSpec   specify the default {@link StringColumnFormatSpec} to use for string columns.
    *                                 Defaults to null upon calling {@link #getEffectiveSpec()}.
+   * @param numericZoneMaps          whether to write a {@link org.apache.druid.segment.data.NumericZoneMap} with long,
+   *                                 double and float columns, so range filters can skip blocks of rows that cannot
+   *                                 match. Defaults to null, meaning no zone maps are written, upon calling
+   *                                 {@link #getEffectiveSpec()}.
    */
   @JsonCreator
   public IndexSpec(
@@ -127,7 +133,8 @@ public class IndexSpec
       @Deprecated @JsonProperty("jsonCompression") @Nullable CompressionStrategy jsonCompression,
       @JsonProperty("segmentLoader") @Nullable SegmentizerFactory segmentLoader,
       @JsonProperty("autoColumnFormatSpec") @Nullable NestedCommonFormatColumnFormatSpec autoColumnFormatSpec,
-      @JsonProperty("stringColumnFormatSpec") @Nullable StringColumnFormatSpec stringColumnFormatSpec
+      @JsonProperty("stringColumnFormatSpec") @Nullable StringColumnFormatSpec stringColumnFormatSpec,
+      @JsonProperty("numericZoneMaps") @Nullable Boolean numericZoneMaps
   )
   {
     this.bitmapSerdeFactory = bitmapSerdeFactory;
@@ -141,6 +148,7 @@ public class IndexSpec
     this.segmentLoader = segmentLoader;
     this.autoColumnFormatSpec = autoColumnFormatSpec;
     this.stringColumnFormatSpec = stringColumnFormatSpec;
+    this.numericZoneMaps = numericZoneMaps;
   }
 
   @JsonProperty("bitmap")
@@ -227,6 +235,14 @@ public class IndexSpec
     return stringColumnFormatSpec;
   }
 
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Boolean getNumericZoneMaps()
+  {
+    return numericZoneMaps;
+  }
+
   /**
    * Populate all null fields of {@link IndexSpec}, first from {@link #getDefault()} and finally falling back to hard
    * coded defaults if no overrides are defined.
@@ -323,6 +339,12 @@ public class IndexSpec
       );
     }
 
+    if (numericZoneMaps != null) {
+      bob.withNumericZoneMaps(numericZoneMaps);
+    } else if (defaultSpec.numericZoneMaps != null) {
+      bob.withNumericZoneMaps(defaultSpec.numericZoneMaps);
+    }
+
     return bob.build();
   }
 
@@ -346,7 +368,8 @@ public class IndexSpec
            Objects.equals(jsonCompression, indexSpec.jsonCompression) &&
            Objects.equals(segmentLoader, indexSpec.segmentLoader) &&
            Objects.equals(autoColumnFormatSpec, indexSpec.autoColumnFormatSpec) &&
-           Objects.equals(stringColumnFormatSpec, indexSpec.stringColumnFormatSpec);
+           Objects.equals(stringColumnFormatSpec, indexSpec.stringColumnFormatSpec) &&
+           Objects.equals(numericZoneMaps, indexSpec.numericZoneMaps);
   }
 
   @Override
@@ -363,7 +386,8 @@ public class IndexSpec
         jsonCompression,
         segmentLoader,
         autoColumnFormatSpec,
-        stringColumnFormatSpec
+        stringColumnFormatSpec,
+        numericZoneMaps
     );
   }
 
@@ -382,6 +406,7 @@ public class IndexSpec
            ", stringColumnFormatSpec=" + stringColumnFormatSpec +
            ", jsonCompression=" + jsonCompression +
            ", segmentLoader=" + segmentLoader +
+           ", numericZoneMaps=" + numericZoneMaps +
            '}';
   }
 
@@ -409,6 +434,8 @@ public class IndexSpec
     private NestedCommonFormatColumnFormatSpec autoColumnFormatSpec;
     @Nullable
     private StringColumnFormatSpec stringColumnFormatSpec;
+    @Nullable
+    private Boolean numericZoneMaps;
 
     public Builder withBitmapSerdeFactory(@Nullable BitmapSerdeFactory bitmapSerdeFactory)
     {
@@ -477,6 +504,12 @@ public class IndexSpec
       return this;
     }
 
+    public Builder withNumericZoneMaps(@Nullable Boolean numericZoneMaps)
+    {
+      this.numericZoneMaps = numericZoneMaps;
+      return this;
+    }
+
     public IndexSpec build()
     {
       return new IndexSpec(
@@ -490,7 +523,8 @@ public class IndexSpec
           jsonCompression,
           segmentLoader,
           autoColumnFormatSpec,
-          stringColumnFormatSpec
+          stringColumnFormatSpec,
+          numericZoneMaps
       );
     }
   }
@@ -29,9 +29,11 @@ import org.apache.druid.segment.data.ByteBufferWriter;
 import org.apache.druid.segment.data.ColumnarLongsSerializer;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
@@ -39,18 +41,25 @@ import java.nio.channels.WritableByteChannel;
 /**
  * Column Serializer for long column.
  * The column is serialized in two parts, first a bitmap indicating the nullability of row values
- * and second the actual row values.
+ * and second the actual row values. Optionally, a {@link NumericZoneMap} of the values follows the bitmap.
  * This class is unsafe for concurrent use from multiple threads.
  */
 public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
 {
+  /**
+   * Rows per block of the {@link NumericZoneMap}. This is the block size of the "longs" encoding; "auto" may pick delta
+   * or table encoding, which pack more values into each compressed block, so zone map blocks do not line up with those.
+   */
+  private static final int ZONE_MAP_ROWS_PER_BLOCK = CompressedPools.BUFFER_SIZE / Long.BYTES;
+
   public static LongColumnSerializerV2 create(
       String columnName,
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       CompressionStrategy compression,
       CompressionFactory.LongEncodingStrategy encoding,
-      BitmapSerdeFactory bitmapSerdeFactory
+      BitmapSerdeFactory bitmapSerdeFactory,
+      boolean writeZoneMap
   )
   {
     return new LongColumnSerializerV2(
@@ -60,7 +69,8 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
         IndexIO.BYTE_ORDER,
         compression,
         encoding,
-        bitmapSerdeFactory
+        bitmapSerdeFactory,
+        writeZoneMap
     );
   }
 
@@ -71,10 +81,13 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   private final CompressionStrategy compression;
   private final CompressionFactory.LongEncodingStrategy encoding;
   private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final boolean writeZoneMap;
 
   private ColumnarLongsSerializer writer;
   private ByteBufferWriter<ImmutableBitmap> nullValueBitmapWriter;
   private MutableBitmap nullRowsBitmap;
+  @Nullable
+  private NumericZoneMap.Writer zoneMapWriter;
   private int rowCount = 0;
 
   private LongColumnSerializerV2(
@@ -84,7 +97,8 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
       ByteOrder byteOrder,
       CompressionStrategy compression,
       CompressionFactory.LongEncodingStrategy encoding,
-      BitmapSerdeFactory bitmapSerdeFactory
+      BitmapSerdeFactory bitmapSerdeFactory,
+      boolean writeZoneMap
   )
   {
     this.columnName = columnName;
@@ -94,6 +108,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
     this.compression = compression;
     this.encoding = encoding;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.writeZoneMap = writeZoneMap;
   }
 
   @Override
@@ -115,6 +130,10 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
     );
     nullValueBitmapWriter.open();
     nullRowsBitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyMutableBitmap();
+    // block_delta already stores the minimum and maximum of each of its blocks, which are read as the zone map
+    if (writeZoneMap && encoding != CompressionFactory.LongEncodingStrategy.BLOCK_DELTA) {
+      zoneMapWriter = new NumericZoneMap.Writer(ZONE_MAP_ROWS_PER_BLOCK);
+    }
   }
 
   @Override
@@ -134,6 +153,9 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   {
     nullRowsBitmap.add(rowCount);
     writer.add(0L);
+    if (zoneMapWriter != null) {
+      zoneMapWriter.addNull();
+    }
     ++rowCount;
   }
 
@@ -143,6 +165,9 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   public void serializeValue(long val) throws IOException
   {
     writer.add(val);
+    if (zoneMapWriter != null) {
+      zoneMapWriter.add(val);
+    }
     ++rowCount;
   }
 
@@ -150,6 +175,13 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   public long getSerializedSize() throws IOException
   {
     nullValueBitmapWriter.write(bitmapSerdeFactory.getBitmapFactory().makeImmutableBitmap(nullRowsBitmap));
+    if (zoneMapWriter != null) {
+      // the zone map follows the null bitmap, so the bitmap is written even if empty
+      return Integer.BYTES
+             + writer.getSerializedSize()
+             + nullValueBitmapWriter.getSerializedSize()
+             + zoneMapWriter.getSerializedSize();
+    }
     long bitmapSize = nullRowsBitmap.isEmpty()
                       ? 0L
                       : nullValueBitmapWriter.getSerializedSize();
@@ -161,7 +193,10 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   {
     SerializerUtils.writeInt(channel, Ints.checkedCast(writer.getSerializedSize()));
     writer.writeTo(channel, fileBuilder);
-    if (!nullRowsBitmap.isEmpty()) {
+    if (zoneMapWriter != null) {
+      nullValueBitmapWriter.writeTo(channel, fileBuilder);
+      zoneMapWriter.writeTo(channel);
+    } else if (!nullRowsBitmap.isEmpty()) {
       nullValueBitmapWriter.writeTo(channel, fileBuilder);
     }
   }
@@ -22,6 +22,7 @@ package org.apache.druid.segment;
 import org.apache.druid.common.asyncresource.AsyncResource;
 
 import java.io.Closeable;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 /**
@@ -29,6 +30,7 @@ import java.util.concurrent.Callable;
  * <ol>
  *   <li>A hook for acquiring a hold on the cache-layer bundle.</li>
  *   <li>A hook for submitting bundle download tasks.</li>
+ *   <li>A hook for recording which columns of which bundles queries read.</li>
  * </ol>
  */
 public interface PartialBundleAcquirer
@@ -48,4 +50,14 @@ public interface PartialBundleAcquirer
    * (it may be a completion token if the work is purely a side effect), since {@link AsyncResource} cannot hold null.
    */
   <T> AsyncResource<T> submitDownload(Callable<T> task);
+
+  /**
+   * Record that a cursor is about to read {@code columns} from the bundle with the given name, so the cache layer can
+   * learn which bundles and columns are worth keeping resident. Called once per bundle per cursor, before
+   * {@link #acquire}. Implementations must be cheap and safe to call concurrently.
+   */
+  default void recordAccess(String bundleName, Set<String> columns)
+  {
+    // nothing to record by default
+  }
 }
@@ -600,6 +600,23 @@ public class PartialQueryableIndex implements QueryableIndex
     return new CursorPrefetchPlan(matched, null, bundles);
   }
 
+  /**
+   * Plan the coalesced range reads that make {@code columns} of the named base-table or aggregate projection bundle
+   * resident outside of any cursor, e.g. to warm the columns queries are known to read. Cluster-group bundles and
+   * unknown bundle names plan nothing. As with {@link PrefetchBundle#planFetches()}, call only while holding the
+   * bundle.
+   */
+  public List<PartialSegmentFileMapperV10.PlannedFetch> planBundlePrefetch(String bundleName, Set<String> columns)
+  {
+    if (Projections.BASE_TABLE_PROJECTION_NAME.equals(bundleName)) {
+      return clusteredBaseSummary == null ? planBaseTablePrefetch(columns) : List.of();
+    }
+    if (projectionSpecs.containsKey(bundleName)) {
+      return planProjectionPrefetch(bundleName, columns);
+    }
+    return List.of();
+  }
+
   /**
    * The base-table parent columns that materializing {@code requiredProjectionColumns} on {@code projectionName}
    * pulls in: {@link #buildColumnSuppliers} materializes a projection column's same-named base column whenever the
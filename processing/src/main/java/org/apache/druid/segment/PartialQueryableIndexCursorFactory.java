@@ -141,6 +141,7 @@ public class PartialQueryableIndexCursorFactory implements CursorFactory
     try {
       final List<AsyncResource<String>> runDownloads = new ArrayList<>();
       for (PartialQueryableIndex.PrefetchBundle bundle : bundles) {
+        bundleAcquirer.recordAccess(bundle.bundleName(), bundle.requiredColumns());
         final BundleHoldRelease holdRelease = new BundleHoldRelease(bundleAcquirer.acquire(bundle.bundleName()));
         holdReleases.add(holdRelease);
         // Plan the bundle's range reads only now, under its freshly-acquired hold
@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Direct interface to memory mapped segments. Not a public API for extensions; site specific queries should be
@@ -100,6 +101,15 @@ public interface QueryableIndex extends Closeable, ColumnInspector
   @Override
   void close();
 
+  /**
+   * Hints that the given columns of the base table are about to be read by a query, so that an index that can load
+   * them from disk ahead of the query may start doing so. Must not block. Default does nothing.
+   */
+  default void prefetchColumns(Set<String> columns)
+  {
+    // nothing to prefetch
+  }
+
   @Nullable
   default QueryableProjection<QueryableIndex> getProjection(CursorBuildSpec cursorBuildSpec)
   {
@@ -96,6 +96,9 @@ public class QueryableIndexCursorFactory implements ResidentCursorFactory
     }
 
     // No projections, no clustering, regular full-segment cursor.
+    if (spec.getPhysicalColumns() != null) {
+      index.prefetchColumns(spec.getPhysicalColumns());
+    }
     return new QueryableIndexCursorHolder(index, spec, timeBoundaryInspector);
   }
 
@@ -35,6 +35,7 @@ import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContext;
 import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryMetrics;
+import org.apache.druid.query.RangeRestrictedBitmapResultFactory;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.filter.ColumnIndexSelector;
 import org.apache.druid.query.filter.Filter;
@@ -138,6 +139,7 @@ public class QueryableIndexCursorHolder implements CursorHolder
               interval,
               filter,
               cursorBuildSpec.getQueryContext().getBoolean(QueryContexts.CURSOR_AUTO_ARRANGE_FILTERS, true),
+              cursorBuildSpec.getQueryContext().getBoolean(QueryContexts.CURSOR_RESTRICT_FILTER_TO_INTERVAL, false),
               metrics
           );
           resourcesComputed.set(true);
@@ -698,6 +700,7 @@ public class QueryableIndexCursorHolder implements CursorHolder
         Interval interval,
         @Nullable Filter filter,
         boolean cursorAutoArrangeFilters,
+        boolean restrictFilterToInterval,
         @Nullable QueryMetrics<? extends Query<?>> metrics
     )
     {
@@ -706,6 +709,20 @@ public class QueryableIndexCursorHolder implements CursorHolder
       this.timeBoundaryInspector = timeBoundaryInspector;
       try {
         this.numRows = index.getNumRows();
+
+        // For time-ordered segments, the cursor only reads rows within the interval. Optionally compute the filter
+        // bitmaps over just those rows, which is much cheaper than the whole segment when the interval is narrow.
+        int startRow = 0;
+        int endRow = numRows;
+        if (restrictFilterToInterval && filter != null && timeOrder != Order.NONE) {
+          if (interval.getStartMillis() > timeBoundaryInspector.getMinTime().getMillis()) {
+            startRow = timeSearch(getTimestampsColumn(), interval.getStartMillis(), 0, numRows);
+          }
+          if (interval.getEndMillis() <= timeBoundaryInspector.getMaxTime().getMillis()) {
+            endRow = timeSearch(getTimestampsColumn(), interval.getEndMillis(), startRow, numRows);
+          }
+        }
+
         this.filterBundle = makeFilterBundle(
             computeFilterWithIntervalIfNeeded(
                 timeBoundaryInspector,
@@ -716,6 +733,8 @@ public class QueryableIndexCursorHolder implements CursorHolder
             cursorAutoArrangeFilters,
             columnCache,
             numRows,
+            startRow,
+            endRow,
             metrics
         );
         this.timeOrder = timeOrder;
@@ -748,6 +767,9 @@ public class QueryableIndexCursorHolder implements CursorHolder
    * <p>
    * The provided filter must include the query-level interface if needed. To compute this properly, use
    * {@link #computeFilterWithIntervalIfNeeded}.
+   * <p>
+   * If [startRow, endRow) does not cover the whole segment, bitmaps are computed only for rows within that range, and
+   * the cursor must not read any rows outside of it.
    */
   @Nullable
   private static FilterBundle makeFilterBundle(
@@ -755,17 +777,21 @@ public class QueryableIndexCursorHolder implements CursorHolder
       boolean cursorAutoArrangeFilters,
       final ColumnIndexSelector bitmapIndexSelector,
       final int numRows,
+      final int startRow,
+      final int endRow,
       @Nullable final QueryMetrics<?> metrics
   )
   {
     final BitmapFactory bitmapFactory = bitmapIndexSelector.getBitmapFactory();
-    final BitmapResultFactory<?> bitmapResultFactory;
+    final BitmapResultFactory<?> baseBitmapResultFactory;
     if (metrics != null) {
-      bitmapResultFactory = metrics.makeBitmapResultFactory(bitmapFactory);
+      baseBitmapResultFactory = metrics.makeBitmapResultFactory(bitmapFactory);
       metrics.reportSegmentRows(numRows);
     } else {
-      bitmapResultFactory = new DefaultBitmapResultFactory(bitmapFactory);
+      baseBitmapResultFactory = new DefaultBitmapResultFactory(bitmapFactory);
     }
+    final BitmapResultFactory<?> bitmapResultFactory =
+        restrictToRows(baseBitmapResultFactory, bitmapFactory, numRows, startRow, endRow);
     if (filter == null) {
       return null;
     }
@@ -776,7 +802,7 @@ public class QueryableIndexCursorHolder implements CursorHolder
         cursorAutoArrangeFilters
     ).build(
         bitmapResultFactory,
-        numRows,
+        endRow - startRow,
         numRows,
         false
     );
@@ -799,6 +825,20 @@ public class QueryableIndexCursorHolder implements CursorHolder
     return filterBundle;
   }
 
+  private static <T> BitmapResultFactory<T> restrictToRows(
+      final BitmapResultFactory<T> bitmapResultFactory,
+      final BitmapFactory bitmapFactory,
+      final int numRows,
+      final int startRow,
+      final int endRow
+  )
+  {
+    if (startRow == 0 && endRow == numRows) {
+      return bitmapResultFactory;
+    }
+    return new RangeRestrictedBitmapResultFactory<>(bitmapResultFactory, bitmapFactory, startRow, endRow);
+  }
+
   /**
    * Returns the query-level {@link Filter} plus, if needed, a {@link RangeFilter} for
    * {@link ColumnHolder#TIME_COLUMN_NAME}. The time filter is added if time order is {@link Order#NONE} and
@@ -29,7 +29,8 @@ import org.apache.druid.collections.bitmap.ImmutableBitmap;
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = BitmapSerde.DefaultBitmapSerdeFactory.class)
 @JsonSubTypes(value = {
     @JsonSubTypes.Type(name = "concise", value = ConciseBitmapSerdeFactory.class),
-    @JsonSubTypes.Type(name = "roaring", value = RoaringBitmapSerdeFactory.class)
+    @JsonSubTypes.Type(name = "roaring", value = RoaringBitmapSerdeFactory.class),
+    @JsonSubTypes.Type(name = "inlineRoaring", value = InlineRoaringBitmapSerdeFactory.class)
 })
 public interface BitmapSerdeFactory
 {
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.IAE;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reader for {@link CompressionFactory.LongEncodingFormat#BLOCK_DELTA}, see {@link BlockDeltaLongEncodingWriter}.
+ */
+public class BlockDeltaLongEncodingReader implements CompressionFactory.LongEncodingReader
+{
+  private final long[] blockMins;
+  private final long[] blockMaxes;
+  private long base;
+  private VSizeLongSerde.LongDeserializer deserializer;
+
+  public BlockDeltaLongEncodingReader(ByteBuffer fromBuffer)
+  {
+    final ByteBuffer buffer = fromBuffer.asReadOnlyBuffer();
+    byte version = buffer.get();
+    if (version == CompressionFactory.BLOCK_DELTA_ENCODING_VERSION) {
+      final int numBlocks = buffer.getInt();
+      blockMins = new long[numBlocks];
+      blockMaxes = new long[numBlocks];
+      for (int i = 0; i < numBlocks; i++) {
+        blockMins[i] = buffer.getLong();
+        blockMaxes[i] = buffer.getLong();
+      }
+      fromBuffer.position(buffer.position());
+    } else {
+      throw new IAE("Unknown version[%s]", version);
+    }
+  }
+
+  private BlockDeltaLongEncodingReader(long[] blockMins, long[] blockMaxes)
+  {
+    this.blockMins = blockMins;
+    this.blockMaxes = blockMaxes;
+  }
+
+  @Override
+  public void setBuffer(ByteBuffer buffer)
+  {
+    final int position = buffer.position();
+    base = buffer.getLong(position);
+    final int bitsPerValue = buffer.get(position + Long.BYTES);
+    deserializer = VSizeLongSerde.getDeserializer(
+        bitsPerValue,
+        buffer,
+        position + BlockDeltaLongEncodingWriter.BLOCK_HEADER_SIZE
+    );
+  }
+
+  @Override
+  public long read(int index)
+  {
+    return base + deserializer.get(index);
+  }
+
+  @Override
+  public void read(long[] out, int outPosition, int startIndex, int length)
+  {
+    deserializer.getDelta(out, outPosition, startIndex, length, base);
+  }
+
+  @Override
+  public int read(long[] out, int outPosition, int[] indexes, int length, int indexOffset, int limit)
+  {
+    return deserializer.getDelta(out, outPosition, indexes, length, indexOffset, limit, base);
+  }
+
+  @Override
+  public CompressionFactory.LongEncodingReader duplicate()
+  {
+    return new BlockDeltaLongEncodingReader(blockMins, blockMaxes);
+  }
+
+  @Override
+  public CompressionFactory.LongEncodingStrategy getStrategy()
+  {
+    return CompressionFactory.LongEncodingStrategy.BLOCK_DELTA;
+  }
+
+  /**
+   * Minimum and maximum value of each block, as written in the column header, see {@link NumericZoneMap#ofLongs}.
+   */
+  public NumericZoneMap getZoneMap(int rowsPerBlock, int numRows, ImmutableBitmap nullRows)
+  {
+    return NumericZoneMap.ofLongs(rowsPerBlock, numRows, blockMins, blockMaxes, nullRows);
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.apache.druid.java.util.common.UOE;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writer for {@link CompressionFactory.LongEncodingFormat#BLOCK_DELTA}. Values of each block are held until
+ * {@link #flush()}, which writes the minimum value of the block and the number of bits needed for the largest offset
+ * from it, followed by the offsets of all values packed with {@link VSizeLongSerde}. The minimum and maximum of every
+ * block are also collected and written with the column header by {@link #putMeta}, and read back as a
+ * {@link NumericZoneMap}.
+ *
+ * Only usable with the block layout, since blocks do not have a fixed size.
+ */
+public class BlockDeltaLongEncodingWriter implements CompressionFactory.LongEncodingWriter
+{
+  /**
+   * Minimum value and bits per value at the start of each block.
+   */
+  static final int BLOCK_HEADER_SIZE = Long.BYTES + 1;
+
+  private final LongList blockMins = new LongArrayList();
+  private final LongList blockMaxes = new LongArrayList();
+  private long[] values = new long[0];
+  private int numValues;
+  private ByteBuffer buffer;
+
+  @Override
+  public void setBuffer(ByteBuffer buffer)
+  {
+    this.buffer = buffer;
+  }
+
+  @Override
+  public void setOutputStream(WriteOutBytes output)
+  {
+    throw new UOE("%s encoding requires compression", CompressionFactory.LongEncodingFormat.BLOCK_DELTA);
+  }
+
+  @Override
+  public void write(long value)
+  {
+    if (numValues == values.length) {
+      values = Arrays.copyOf(values, Math.max(64, values.length * 2));
+    }
+    values[numValues++] = value;
+  }
+
+  @Override
+  public void flush() throws IOException
+  {
+    if (numValues == 0) {
+      return;
+    }
+    long min = values[0];
+    long max = values[0];
+    for (int i = 1; i < numValues; i++) {
+      min = Math.min(min, values[i]);
+      max = Math.max(max, values[i]);
+    }
+    blockMins.add(min);
+    blockMaxes.add(max);
+
+    final int bitsPerValue = getBitsPerValue(min, max);
+    buffer.putLong(min);
+    buffer.put((byte) bitsPerValue);
+    final VSizeLongSerde.LongSerializer serializer =
+        VSizeLongSerde.getSerializer(bitsPerValue, buffer, buffer.position());
+    for (int i = 0; i < numValues; i++) {
+      // wraps around for blocks spanning more than Long.MAX_VALUE, which are stored with 64 bits and read back with
+      // the same wrapping addition
+      serializer.write(values[i] - min);
+    }
+    serializer.close();
+    numValues = 0;
+  }
+
+  @Override
+  public void putMeta(ByteBuffer metaOut, CompressionStrategy strategy)
+  {
+    metaOut.put(CompressionFactory.setEncodingFlag(strategy.getId()));
+    metaOut.put(CompressionFactory.LongEncodingFormat.BLOCK_DELTA.getId());
+    metaOut.put(CompressionFactory.BLOCK_DELTA_ENCODING_VERSION);
+    metaOut.putInt(blockMins.size());
+    for (int i = 0; i < blockMins.size(); i++) {
+      metaOut.putLong(blockMins.getLong(i));
+      metaOut.putLong(blockMaxes.getLong(i));
+    }
+  }
+
+  @Override
+  public int metaSize()
+  {
+    return 1 + 1 + 1 + Integer.BYTES + blockMins.size() * 2 * Long.BYTES;
+  }
+
+  @Override
+  public int getBlockSize(int bytesPerBlock)
+  {
+    // sized for the worst case of blocks needing all 64 bits
+    return VSizeLongSerde.getNumValuesPerBlock(Long.SIZE, bytesPerBlock - BLOCK_HEADER_SIZE);
+  }
+
+  @Override
+  public int getNumBytes(int values)
+  {
+    return BLOCK_HEADER_SIZE + VSizeLongSerde.getSerializedSize(Long.SIZE, values);
+  }
+
+  static int getBitsPerValue(long min, long max)
+  {
+    final long delta = max - min;
+    if (delta < 0 || delta == Long.MAX_VALUE) {
+      return Long.SIZE;
+    }
+    return VSizeLongSerde.getBitsForMax(delta + 1);
+  }
+}
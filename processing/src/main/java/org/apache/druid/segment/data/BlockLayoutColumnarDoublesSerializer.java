@@ -69,7 +69,7 @@ public class BlockLayoutColumnarDoublesSerializer implements ColumnarDoublesSeri
         fileSizeLimit,
         closer
     );
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     CompressionStrategy.Compressor compressor = compression.getCompressor();
     this.endBuffer = compressor.allocateInBuffer(CompressedPools.BUFFER_SIZE, closer).order(byteOrder);
   }
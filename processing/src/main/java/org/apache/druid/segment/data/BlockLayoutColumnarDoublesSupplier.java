@@ -32,6 +32,9 @@ public class BlockLayoutColumnarDoublesSupplier implements Supplier<ColumnarDoub
 {
   private final GenericIndexed<ResourceHolder<ByteBuffer>> baseDoubleBuffers;
 
+  // Key of this column's blocks in the DecompressedBlockCache, taken once per load of the column.
+  private final long blockCacheId = DecompressedBlockCache.nextColumnId();
+
   // The number of rows in this column.
   private final int totalSize;
 
@@ -89,7 +92,8 @@ public class BlockLayoutColumnarDoublesSupplier implements Supplier<ColumnarDoub
   // This needs to be a public class so that SemanticCreator is able to call it.
   public class BlockLayoutColumnarDoubles implements ColumnarDoubles
   {
-    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedDoubleBuffers = baseDoubleBuffers.singleThreaded();
+    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedDoubleBuffers =
+        DecompressedBlockCache.wrap(blockCacheId, strategy, baseDoubleBuffers.singleThreaded());
 
     int currBufferNum = -1;
     @Nullable
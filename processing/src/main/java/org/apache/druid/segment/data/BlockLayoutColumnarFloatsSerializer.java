@@ -70,7 +70,7 @@ public class BlockLayoutColumnarFloatsSerializer implements ColumnarFloatsSerial
         fileSizeLimit,
         closer
     );
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     CompressionStrategy.Compressor compressor = compression.getCompressor();
     this.endBuffer = compressor.allocateInBuffer(CompressedPools.BUFFER_SIZE, closer).order(byteOrder);
   }
@@ -32,11 +32,15 @@ public class BlockLayoutColumnarFloatsSupplier implements Supplier<ColumnarFloat
 {
   private final GenericIndexed<ResourceHolder<ByteBuffer>> baseFloatBuffers;
 
+  // Key of this column's blocks in the DecompressedBlockCache, taken once per load of the column.
+  private final long blockCacheId = DecompressedBlockCache.nextColumnId();
+
   // The number of rows in this column.
   private final int totalSize;
 
   // The number of floats per buffer.
   private final int sizePer;
+  private final CompressionStrategy strategy;
 
   public BlockLayoutColumnarFloatsSupplier(
       int totalSize,
@@ -47,6 +51,7 @@ public class BlockLayoutColumnarFloatsSupplier implements Supplier<ColumnarFloat
       @Nullable SegmentFileMapper fileMapper
   )
   {
+    this.strategy = strategy;
     baseFloatBuffers = GenericIndexed.read(
         fromBuffer,
         DecompressingByteBufferObjectStrategy.of(byteOrder, strategy),
@@ -86,7 +91,8 @@ public class BlockLayoutColumnarFloatsSupplier implements Supplier<ColumnarFloat
 
   private class BlockLayoutColumnarFloats implements ColumnarFloats
   {
-    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedFloatBuffers = baseFloatBuffers.singleThreaded();
+    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedFloatBuffers =
+        DecompressedBlockCache.wrap(blockCacheId, strategy, baseFloatBuffers.singleThreaded());
 
     int currBufferNum = -1;
     @Nullable
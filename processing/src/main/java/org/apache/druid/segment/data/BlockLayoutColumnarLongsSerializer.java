@@ -76,7 +76,7 @@ public class BlockLayoutColumnarLongsSerializer implements ColumnarLongsSerializ
         closer
     );
     this.writer = writer;
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     CompressionStrategy.Compressor compressor = compression.getCompressor();
     endBuffer = compressor.allocateInBuffer(writer.getNumBytes(sizePer), closer).order(byteOrder);
     writer.setBuffer(endBuffer);
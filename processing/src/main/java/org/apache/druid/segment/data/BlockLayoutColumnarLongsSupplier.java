@@ -21,6 +21,7 @@ package org.apache.druid.segment.data;
 
 import com.google.common.base.Supplier;
 import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.common.semantic.SemanticUtils;
 import org.apache.druid.segment.file.SegmentFileMapper;
 
@@ -38,6 +39,9 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
 
   private final GenericIndexed<ResourceHolder<ByteBuffer>> baseLongBuffers;
 
+  // Key of this column's blocks in the DecompressedBlockCache, taken once per load of the column.
+  private final long blockCacheId = DecompressedBlockCache.nextColumnId();
+
   // The number of rows in this column.
   private final int totalSize;
 
@@ -67,6 +71,18 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
     this.baseReader = reader;
   }
 
+  /**
+   * Per-block minimum and maximum values, if the encoding stores them.
+   */
+  @Nullable
+  public NumericZoneMap getZoneMap(ImmutableBitmap nullRows)
+  {
+    if (baseReader instanceof BlockDeltaLongEncodingReader blockDeltaReader) {
+      return blockDeltaReader.getZoneMap(sizePer, totalSize, nullRows);
+    }
+    return null;
+  }
+
   @Override
   public ColumnarLongs get()
   {
@@ -136,7 +152,8 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
   public class BlockLayoutColumnarLongs implements ColumnarLongs
   {
     final CompressionFactory.LongEncodingReader reader = baseReader.duplicate();
-    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedLongBuffers = baseLongBuffers.singleThreaded();
+    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedLongBuffers =
+        DecompressedBlockCache.wrap(blockCacheId, strategy, baseLongBuffers.singleThreaded());
 
     int currBufferNum = -1;
     @Nullable
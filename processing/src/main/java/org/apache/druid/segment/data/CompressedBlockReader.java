@@ -25,6 +25,7 @@ import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.segment.CompressedPools;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -38,6 +39,10 @@ import java.util.function.Supplier;
  * Format:
  * | version (byte) | compression (byte) | block size (int) | num blocks (int) | end offsets | compressed data |
  *
+ * or, for blocks compressed with a dictionary trained for {@link CompressionStrategy#ZSTD_DICTIONARY}:
+ * | version (byte) | compression (byte) | block size (int) | num blocks (int) | dictionary size (int) | dictionary |
+ * end offsets | compressed data |
+ *
  * This mechanism supports two modes of use, the first where callers may ask for a range of data from the underlying
  * blocks, provided by {@link #getRange(long, int)}. The {@link ByteBuffer} provided by this method may or may not
  * be valid after additional calls to {@link #getRange(long, int)} or calls to {@link #seekBlock(int)}.
@@ -55,6 +60,7 @@ public final class CompressedBlockReader implements Closeable
 {
   private static final ByteBuffer NULL_VALUE = ByteBuffer.wrap(new byte[0]);
   public static final byte VERSION = 0x01;
+  public static final byte VERSION_DICTIONARY = 0x02;
 
   public static Supplier<CompressedBlockReader> fromByteBuffer(
       ByteBuffer buffer,
@@ -65,7 +71,7 @@ public final class CompressedBlockReader implements Closeable
   {
     byte versionFromBuffer = buffer.get();
 
-    if (versionFromBuffer == VERSION) {
+    if (versionFromBuffer == VERSION || versionFromBuffer == VERSION_DICTIONARY) {
       final CompressionStrategy compression = CompressionStrategy.forId(buffer.get());
       final int blockSize = buffer.getInt();
       Preconditions.checkState(
@@ -73,6 +79,15 @@ public final class CompressedBlockReader implements Closeable
           "Maximum block size must be less than " + CompressedPools.BUFFER_SIZE
       );
       final int numBlocks = buffer.getInt();
+      final CompressionStrategy.Decompressor decompressor;
+      if (versionFromBuffer == VERSION_DICTIONARY) {
+        final byte[] dictionary = new byte[buffer.getInt()];
+        buffer.get(dictionary);
+        // the digested dictionary is shared by all readers of the column
+        decompressor = new CompressionStrategy.ZstdDictionaryDecompressor(dictionary);
+      } else {
+        decompressor = compression.getDecompressor();
+      }
       final int offsetsSize = numBlocks * Integer.BYTES;
       // buffer is at start of ending offsets
       final ByteBuffer offsets = buffer.asReadOnlyBuffer().order(compressionOrder);
@@ -87,8 +102,13 @@ public final class CompressedBlockReader implements Closeable
       buffer.position(buffer.position() + compressedSize);
 
       final ByteBuffer compressedDataView = compressedData.slice().order(compressionOrder);
+      final DecompressedBlockCache blockCache =
+          compression == CompressionStrategy.UNCOMPRESSED ? null : DecompressedBlockCache.getInstance();
+      final long blockCacheId = DecompressedBlockCache.nextColumnId();
       return () -> new CompressedBlockReader(
-          compression,
+          decompressor,
+          blockCache,
+          blockCacheId,
           numBlocks,
           blockSize,
           copyValuesOnRead,
@@ -102,6 +122,9 @@ public final class CompressedBlockReader implements Closeable
   }
 
   private final CompressionStrategy.Decompressor decompressor;
+  @Nullable
+  private final DecompressedBlockCache blockCache;
+  private final long blockCacheId;
 
   private final boolean copyValuesOnRead;
   private final int numBlocks;
@@ -118,7 +141,9 @@ public final class CompressedBlockReader implements Closeable
   private int currentBlockNumber = -1;
 
   public CompressedBlockReader(
-      CompressionStrategy compressionStrategy,
+      CompressionStrategy.Decompressor decompressor,
+      @Nullable DecompressedBlockCache blockCache,
+      long blockCacheId,
       int numBlocks,
       int blockSize,
       boolean copyValuesOnRead,
@@ -128,7 +153,9 @@ public final class CompressedBlockReader implements Closeable
       ByteOrder valueByteOrder
   )
   {
-    this.decompressor = compressionStrategy.getDecompressor();
+    this.decompressor = decompressor;
+    this.blockCache = blockCache;
+    this.blockCacheId = blockCacheId;
     this.copyValuesOnRead = copyValuesOnRead;
     this.numBlocks = numBlocks;
     this.div = Integer.numberOfTrailingZeros(blockSize);
@@ -240,6 +267,14 @@ public final class CompressedBlockReader implements Closeable
       return;
     }
 
+    decompressedDataBuffer.clear();
+    final ByteBuffer cached = blockCache == null ? null : blockCache.get(blockCacheId, block);
+    if (cached != null) {
+      decompressedDataBuffer.put(cached).clear();
+      currentBlockNumber = block;
+      return;
+    }
+
     final int blockStartOffset;
     final int blockEndOffset;
     if (block == 0) {
@@ -249,12 +284,14 @@ public final class CompressedBlockReader implements Closeable
       blockStartOffset = endOffsetsBuffer.get(block - 1);
       blockEndOffset = endOffsetsBuffer.get(block);
     }
-    decompressedDataBuffer.clear();
     compressedDataBuffer.limit(blockEndOffset);
     compressedDataBuffer.position(blockStartOffset);
 
     decompressor.decompress(compressedDataBuffer, blockEndOffset - blockStartOffset, decompressedDataBuffer);
     decompressedDataBuffer.limit(decompressedDataBuffer.capacity());
+    if (blockCache != null) {
+      blockCache.offer(blockCacheId, block, decompressedDataBuffer);
+    }
 
     currentBlockNumber = block;
   }
@@ -19,8 +19,13 @@
 
 package org.apache.druid.segment.data;
 
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.druid.io.Channels;
 import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.segment.CompressedPools;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 import org.apache.druid.segment.serde.MetaSerdeHelper;
@@ -33,18 +38,54 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
+/**
+ * Writer for {@link CompressedBlockReader}.
+ *
+ * With {@link CompressionStrategy#ZSTD_DICTIONARY}, blocks are first written out uncompressed while the values added
+ * are sampled, until the total sample size reaches {@link #DICTIONARY_SAMPLE_BUFFER_SIZE}. Once all values are added,
+ * a zstd dictionary is trained on the samples and every block is compressed with it, and the dictionary is stored in
+ * the header. If there are too few blocks for a dictionary to pay for itself, or training fails, the blocks are
+ * compressed with plain {@link CompressionStrategy#ZSTD} instead.
+ */
 public class CompressedBlockSerializer implements Serializer
 {
+  private static final Logger log = new Logger(CompressedBlockSerializer.class);
+
+  /**
+   * Maximum size of a trained dictionary.
+   */
+  private static final int DICTIONARY_SIZE = 16 * 1024;
+
+  /**
+   * Size of the buffer of sampled values to train a dictionary on, zstd recommends about 100 times the dictionary size.
+   */
+  private static final int DICTIONARY_SAMPLE_BUFFER_SIZE = 64 * DICTIONARY_SIZE;
+
+  /**
+   * Minimum number of blocks to train a dictionary for, since the dictionary is stored along with the blocks.
+   */
+  private static final int DICTIONARY_MIN_BLOCKS = 4;
+
   private static final MetaSerdeHelper<CompressedBlockSerializer> META_SERDE_HELPER = MetaSerdeHelper
-      .firstWriteByte((CompressedBlockSerializer x) -> (byte) 0x01)
-      .writeByte(x -> x.compression.getId())
+      .firstWriteByte((CompressedBlockSerializer x) -> CompressedBlockReader.VERSION)
+      .writeByte(x -> x.getStoredCompression().getId())
       .writeInt(x -> CompressedPools.BUFFER_SIZE)
       .writeInt(x -> x.numBlocks);
 
+  private static final MetaSerdeHelper<CompressedBlockSerializer> DICTIONARY_META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((CompressedBlockSerializer x) -> CompressedBlockReader.VERSION_DICTIONARY)
+      .writeByte(x -> x.compression.getId())
+      .writeInt(x -> CompressedPools.BUFFER_SIZE)
+      .writeInt(x -> x.numBlocks)
+      .writeInt(x -> x.dictionary.length)
+      .writeByteArray(x -> x.dictionary);
+
   private final SegmentWriteOutMedium segmentWriteOutMedium;
   private final CompressionStrategy compression;
   private final CompressionStrategy.Compressor compressor;
+  private final boolean trainDictionary;
 
   private final ByteBuffer offsetValueConverter = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.nativeOrder());
 
@@ -59,6 +100,18 @@ public class CompressedBlockSerializer implements Serializer
   @Nullable
   private WriteOutBytes valuesOut = null;
 
+  /**
+   * Uncompressed blocks, and their sizes, while sampling values for a dictionary.
+   */
+  @Nullable
+  private WriteOutBytes rawBlocksOut = null;
+  private final IntList rawBlockSizes = new IntArrayList();
+  @Nullable
+  private ZstdDictTrainer dictionaryTrainer = null;
+  private boolean samplingValues = false;
+  @Nullable
+  private byte[] dictionary = null;
+
   public CompressedBlockSerializer(
       SegmentWriteOutMedium segmentWriteOutMedium,
       CompressionStrategy compression,
@@ -69,6 +122,7 @@ public class CompressedBlockSerializer implements Serializer
     this.segmentWriteOutMedium = segmentWriteOutMedium;
     this.compression = compression;
     this.compressor = compression.getCompressor();
+    this.trainDictionary = compression == CompressionStrategy.ZSTD_DICTIONARY;
     this.uncompressedDataBuffer = compressor.allocateInBuffer(blockSize, closer).order(ByteOrder.nativeOrder());
     this.compressedDataBuffer = compressor.allocateOutBuffer(blockSize, closer).order(ByteOrder.nativeOrder());
   }
@@ -77,6 +131,11 @@ public class CompressedBlockSerializer implements Serializer
   {
     headerOut = segmentWriteOutMedium.makeWriteOutBytes();
     valuesOut = segmentWriteOutMedium.makeWriteOutBytes();
+    if (trainDictionary) {
+      rawBlocksOut = segmentWriteOutMedium.makeWriteOutBytes();
+      dictionaryTrainer = new ZstdDictTrainer(DICTIONARY_SAMPLE_BUFFER_SIZE, DICTIONARY_SIZE);
+      samplingValues = true;
+    }
   }
 
   public void addValue(byte[] bytes) throws IOException
@@ -85,6 +144,11 @@ public class CompressedBlockSerializer implements Serializer
       throw new IllegalStateException("written out already");
     }
     flushIfNeeded();
+    if (samplingValues && bytes.length > 0) {
+      addSample(bytes.length <= uncompressedDataBuffer.capacity()
+                ? bytes
+                : Arrays.copyOf(bytes, uncompressedDataBuffer.capacity()));
+    }
 
     if (bytes.length <= uncompressedDataBuffer.remaining()) {
       uncompressedDataBuffer.put(bytes);
@@ -107,6 +171,11 @@ public class CompressedBlockSerializer implements Serializer
     }
     flushIfNeeded();
     int size = bytes.remaining();
+    if (samplingValues && size > 0) {
+      final byte[] sample = new byte[Math.min(size, uncompressedDataBuffer.capacity())];
+      bytes.duplicate().get(sample);
+      addSample(sample);
+    }
     if (size <= uncompressedDataBuffer.remaining()) {
       uncompressedDataBuffer.put(bytes);
     } else {
@@ -126,14 +195,14 @@ public class CompressedBlockSerializer implements Serializer
   public long getSerializedSize() throws IOException
   {
     writeEndBuffer();
-    return META_SERDE_HELPER.size(this) + headerOut.size() + valuesOut.size();
+    return getMetaSerdeHelper().size(this) + headerOut.size() + valuesOut.size();
   }
 
   @Override
   public void writeTo(WritableByteChannel channel, SegmentFileBuilder fileBuilder) throws IOException
   {
     writeEndBuffer();
-    META_SERDE_HELPER.writeTo(channel, this);
+    getMetaSerdeHelper().writeTo(channel, this);
     headerOut.writeTo(channel);
     valuesOut.writeTo(channel);
   }
@@ -145,12 +214,48 @@ public class CompressedBlockSerializer implements Serializer
     }
   }
 
+  private MetaSerdeHelper<CompressedBlockSerializer> getMetaSerdeHelper()
+  {
+    return dictionary == null ? META_SERDE_HELPER : DICTIONARY_META_SERDE_HELPER;
+  }
+
+  /**
+   * Blocks compressed without a dictionary are plain {@link CompressionStrategy#ZSTD}, and are stored as such so that
+   * readers without dictionary support can read them.
+   */
+  private CompressionStrategy getStoredCompression()
+  {
+    return compression.withoutDictionary();
+  }
+
+  /**
+   * Adds a value, or its prefix if it is larger than a block, to the samples to train a dictionary on.
+   */
+  private void addSample(byte[] sample)
+  {
+    if (!dictionaryTrainer.addSample(sample)) {
+      // sample buffer is full, stop sampling
+      samplingValues = false;
+    }
+  }
+
   private void flushBuffer() throws IOException
   {
     uncompressedDataBuffer.rewind();
+    if (rawBlocksOut != null) {
+      rawBlockSizes.add(uncompressedDataBuffer.remaining());
+      Channels.writeFully(rawBlocksOut, uncompressedDataBuffer);
+      uncompressedDataBuffer.clear();
+      return;
+    }
+    writeBlock(compressor);
+  }
+
+  private void writeBlock(CompressionStrategy.Compressor blockCompressor) throws IOException
+  {
     compressedDataBuffer.clear();
 
-    final ByteBuffer compressed = compressor.compress(uncompressedDataBuffer, compressedDataBuffer);
+    final ByteBuffer compressed = blockCompressor.compress(uncompressedDataBuffer, compressedDataBuffer);
 
     currentOffset += compressed.remaining();
     offsetValueConverter.clear();
@@ -170,7 +275,81 @@ public class CompressedBlockSerializer implements Serializer
     if (uncompressedDataBuffer != null) {
       uncompressedDataBuffer.flip();
       flushBuffer();
+      if (rawBlocksOut != null) {
+        writeRawBlocks();
+      }
       uncompressedDataBuffer = null;
     }
   }
+
+  /**
+   * Trains a dictionary on the sampled values, if there are enough blocks, and compresses the uncompressed blocks
+   * written so far, with the dictionary if it pays off.
+   */
+  private void writeRawBlocks() throws IOException
+  {
+    final byte[] trainedDictionary = trainDictionary();
+    if (trainedDictionary != null) {
+      try (CompressionStrategy.ZstdDictionaryCompressor dictionaryCompressor =
+               new CompressionStrategy.ZstdDictionaryCompressor(trainedDictionary)) {
+        if (dictionaryPaysOff(trainedDictionary, dictionaryCompressor)) {
+          dictionary = trainedDictionary;
+          writeRawBlocks(dictionaryCompressor);
+        }
+      }
+    }
+    if (dictionary == null) {
+      writeRawBlocks(compressor);
+    }
+    rawBlocksOut = null;
+  }
+
+  @Nullable
+  private byte[] trainDictionary()
+  {
+    final ZstdDictTrainer trainer = dictionaryTrainer;
+    dictionaryTrainer = null;
+    if (rawBlockSizes.size() < DICTIONARY_MIN_BLOCKS) {
+      return null;
+    }
+    try {
+      return trainer.trainSamples();
+    }
+    catch (ZstdException e) {
+      log.debug(e, "Unable to train zstd dictionary, compressing blocks without one");
+      return null;
+    }
+  }
+
+  /**
+   * Estimates from the first block whether compressing all blocks with the dictionary saves more than the size of the
+   * dictionary itself, which is stored with them.
+   */
+  private boolean dictionaryPaysOff(
+      byte[] trainedDictionary,
+      CompressionStrategy.Compressor dictionaryCompressor
+  ) throws IOException
+  {
+    readRawBlock(0, 0);
+    final int plainSize = compressor.compress(uncompressedDataBuffer, compressedDataBuffer).remaining();
+    final int dictionarySize = dictionaryCompressor.compress(uncompressedDataBuffer, compressedDataBuffer).remaining();
+    return (long) (plainSize - dictionarySize) * rawBlockSizes.size() > trainedDictionary.length;
+  }
+
+  private void writeRawBlocks(CompressionStrategy.Compressor blockCompressor) throws IOException
+  {
+    long position = 0;
+    for (int i = 0; i < rawBlockSizes.size(); i++) {
+      readRawBlock(i, position);
+      writeBlock(blockCompressor);
+      position += rawBlockSizes.getInt(i);
+    }
+  }
+
+  private void readRawBlock(int block, long position) throws IOException
+  {
+    uncompressedDataBuffer.clear().limit(rawBlockSizes.getInt(block));
+    rawBlocksOut.readFully(position, uncompressedDataBuffer);
+    uncompressedDataBuffer.flip();
+  }
 }
@@ -62,7 +62,7 @@ public class CompressedColumnarFloatsSupplier implements Supplier<ColumnarFloats
     this.sizePer = sizePer;
     this.buffer = buffer;
     this.supplier = supplier;
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
   }
 
   @Override
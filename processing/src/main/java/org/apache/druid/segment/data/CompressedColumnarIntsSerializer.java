@@ -91,7 +91,7 @@ public class CompressedColumnarIntsSerializer extends SingleValueColumnarIntsSer
   {
     this.columnName = columnName;
     this.chunkFactor = chunkFactor;
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     this.flattener = flattener;
     CompressionStrategy.Compressor compressor = compression.getCompressor();
     this.endBuffer = compressor.allocateInBuffer(chunkFactor * Integer.BYTES, closer).order(byteOrder);
@@ -64,7 +64,7 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
     this.totalSize = totalSize;
     this.sizePer = sizePer;
     this.baseIntBuffers = baseIntBuffers;
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
   }
 
   @Override
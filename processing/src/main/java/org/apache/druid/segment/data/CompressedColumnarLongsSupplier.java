@@ -20,6 +20,7 @@
 package org.apache.druid.segment.data;
 
 import com.google.common.base.Supplier;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.io.Channels;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.segment.file.SegmentFileBuilder;
@@ -76,7 +77,7 @@ public class CompressedColumnarLongsSupplier implements Supplier<ColumnarLongs>,
     this.sizePer = sizePer;
     this.buffer = buffer;
     this.supplier = supplier;
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     this.encoding = encoding;
   }
 
@@ -86,6 +87,21 @@ public class CompressedColumnarLongsSupplier implements Supplier<ColumnarLongs>,
     return supplier.get();
   }
 
+  /**
+   * Per-block minimum and maximum values, if the column was written with
+   * {@link CompressionFactory.LongEncodingFormat#BLOCK_DELTA}.
+   *
+   * @param nullRows rows of the column that are null, counted per block
+   */
+  @Nullable
+  public NumericZoneMap getZoneMap(ImmutableBitmap nullRows)
+  {
+    if (supplier instanceof BlockLayoutColumnarLongsSupplier blockLayoutSupplier) {
+      return blockLayoutSupplier.getZoneMap(nullRows);
+    }
+    return null;
+  }
+
   @Override
   public long getSerializedSize()
   {
@@ -43,7 +43,8 @@ public class CompressedLongsSerializer implements Serializer
   {
     this.blockSerializer = new CompressedBlockSerializer(
         segmentWriteOutMedium,
-        compression,
+        // a dictionary trained on individual longs is of no use, so compress them as plain zstd
+        compression.withoutDictionary(),
         CompressedPools.BUFFER_SIZE,
         closer
     );
@@ -125,7 +125,7 @@ public class CompressedVSizeColumnarIntsSerializer extends SingleValueColumnarIn
     this.chunkFactor = chunkFactor;
     int chunkBytes = chunkFactor * numBytes;
     this.isBigEndian = byteOrder.equals(ByteOrder.BIG_ENDIAN);
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     this.flattener = flattener;
     this.intBuffer = ByteBuffer.allocate(Integer.BYTES).order(byteOrder);
     CompressionStrategy.Compressor compressor = compression.getCompressor();
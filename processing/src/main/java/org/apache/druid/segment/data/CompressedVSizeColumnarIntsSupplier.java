@@ -28,6 +28,7 @@ import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.CompressedPools;
+import org.apache.druid.segment.data.simd.SimdBitUnpacker;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 import org.apache.druid.segment.file.SegmentFileMapper;
 import org.apache.druid.segment.serde.MetaSerdeHelper;
@@ -42,6 +43,12 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
 {
   public static final byte VERSION = 0x2;
 
+  /**
+   * Contiguous reads of at least this many values from one buffer are unpacked with {@link SimdBitUnpacker}, if
+   * {@link VSizeLongSerde#useSimdUnpacking()} is true.
+   */
+  private static final int MIN_SIMD_LENGTH = 64;
+
   private static final MetaSerdeHelper<CompressedVSizeColumnarIntsSupplier> META_SERDE_HELPER = MetaSerdeHelper
       .firstWriteByte((CompressedVSizeColumnarIntsSupplier x) -> VERSION)
       .writeByte(x -> ByteUtils.checkedCast(x.numBytes))
@@ -73,7 +80,7 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
     this.totalSize = totalSize;
     this.sizePer = sizePer;
     this.baseBuffers = baseBuffers;
-    this.compression = compression;
+    this.compression = compression.withoutDictionary();
     this.numBytes = numBytes;
     this.bigEndianShift = Integer.SIZE - (numBytes << 3); // numBytes * 8
     this.littleEndianMask = (int) ((1L << (numBytes << 3)) - 1); // set numBytes * 8 lower bits to 1
@@ -288,6 +295,9 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
     final int div = Integer.numberOfTrailingZeros(sizePer);
     final int rem = sizePer - 1;
 
+    final boolean useSimd = VSizeLongSerde.useSimdUnpacking();
+    int[] words = new int[0];
+
     int currBufferNum = -1;
     ResourceHolder<ByteBuffer> holder;
     /**
@@ -351,6 +361,13 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
         final int currBufferStart = bufferNum * sizePer;
         final int nextBufferStart = currBufferStart + sizePer;
 
+        final int runLength = Math.min(length - p, nextBufferStart - (start + p));
+        if (useSimd && runLength >= MIN_SIMD_LENGTH) {
+          getSimd(out, offset + p, start + p - currBufferStart, runLength);
+          p += runLength;
+          continue;
+        }
+
         int i;
         for (i = p; i < length; i++) {
           final int index = start + i;
@@ -366,6 +383,27 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
       }
     }
 
+    /**
+     * Reads length values from the current decompression buffer starting at bufferIndex. Values before the first one
+     * starting on a 32-bit word boundary are read with {@link #_get}, the rest are unpacked with
+     * {@link SimdBitUnpacker}, which reads the byte-aligned values of either byte order as a packed bit stream.
+     */
+    private void getSimd(int[] out, int offset, int bufferIndex, int length)
+    {
+      final int bitsPerValue = numBytes * Byte.SIZE;
+      final int alignment = SimdBitUnpacker.alignment(bitsPerValue);
+      final int head = (alignment - bufferIndex % alignment) % alignment;
+      for (int i = 0; i < head; i++) {
+        out[offset + i] = _get(buffer, bigEndian, bufferIndex + i);
+      }
+      final int numWords = SimdBitUnpacker.wordsFor(bitsPerValue, length - head);
+      if (words.length < numWords) {
+        words = new int[numWords];
+      }
+      SimdBitUnpacker.readWords(buffer, (bufferIndex + head) * numBytes, words, numWords);
+      SimdBitUnpacker.unpack(words, bitsPerValue, bigEndian, length - head, out, offset + head);
+    }
+
     @Override
     public void get(final int[] out, final int[] indexes, final int length)
     {
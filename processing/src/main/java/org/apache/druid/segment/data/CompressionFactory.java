@@ -87,6 +87,17 @@ public class CompressionFactory
 
   public static final int MAX_TABLE_SIZE = 256;
 
+  /**
+   * Block Delta Encoding Header v1:
+   * Byte 1 : version
+   * Byte 2 - 5 : number of blocks
+   * Byte 6 - (6 + 16 * number of blocks - 1) : minimum and maximum value of each block, see {@link NumericZoneMap}
+   * <p>
+   * Each block starts with its 8-byte minimum value and 1 byte of bits per value, followed by the offsets of the values
+   * from the minimum, stored with {@link VSizeLongSerde}.
+   */
+  public static final byte BLOCK_DELTA_ENCODING_VERSION = 0x1;
+
   /*
    * There is no header or version for Longs encoding for backward compatibility
    */
@@ -137,7 +148,12 @@ public class CompressionFactory
     /**
      * LONGS strategy always encode the values using LONGS format
      */
-    LONGS;
+    LONGS,
+
+    /**
+     * BLOCK_DELTA strategy always encode the values using BLOCK_DELTA format
+     */
+    BLOCK_DELTA;
 
     @JsonValue
     @Override
@@ -179,6 +195,19 @@ public class CompressionFactory
         return new TableLongEncodingReader(buffer);
       }
     },
+    /**
+     * BLOCK_DELTA format is like DELTA, but finds the smallest value and the bits required to store offsets from it
+     * separately for each block, which suits values that are narrowly ranged within blocks but widely ranged across
+     * the column, like timestamps and counters. The minimum and maximum of each block are also stored in the column
+     * header. Only written with block compression.
+     */
+    BLOCK_DELTA((byte) 0x2) {
+      @Override
+      public LongEncodingReader getReader(ByteBuffer buffer, ByteOrder order)
+      {
+        return new BlockDeltaLongEncodingReader(buffer);
+      }
+    },
     /**
      * LONGS format encodes longs as is, using 8 bytes for each value.
      */
@@ -384,6 +413,18 @@ public class CompressionFactory
             closer
         );
       }
+    } else if (encodingStrategy == LongEncodingStrategy.BLOCK_DELTA) {
+      // blocks do not have a fixed size, so the block layout is needed to find them even without compression
+      return new BlockLayoutColumnarLongsSerializer(
+          columnName,
+          segmentWriteOutMedium,
+          filenameBase,
+          order,
+          new BlockDeltaLongEncodingWriter(),
+          compressionStrategy == CompressionStrategy.NONE ? CompressionStrategy.UNCOMPRESSED : compressionStrategy,
+          GenericIndexedWriter.MAX_FILE_SIZE,
+          closer
+      );
     } else {
       throw new IAE("unknown encoding strategy : %s", encodingStrategy.toString());
     }
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import org.apache.druid.collections.ReferenceCountingResourceHolder;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.CompressedPools;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Off-heap, size bounded cache of decompressed column blocks shared by all segments, so that blocks of hot columns are
+ * not decompressed again by every query that reads them. Blocks are keyed by a column id, unique to each load of a
+ * column of a segment (see {@link #nextColumnId()}), and the number of the block within the column.
+ * <p>
+ * Eviction and admission use Caffeine's W-TinyLFU policy, which favors the blocks read most frequently. In front of
+ * it, a doorkeeper bitmap only lets a block in the second time it is decompressed, so that blocks read once, such as
+ * by a scan over cold data, do not cost an off-heap copy.
+ * <p>
+ * Cached blocks are copied into fixed size slots of an arena of direct memory, allocated up front. Slots are reference
+ * counted, since readers may still be reading a block after it is evicted: a slot goes back to the free list once the
+ * cache and every reader have released it. One slot more than the cache holds is allocated, so that a block can be
+ * copied before Caffeine evicts another; blocks offered while no slot is free are not cached. The cache is disabled
+ * unless {@link DecompressedBlockCacheConfig#getSizeBytes()} is set.
+ */
+public final class DecompressedBlockCache
+{
+  private static final int DOORKEEPER_LOG_BITS = 20;
+  private static final int DOORKEEPER_BITS = 1 << DOORKEEPER_LOG_BITS;
+  private static final int MAX_SLAB_BYTES = 1 << 30;
+
+  private static final AtomicLong NEXT_COLUMN_ID = new AtomicLong();
+
+  @Nullable
+  private static volatile DecompressedBlockCache instance = null;
+
+  /**
+   * Sets up the cache shared by all segments. Called by static injection on services that load segments, and by
+   * tests.
+   */
+  @Inject
+  public static void initialize(DecompressedBlockCacheConfig config)
+  {
+    final long sizeBytes = config.getSizeBytes().getBytes();
+    instance = sizeBytes > 0 ? new DecompressedBlockCache(sizeBytes, CompressedPools.BUFFER_SIZE) : null;
+  }
+
+  /**
+   * Returns the cache shared by all segments, or null if it is disabled.
+   */
+  @Nullable
+  public static DecompressedBlockCache getInstance()
+  {
+    return instance;
+  }
+
+  /**
+   * Returns an id for a column to key its blocks by, which must be taken each time the column is loaded, so that
+   * blocks of a segment that is dropped and loaded again, or of memory mapped at the same address, never collide.
+   */
+  public static long nextColumnId()
+  {
+    return NEXT_COLUMN_ID.getAndIncrement();
+  }
+
+  /**
+   * Returns a view of the given blocks of decompressed data, such as a {@link GenericIndexed} read with
+   * {@link DecompressingByteBufferObjectStrategy}, which is read through the cache if it is enabled. Uncompressed
+   * blocks are not cached, since copying them is all that decompressing them does.
+   */
+  public static Indexed<ResourceHolder<ByteBuffer>> wrap(
+      long columnId,
+      CompressionStrategy compression,
+      Indexed<ResourceHolder<ByteBuffer>> blocks
+  )
+  {
+    final DecompressedBlockCache cache = instance;
+    if (cache == null || compression == CompressionStrategy.UNCOMPRESSED || compression == CompressionStrategy.NONE) {
+      return blocks;
+    }
+    return new CachedBlocks(cache, columnId, blocks);
+  }
+
+  private final Cache<BlockKey, ReferenceCountingResourceHolder<ByteBuffer>> cache;
+  private final int slotSize;
+  private final Queue<ByteBuffer> freeSlots = new ConcurrentLinkedQueue<>();
+  private final AtomicLongArray doorkeeper = new AtomicLongArray(DOORKEEPER_BITS / Long.SIZE);
+  private final AtomicInteger doorkeeperSize = new AtomicInteger();
+
+  /**
+   * Creates a cache of up to sizeBytes of blocks of up to slotSize bytes each, allocating its arena.
+   */
+  @VisibleForTesting
+  DecompressedBlockCache(long sizeBytes, int slotSize)
+  {
+    this.slotSize = slotSize;
+    final long numSlots = sizeBytes / slotSize + 1;
+    final int slotsPerSlab = Math.max(1, MAX_SLAB_BYTES / slotSize);
+    for (long allocated = 0; allocated < numSlots; allocated += slotsPerSlab) {
+      final int slabSlots = (int) Math.min(slotsPerSlab, numSlots - allocated);
+      final ByteBuffer slab = ByteBuffer.allocateDirect(slabSlots * slotSize);
+      for (int i = 0; i < slabSlots; i++) {
+        freeSlots.add(slab.slice(i * slotSize, slotSize));
+      }
+    }
+    this.cache = Caffeine.newBuilder()
+                         .maximumWeight(sizeBytes)
+                         .weigher((BlockKey key, ReferenceCountingResourceHolder<ByteBuffer> block) -> slotSize)
+                         .removalListener(
+                             (BlockKey key, ReferenceCountingResourceHolder<ByteBuffer> block, RemovalCause cause) ->
+                                 block.close()
+                         )
+                         .executor(Runnable::run)
+                         .recordStats()
+                         .build();
+  }
+
+  /**
+   * Returns a holder of a read-only view of a cached block, positioned at 0 with limit at the size of the block, or
+   * null if the block is not cached. The block stays valid until the holder is closed, even if it is evicted.
+   */
+  @Nullable
+  public ResourceHolder<ByteBuffer> get(long columnId, int block)
+  {
+    final ReferenceCountingResourceHolder<ByteBuffer> cached = cache.getIfPresent(new BlockKey(columnId, block));
+    if (cached == null) {
+      return null;
+    }
+    final ResourceHolder<ByteBuffer> reference;
+    try {
+      reference = cached.increment();
+    }
+    catch (ISE e) {
+      // evicted and released since it was looked up
+      return null;
+    }
+    final ByteBuffer view = reference.get().asReadOnlyBuffer().order(reference.get().order());
+    return new ResourceHolder<>()
+    {
+      @Override
+      public ByteBuffer get()
+      {
+        return view;
+      }
+
+      @Override
+      public void close()
+      {
+        reference.close();
+      }
+    };
+  }
+
+  /**
+   * Offers a block that was just decompressed into the given buffer, which is copied, up to its capacity, if the block
+   * is admitted to the cache and a slot is free.
+   */
+  public void offer(long columnId, int block, ByteBuffer decompressed)
+  {
+    final BlockKey key = new BlockKey(columnId, block);
+    if (decompressed.capacity() > slotSize || !admitByDoorkeeper(key)) {
+      return;
+    }
+    final ByteBuffer slot = freeSlots.poll();
+    if (slot == null) {
+      return;
+    }
+    final ByteBuffer source = decompressed.duplicate();
+    source.clear();
+    final ByteBuffer copy = slot.slice(0, source.capacity()).order(decompressed.order());
+    copy.put(source).clear();
+    final ReferenceCountingResourceHolder<ByteBuffer> holder =
+        new ReferenceCountingResourceHolder<>(copy, () -> freeSlots.add(slot));
+    if (cache.asMap().putIfAbsent(key, holder) != null) {
+      holder.close();
+    }
+  }
+
+  public CacheStats getStats()
+  {
+    return cache.stats();
+  }
+
+  public long getNumEntries()
+  {
+    return cache.estimatedSize();
+  }
+
+  public long getSizeBytes()
+  {
+    return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+  }
+
+  /**
+   * Returns whether the block was seen before, marking it as seen if not. The doorkeeper is cleared once a quarter of
+   * its bits are set, so that it only remembers recently seen blocks, and false positives stay rare.
+   */
+  private boolean admitByDoorkeeper(BlockKey key)
+  {
+    final int bit = (key.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - DOORKEEPER_LOG_BITS);
+    final long mask = 1L << (bit & (Long.SIZE - 1));
+    final long previous = doorkeeper.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+    if ((previous & mask) != 0) {
+      return true;
+    }
+    if (doorkeeperSize.incrementAndGet() >= DOORKEEPER_BITS / 4) {
+      doorkeeperSize.set(0);
+      for (int i = 0; i < doorkeeper.length(); i++) {
+        doorkeeper.set(i, 0);
+      }
+    }
+    return false;
+  }
+
+  private record BlockKey(long columnId, int block)
+  {
+  }
+
+  private static final class CachedBlocks implements Indexed<ResourceHolder<ByteBuffer>>
+  {
+    private final DecompressedBlockCache cache;
+    private final long columnId;
+    private final Indexed<ResourceHolder<ByteBuffer>> blocks;
+
+    private CachedBlocks(DecompressedBlockCache cache, long columnId, Indexed<ResourceHolder<ByteBuffer>> blocks)
+    {
+      this.cache = cache;
+      this.columnId = columnId;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public int size()
+    {
+      return blocks.size();
+    }
+
+    @Override
+    public ResourceHolder<ByteBuffer> get(int index)
+    {
+      final ResourceHolder<ByteBuffer> cached = cache.get(columnId, index);
+      if (cached != null) {
+        return cached;
+      }
+      final ResourceHolder<ByteBuffer> holder = blocks.get(index);
+      cache.offer(columnId, index, holder.get());
+      return holder;
+    }
+
+    @Override
+    public int indexOf(@Nullable ResourceHolder<ByteBuffer> value)
+    {
+      throw new UnsupportedOperationException("Decompressed blocks are not comparable");
+    }
+
+    @Override
+    public Iterator<ResourceHolder<ByteBuffer>> iterator()
+    {
+      return IndexedIterable.create(this).iterator();
+    }
+
+    @Override
+    public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+    {
+      inspector.visit("blocks", blocks);
+    }
+  }
+}
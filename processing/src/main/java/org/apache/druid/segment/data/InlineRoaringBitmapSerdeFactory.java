@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.RoaringBitmapFactory;
+import org.apache.druid.collections.bitmap.WrappedImmutableRoaringBitmap;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Roaring bitmaps which store bitmaps of at most {@link #getMaxInlineRows()} rows as a sorted array of row numbers,
+ * whenever that is smaller than the roaring serialization. Every roaring container carries a header, so a bitmap of a
+ * handful of rows, as found in high cardinality dimensions, otherwise spends most of its bytes on headers.
+ *
+ * Format of an inlined bitmap:
+ * | {@link #INLINE_MARKER} (byte) | row numbers (int, big endian, ascending) |
+ *
+ * Any other non-empty value is a run-optimized roaring bitmap, whose serialization begins with a cookie which never
+ * has {@link #INLINE_MARKER} as its first byte. Bitmaps read from either form are
+ * {@link WrappedImmutableRoaringBitmap}, so they are interchangeable with those of {@link RoaringBitmapSerdeFactory}
+ * at query time.
+ */
+public class InlineRoaringBitmapSerdeFactory implements BitmapSerdeFactory
+{
+  public static final int DEFAULT_MAX_INLINE_ROWS = 16;
+  static final byte INLINE_MARKER = 0;
+
+  private final int maxInlineRows;
+  private final ObjectStrategy<ImmutableBitmap> objectStrategy;
+
+  @JsonCreator
+  public InlineRoaringBitmapSerdeFactory(@JsonProperty("maxInlineRows") @Nullable Integer maxInlineRows)
+  {
+    this.maxInlineRows = maxInlineRows == null ? DEFAULT_MAX_INLINE_ROWS : maxInlineRows;
+    Preconditions.checkArgument(this.maxInlineRows >= 0, "maxInlineRows must be non-negative");
+    this.objectStrategy = new InlineRoaringBitmapObjectStrategy(this.maxInlineRows);
+  }
+
+  @JsonProperty
+  public int getMaxInlineRows()
+  {
+    return maxInlineRows;
+  }
+
+  @Override
+  public ObjectStrategy<ImmutableBitmap> getObjectStrategy()
+  {
+    return objectStrategy;
+  }
+
+  @Override
+  public BitmapFactory getBitmapFactory()
+  {
+    return RoaringBitmapFactory.INSTANCE;
+  }
+
+  private static class InlineRoaringBitmapObjectStrategy implements ObjectStrategy<ImmutableBitmap>
+  {
+    private final int maxInlineRows;
+
+    private InlineRoaringBitmapObjectStrategy(int maxInlineRows)
+    {
+      this.maxInlineRows = maxInlineRows;
+    }
+
+    @Override
+    public Class<ImmutableBitmap> getClazz()
+    {
+      return ImmutableBitmap.class;
+    }
+
+    @Override
+    public ImmutableBitmap fromByteBuffer(ByteBuffer buffer, int numBytes)
+    {
+      if (numBytes == 0) {
+        return RoaringBitmapFactory.INSTANCE.makeEmptyImmutableBitmap();
+      }
+      final int position = buffer.position();
+      if (buffer.get(position) == INLINE_MARKER) {
+        final ByteBuffer rows = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        final int[] rowNumbers = new int[(numBytes - 1) / Integer.BYTES];
+        for (int i = 0; i < rowNumbers.length; i++) {
+          rowNumbers[i] = rows.getInt(position + 1 + i * Integer.BYTES);
+        }
+        return new WrappedImmutableRoaringBitmap(MutableRoaringBitmap.bitmapOf(rowNumbers));
+      }
+      buffer.limit(position + numBytes);
+      return new WrappedImmutableRoaringBitmap(new ImmutableRoaringBitmap(buffer));
+    }
+
+    @Override
+    public byte[] toBytes(@Nullable ImmutableBitmap val)
+    {
+      if (val == null || val.isEmpty()) {
+        return new byte[]{};
+      }
+      final byte[] roaring = val.toBytes();
+      final int inlineSize = 1 + val.size() * Integer.BYTES;
+      if (val.size() > maxInlineRows || inlineSize >= roaring.length) {
+        return roaring;
+      }
+      final ByteBuffer inline = ByteBuffer.allocate(inlineSize).order(ByteOrder.BIG_ENDIAN);
+      inline.put(INLINE_MARKER);
+      final IntIterator iterator = val.iterator();
+      while (iterator.hasNext()) {
+        inline.putInt(iterator.next());
+      }
+      return inline.array();
+    }
+
+    @Override
+    public boolean canCompare()
+    {
+      return false;
+    }
+
+    @Override
+    public int compare(ImmutableBitmap o1, ImmutableBitmap o2)
+    {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "InlineRoaringBitmapSerdeFactory{" +
+           "maxInlineRows=" + maxInlineRows +
+           '}';
+  }
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    InlineRoaringBitmapSerdeFactory that = (InlineRoaringBitmapSerdeFactory) o;
+    return maxInlineRows == that.maxInlineRows;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(maxInlineRows);
+  }
+}
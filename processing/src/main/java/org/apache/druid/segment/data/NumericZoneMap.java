@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.io.Channels;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.roaringbitmap.IntIterator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Smallest and largest value and the number of null rows of each fixed size block of rows of a numeric column, which
+ * lets filters skip blocks that cannot have any matching rows without decompressing them. Values are stored as the
+ * sortable keys of {@link NumericKeyRanges}, so the same statistics serve long, double and float columns and compare
+ * the same way as the numeric predicates of {@link org.apache.druid.query.filter.RangeFilter}.
+ *
+ * A block with only null rows has a minimum key of {@link Long#MAX_VALUE} and a maximum key of {@link Long#MIN_VALUE},
+ * and never overlaps any range of keys.
+ *
+ * Serialized layout, in big-endian byte order:
+ *
+ * Byte 0 : version, {@link #VERSION}
+ * Byte 1 - 4 : number of rows per block
+ * Byte 5 - 8 : number of rows
+ * Byte 9 - (9 + 20 * number of blocks - 1) : minimum key, maximum key and null count of each block
+ */
+public final class NumericZoneMap
+{
+  public static final byte VERSION = 0x1;
+
+  private static final int HEADER_SIZE = 1 + 2 * Integer.BYTES;
+  private static final int BLOCK_SIZE = 2 * Long.BYTES + Integer.BYTES;
+
+  private final int rowsPerBlock;
+  private final int numRows;
+  private final long[] minKeys;
+  private final long[] maxKeys;
+  private final int[] nullCounts;
+
+  public NumericZoneMap(int rowsPerBlock, int numRows, long[] minKeys, long[] maxKeys, int[] nullCounts)
+  {
+    Preconditions.checkArgument(rowsPerBlock > 0, "rowsPerBlock must be positive");
+    Preconditions.checkArgument(
+        minKeys.length == maxKeys.length && minKeys.length == nullCounts.length,
+        "minKeys, maxKeys and nullCounts must have the same length"
+    );
+    Preconditions.checkArgument(
+        minKeys.length == getNumBlocks(rowsPerBlock, numRows),
+        "expected one block per [%s] of [%s] rows, got [%s]",
+        rowsPerBlock,
+        numRows,
+        minKeys.length
+    );
+    this.rowsPerBlock = rowsPerBlock;
+    this.numRows = numRows;
+    this.minKeys = minKeys;
+    this.maxKeys = maxKeys;
+    this.nullCounts = nullCounts;
+  }
+
+  /**
+   * Builds a zone map of a long column from the minimum and maximum value of each block, as stored by
+   * {@link CompressionFactory.LongEncodingFormat#BLOCK_DELTA}, counting the null rows of each block from the null value
+   * bitmap. Null rows are stored as 0 and so count towards the minimum and maximum, which only makes the zone map less
+   * selective.
+   */
+  public static NumericZoneMap ofLongs(
+      int rowsPerBlock,
+      int numRows,
+      long[] mins,
+      long[] maxes,
+      ImmutableBitmap nullRows
+  )
+  {
+    final int[] nullCounts = new int[mins.length];
+    final IntIterator iterator = nullRows.iterator();
+    while (iterator.hasNext()) {
+      nullCounts[iterator.next() / rowsPerBlock]++;
+    }
+    return new NumericZoneMap(rowsPerBlock, numRows, mins, maxes, nullCounts);
+  }
+
+  /**
+   * Reads a zone map written by {@link Writer#writeTo}, advancing the position of the buffer past it.
+   */
+  public static NumericZoneMap read(ByteBuffer buffer)
+  {
+    final byte version = buffer.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    final int rowsPerBlock = buffer.getInt();
+    final int numRows = buffer.getInt();
+    final int numBlocks = getNumBlocks(rowsPerBlock, numRows);
+    final long[] minKeys = new long[numBlocks];
+    final long[] maxKeys = new long[numBlocks];
+    final int[] nullCounts = new int[numBlocks];
+    for (int i = 0; i < numBlocks; i++) {
+      minKeys[i] = buffer.getLong();
+      maxKeys[i] = buffer.getLong();
+      nullCounts[i] = buffer.getInt();
+    }
+    return new NumericZoneMap(rowsPerBlock, numRows, minKeys, maxKeys, nullCounts);
+  }
+
+  public int getRowsPerBlock()
+  {
+    return rowsPerBlock;
+  }
+
+  public int getNumRows()
+  {
+    return numRows;
+  }
+
+  public int getNumBlocks()
+  {
+    return minKeys.length;
+  }
+
+  public long getMinKey(int block)
+  {
+    return minKeys[block];
+  }
+
+  public long getMaxKey(int block)
+  {
+    return maxKeys[block];
+  }
+
+  public int getNullCount(int block)
+  {
+    return nullCounts[block];
+  }
+
+  /**
+   * Returns true if the block may have non-null values with keys in [lowerKey, upperKey], false if it definitely does
+   * not.
+   */
+  public boolean overlaps(int block, long lowerKey, long upperKey)
+  {
+    return minKeys[block] <= maxKeys[block] && minKeys[block] <= upperKey && maxKeys[block] >= lowerKey;
+  }
+
+  public int getBlockStart(int block)
+  {
+    return block * rowsPerBlock;
+  }
+
+  /**
+   * Exclusive end row of the block.
+   */
+  public int getBlockEnd(int block)
+  {
+    return (int) Math.min((long) (block + 1) * rowsPerBlock, numRows);
+  }
+
+  private static int getNumBlocks(int rowsPerBlock, int numRows)
+  {
+    return (int) (((long) numRows + rowsPerBlock - 1) / rowsPerBlock);
+  }
+
+  /**
+   * Collects a {@link NumericZoneMap} while a column is written, one row at a time.
+   */
+  public static class Writer
+  {
+    private final int rowsPerBlock;
+    private final LongList minKeys = new LongArrayList();
+    private final LongList maxKeys = new LongArrayList();
+    private final IntList nullCounts = new IntArrayList();
+    private int numRows;
+    private long blockMinKey = Long.MAX_VALUE;
+    private long blockMaxKey = Long.MIN_VALUE;
+    private int blockNullCount;
+
+    public Writer(int rowsPerBlock)
+    {
+      Preconditions.checkArgument(rowsPerBlock > 0, "rowsPerBlock must be positive");
+      this.rowsPerBlock = rowsPerBlock;
+    }
+
+    public void add(long key)
+    {
+      blockMinKey = Math.min(blockMinKey, key);
+      blockMaxKey = Math.max(blockMaxKey, key);
+      endRow();
+    }
+
+    public void addNull()
+    {
+      blockNullCount++;
+      endRow();
+    }
+
+    public long getSerializedSize()
+    {
+      return HEADER_SIZE + (long) BLOCK_SIZE * getNumBlocks(rowsPerBlock, numRows);
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException
+    {
+      if (minKeys.size() < getNumBlocks(rowsPerBlock, numRows)) {
+        // close out the last, partial, block
+        endBlock();
+      }
+      final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(getSerializedSize()));
+      buffer.put(VERSION);
+      buffer.putInt(rowsPerBlock);
+      buffer.putInt(numRows);
+      for (int i = 0; i < minKeys.size(); i++) {
+        buffer.putLong(minKeys.getLong(i));
+        buffer.putLong(maxKeys.getLong(i));
+        buffer.putInt(nullCounts.getInt(i));
+      }
+      buffer.flip();
+      Channels.writeFully(channel, buffer);
+    }
+
+    private void endRow()
+    {
+      if (++numRows % rowsPerBlock == 0) {
+        endBlock();
+      }
+    }
+
+    private void endBlock()
+    {
+      minKeys.add(blockMinKey);
+      maxKeys.add(blockMaxKey);
+      nullCounts.add(blockNullCount);
+      blockMinKey = Long.MAX_VALUE;
+      blockMaxKey = Long.MIN_VALUE;
+      blockNullCount = 0;
+    }
+  }
+}
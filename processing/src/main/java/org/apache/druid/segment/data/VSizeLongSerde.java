@@ -22,6 +22,8 @@ package org.apache.druid.segment.data;
 import com.google.common.base.Preconditions;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.UOE;
+import org.apache.druid.math.expr.ExpressionProcessing;
+import org.apache.druid.segment.data.simd.SimdBitUnpacker;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
@@ -39,6 +41,9 @@ public class VSizeLongSerde
 {
 
   public static final int[] SUPPORTED_SIZES = {1, 2, 4, 8, 12, 16, 20, 24, 32, 40, 48, 56, 64};
+
+  private static final boolean VECTOR_MODULE_PRESENT =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
   public static final byte[] EMPTY = {0, 0, 0, 0};
 
   public static int getBitsForMax(long value)
@@ -153,6 +158,27 @@ public class VSizeLongSerde
   {
     // The buffer needs to be duplicated since the byte order is changed
     ByteBuffer buffer = fromBuffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    final LongDeserializer deserializer = getScalarDeserializer(longSize, buffer, bufferOffset);
+    // useSimdUnpacking() must be checked first: SimdBitUnpacker cannot be loaded without the jdk.incubator.vector
+    // module, and initializing it precomputes lane patterns for every width
+    if (useSimdUnpacking() && longSize <= Integer.SIZE) {
+      return new SimdDes(deserializer, longSize, buffer, bufferOffset);
+    }
+    return deserializer;
+  }
+
+  /**
+   * Whether contiguous reads of bit-packed values of up to 32 bits should be unpacked with {@link SimdBitUnpacker}.
+   * Requires the jdk.incubator.vector module, and is controlled by the same druid.expressions.useVectorApi setting as
+   * the other Vector API code paths.
+   */
+  public static boolean useSimdUnpacking()
+  {
+    return VECTOR_MODULE_PRESENT && ExpressionProcessing.useVectorApiIfInitialized();
+  }
+
+  private static LongDeserializer getScalarDeserializer(int longSize, ByteBuffer buffer, int bufferOffset)
+  {
     switch (longSize) {
       case 1:
         return new Size1Des(buffer, bufferOffset);
@@ -491,6 +517,115 @@ public class VSizeLongSerde
     }
   }
 
+  /**
+   * Decorates the scalar deserializer of a size of at most 32 bits, unpacking long enough contiguous reads with
+   * {@link SimdBitUnpacker}. Values before the first one that starts on a 32-bit word boundary are read with the
+   * scalar deserializer. Not thread-safe, as it keeps scratch arrays, same as the column readers using it.
+   */
+  private static final class SimdDes implements LongDeserializer
+  {
+    /**
+     * Reads shorter than this are not worth the overhead of copying words.
+     */
+    private static final int MIN_LENGTH = 64;
+
+    final LongDeserializer delegate;
+    final int bitsPerValue;
+    final int alignment;
+    final ByteBuffer buffer;
+    final int offset;
+    int[] words = new int[0];
+    int[] values = new int[0];
+
+    private SimdDes(LongDeserializer delegate, int bitsPerValue, ByteBuffer buffer, int bufferOffset)
+    {
+      this.delegate = delegate;
+      this.bitsPerValue = bitsPerValue;
+      this.alignment = SimdBitUnpacker.alignment(bitsPerValue);
+      this.buffer = buffer;
+      this.offset = bufferOffset;
+    }
+
+    @Override
+    public long get(int index)
+    {
+      return delegate.get(index);
+    }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      if (length < MIN_LENGTH) {
+        delegate.getDelta(out, outPosition, startIndex, length, base);
+        return;
+      }
+      final int head = Math.min(length, (alignment - startIndex % alignment) % alignment);
+      for (int i = 0; i < head; i++) {
+        out[outPosition + i] = base + delegate.get(startIndex + i);
+      }
+      final int unpacked = unpack(startIndex + head, length - head);
+      for (int i = 0; i < unpacked; i++) {
+        out[outPosition + head + i] = base + (values[i] & 0xFFFFFFFFL);
+      }
+    }
+
+    @Override
+    public int getDelta(long[] out, int outPosition, int[] indexes, int length, int indexOffset, int limit, long base)
+    {
+      return delegate.getDelta(out, outPosition, indexes, length, indexOffset, limit, base);
+    }
+
+    @Override
+    public void getTable(long[] out, int outPosition, int startIndex, int length, long[] table)
+    {
+      if (length < MIN_LENGTH) {
+        delegate.getTable(out, outPosition, startIndex, length, table);
+        return;
+      }
+      final int head = Math.min(length, (alignment - startIndex % alignment) % alignment);
+      for (int i = 0; i < head; i++) {
+        out[outPosition + i] = table[(int) delegate.get(startIndex + i)];
+      }
+      final int unpacked = unpack(startIndex + head, length - head);
+      for (int i = 0; i < unpacked; i++) {
+        out[outPosition + head + i] = table[values[i]];
+      }
+    }
+
+    @Override
+    public int getTable(
+        long[] out,
+        int outPosition,
+        int[] indexes,
+        int length,
+        int indexOffset,
+        int limit,
+        long[] table
+    )
+    {
+      return delegate.getTable(out, outPosition, indexes, length, indexOffset, limit, table);
+    }
+
+    /**
+     * Unpacks length values starting at startIndex, which must be a multiple of {@link #alignment}, into
+     * {@link #values}. Returns length.
+     */
+    private int unpack(int startIndex, int length)
+    {
+      final int numWords = SimdBitUnpacker.wordsFor(bitsPerValue, length);
+      if (words.length < numWords) {
+        words = new int[numWords];
+      }
+      if (values.length < length) {
+        values = new int[length];
+      }
+      final int byteOffset = offset + (int) ((long) startIndex * bitsPerValue / Byte.SIZE);
+      SimdBitUnpacker.readWords(buffer, byteOffset, words, numWords);
+      SimdBitUnpacker.unpack(words, bitsPerValue, true, length, values, 0);
+      return length;
+    }
+  }
+
   private static final class Size1Des implements LongDeserializer
   {
     final ByteBuffer buffer;
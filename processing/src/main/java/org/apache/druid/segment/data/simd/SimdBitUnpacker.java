@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data.simd;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSupplier;
+import org.apache.druid.segment.data.VSizeLongSerde;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bulk unpacking of fixed width bit-packed values, 1 to 32 bits each, with the Vector API. Used by the vectorized
+ * read paths of {@link VSizeLongSerde} and {@link CompressedVSizeColumnarIntsSupplier} when
+ * {@link VSizeLongSerde#useSimdUnpacking()} is true.
+ *
+ * Packed data is first read into an int[] of 32-bit words with {@link #readWords}, in the byte order of the buffer.
+ * For big-endian data, value i occupies bits [i * bitsPerValue, (i + 1) * bitsPerValue) counting from the most
+ * significant bit of the first word, which is the layout written by {@link VSizeLongSerde}; for little-endian data
+ * the same bits count from the least significant bit, which is the layout of little-endian
+ * {@link CompressedVSizeColumnarIntsSupplier} columns. The values of a vector start in fewer words than there are
+ * lanes, so the words are loaded once per vector, and once more one word further when values can straddle words, and
+ * each lane picks the word holding its value with a lane shuffle rather than a gather, then shifts it into place. The
+ * lane patterns repeat every {@link #alignment} values, so they are precomputed per width, and unpacking must start at
+ * a value whose first bit is the first bit of a word.
+ */
+public final class SimdBitUnpacker
+{
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  private static final Pattern[] PATTERNS = new Pattern[Integer.SIZE + 1];
+
+  static {
+    for (int bitsPerValue = 1; bitsPerValue <= Integer.SIZE; bitsPerValue++) {
+      PATTERNS[bitsPerValue] = new Pattern(bitsPerValue);
+    }
+  }
+
+  private SimdBitUnpacker()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Number of values after which the bit offset of a value is again a multiple of 32.
+   */
+  public static int alignment(int bitsPerValue)
+  {
+    return Integer.SIZE >> Math.min(Integer.numberOfTrailingZeros(bitsPerValue), 5);
+  }
+
+  /**
+   * Number of words {@link #unpack} reads for length values, including padding words after the last value.
+   */
+  public static int wordsFor(int bitsPerValue, int length)
+  {
+    return (int) (((long) length * bitsPerValue + Integer.SIZE - 1) >>> 5) + SPECIES.length();
+  }
+
+  /**
+   * Reads numWords 32-bit words starting at byteOffset, in the byte order of the buffer. Bytes at or beyond the limit
+   * of the buffer are read as zeros, since the words after the last value may extend past the end of the data.
+   */
+  public static void readWords(ByteBuffer buffer, int byteOffset, int[] words, int numWords)
+  {
+    final int limit = buffer.limit();
+    final int fullWords = Math.max(0, Math.min(numWords, (limit - byteOffset) / Integer.BYTES));
+    for (int i = 0; i < fullWords; i++) {
+      words[i] = buffer.getInt(byteOffset + i * Integer.BYTES);
+    }
+    final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    for (int i = fullWords; i < numWords; i++) {
+      int word = 0;
+      for (int b = 0; b < Integer.BYTES; b++) {
+        final int position = byteOffset + i * Integer.BYTES + b;
+        final int value = position < limit ? buffer.get(position) & 0xFF : 0;
+        word |= bigEndian ? value << (Integer.SIZE - Byte.SIZE * (b + 1)) : value << (Byte.SIZE * b);
+      }
+      words[i] = word;
+    }
+  }
+
+  /**
+   * Unpacks length values of bitsPerValue bits each, the first of which starts at the first bit of words[0], into
+   * out[outPosition, outPosition + length). Values of 32 bits are returned as their raw bits; narrower values are
+   * always non-negative. words must hold at least {@link #wordsFor} words.
+   */
+  public static void unpack(
+      int[] words,
+      int bitsPerValue,
+      boolean bigEndian,
+      int length,
+      int[] out,
+      int outPosition
+  )
+  {
+    final Pattern pattern = PATTERNS[bitsPerValue];
+    final int lanes = SPECIES.length();
+    int i = 0;
+    int wordBase = 0;
+    for (; i + pattern.period <= length; i += pattern.period, wordBase += pattern.wordsPerPeriod) {
+      for (int chunk = 0, m = 0; m < pattern.period; chunk++, m += lanes) {
+        // the values of a vector start in fewer words than there are lanes, so one load holds all of their first words,
+        // and the same load shifted by one word holds all of their second words
+        final int chunkWord = wordBase + pattern.chunkWords[chunk];
+        final VectorShuffle<Integer> shuffle = pattern.shuffles[chunk];
+        final IntVector shifts = IntVector.fromArray(SPECIES, pattern.shifts, m);
+        IntVector values = IntVector.fromArray(SPECIES, words, chunkWord)
+                                    .rearrange(shuffle)
+                                    .lanewise(bigEndian ? VectorOperators.LSHL : VectorOperators.LSHR, shifts);
+        if (pattern.straddles) {
+          final IntVector carry = IntVector.fromArray(SPECIES, words, chunkWord + 1).rearrange(shuffle).lanewise(
+              bigEndian ? VectorOperators.LSHR : VectorOperators.LSHL,
+              IntVector.fromArray(SPECIES, pattern.carryShifts, m)
+          );
+          // lanes starting at the first bit of a word take nothing from the next one, but shifting an int by 32 is a
+          // no-op, so those are masked out
+          values = values.or(carry.and(IntVector.fromArray(SPECIES, pattern.carryMasks, m)));
+        }
+        if (bigEndian) {
+          values = values.lanewise(VectorOperators.LSHR, Integer.SIZE - bitsPerValue);
+        } else {
+          values = values.and(pattern.valueMask);
+        }
+        values.intoArray(out, outPosition + i + m);
+      }
+    }
+    for (; i < length; i++) {
+      out[outPosition + i] = unpackScalar(words, i * bitsPerValue, bitsPerValue, bigEndian);
+    }
+  }
+
+  static int unpackScalar(int[] words, int bit, int bitsPerValue, boolean bigEndian)
+  {
+    final int word = bit >>> 5;
+    final int shift = bit & (Integer.SIZE - 1);
+    if (bigEndian) {
+      final long pair = ((long) words[word] << Integer.SIZE) | (words[word + 1] & 0xFFFFFFFFL);
+      return (int) ((pair << shift) >>> (Long.SIZE - bitsPerValue));
+    } else {
+      final long pair = (words[word] & 0xFFFFFFFFL) | ((long) words[word + 1] << Integer.SIZE);
+      return (int) ((pair >>> shift) & ((1L << bitsPerValue) - 1));
+    }
+  }
+
+  /**
+   * Lane pattern for one width, covering a whole number of vectors and a whole number of words.
+   */
+  private static final class Pattern
+  {
+    private final int period;
+    private final int wordsPerPeriod;
+    private final int[] chunkWords;
+    private final VectorShuffle<Integer>[] shuffles;
+    private final int[] shifts;
+    private final int[] carryShifts;
+    private final int[] carryMasks;
+    private final boolean straddles;
+    private final int valueMask;
+
+    @SuppressWarnings("unchecked")
+    private Pattern(int bitsPerValue)
+    {
+      final int lanes = SPECIES.length();
+      this.period = Math.max(alignment(bitsPerValue), lanes);
+      this.wordsPerPeriod = period * bitsPerValue / Integer.SIZE;
+      this.chunkWords = new int[period / lanes];
+      this.shuffles = new VectorShuffle[period / lanes];
+      this.shifts = new int[period];
+      this.carryShifts = new int[period];
+      this.carryMasks = new int[period];
+      this.straddles = Integer.SIZE % bitsPerValue != 0;
+      this.valueMask = bitsPerValue == Integer.SIZE ? -1 : (1 << bitsPerValue) - 1;
+      final int[] wordIndexes = new int[lanes];
+      for (int chunk = 0; chunk < period / lanes; chunk++) {
+        chunkWords[chunk] = (chunk * lanes * bitsPerValue) >>> 5;
+        for (int lane = 0; lane < lanes; lane++) {
+          final int j = chunk * lanes + lane;
+          final int bit = j * bitsPerValue;
+          final int shift = bit & (Integer.SIZE - 1);
+          wordIndexes[lane] = (bit >>> 5) - chunkWords[chunk];
+          shifts[j] = shift;
+          carryShifts[j] = Integer.SIZE - shift;
+          carryMasks[j] = shift == 0 ? 0 : -1;
+        }
+        shuffles[chunk] = VectorShuffle.fromArray(SPECIES, wordIndexes, 0);
+      }
+    }
+  }
+}
@@ -39,7 +39,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@link SegmentFileMapper} implementation for V10 segment files.
@@ -143,6 +145,10 @@ public class SegmentFileMapperV10 implements SegmentFileMapper
   private final List<MappedByteBuffer> containers;
   private final Map<String, SegmentFileMapperV10> externalMappers;
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  // held while reading ahead a file and while unmapping, so that containers are never unmapped while being read ahead
+  private final ReentrantLock unmapLock = new ReentrantLock();
+  // internal files already read ahead, which are not read ahead again
+  private final Set<String> readaheadFiles = ConcurrentHashMap.newKeySet();
 
   public SegmentFileMapperV10(
       final File segmentFile,
@@ -199,6 +205,52 @@ public class SegmentFileMapperV10 implements SegmentFileMapper
     return externalMapper.mapFile(name);
   }
 
+  /**
+   * Loads the internal files of the columns with the given internal file names into memory, for this file and its
+   * external files, so that reading them does not fault their pages in one at a time. A column's files are those
+   * recorded in {@link SegmentFileMetadata#getColumnFiles()}, or only the column's own file for segments that predate
+   * them. Files already read ahead are skipped, and nothing is read once this mapper is closed.
+   * <p>
+   * Blocks until the files are loaded, so this should not be called from a processing thread; see
+   * {@link SegmentReadahead}.
+   */
+  public void readahead(Set<String> smooshNames)
+  {
+    readaheadFiles(smooshNames);
+    for (SegmentFileMapperV10 externalMapper : externalMappers.values()) {
+      externalMapper.readaheadFiles(smooshNames);
+    }
+  }
+
+  private void readaheadFiles(Set<String> smooshNames)
+  {
+    final Map<String, List<String>> columnFiles = segmentFileMetadata.getColumnFiles();
+    for (String smooshName : smooshNames) {
+      final List<String> files = columnFiles != null && columnFiles.containsKey(smooshName)
+                                 ? columnFiles.get(smooshName)
+                                 : List.of(smooshName);
+      for (String name : files) {
+        final SegmentInternalFileMetadata fileMetadata = segmentFileMetadata.getFiles().get(name);
+        if (fileMetadata == null || fileMetadata.getSize() == 0 || !readaheadFiles.add(name)) {
+          continue;
+        }
+        // locked per file, so that close() waits for at most one file rather than the whole batch
+        unmapLock.lock();
+        try {
+          if (closed.get()) {
+            return;
+          }
+          containers.get(fileMetadata.getContainer())
+                    .slice(Ints.checkedCast(fileMetadata.getStartOffset()), Ints.checkedCast(fileMetadata.getSize()))
+                    .load();
+        }
+        finally {
+          unmapLock.unlock();
+        }
+      }
+    }
+  }
+
   private void checkClosed()
   {
     if (closed.get()) {
@@ -209,13 +261,19 @@ public class SegmentFileMapperV10 implements SegmentFileMapper
   @Override
   public void close()
   {
-    if (closed.compareAndSet(false, true)) {
-      Closer closer = Closer.create();
-      for (MappedByteBuffer buffer : containers) {
-        closer.register(() -> ByteBufferUtils.unmap(buffer));
+    unmapLock.lock();
+    try {
+      if (closed.compareAndSet(false, true)) {
+        Closer closer = Closer.create();
+        for (MappedByteBuffer buffer : containers) {
+          closer.register(() -> ByteBufferUtils.unmap(buffer));
+        }
+        closer.registerAll(externalMappers.values());
+        CloseableUtils.closeAndWrapExceptions(closer);
       }
-      closer.registerAll(externalMappers.values());
-      CloseableUtils.closeAndWrapExceptions(closer);
+    }
+    finally {
+      unmapLock.unlock();
     }
   }
 }
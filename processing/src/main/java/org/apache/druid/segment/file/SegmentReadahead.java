@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.file;
+
+import com.google.inject.Inject;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.logger.Logger;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the internal files of the columns a query needs into the page cache in the background, when the query's cursor
+ * is built, so that their pages are loaded from disk in large sequential reads while the query gets going rather than
+ * faulted in a page at a time as the query reaches them. See {@link SegmentFileMapperV10#readahead}.
+ * <p>
+ * Readahead is only a hint: it is skipped when disabled, and dropped when the queue of pending readaheads is full.
+ */
+public final class SegmentReadahead
+{
+  private static final Logger log = new Logger(SegmentReadahead.class);
+
+  @Nullable
+  private static volatile ThreadPoolExecutor executor = null;
+
+  /**
+   * Sets up the threads shared by all segments. Called by static injection on services that load segments, and by
+   * tests.
+   */
+  @Inject
+  public static synchronized void initialize(SegmentReadaheadConfig config)
+  {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    if (config.getNumThreads() > 0) {
+      executor = new ThreadPoolExecutor(
+          config.getNumThreads(),
+          config.getNumThreads(),
+          0L,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(config.getQueueSize()),
+          Execs.makeThreadFactory("segment-readahead-%d"),
+          new ThreadPoolExecutor.DiscardPolicy()
+      );
+    } else {
+      executor = null;
+    }
+  }
+
+  public static boolean isEnabled()
+  {
+    return executor != null;
+  }
+
+  /**
+   * Reads ahead the internal files of the columns with the given internal file names, unless readahead is disabled or
+   * too many are pending already.
+   */
+  public static void submit(SegmentFileMapperV10 fileMapper, Set<String> smooshNames)
+  {
+    final ThreadPoolExecutor exec = executor;
+    if (exec == null || smooshNames.isEmpty()) {
+      return;
+    }
+    exec.execute(() -> {
+      try {
+        fileMapper.readahead(smooshNames);
+      }
+      catch (Exception e) {
+        log.debug(e, "Failed to read ahead columns[%s]", smooshNames);
+      }
+    });
+  }
+
+  private SegmentReadahead()
+  {
+  }
+}
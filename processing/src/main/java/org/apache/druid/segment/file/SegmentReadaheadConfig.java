@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.file;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration of {@link SegmentReadahead}, bound to {@link #PROPERTY_PREFIX}.
+ */
+public class SegmentReadaheadConfig
+{
+  public static final String PROPERTY_PREFIX = "druid.processing.readahead";
+
+  private static final int DEFAULT_QUEUE_SIZE = 1024;
+
+  @JsonProperty("numThreads")
+  private final int numThreads;
+
+  @JsonProperty("queueSize")
+  private final int queueSize;
+
+  @JsonCreator
+  public SegmentReadaheadConfig(
+      @JsonProperty("numThreads") @Nullable Integer numThreads,
+      @JsonProperty("queueSize") @Nullable Integer queueSize
+  )
+  {
+    this.numThreads = numThreads == null ? 0 : numThreads;
+    this.queueSize = queueSize == null ? DEFAULT_QUEUE_SIZE : queueSize;
+  }
+
+  /**
+   * Number of threads reading columns ahead of the queries that read them. Zero, the default, disables readahead.
+   */
+  public int getNumThreads()
+  {
+    return numThreads;
+  }
+
+  /**
+   * Maximum number of pending readaheads, beyond which new ones are dropped.
+   */
+  public int getQueueSize()
+  {
+    return queueSize;
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.index.semantic;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link DictionaryEncodedValueIndex} over the raw UTF-8 value dictionary of a string column. This allows callers
+ * that only need to inspect dictionary values, such as search queries matching a
+ * {@link org.apache.druid.query.search.SearchQuerySpec}, to do so without decoding every value to a {@link String}.
+ *
+ * Buffers returned by {@link #getValue(int)} and {@link #getValueIterator()} may be shared with the underlying
+ * dictionary, so callers must not modify their position, limit, or contents.
+ */
+public interface DictionaryEncodedUtf8ValueIndex extends DictionaryEncodedValueIndex<ByteBuffer>
+{
+}
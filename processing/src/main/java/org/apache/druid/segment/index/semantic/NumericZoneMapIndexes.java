@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.index.semantic;
+
+import org.apache.druid.segment.index.BitmapColumnIndex;
+
+import javax.annotation.Nullable;
+
+/**
+ * Coarse {@link BitmapColumnIndex} provider for numeric value ranges, backed by the smallest and largest value of each
+ * block of rows of a column, see {@link org.apache.druid.segment.data.NumericZoneMap}. The indexes are not exact: they
+ * match every row of each block that may have a value in the range, so a
+ * {@link org.apache.druid.query.filter.ValueMatcher} must still be applied to the rows they select. Filters should
+ * prefer {@link NumericRangeIndexes} if a column has them.
+ */
+public interface NumericZoneMapIndexes
+{
+  /**
+   * Get a {@link BitmapColumnIndex} selecting the blocks of rows which may have values in the specified range, which
+   * uses the same rounding of the bounds to the type of the column as the numeric predicates of
+   * {@link org.apache.druid.query.filter.RangeFilter}. A null start or end value leaves that side of the range
+   * unbounded. If unknown values are included, blocks that have null rows are selected too.
+   */
+  BitmapColumnIndex forRange(
+      @Nullable Number startValue,
+      boolean startStrict,
+      @Nullable Number endValue,
+      boolean endStrict
+  );
+}
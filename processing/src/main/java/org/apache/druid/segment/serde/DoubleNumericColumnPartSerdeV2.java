@@ -28,6 +28,7 @@ import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.ColumnarDoubles;
 import org.apache.druid.segment.data.CompressedColumnarDoublesSuppliers;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 
 import javax.annotation.Nullable;
@@ -161,11 +162,20 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
         bitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyImmutableBitmap();
         hasNulls = false;
       }
+      final NumericZoneMap zoneMap = buffer.hasRemaining() ? NumericZoneMap.read(buffer) : null;
       builder.setType(ValueType.DOUBLE)
              .setHasMultipleValues(false)
              .setHasNulls(hasNulls)
-             .setNumericColumnSupplier(new DoubleNumericColumnSupplier(column, bitmap))
-             .setNullValueIndexSupplier(bitmap);
+             .setNumericColumnSupplier(new DoubleNumericColumnSupplier(column, bitmap));
+      if (zoneMap != null) {
+        builder.setIndexSupplier(
+            new NumericZoneMapIndexSupplier(ValueType.DOUBLE, bitmapSerdeFactory.getBitmapFactory(), bitmap, zoneMap),
+            false,
+            false
+        );
+      } else {
+        builder.setNullValueIndexSupplier(bitmap);
+      }
     };
   }
 }
@@ -26,6 +26,7 @@ import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressedColumnarFloatsSupplier;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 
 import javax.annotation.Nullable;
@@ -158,11 +159,20 @@ public class FloatNumericColumnPartSerdeV2 implements ColumnPartSerde
         bitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyImmutableBitmap();
         hasNulls = false;
       }
+      final NumericZoneMap zoneMap = buffer.hasRemaining() ? NumericZoneMap.read(buffer) : null;
       builder.setType(ValueType.FLOAT)
              .setHasMultipleValues(false)
              .setHasNulls(hasNulls)
-             .setNumericColumnSupplier(new FloatNumericColumnSupplier(column, bitmap))
-             .setNullValueIndexSupplier(bitmap);
+             .setNumericColumnSupplier(new FloatNumericColumnSupplier(column, bitmap));
+      if (zoneMap != null) {
+        builder.setIndexSupplier(
+            new NumericZoneMapIndexSupplier(ValueType.FLOAT, bitmapSerdeFactory.getBitmapFactory(), bitmap, zoneMap),
+            false,
+            false
+        );
+      } else {
+        builder.setNullValueIndexSupplier(bitmap);
+      }
     };
   }
 }
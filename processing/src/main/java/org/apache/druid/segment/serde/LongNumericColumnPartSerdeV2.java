@@ -26,6 +26,7 @@ import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressedColumnarLongsSupplier;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 
 import javax.annotation.Nullable;
@@ -160,11 +161,21 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
         bitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyImmutableBitmap();
         hasNulls = false;
       }
+      // block_delta columns carry the minimum and maximum of each of their blocks even without a separate zone map
+      final NumericZoneMap zoneMap = buffer.hasRemaining() ? NumericZoneMap.read(buffer) : column.getZoneMap(bitmap);
       builder.setType(ValueType.LONG)
              .setHasMultipleValues(false)
              .setHasNulls(hasNulls)
-             .setNumericColumnSupplier(new LongNumericColumnSupplier(column, bitmap))
-             .setNullValueIndexSupplier(bitmap);
+             .setNumericColumnSupplier(new LongNumericColumnSupplier(column, bitmap));
+      if (zoneMap != null) {
+        builder.setIndexSupplier(
+            new NumericZoneMapIndexSupplier(ValueType.LONG, bitmapSerdeFactory.getBitmapFactory(), bitmap, zoneMap),
+            false,
+            false
+        );
+      } else {
+        builder.setNullValueIndexSupplier(bitmap);
+      }
     };
   }
 }
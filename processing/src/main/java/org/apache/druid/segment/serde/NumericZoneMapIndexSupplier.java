@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.serde;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.query.BitmapResultFactory;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.RangeFilter;
+import org.apache.druid.segment.column.ColumnIndexCapabilities;
+import org.apache.druid.segment.column.SimpleColumnIndexCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.NumericZoneMap;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+import org.apache.druid.segment.index.semantic.NumericZoneMapIndexes;
+
+import javax.annotation.Nullable;
+
+/**
+ * {@link NullValueIndexSupplier} which also provides {@link NumericZoneMapIndexes}, for numeric columns written with a
+ * {@link NumericZoneMap}, see {@link org.apache.druid.segment.IndexSpec#getNumericZoneMaps()}, and for long columns
+ * written with {@link org.apache.druid.segment.data.CompressionFactory.LongEncodingStrategy#BLOCK_DELTA}, which store
+ * the minimum and maximum of each of their blocks.
+ */
+public class NumericZoneMapIndexSupplier extends NullValueIndexSupplier
+{
+  /**
+   * Zone map indexes select whole blocks, so they are neither exact nor invertible.
+   */
+  private static final ColumnIndexCapabilities CAPABILITIES = new SimpleColumnIndexCapabilities(false, false);
+
+  private final ValueType valueType;
+  private final BitmapFactory bitmapFactory;
+  private final NumericZoneMap zoneMap;
+
+  public NumericZoneMapIndexSupplier(
+      ValueType valueType,
+      BitmapFactory bitmapFactory,
+      ImmutableBitmap nullValueBitmap,
+      NumericZoneMap zoneMap
+  )
+  {
+    super(nullValueBitmap);
+    this.valueType = valueType;
+    this.bitmapFactory = bitmapFactory;
+    this.zoneMap = zoneMap;
+  }
+
+  @Nullable
+  @Override
+  public <T> T as(Class<T> clazz)
+  {
+    if (clazz.equals(NumericZoneMapIndexes.class)) {
+      return (T) (NumericZoneMapIndexes) this::forRange;
+    }
+    return super.as(clazz);
+  }
+
+  private BitmapColumnIndex forRange(
+      @Nullable Number startValue,
+      boolean startStrict,
+      @Nullable Number endValue,
+      boolean endStrict
+  )
+  {
+    final RangeFilter.RangeType rangeType =
+        RangeFilter.RangeType.of(startValue != null, startStrict, endValue != null, endStrict);
+    final long[] keyRange;
+    switch (valueType) {
+      case LONG:
+        keyRange = NumericKeyRanges.longRange(
+            rangeType,
+            startValue == null ? Long.MIN_VALUE : roundLower(startValue, startStrict),
+            endValue == null ? Long.MAX_VALUE : roundUpper(endValue, endStrict)
+        );
+        break;
+      case FLOAT:
+        keyRange = NumericKeyRanges.floatRange(
+            rangeType,
+            startValue == null ? Double.NEGATIVE_INFINITY : startValue.doubleValue(),
+            endValue == null ? Double.POSITIVE_INFINITY : endValue.doubleValue()
+        );
+        break;
+      default:
+        keyRange = NumericKeyRanges.doubleRange(
+            rangeType,
+            startValue == null ? Double.NEGATIVE_INFINITY : startValue.doubleValue(),
+            endValue == null ? Double.POSITIVE_INFINITY : endValue.doubleValue()
+        );
+    }
+    return new ZoneMapRangeIndex(keyRange);
+  }
+
+  /**
+   * Same rounding of the lower bound as the long predicate of {@link RangeFilter}, so x > 1.1 can match 2 but not 1,
+   * and x >= 1.1 can match 2 but not 1.
+   */
+  private static long roundLower(Number value, boolean strict)
+  {
+    return (long) (strict ? Math.floor(value.doubleValue()) : Math.ceil(value.doubleValue()));
+  }
+
+  /**
+   * Same rounding of the upper bound as the long predicate of {@link RangeFilter}, so x < 1.1 can match 1 but not 2,
+   * and x <= 1.1 can match 1 but not 2.
+   */
+  private static long roundUpper(Number value, boolean strict)
+  {
+    return (long) (strict ? Math.ceil(value.doubleValue()) : Math.floor(value.doubleValue()));
+  }
+
+  private final class ZoneMapRangeIndex implements BitmapColumnIndex
+  {
+    /**
+     * Inclusive bounds of the matching keys, or an empty array if no non-null value can match.
+     */
+    private final long[] keyRange;
+
+    private ZoneMapRangeIndex(long[] keyRange)
+    {
+      this.keyRange = keyRange;
+    }
+
+    @Override
+    public ColumnIndexCapabilities getIndexCapabilities()
+    {
+      return CAPABILITIES;
+    }
+
+    @Override
+    public int estimatedComputeCost()
+    {
+      return zoneMap.getNumBlocks();
+    }
+
+    @Override
+    public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
+    {
+      final MutableBitmap bitmap = bitmapFactory.makeEmptyMutableBitmap();
+      for (int block = 0; block < zoneMap.getNumBlocks(); block++) {
+        if (matches(block, includeUnknown)) {
+          bitmap.addRange(zoneMap.getBlockStart(block), zoneMap.getBlockEnd(block));
+        }
+      }
+      return bitmapResultFactory.wrapDimensionValue(bitmapFactory.makeImmutableBitmap(bitmap));
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeBitmapResult(
+        BitmapResultFactory<T> bitmapResultFactory,
+        int applyRowCount,
+        int totalRowCount,
+        boolean includeUnknown
+    )
+    {
+      for (int block = 0; block < zoneMap.getNumBlocks(); block++) {
+        if (!matches(block, includeUnknown)) {
+          return computeBitmapResult(bitmapResultFactory, includeUnknown);
+        }
+      }
+      // every block may have matching rows, so the index would not skip anything and the matcher alone is cheaper
+      return null;
+    }
+
+    private boolean matches(int block, boolean includeUnknown)
+    {
+      if (includeUnknown && zoneMap.getNullCount(block) > 0) {
+        return true;
+      }
+      return keyRange.length > 0 && zoneMap.overlaps(block, keyRange[0], keyRange[1]);
+    }
+  }
+}
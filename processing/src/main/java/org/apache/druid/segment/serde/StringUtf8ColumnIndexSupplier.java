@@ -30,10 +30,12 @@ import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.index.BitmapColumnIndex;
 import org.apache.druid.segment.index.IndexedStringDictionaryEncodedStringValueIndex;
 import org.apache.druid.segment.index.IndexedStringDruidPredicateIndexes;
+import org.apache.druid.segment.index.IndexedUtf8DictionaryEncodedValueIndex;
 import org.apache.druid.segment.index.IndexedUtf8LexicographicalRangeIndexes;
 import org.apache.druid.segment.index.IndexedUtf8ValueIndexes;
 import org.apache.druid.segment.index.SimpleImmutableBitmapIndex;
 import org.apache.druid.segment.index.semantic.DictionaryEncodedStringValueIndex;
+import org.apache.druid.segment.index.semantic.DictionaryEncodedUtf8ValueIndex;
 import org.apache.druid.segment.index.semantic.DictionaryEncodedValueIndex;
 import org.apache.druid.segment.index.semantic.DruidPredicateIndexes;
 import org.apache.druid.segment.index.semantic.LexicographicalRangeIndexes;
@@ -123,6 +125,12 @@ public class StringUtf8ColumnIndexSupplier<TIndexed extends Indexed<ByteBuffer>>
             new StringEncodingStrategies.Utf8ToStringIndexed(dict),
             singleThreadedBitmaps
         );
+      } else if (clazz.equals(DictionaryEncodedUtf8ValueIndex.class)) {
+        return (T) new IndexedUtf8DictionaryEncodedValueIndex<>(
+            bitmapFactory,
+            dict,
+            singleThreadedBitmaps
+        );
       }
     }
     if (indexedTree != null && clazz.equals(SpatialIndex.class)) {
@@ -113,6 +113,22 @@ public class WrappedRoaringBitmapTest
     Assertions.assertEquals(i, cardinality, "number of elements");
   }
 
+  @Test
+  public void testAddRange()
+  {
+    bitmap.addRange(200, 300);
+    bitmap.addRange(400, 400);
+    Assertions.assertEquals(cardinality + 100, bitmap.size());
+    Assertions.assertFalse(bitmap.get(199));
+    Assertions.assertTrue(bitmap.get(200));
+    Assertions.assertTrue(bitmap.get(299));
+    Assertions.assertFalse(bitmap.get(300));
+    Assertions.assertFalse(bitmap.get(400));
+    for (int i = 0; i < DATA.length; i++) {
+      Assertions.assertEquals(i < cardinality, bitmap.get(DATA[i]), String.valueOf(i));
+    }
+  }
+
   @Test
   public void testSerialize()
   {
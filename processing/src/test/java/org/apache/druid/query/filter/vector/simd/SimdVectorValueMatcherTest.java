@@ -0,0 +1,488 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter.vector.simd;
+
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.math.expr.ExpressionProcessing;
+import org.apache.druid.query.filter.DruidDoublePredicate;
+import org.apache.druid.query.filter.DruidLongPredicate;
+import org.apache.druid.query.filter.DruidPredicateMatch;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.query.filter.RangeFilter;
+import org.apache.druid.query.filter.TypedInFilter;
+import org.apache.druid.query.filter.vector.DoubleVectorValueMatcher;
+import org.apache.druid.query.filter.vector.FloatVectorValueMatcher;
+import org.apache.druid.query.filter.vector.LongVectorValueMatcher;
+import org.apache.druid.query.filter.vector.ReadableVectorMatch;
+import org.apache.druid.query.filter.vector.VectorMatch;
+import org.apache.druid.query.filter.vector.VectorValueMatcher;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Checks the SIMD numeric value matchers against the scalar matchers and predicates they replace, over data and bounds
+ * that include the awkward values of each type: infinities, NaN, both zeros and the extremes of the long range. Each
+ * case runs with and without nulls, with an all-true mask (contiguous loads) and a sparse mask (gathers), and with
+ * vector sizes that leave a scalar tail.
+ */
+public class SimdVectorValueMatcherTest extends InitializedNullHandlingTest
+{
+  private static final int[] VECTOR_SIZES = {1, 8, 17, 64, 1023};
+
+  private static final long[] SPECIAL_LONGS = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -1, 0, 1, Long.MAX_VALUE - 1,
+                                               Long.MAX_VALUE};
+
+  private static final double[] SPECIAL_DOUBLES = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -0.0, 0.0,
+                                                   Double.MIN_VALUE, 1.5, 1e300, Double.MAX_VALUE,
+                                                   Double.POSITIVE_INFINITY, Double.NaN};
+
+  private static final float[] SPECIAL_FLOATS = {Float.NEGATIVE_INFINITY, -Float.MAX_VALUE, -1.5f, -0.0f, 0.0f,
+                                                 Float.MIN_VALUE, 1.5f, Float.MAX_VALUE, Float.POSITIVE_INFINITY,
+                                                 Float.NaN};
+
+  @AfterEach
+  public void tearDown()
+  {
+    ExpressionProcessing.initializeForTests();
+  }
+
+  @Test
+  public void testLongEquality()
+  {
+    for (long value : SPECIAL_LONGS) {
+      forEachVector(SimdVectorValueMatcherTest::longSelector, (selector, mask, includeUnknown, description) -> {
+        final VectorValueMatcher scalar = new LongVectorValueMatcher(selector).makeMatcher(value, ColumnType.LONG);
+        final VectorValueMatcher simd =
+            new SimdLongVectorValueMatcher(selector, NumericKeyRanges.longEquals(value), DruidPredicateMatch.UNKNOWN);
+        assertSameMatch(description, scalar.match(mask, includeUnknown), simd.match(mask, includeUnknown));
+      });
+    }
+  }
+
+  @Test
+  public void testDoubleEquality()
+  {
+    for (double value : SPECIAL_DOUBLES) {
+      forEachVector(SimdVectorValueMatcherTest::doubleSelector, (selector, mask, includeUnknown, description) -> {
+        final VectorValueMatcher scalar = new DoubleVectorValueMatcher(selector).makeMatcher(value, ColumnType.DOUBLE);
+        final VectorValueMatcher simd = new SimdDoubleVectorValueMatcher(
+            selector,
+            NumericKeyRanges.doubleEquals(value),
+            DruidPredicateMatch.UNKNOWN
+        );
+        assertSameMatch(description, scalar.match(mask, includeUnknown), simd.match(mask, includeUnknown));
+      });
+    }
+  }
+
+  @Test
+  public void testFloatEquality()
+  {
+    for (float value : SPECIAL_FLOATS) {
+      forEachVector(SimdVectorValueMatcherTest::floatSelector, (selector, mask, includeUnknown, description) -> {
+        final VectorValueMatcher scalar = new FloatVectorValueMatcher(selector).makeMatcher(value, ColumnType.FLOAT);
+        final VectorValueMatcher simd = new SimdFloatVectorValueMatcher(
+            selector,
+            NumericKeyRanges.floatEquals(value),
+            DruidPredicateMatch.UNKNOWN
+        );
+        assertSameMatch(description, scalar.match(mask, includeUnknown), simd.match(mask, includeUnknown));
+      });
+    }
+  }
+
+  @Test
+  public void testLongRange()
+  {
+    for (RangeFilter.RangeType rangeType : RangeFilter.RangeType.values()) {
+      for (long lower : SPECIAL_LONGS) {
+        for (long upper : SPECIAL_LONGS) {
+          final DruidLongPredicate predicate = RangeFilter.makeLongPredicate(rangeType, lower, upper);
+          final long[] ranges = NumericKeyRanges.longRange(rangeType, lower, upper);
+          forEachVector(SimdVectorValueMatcherTest::longSelector, (selector, mask, includeUnknown, description) -> {
+            final VectorValueMatcher simd =
+                new SimdLongVectorValueMatcher(selector, ranges, DruidPredicateMatch.UNKNOWN);
+            assertSameMatch(
+                StringUtils.format("%s %s[%s, %s]", description, rangeType, lower, upper),
+                expected(selector, mask, includeUnknown, row -> predicate.applyLong(selector.getLongVector()[row])),
+                simd.match(mask, includeUnknown)
+            );
+          });
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDoubleAndFloatRange()
+  {
+    for (RangeFilter.RangeType rangeType : RangeFilter.RangeType.values()) {
+      for (double lower : SPECIAL_DOUBLES) {
+        for (double upper : SPECIAL_DOUBLES) {
+          final DruidDoublePredicate predicate = RangeFilter.makeDoublePredicate(rangeType, lower, upper);
+          final long[] doubleRanges = NumericKeyRanges.doubleRange(rangeType, lower, upper);
+          final long[] floatRanges = NumericKeyRanges.floatRange(rangeType, lower, upper);
+          forEachVector(SimdVectorValueMatcherTest::doubleSelector, (selector, mask, includeUnknown, description) -> {
+            final VectorValueMatcher simd =
+                new SimdDoubleVectorValueMatcher(selector, doubleRanges, DruidPredicateMatch.UNKNOWN);
+            assertSameMatch(
+                StringUtils.format("%s %s[%s, %s]", description, rangeType, lower, upper),
+                expected(selector, mask, includeUnknown, row -> predicate.applyDouble(selector.getDoubleVector()[row])),
+                simd.match(mask, includeUnknown)
+            );
+          });
+          forEachVector(SimdVectorValueMatcherTest::floatSelector, (selector, mask, includeUnknown, description) -> {
+            final VectorValueMatcher simd =
+                new SimdFloatVectorValueMatcher(selector, floatRanges, DruidPredicateMatch.UNKNOWN);
+            assertSameMatch(
+                StringUtils.format("%s %s[%s, %s]", description, rangeType, lower, upper),
+                expected(selector, mask, includeUnknown, row -> predicate.applyDouble(selector.getFloatVector()[row])),
+                simd.match(mask, includeUnknown)
+            );
+          });
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFloatRangeBetweenFloats()
+  {
+    // bounds that are not representable as floats must round to the right neighbor
+    for (RangeFilter.RangeType rangeType : RangeFilter.RangeType.values()) {
+      for (double bound : new double[]{0.1, -0.1, 1e-50, -1e-50, 1e300, -1e300, 16777217.0}) {
+        final DruidDoublePredicate predicate = RangeFilter.makeDoublePredicate(rangeType, bound, bound + 1);
+        final long[] ranges = NumericKeyRanges.floatRange(rangeType, bound, bound + 1);
+        for (float candidate : new float[]{(float) bound, Math.nextDown((float) bound), Math.nextUp((float) bound),
+                                           (float) (bound + 1), Math.nextUp((float) (bound + 1))}) {
+          final float[] data = new float[]{candidate};
+          final VectorValueSelector selector = new Selector(1, null, null, data, null);
+          final ReadableVectorMatch match =
+              new SimdFloatVectorValueMatcher(selector, ranges, DruidPredicateMatch.UNKNOWN)
+                  .match(VectorMatch.allTrue(1), false);
+          Assertions.assertEquals(
+              predicate.applyDouble(candidate).matches(false),
+              match.getSelectionSize() == 1,
+              StringUtils.format("%s[%s] candidate[%s]", rangeType, bound, candidate)
+          );
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testInFilterUsesSimdMatchers()
+  {
+    ExpressionProcessing.initializeForVectorApiTests();
+    final List<Object> values = Arrays.asList(null, -1.5, 0.0, 1.5, Double.NaN);
+
+    for (ColumnType matchValueType : new ColumnType[]{ColumnType.LONG, ColumnType.FLOAT, ColumnType.DOUBLE}) {
+      final TypedInFilter.PredicateFactory predicateFactory = new TypedInFilter.PredicateFactory(
+          values.stream().map(v -> coerce(v, matchValueType)).distinct().sorted(nullsFirst()).toList(),
+          matchValueType
+      );
+      Assertions.assertInstanceOf(NumericKeyRanges.Provider.class, predicateFactory.makeLongPredicate());
+      Assertions.assertInstanceOf(NumericKeyRanges.Provider.class, predicateFactory.makeFloatPredicate());
+      Assertions.assertInstanceOf(NumericKeyRanges.Provider.class, predicateFactory.makeDoublePredicate());
+
+      forEachVector(SimdVectorValueMatcherTest::doubleSelector, (selector, mask, includeUnknown, description) -> {
+        final VectorValueMatcher matcher = new DoubleVectorValueMatcher(selector).makeMatcher(predicateFactory);
+        Assertions.assertInstanceOf(SimdDoubleVectorValueMatcher.class, matcher);
+        assertSameMatch(
+            description,
+            expected(
+                selector,
+                mask,
+                includeUnknown,
+                row -> predicateFactory.makeDoublePredicate().applyDouble(selector.getDoubleVector()[row]),
+                predicateFactory.makeDoublePredicate().applyNull()
+            ),
+            matcher.match(mask, includeUnknown)
+        );
+      });
+      forEachVector(SimdVectorValueMatcherTest::floatSelector, (selector, mask, includeUnknown, description) -> {
+        final VectorValueMatcher matcher = new FloatVectorValueMatcher(selector).makeMatcher(predicateFactory);
+        Assertions.assertInstanceOf(SimdFloatVectorValueMatcher.class, matcher);
+        assertSameMatch(
+            description,
+            expected(
+                selector,
+                mask,
+                includeUnknown,
+                row -> predicateFactory.makeFloatPredicate().applyFloat(selector.getFloatVector()[row]),
+                predicateFactory.makeFloatPredicate().applyNull()
+            ),
+            matcher.match(mask, includeUnknown)
+        );
+      });
+      forEachVector(SimdVectorValueMatcherTest::longSelector, (selector, mask, includeUnknown, description) -> {
+        final VectorValueMatcher matcher = new LongVectorValueMatcher(selector).makeMatcher(predicateFactory);
+        Assertions.assertInstanceOf(SimdLongVectorValueMatcher.class, matcher);
+        assertSameMatch(
+            description,
+            expected(
+                selector,
+                mask,
+                includeUnknown,
+                row -> predicateFactory.makeLongPredicate().applyLong(selector.getLongVector()[row]),
+                predicateFactory.makeLongPredicate().applyNull()
+            ),
+            matcher.match(mask, includeUnknown)
+        );
+      });
+    }
+  }
+
+  @Test
+  public void testScalarMatchersWithoutVectorApi()
+  {
+    final TypedInFilter.PredicateFactory predicateFactory = new TypedInFilter.PredicateFactory(
+        Arrays.asList(1L, 2L),
+        ColumnType.LONG
+    );
+    Assertions.assertFalse(predicateFactory.makeLongPredicate() instanceof NumericKeyRanges.Provider);
+    final VectorValueSelector selector = longSelector(8, null, new Random(0));
+    Assertions.assertFalse(
+        new LongVectorValueMatcher(selector).makeMatcher(predicateFactory) instanceof SimdLongVectorValueMatcher
+    );
+  }
+
+  @FunctionalInterface
+  private interface SelectorMaker
+  {
+    VectorValueSelector make(int size, @Nullable boolean[] nulls, Random random);
+  }
+
+  @FunctionalInterface
+  private interface VectorCase
+  {
+    void run(VectorValueSelector selector, ReadableVectorMatch mask, boolean includeUnknown, String description);
+  }
+
+  @FunctionalInterface
+  private interface RowPredicate
+  {
+    DruidPredicateMatch apply(int row);
+  }
+
+  private static void forEachVector(SelectorMaker selectorMaker, VectorCase vectorCase)
+  {
+    for (int size : VECTOR_SIZES) {
+      for (boolean hasNulls : new boolean[]{false, true}) {
+        final boolean[] nulls = hasNulls ? makeNulls(size, row -> row % 5 == 2) : null;
+        final VectorValueSelector selector = selectorMaker.make(size, nulls, new Random(size));
+        final int[] sparse = new int[size];
+        int sparseSize = 0;
+        for (int row = 0; row < size; row++) {
+          if (row % 3 != 1) {
+            sparse[sparseSize++] = row;
+          }
+        }
+        final ReadableVectorMatch[] masks = {
+            VectorMatch.allTrue(size),
+            VectorMatch.wrap(sparse).setSelectionSize(sparseSize)
+        };
+        for (ReadableVectorMatch mask : masks) {
+          for (boolean includeUnknown : new boolean[]{false, true}) {
+            vectorCase.run(
+                selector,
+                mask,
+                includeUnknown,
+                StringUtils.format(
+                    "size[%s] nulls[%s] mask[%s] includeUnknown[%s]",
+                    size,
+                    hasNulls,
+                    mask.getSelectionSize(),
+                    includeUnknown
+                )
+            );
+          }
+        }
+      }
+    }
+  }
+
+  private static ReadableVectorMatch expected(
+      VectorValueSelector selector,
+      ReadableVectorMatch mask,
+      boolean includeUnknown,
+      RowPredicate predicate
+  )
+  {
+    return expected(selector, mask, includeUnknown, predicate, DruidPredicateMatch.UNKNOWN);
+  }
+
+  private static ReadableVectorMatch expected(
+      VectorValueSelector selector,
+      ReadableVectorMatch mask,
+      boolean includeUnknown,
+      RowPredicate predicate,
+      DruidPredicateMatch nullMatch
+  )
+  {
+    final boolean[] nulls = selector.getNullVector();
+    final int[] selection = new int[mask.getSelectionSize()];
+    int size = 0;
+    for (int i = 0; i < mask.getSelectionSize(); i++) {
+      final int row = mask.getSelection()[i];
+      final DruidPredicateMatch match = nulls != null && nulls[row] ? nullMatch : predicate.apply(row);
+      if (match.matches(includeUnknown)) {
+        selection[size++] = row;
+      }
+    }
+    return VectorMatch.wrap(selection).setSelectionSize(size);
+  }
+
+  private static void assertSameMatch(String description, ReadableVectorMatch expected, ReadableVectorMatch actual)
+  {
+    Assertions.assertArrayEquals(
+        Arrays.copyOf(expected.getSelection(), expected.getSelectionSize()),
+        Arrays.copyOf(actual.getSelection(), actual.getSelectionSize()),
+        description
+    );
+  }
+
+  private static boolean[] makeNulls(int size, IntPredicate isNull)
+  {
+    final boolean[] nulls = new boolean[size];
+    for (int row = 0; row < size; row++) {
+      nulls[row] = isNull.test(row);
+    }
+    return nulls;
+  }
+
+  private static VectorValueSelector longSelector(int size, @Nullable boolean[] nulls, Random random)
+  {
+    final long[] longs = new long[size];
+    for (int row = 0; row < size; row++) {
+      // mostly values near the bounds being tested, so that both sides of each comparison come up
+      longs[row] = random.nextInt(3) == 0 ? SPECIAL_LONGS[random.nextInt(SPECIAL_LONGS.length)] : random.nextInt(5) - 2;
+    }
+    return new Selector(size, longs, null, null, nulls);
+  }
+
+  private static VectorValueSelector doubleSelector(int size, @Nullable boolean[] nulls, Random random)
+  {
+    final double[] doubles = new double[size];
+    for (int row = 0; row < size; row++) {
+      doubles[row] = random.nextInt(3) == 0
+                     ? SPECIAL_DOUBLES[random.nextInt(SPECIAL_DOUBLES.length)]
+                     : (random.nextInt(7) - 3) * 0.5;
+    }
+    return new Selector(size, null, doubles, null, nulls);
+  }
+
+  private static VectorValueSelector floatSelector(int size, @Nullable boolean[] nulls, Random random)
+  {
+    final float[] floats = new float[size];
+    for (int row = 0; row < size; row++) {
+      floats[row] = random.nextInt(3) == 0
+                    ? SPECIAL_FLOATS[random.nextInt(SPECIAL_FLOATS.length)]
+                    : (random.nextInt(7) - 3) * 0.5f;
+    }
+    return new Selector(size, null, null, floats, nulls);
+  }
+
+  @Nullable
+  private static Object coerce(@Nullable Object value, ColumnType type)
+  {
+    if (value == null) {
+      return null;
+    } else if (type.equals(ColumnType.LONG)) {
+      return ((Double) value).longValue();
+    } else if (type.equals(ColumnType.FLOAT)) {
+      return ((Double) value).floatValue();
+    }
+    return value;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparator<Object> nullsFirst()
+  {
+    return Comparator.nullsFirst((a, b) -> ((Comparable) a).compareTo(b));
+  }
+
+  private static final class Selector implements VectorValueSelector
+  {
+    private final int size;
+    private final long[] longs;
+    private final double[] doubles;
+    private final float[] floats;
+    @Nullable
+    private final boolean[] nulls;
+
+    private Selector(int size, long[] longs, double[] doubles, float[] floats, @Nullable boolean[] nulls)
+    {
+      this.size = size;
+      this.longs = longs;
+      this.doubles = doubles;
+      this.floats = floats;
+      this.nulls = nulls;
+    }
+
+    @Override
+    public long[] getLongVector()
+    {
+      return longs;
+    }
+
+    @Override
+    public float[] getFloatVector()
+    {
+      return floats;
+    }
+
+    @Override
+    public double[] getDoubleVector()
+    {
+      return doubles;
+    }
+
+    @Nullable
+    @Override
+    public boolean[] getNullVector()
+    {
+      return nulls;
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return size;
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return size;
+    }
+  }
+}
@@ -132,4 +132,35 @@ public class GroupByStatsProviderTest
     Assertions.assertEquals(3450L, aggregateStats.getSpilledBytes());
     Assertions.assertEquals(2250L, aggregateStats.getMergeDictionarySize());
   }
+
+  @Test
+  public void testSpillTimeMetrics()
+  {
+    GroupByStatsProvider statsProvider = new GroupByStatsProvider();
+
+    QueryResourceId r1 = new QueryResourceId("r1");
+    GroupByStatsProvider.PerQueryStats stats1 = statsProvider.getPerQueryStatsContainer(r1);
+    stats1.spilledBytes(100);
+    stats1.spillTime(1000);
+    stats1.spillTime(500);
+    stats1.spillMergeTime(200);
+
+    QueryResourceId r2 = new QueryResourceId("r2");
+    GroupByStatsProvider.PerQueryStats stats2 = statsProvider.getPerQueryStatsContainer(r2);
+    stats2.spilledBytes(300);
+    stats2.spillTime(2000);
+    stats2.spillMergeTime(400);
+
+    statsProvider.closeQuery(r1);
+    statsProvider.closeQuery(r2);
+
+    GroupByStatsProvider.AggregateStats aggregateStats = statsProvider.getStatsSince();
+    Assertions.assertEquals(2L, aggregateStats.getSpilledQueries());
+    Assertions.assertEquals(3500L, aggregateStats.getSpillTimeNs());
+    Assertions.assertEquals(600L, aggregateStats.getSpillMergeTimeNs());
+
+    aggregateStats = statsProvider.getStatsSince();
+    Assertions.assertEquals(0L, aggregateStats.getSpillTimeNs());
+    Assertions.assertEquals(0L, aggregateStats.getSpillMergeTimeNs());
+  }
 }
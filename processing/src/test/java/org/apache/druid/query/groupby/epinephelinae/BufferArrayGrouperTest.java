@@ -63,10 +63,84 @@ public class BufferArrayGrouperTest
     );
   }
 
+  @Test
+  public void testAggregateCompositeKey()
+  {
+    final GroupByTestColumnSelectorFactory columnSelectorFactory = GrouperTestUtil.newColumnSelectorFactory();
+    final int[] cardinalities = new int[]{3, 4};
+    final int[] strides = BufferArrayGrouper.computeStrides(cardinalities);
+    final IntGrouper grouper = newGrouper(columnSelectorFactory, 32768, cardinalities);
+
+    columnSelectorFactory.setRow(new MapBasedRow(0, ImmutableMap.of("value", 10L)));
+    grouper.aggregate(BufferArrayGrouper.computeCompositeKey(new int[]{2, 3}, strides));
+    grouper.aggregate(BufferArrayGrouper.computeCompositeKey(new int[]{0, 1}, strides));
+    grouper.aggregate(BufferArrayGrouper.computeCompositeKey(new int[]{2, 3}, strides));
+    grouper.aggregate(BufferArrayGrouper.computeCompositeKey(new int[]{-1, 1}, strides));
+    grouper.aggregate(BufferArrayGrouper.computeCompositeKey(new int[]{1, -1}, strides));
+
+    final List<int[]> expectedValues = ImmutableList.of(
+        new int[]{1, -1},
+        new int[]{-1, 1},
+        new int[]{0, 1},
+        new int[]{2, 3}
+    );
+    final List<Object[]> expectedAggregations = ImmutableList.of(
+        new Object[]{10L, 1L},
+        new Object[]{10L, 1L},
+        new Object[]{10L, 1L},
+        new Object[]{20L, 2L}
+    );
+
+    final List<Entry<IntKey>> actual = ImmutableList.copyOf(grouper.iterator(false));
+    Assertions.assertEquals(expectedValues.size(), actual.size());
+    for (int i = 0; i < actual.size(); i++) {
+      final int key = actual.get(i).getKey().intValue();
+      Assertions.assertArrayEquals(
+          expectedValues.get(i),
+          new int[]{
+              BufferArrayGrouper.getDimensionValue(key, 0, strides, cardinalities),
+              BufferArrayGrouper.getDimensionValue(key, 1, strides, cardinalities)
+          }
+      );
+      Assertions.assertArrayEquals(expectedAggregations.get(i), actual.get(i).getValues());
+    }
+  }
+
+  @Test
+  public void testRequiredBufferCapacityCompositeKey()
+  {
+    final AggregatorFactory[] aggregatorFactories = new AggregatorFactory[]{
+        new LongSumAggregatorFactory("sum", "sum")
+    };
+
+    // (2 + 1) * (4 + 1) = 15 slots: 2 bytes of used flags and 9 bytes for each slot
+    Assertions.assertEquals(
+        2 + 15 * 9,
+        BufferArrayGrouper.requiredBufferCapacity(new int[]{2, 4}, aggregatorFactories)
+    );
+    Assertions.assertEquals(
+        BufferArrayGrouper.requiredBufferCapacity(10, aggregatorFactories),
+        BufferArrayGrouper.requiredBufferCapacity(new int[]{10}, aggregatorFactories)
+    );
+    Assertions.assertEquals(
+        -1,
+        BufferArrayGrouper.requiredBufferCapacity(new int[]{100_000, 100_000}, aggregatorFactories)
+    );
+  }
+
   private BufferArrayGrouper newGrouper(
       GroupByTestColumnSelectorFactory columnSelectorFactory,
       int bufferSize
   )
+  {
+    return newGrouper(columnSelectorFactory, bufferSize, new int[]{1000});
+  }
+
+  private BufferArrayGrouper newGrouper(
+      GroupByTestColumnSelectorFactory columnSelectorFactory,
+      int bufferSize,
+      int[] cardinalities
+  )
   {
     final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
 
@@ -79,7 +153,7 @@ public class BufferArrayGrouperTest
                 new CountAggregatorFactory("count")
             )
         ),
-        1000
+        cardinalities
     );
     grouper.init();
     return grouper;
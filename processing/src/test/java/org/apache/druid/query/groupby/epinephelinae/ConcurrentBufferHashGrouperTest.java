@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.groupby.epinephelinae;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.data.input.MapBasedRow;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesAggregatorFactory;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrentBufferHashGrouperTest extends InitializedNullHandlingTest
+{
+  private static final Grouper.KeySerdeFactory<IntKey> KEY_SERDE_FACTORY = new IntKeySerdeFactory(false);
+  private static final AggregatorFactory[] COUNT = new AggregatorFactory[]{new CountAggregatorFactory("count")};
+
+  @Test
+  void testAggregateAndIterate()
+  {
+    final GroupByTestColumnSelectorFactory columnSelectorFactory = GrouperTestUtil.newColumnSelectorFactory();
+    final ConcurrentBufferHashGrouper<IntKey> grouper = new ConcurrentBufferHashGrouper<>(
+        Suppliers.ofInstance(ByteBuffer.allocate(1000)),
+        KEY_SERDE_FACTORY,
+        columnSelectorFactory,
+        new AggregatorFactory[]{new LongSumAggregatorFactory("valueSum", "value"), new CountAggregatorFactory("count")},
+        Integer.MAX_VALUE,
+        0
+    );
+    grouper.init();
+
+    columnSelectorFactory.setRow(new MapBasedRow(0, ImmutableMap.of("value", 10L)));
+    for (int key : new int[]{12, 6, 10, 6, 12, 12}) {
+      Assertions.assertTrue(grouper.aggregate(new IntKey(key)).isOk());
+    }
+
+    final List<Grouper.Entry<IntKey>> expected = ImmutableList.of(
+        new ReusableEntry<>(new IntKey(6), new Object[]{20L, 2L}),
+        new ReusableEntry<>(new IntKey(10), new Object[]{10L, 1L}),
+        new ReusableEntry<>(new IntKey(12), new Object[]{30L, 3L})
+    );
+    Assertions.assertEquals(3, grouper.getSize());
+    GrouperTestUtil.assertEntriesEquals(expected.iterator(), grouper.iterator(true));
+    GrouperTestUtil.assertEntriesEquals(
+        expected.iterator(),
+        GrouperTestUtil.sortedEntries(
+            grouper.iterator(false),
+            k -> new IntKey(k.intValue()),
+            Comparator.comparing(IntKey::intValue)
+        ).iterator()
+    );
+
+    grouper.reset();
+    Assertions.assertEquals(0, grouper.getSize());
+    Assertions.assertFalse(grouper.iterator(true).hasNext());
+    grouper.close();
+  }
+
+  @Test
+  void testConcurrentAggregation() throws Exception
+  {
+    final int numThreads = 8;
+    final int numKeys = 1000;
+    final int rowsPerKey = 10;
+    final ConcurrentBufferHashGrouper<IntKey> grouper = makeCountGrouper(1 << 20);
+
+    final ExecutorService exec = Execs.multiThreaded(numThreads, "ConcurrentBufferHashGrouperTest-%d");
+    try {
+      final List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final int offset = t;
+        futures.add(exec.submit(() -> {
+          boolean allOk = true;
+          for (int i = 0; i < numKeys * rowsPerKey; i++) {
+            // each thread visits the keys in a different order, so threads race to claim the same buckets
+            allOk &= grouper.aggregate(new IntKey((i + offset * 97) % numKeys)).isOk();
+          }
+          return allOk;
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        Assertions.assertTrue(future.get(1, TimeUnit.MINUTES));
+      }
+    }
+    finally {
+      exec.shutdownNow();
+    }
+
+    final List<Grouper.Entry<IntKey>> expected = new ArrayList<>();
+    for (int i = 0; i < numKeys; i++) {
+      expected.add(new ReusableEntry<>(new IntKey(i), new Object[]{(long) numThreads * rowsPerKey}));
+    }
+    Assertions.assertEquals(numKeys, grouper.getSize());
+    GrouperTestUtil.assertEntriesEquals(expected.iterator(), grouper.iterator(true));
+    grouper.close();
+  }
+
+  @Test
+  void testTableFull()
+  {
+    final ConcurrentBufferHashGrouper<IntKey> grouper = makeCountGrouper(1000);
+
+    int numKeys = 0;
+    while (grouper.aggregate(new IntKey(numKeys)).isOk()) {
+      numKeys++;
+    }
+    Assertions.assertTrue(numKeys > 0);
+    Assertions.assertEquals(numKeys, grouper.getSize());
+
+    // a full table still aggregates keys it has, and keeps refusing new ones
+    final AggregateResult result = grouper.aggregate(new IntKey(numKeys + 1));
+    Assertions.assertFalse(result.isOk());
+    Assertions.assertEquals(0, result.getCount());
+    for (int i = 0; i < numKeys; i++) {
+      Assertions.assertTrue(grouper.aggregate(new IntKey(i)).isOk());
+    }
+    Assertions.assertEquals(numKeys, grouper.getSize());
+
+    final List<Grouper.Entry<IntKey>> expected = new ArrayList<>();
+    for (int i = 0; i < numKeys; i++) {
+      expected.add(new ReusableEntry<>(new IntKey(i), new Object[]{2L}));
+    }
+    GrouperTestUtil.assertEntriesEquals(expected.iterator(), grouper.iterator(true));
+
+    // after a reset, as when its contents have been spilled, the whole table can be used again
+    grouper.reset();
+    for (int i = 0; i < numKeys; i++) {
+      Assertions.assertTrue(grouper.aggregate(new IntKey(numKeys + i)).isOk());
+    }
+    Assertions.assertFalse(grouper.aggregate(new IntKey(-1)).isOk());
+    grouper.close();
+  }
+
+  @Test
+  void testConcurrentTableFull() throws Exception
+  {
+    final int numThreads = 8;
+    final ConcurrentBufferHashGrouper<IntKey> grouper = makeCountGrouper(10_000);
+
+    final ExecutorService exec = Execs.multiThreaded(numThreads, "ConcurrentBufferHashGrouperTest-%d");
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        futures.add(exec.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            grouper.aggregate(new IntKey(i));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    }
+    finally {
+      exec.shutdownNow();
+    }
+
+    // threads racing for the last buckets never push the table past its maximum size, or lose a claimed bucket
+    final Set<Integer> keys = new HashSet<>();
+    final int size = grouper.getSize();
+    grouper.iterator(false).forEachRemaining(entry -> {
+      Assertions.assertTrue(keys.add(entry.getKey().intValue()));
+      final long count = (long) entry.getValues()[0];
+      Assertions.assertTrue(count >= 1 && count <= numThreads, String.valueOf(count));
+    });
+    Assertions.assertEquals(size, keys.size());
+    Assertions.assertFalse(grouper.aggregate(new IntKey(-1)).isOk());
+    grouper.close();
+  }
+
+  @Test
+  void testCanUse()
+  {
+    Assertions.assertTrue(ConcurrentBufferHashGrouper.canUse(KEY_SERDE_FACTORY, COUNT));
+    Assertions.assertFalse(ConcurrentBufferHashGrouper.canUse(new IntKeySerdeFactory(true), COUNT));
+    Assertions.assertFalse(
+        ConcurrentBufferHashGrouper.canUse(
+            KEY_SERDE_FACTORY,
+            new AggregatorFactory[]{new HyperUniquesAggregatorFactory("unique", "value")}
+        )
+    );
+  }
+
+  private static ConcurrentBufferHashGrouper<IntKey> makeCountGrouper(final int bufferSize)
+  {
+    final ConcurrentBufferHashGrouper<IntKey> grouper = new ConcurrentBufferHashGrouper<>(
+        Suppliers.ofInstance(ByteBuffer.allocate(bufferSize)),
+        KEY_SERDE_FACTORY,
+        GrouperTestUtil.newColumnSelectorFactory(),
+        COUNT,
+        Integer.MAX_VALUE,
+        0
+    );
+    grouper.init();
+    return grouper;
+  }
+
+  private static class IntKeySerdeFactory implements Grouper.KeySerdeFactory<IntKey>
+  {
+    private final boolean usesRuntimeDictionary;
+
+    IntKeySerdeFactory(final boolean usesRuntimeDictionary)
+    {
+      this.usesRuntimeDictionary = usesRuntimeDictionary;
+    }
+
+    @Override
+    public long getMaxDictionarySize()
+    {
+      return 0;
+    }
+
+    @Override
+    public Grouper.KeySerde<IntKey> factorize()
+    {
+      return new IntKeySerde();
+    }
+
+    @Override
+    public Grouper.KeySerde<IntKey> factorizeWithDictionary(List<String> dictionary)
+    {
+      return factorize();
+    }
+
+    @Override
+    public boolean usesRuntimeDictionary()
+    {
+      return usesRuntimeDictionary;
+    }
+
+    @Override
+    public IntKey copyKey(IntKey key)
+    {
+      return new IntKey(key.intValue());
+    }
+
+    @Override
+    public Comparator<Grouper.Entry<IntKey>> objectComparator(boolean forceDefaultOrder)
+    {
+      return Comparator.comparingInt(o -> o.getKey().intValue());
+    }
+  }
+}
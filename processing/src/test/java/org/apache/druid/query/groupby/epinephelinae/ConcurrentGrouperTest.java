@@ -83,6 +83,7 @@ public class ConcurrentGrouperTest extends InitializedNullHandlingTest
   private final int parallelCombineThreads;
   private final ExecutorService exec;
   private final boolean mergeThreadLocal;
+  private final boolean mergeSharedTable;
   private final Closer closer = Closer.create();
 
   public static Collection<Object[]> constructorFeeder()
@@ -93,8 +94,12 @@ public class ConcurrentGrouperTest extends InitializedNullHandlingTest
       for (final int concurrencyHint : new int[]{8}) {
         for (final int parallelCombineThreads : new int[]{8}) {
           for (final boolean mergeThreadLocal : new boolean[]{true, false}) {
-            if (parallelCombineThreads <= concurrencyHint) {
-              constructors.add(new Object[]{bufferSize, concurrencyHint, parallelCombineThreads, mergeThreadLocal});
+            for (final boolean mergeSharedTable : new boolean[]{true, false}) {
+              if (parallelCombineThreads <= concurrencyHint && !(mergeThreadLocal && mergeSharedTable)) {
+                constructors.add(
+                    new Object[]{bufferSize, concurrencyHint, parallelCombineThreads, mergeThreadLocal, mergeSharedTable}
+                );
+              }
             }
           }
         }
@@ -121,12 +126,14 @@ public class ConcurrentGrouperTest extends InitializedNullHandlingTest
       int bufferSize,
       int concurrencyHint,
       int parallelCombineThreads,
-      boolean mergeThreadLocal
+      boolean mergeThreadLocal,
+      boolean mergeSharedTable
   )
   {
     this.concurrencyHint = concurrencyHint;
     this.parallelCombineThreads = parallelCombineThreads;
     this.mergeThreadLocal = mergeThreadLocal;
+    this.mergeSharedTable = mergeSharedTable;
     this.bufferSupplier = new Supplier<>()
     {
       private final AtomicBoolean called = new AtomicBoolean(false);
@@ -179,6 +186,7 @@ public class ConcurrentGrouperTest extends InitializedNullHandlingTest
           4,
           parallelCombineThreads,
           mergeThreadLocal,
+          mergeSharedTable,
           1024 * 1024L,
           perQueryStats
       );
@@ -258,6 +266,7 @@ public class ConcurrentGrouperTest extends InitializedNullHandlingTest
           4,
           parallelCombineThreads,
           mergeThreadLocal,
+          mergeSharedTable,
           1024 * 1024L,
           perQueryStats
       );
@@ -455,6 +464,12 @@ public class ConcurrentGrouperTest extends InitializedNullHandlingTest
       return factorize();
     }
 
+    @Override
+    public boolean usesRuntimeDictionary()
+    {
+      return false;
+    }
+
     @Override
     public LongKey copyKey(LongKey key)
     {
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.groupby.epinephelinae;
+
+import org.apache.druid.query.groupby.GroupByQueryResources;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class SharedStringDictionaryTest
+{
+  @Test
+  public void testCanonicalize()
+  {
+    final SharedStringDictionary dictionary = new SharedStringDictionary(Long.MAX_VALUE);
+    final String first = new String(new char[]{'a', 'b', 'c'});
+    final String second = new String(new char[]{'a', 'b', 'c'});
+
+    Assertions.assertSame(first, dictionary.canonicalize(first));
+    Assertions.assertSame(first, dictionary.canonicalize(second));
+    Assertions.assertNull(dictionary.canonicalize(null));
+    Assertions.assertEquals(1, dictionary.size());
+  }
+
+  @Test
+  public void testCanonicalizeBeyondMaxFootprint()
+  {
+    final SharedStringDictionary dictionary = new SharedStringDictionary(1);
+    final String first = new String(new char[]{'a'});
+    final String second = new String(new char[]{'b'});
+    final String secondCopy = new String(new char[]{'b'});
+
+    Assertions.assertSame(first, dictionary.canonicalize(first));
+
+    // Footprint is exhausted: new values are returned as-is, existing ones are still shared.
+    Assertions.assertSame(second, dictionary.canonicalize(second));
+    Assertions.assertSame(secondCopy, dictionary.canonicalize(secondCopy));
+    Assertions.assertSame(first, dictionary.canonicalize(new String(new char[]{'a'})));
+    Assertions.assertEquals(1, dictionary.size());
+  }
+
+  @Test
+  public void testDecorateDimensionSelectorDecodesEachIdOnce()
+  {
+    final SharedStringDictionary dictionary = new SharedStringDictionary(Long.MAX_VALUE);
+    final DimensionSelector selector = Mockito.mock(DimensionSelector.class);
+    Mockito.when(selector.getValueCardinality()).thenReturn(2);
+    Mockito.when(selector.nameLookupPossibleInAdvance()).thenReturn(true);
+    Mockito.when(selector.lookupName(0)).thenAnswer(invocation -> new String(new char[]{'x'}));
+    Mockito.when(selector.lookupName(1)).thenReturn(null);
+
+    final DimensionSelector decorated = dictionary.decorate(selector);
+    final String value = decorated.lookupName(0);
+    Assertions.assertEquals("x", value);
+    Assertions.assertSame(value, decorated.lookupName(0));
+    Assertions.assertNull(decorated.lookupName(1));
+    Mockito.verify(selector, Mockito.times(1)).lookupName(0);
+
+    // Another segment decoding the same value gets the shared instance.
+    final DimensionSelector otherSegment = Mockito.mock(DimensionSelector.class);
+    Mockito.when(otherSegment.getValueCardinality()).thenReturn(1);
+    Mockito.when(otherSegment.nameLookupPossibleInAdvance()).thenReturn(true);
+    Mockito.when(otherSegment.lookupName(0)).thenAnswer(invocation -> new String(new char[]{'x'}));
+    Assertions.assertSame(value, dictionary.decorate(otherSegment).lookupName(0));
+  }
+
+  @Test
+  public void testDecorateDimensionSelectorWithoutNameLookupInAdvance()
+  {
+    final SharedStringDictionary dictionary = new SharedStringDictionary(Long.MAX_VALUE);
+    final DimensionSelector selector = Mockito.mock(DimensionSelector.class);
+    Mockito.when(selector.getValueCardinality()).thenReturn(DimensionSelector.CARDINALITY_UNKNOWN);
+    Mockito.when(selector.nameLookupPossibleInAdvance()).thenReturn(false);
+    Mockito.when(selector.lookupName(0)).thenAnswer(invocation -> new String(new char[]{'y'}));
+
+    final DimensionSelector decorated = dictionary.decorate(selector);
+    final String value = decorated.lookupName(0);
+    Assertions.assertSame(value, decorated.lookupName(0));
+
+    // Ids are not stable, so they must be decoded every time.
+    Mockito.verify(selector, Mockito.times(2)).lookupName(0);
+  }
+
+  @Test
+  public void testDecorateVectorSelector()
+  {
+    final SharedStringDictionary dictionary = new SharedStringDictionary(Long.MAX_VALUE);
+    final SingleValueDimensionVectorSelector selector = Mockito.mock(SingleValueDimensionVectorSelector.class);
+    final int[] rowVector = new int[]{0, 0, 1};
+    Mockito.when(selector.getValueCardinality()).thenReturn(2);
+    Mockito.when(selector.nameLookupPossibleInAdvance()).thenReturn(true);
+    Mockito.when(selector.getRowVector()).thenReturn(rowVector);
+    Mockito.when(selector.lookupName(0)).thenAnswer(invocation -> new String(new char[]{'z'}));
+
+    final SingleValueDimensionVectorSelector decorated = dictionary.decorate(selector);
+    Assertions.assertSame(rowVector, decorated.getRowVector());
+    Assertions.assertSame(decorated.lookupName(0), decorated.lookupName(0));
+    Mockito.verify(selector, Mockito.times(1)).lookupName(0);
+  }
+
+  @Test
+  public void testQueryResources()
+  {
+    final GroupByQueryResources resources = new GroupByQueryResources(null, null);
+    Assertions.assertNull(resources.getSharedStringDictionary());
+
+    final SharedStringDictionary dictionary = resources.getOrCreateSharedStringDictionary(Long.MAX_VALUE);
+    Assertions.assertSame(dictionary, resources.getSharedStringDictionary());
+    Assertions.assertSame(dictionary, resources.getOrCreateSharedStringDictionary(1));
+  }
+}
@@ -28,12 +28,19 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.CountAggregatorFactory;
 import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
 import org.apache.druid.query.groupby.GroupByStatsProvider;
+import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.apache.druid.testing.TemporaryFolderExtension;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -372,6 +379,77 @@ public class SpillingGrouperTest extends InitializedNullHandlingTest
     }
   }
 
+  @Test
+  public void testBinarySpillAndIterateSorted() throws IOException
+  {
+    final File storageDir = temporaryFolder.newFolder();
+    final GroupByStatsProvider.PerQueryStats perQueryStats = new GroupByStatsProvider.PerQueryStats();
+    final LimitedTemporaryStorage temporaryStorage =
+        new LimitedTemporaryStorage(storageDir, 1024 * 1024, 100, perQueryStats);
+    final int numKeys = 20;
+    final int duplicates = 5;
+
+    // Small minSpillFileSize, so that both in-memory runs and merged spill files are exercised.
+    try (SpillingGrouper<IntKey> grouper =
+             makeGrouper(50, temporaryStorage, 256, new BinaryIntKeySerdeFactory(), perQueryStats)) {
+      for (int round = 0; round < duplicates; round++) {
+        for (int i = 0; i < numKeys; i++) {
+          Assertions.assertTrue(grouper.aggregate(new IntKey(i)).isOk());
+        }
+      }
+
+      final Map<Integer, Long> totalSums = new HashMap<>();
+      final Map<Integer, Long> totalCounts = new HashMap<>();
+      try (CloseableIterator<Grouper.Entry<IntKey>> iterator = grouper.iterator(true)) {
+        Assertions.assertTrue(storageDir.listFiles().length > 0, "spilling should have occurred");
+        int prevKey = -1;
+        while (iterator.hasNext()) {
+          Grouper.Entry<IntKey> entry = iterator.next();
+          Assertions.assertTrue(entry.getKey().intValue() >= prevKey, "keys should be sorted ascending");
+          prevKey = entry.getKey().intValue();
+          totalSums.merge(entry.getKey().intValue(), (Long) entry.getValues()[0], Long::sum);
+          totalCounts.merge(entry.getKey().intValue(), (Long) entry.getValues()[1], Long::sum);
+        }
+      }
+
+      Assertions.assertEquals(numKeys, totalCounts.size());
+      for (int i = 0; i < numKeys; i++) {
+        Assertions.assertEquals((long) duplicates, (long) totalSums.get(i), "valueSum for key " + i);
+        Assertions.assertEquals((long) duplicates, (long) totalCounts.get(i), "count for key " + i);
+      }
+    }
+
+    Assertions.assertTrue(perQueryStats.getSpilledBytes() > 0);
+    Assertions.assertTrue(perQueryStats.getSpillTimeNs() > 0);
+    Assertions.assertTrue(perQueryStats.getSpillMergeTimeNs() > 0);
+  }
+
+  @Test
+  public void testNullableValueRoundTrip() throws IOException
+  {
+    final ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytesOut)) {
+      SpillingGrouper.writeNullableValue(out, ValueType.LONG, 123L);
+      SpillingGrouper.writeNullableValue(out, ValueType.LONG, null);
+      SpillingGrouper.writeNullableValue(out, ValueType.FLOAT, 1.5f);
+      SpillingGrouper.writeNullableValue(out, ValueType.DOUBLE, 2.25d);
+      SpillingGrouper.writeNullableValue(out, ValueType.STRING, "h\u00e9llo");
+      SpillingGrouper.writeNullableValue(out, ValueType.STRING, "");
+      SpillingGrouper.writeNullableValue(out, ValueType.STRING, null);
+    }
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytesOut.toByteArray()))) {
+      Assertions.assertEquals(123L, SpillingGrouper.readNullableValue(in, ValueType.LONG));
+      Assertions.assertNull(SpillingGrouper.readNullableValue(in, ValueType.LONG));
+      Assertions.assertEquals(1.5f, SpillingGrouper.readNullableValue(in, ValueType.FLOAT));
+      Assertions.assertEquals(2.25d, SpillingGrouper.readNullableValue(in, ValueType.DOUBLE));
+      Assertions.assertEquals("h\u00e9llo", SpillingGrouper.readNullableValue(in, ValueType.STRING));
+      Assertions.assertEquals("", SpillingGrouper.readNullableValue(in, ValueType.STRING));
+      Assertions.assertNull(SpillingGrouper.readNullableValue(in, ValueType.STRING));
+      Assertions.assertEquals(-1, in.read());
+    }
+  }
+
   private SpillingGrouper<IntKey> makeGrouper(
       int bufferSize,
       File storageDir,
@@ -410,13 +488,30 @@ public class SpillingGrouperTest extends InitializedNullHandlingTest
       LimitedTemporaryStorage temporaryStorage,
       long minSpillFileSize
   )
+  {
+    return makeGrouper(
+        bufferSize,
+        temporaryStorage,
+        minSpillFileSize,
+        new IntKeySerdeFactory(),
+        new GroupByStatsProvider.PerQueryStats()
+    );
+  }
+
+  private SpillingGrouper<IntKey> makeGrouper(
+      int bufferSize,
+      LimitedTemporaryStorage temporaryStorage,
+      long minSpillFileSize,
+      Grouper.KeySerdeFactory<IntKey> keySerdeFactory,
+      GroupByStatsProvider.PerQueryStats perQueryStats
+  )
   {
     final GroupByTestColumnSelectorFactory columnSelectorFactory = GrouperTestUtil.newColumnSelectorFactory();
     columnSelectorFactory.setRow(new MapBasedRow(0, ImmutableMap.of("value", 1L)));
 
     final SpillingGrouper<IntKey> grouper = new SpillingGrouper<>(
         Suppliers.ofInstance(ByteBuffer.allocate(bufferSize)),
-        new IntKeySerdeFactory(),
+        keySerdeFactory,
         columnSelectorFactory,
         AGGREGATOR_FACTORIES,
         Integer.MAX_VALUE,
@@ -429,7 +524,7 @@ public class SpillingGrouperTest extends InitializedNullHandlingTest
         false,
         bufferSize,
         minSpillFileSize,
-        new GroupByStatsProvider.PerQueryStats()
+        perQueryStats
     );
     grouper.init();
     return grouper;
@@ -509,4 +604,37 @@ public class SpillingGrouperTest extends InitializedNullHandlingTest
       return Comparator.comparingInt(o -> o.getKey().intValue());
     }
   }
+
+  /**
+   * Like {@link IntKeySerdeFactory}, but with a {@link Grouper.SpillKeyCodec}, so that entries are spilled in binary
+   * form.
+   */
+  static class BinaryIntKeySerdeFactory extends IntKeySerdeFactory
+  {
+    @Override
+    public Grouper.KeySerde<IntKey> factorize()
+    {
+      return new IntKeySerde()
+      {
+        @Override
+        public Grouper.SpillKeyCodec<IntKey> spillKeyCodec()
+        {
+          return new Grouper.SpillKeyCodec<>()
+          {
+            @Override
+            public void write(IntKey key, DataOutput out) throws IOException
+            {
+              out.writeInt(key.intValue());
+            }
+
+            @Override
+            public IntKey read(DataInput in) throws IOException
+            {
+              return new IntKey(in.readInt());
+            }
+          };
+        }
+      };
+    }
+  }
 }
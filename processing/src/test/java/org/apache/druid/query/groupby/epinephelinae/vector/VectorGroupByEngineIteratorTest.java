@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.groupby.epinephelinae.vector;
 
+import com.google.common.collect.ImmutableMap;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.druid.query.QueryRunnerTestHelper;
 import org.apache.druid.query.aggregation.AggregatorFactory;
@@ -28,6 +29,9 @@ import org.apache.druid.query.groupby.GroupByQuery;
 import org.apache.druid.query.groupby.GroupByQueryConfig;
 import org.apache.druid.query.groupby.GroupByQueryRunnerTest;
 import org.apache.druid.query.groupby.GroupingEngine;
+import org.apache.druid.query.groupby.ResultRow;
+import org.apache.druid.query.groupby.epinephelinae.BufferArrayGrouper;
+import org.apache.druid.query.groupby.epinephelinae.HashVectorGrouper;
 import org.apache.druid.query.groupby.epinephelinae.VectorGrouper;
 import org.apache.druid.query.groupby.epinephelinae.vector.VectorGroupByEngine.VectorGroupByEngineIterator;
 import org.apache.druid.segment.ColumnProcessors;
@@ -39,12 +43,16 @@ import org.apache.druid.segment.TestIndex;
 import org.apache.druid.segment.vector.VectorCursor;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.joda.time.Interval;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class VectorGroupByEngineIteratorTest extends InitializedNullHandlingTest
@@ -103,4 +111,82 @@ public class VectorGroupByEngineIteratorTest extends InitializedNullHandlingTest
     Mockito.verify(grouperCaptor.getValue()).close();
     cursorHolder.close();
   }
+
+  @Test
+  public void testCompositeKeyArrayGroupingMatchesHashGrouping() throws IOException
+  {
+    final GroupByQuery query = GroupByQuery
+        .builder()
+        .setDataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .setGranularity(QueryRunnerTestHelper.ALL_GRAN)
+        .setInterval(TestIndex.DATA_INTERVAL)
+        .setDimensions(
+            new DefaultDimensionSpec("market", null, null),
+            new DefaultDimensionSpec("quality", null, null)
+        )
+        .setAggregatorSpecs(new DoubleSumAggregatorFactory("index", "index"))
+        .build();
+
+    final Set<List<Object>> arrayRows = runAndCollectRows(query, BufferArrayGrouper.class);
+    final Set<List<Object>> hashRows = runAndCollectRows(
+        query.withOverriddenContext(ImmutableMap.of("forceHashAggregation", true)),
+        HashVectorGrouper.class
+    );
+
+    Assertions.assertFalse(arrayRows.isEmpty());
+    Assertions.assertEquals(hashRows, arrayRows);
+  }
+
+  private static Set<List<Object>> runAndCollectRows(
+      final GroupByQuery query,
+      final Class<? extends VectorGrouper> expectedGrouperClass
+  ) throws IOException
+  {
+    final Interval interval = TestIndex.DATA_INTERVAL;
+    final CursorFactory cursorFactory = new QueryableIndexCursorFactory(TestIndex.getMMappedTestIndex());
+    final QueryableIndexTimeBoundaryInspector timeBoundaryInspector =
+        QueryableIndexTimeBoundaryInspector.create(TestIndex.getMMappedTestIndex());
+    final Set<List<Object>> rows = new HashSet<>();
+    try (final CursorHolder cursorHolder = cursorFactory.makeCursorHolder(
+        GroupingEngine.makeCursorBuildSpec(query, null)
+    )) {
+      final VectorCursor cursor = cursorHolder.asVectorCursor();
+      final List<GroupByVectorColumnSelector> dimensions = query.getDimensions().stream().map(
+          dimensionSpec ->
+              ColumnProcessors.makeVectorProcessor(
+                  dimensionSpec,
+                  GroupByVectorColumnProcessorFactory.instance(),
+                  cursor.getColumnSelectorFactory()
+              )
+      ).collect(Collectors.toList());
+      final MutableObject<VectorGrouper> grouperCaptor = new MutableObject<>();
+      try (final VectorGroupByEngineIterator iterator = new VectorGroupByEngineIterator(
+          query,
+          new GroupByQueryConfig().withOverrides(query),
+          GroupByQueryRunnerTest.DEFAULT_PROCESSING_CONFIG,
+          timeBoundaryInspector,
+          cursor,
+          cursorHolder.getTimeOrder(),
+          interval,
+          dimensions,
+          ByteBuffer.wrap(new byte[65536]),
+          null
+      )
+      {
+        @Override
+        VectorGrouper makeGrouper()
+        {
+          grouperCaptor.setValue(super.makeGrouper());
+          return grouperCaptor.getValue();
+        }
+      }) {
+        while (iterator.hasNext()) {
+          final ResultRow row = iterator.next();
+          rows.add(Arrays.asList(row.getArray()));
+        }
+      }
+      Assertions.assertInstanceOf(expectedGrouperClass, grouperCaptor.getValue());
+    }
+    return rows;
+  }
 }
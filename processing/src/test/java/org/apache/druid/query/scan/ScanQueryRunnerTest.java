@@ -226,6 +226,44 @@ public class ScanQueryRunnerTest extends InitializedNullHandlingTest
     verify(expectedResults, populateNullColumnAtLastForQueryableIndexCase(results, "null_column"));
   }
 
+  @Test
+  public void testVectorizedMatchesNonVectorized()
+  {
+    for (ScanQuery.ResultFormat resultFormat : ScanQuery.ResultFormat.values()) {
+      if (ScanQuery.ResultFormat.RESULT_FORMAT_VALUE_VECTOR.equals(resultFormat)) {
+        continue;
+      }
+      // A batch size that does not divide the vector size, so batches start and end in the middle of vectors.
+      final ScanQuery query = newTestQuery()
+          .columns(
+              ColumnHolder.TIME_COLUMN_NAME,
+              "market",
+              "qualityLong",
+              "qualityFloat",
+              "qualityDouble",
+              "longNumericNull",
+              "floatNumericNull",
+              "doubleNumericNull",
+              "placementish",
+              "null_column",
+              "index"
+          )
+          .resultFormat(resultFormat)
+          .batchSize(100)
+          .limit(1500)
+          .build();
+
+      final List<ScanResultValue> nonVectorized = runner.run(
+          QueryPlus.wrap(query.withOverriddenContext(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "false")))
+      ).toList();
+      final List<ScanResultValue> vectorized = runner.run(
+          QueryPlus.wrap(query.withOverriddenContext(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "force")))
+      ).toList();
+
+      Assertions.assertEquals(nonVectorized, vectorized, resultFormat.toString());
+    }
+  }
+
   @Test
   public void testFullOnSelectAsCompactedList()
   {
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.search;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.java.util.common.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+public class SearchQuerySpecUtf8Test
+{
+  private static final List<String> VALUES = Arrays.asList(
+      null,
+      "",
+      "a",
+      "abc",
+      "ABC",
+      "xAbCx",
+      "total_market",
+      "Total_Market",
+      "upfront",
+      "café",
+      "CAFÉ",
+      "\u212A",
+      "k\u212A",
+      "日本語"
+  );
+
+  private static final List<SearchQuerySpec> SPECS = ImmutableList.of(
+      new AllSearchQuerySpec(),
+      new ContainsSearchQuerySpec("abc", true),
+      new ContainsSearchQuerySpec("abc", false),
+      new ContainsSearchQuerySpec("", true),
+      new ContainsSearchQuerySpec("", false),
+      new ContainsSearchQuerySpec(null, false),
+      new ContainsSearchQuerySpec("k", false),
+      new ContainsSearchQuerySpec("café", true),
+      new ContainsSearchQuerySpec("café", false),
+      new ContainsSearchQuerySpec("本", true),
+      new InsensitiveContainsSearchQuerySpec("MARKET"),
+      new FragmentSearchQuerySpec(Arrays.asList("total", "market"), true),
+      new FragmentSearchQuerySpec(Arrays.asList("TOTAL", "market"), false),
+      new FragmentSearchQuerySpec(Arrays.asList("caf", "É"), false),
+      new FragmentSearchQuerySpec(null, false),
+      new RegexSearchQuerySpec("^a.*c$")
+  );
+
+  @Test
+  public void testAcceptUtf8MatchesAccept()
+  {
+    for (SearchQuerySpec spec : SPECS) {
+      for (String value : VALUES) {
+        final ByteBuffer utf8 = value == null ? null : ByteBuffer.wrap(StringUtils.toUtf8(value));
+        Assertions.assertEquals(
+            spec.accept(value),
+            spec.acceptUtf8(utf8),
+            StringUtils.format("spec[%s], value[%s]", spec, value)
+        );
+        if (utf8 != null) {
+          Assertions.assertEquals(0, utf8.position());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAcceptUtf8RespectsBufferPositionAndLimit()
+  {
+    final ByteBuffer buffer = ByteBuffer.wrap(StringUtils.toUtf8("xxabcyy"));
+    buffer.position(2).limit(5);
+
+    Assertions.assertTrue(new ContainsSearchQuerySpec("abc", true).acceptUtf8(buffer));
+    Assertions.assertTrue(new ContainsSearchQuerySpec("ABC", false).acceptUtf8(buffer));
+    Assertions.assertFalse(new ContainsSearchQuerySpec("xa", true).acceptUtf8(buffer));
+    Assertions.assertFalse(new ContainsSearchQuerySpec("CY", false).acceptUtf8(buffer));
+    Assertions.assertTrue(new RegexSearchQuerySpec("^abc$").acceptUtf8(buffer));
+    Assertions.assertEquals(2, buffer.position());
+    Assertions.assertEquals(5, buffer.limit());
+  }
+}
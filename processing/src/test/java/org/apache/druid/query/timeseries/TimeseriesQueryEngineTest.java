@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.timeseries;
+
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.QueryMetrics;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.filter.DimFilter;
+import org.apache.druid.query.filter.InDimFilter;
+import org.apache.druid.query.filter.NotDimFilter;
+import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.segment.CursorFactory;
+import org.apache.druid.segment.QueryableIndexSegment;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.segment.TestIndex;
+import org.apache.druid.segment.TimeBoundaryInspector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.apache.druid.timeline.SegmentId;
+import org.joda.time.Interval;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TimeseriesQueryEngineTest extends InitializedNullHandlingTest
+{
+  private static final QueryableIndexSegment SEGMENT =
+      new QueryableIndexSegment(TestIndex.getMMappedTestIndex(), SegmentId.dummy("test"));
+
+  private static final List<DimFilter> FILTERS = List.of(
+      new SelectorDimFilter(QueryRunnerTestHelper.MARKET_DIMENSION, "spot", null),
+      new InDimFilter(QueryRunnerTestHelper.QUALITY_DIMENSION, Set.of("automotive", "business", "mezzanine")),
+      new NotDimFilter(new InDimFilter(QueryRunnerTestHelper.QUALITY_DIMENSION, Set.of("automotive", "premium")))
+  );
+
+  private final TimeseriesQueryEngine engine = new TimeseriesQueryEngine();
+
+  @Test
+  public void testLimitEarlyTerminationMatchesFullEvaluation()
+  {
+    for (DimFilter filter : FILTERS) {
+      for (Granularity granularity : List.of(Granularities.DAY, Granularities.HOUR, Granularities.WEEK)) {
+        for (boolean descending : new boolean[]{false, true}) {
+          for (boolean skipEmptyBuckets : new boolean[]{false, true}) {
+            for (int limit : new int[]{1, 5, 30, 1000}) {
+              final TimeseriesQuery query = makeQuery(filter, granularity, descending, skipEmptyBuckets, limit);
+              final List<Result<TimeseriesResultValue>> expected =
+                  run(query.withOverriddenContext(Map.of(TimeseriesQuery.CTX_LIMIT_EARLY_TERMINATION, false)));
+              Assertions.assertFalse(expected.isEmpty(), query.toString());
+              TestHelper.assertExpectedResults(expected, run(query), query.toString());
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testWindowMetricsReportedOncePerSegment()
+  {
+    // Rows are at the start of each day, so with hourly buckets, skipping empty ones, the limit takes several windows.
+    final TimeseriesQuery query = makeQuery(FILTERS.get(0), Granularities.HOUR, false, true, 5);
+    final RecordingQueryMetrics metrics = new RecordingQueryMetrics();
+    final List<Result<TimeseriesResultValue>> results = engine.process(
+        query,
+        SEGMENT.as(CursorFactory.class),
+        SEGMENT.as(TimeBoundaryInspector.class),
+        metrics
+    ).toList();
+
+    Assertions.assertEquals(5, results.size());
+    Assertions.assertEquals(List.of((long) TestIndex.getMMappedTestIndex().getNumRows()), metrics.segmentRows);
+    Assertions.assertEquals(1, metrics.preFilteredRows.size());
+    Assertions.assertTrue(metrics.preFilteredRows.get(0) > 0);
+    Assertions.assertEquals(1, metrics.numBitmapConstructionTimes);
+  }
+
+  @Test
+  public void testBucketWindowsAscending()
+  {
+    final Interval interval = Intervals.of("2011-01-01T05:00/2011-01-08");
+    Assertions.assertEquals(
+        List.of(
+            Intervals.of("2011-01-01T05:00/2011-01-02"),
+            Intervals.of("2011-01-02/2011-01-04"),
+            Intervals.of("2011-01-04/2011-01-08")
+        ),
+        windows(interval, Granularities.DAY, false, 1)
+    );
+  }
+
+  @Test
+  public void testBucketWindowsDescending()
+  {
+    final Interval interval = Intervals.of("2011-01-01/2011-01-07T12:00");
+    Assertions.assertEquals(
+        List.of(
+            Intervals.of("2011-01-06/2011-01-07T12:00"),
+            Intervals.of("2011-01-02/2011-01-06"),
+            Intervals.of("2011-01-01/2011-01-02")
+        ),
+        windows(interval, Granularities.DAY, true, 2)
+    );
+  }
+
+  private List<Result<TimeseriesResultValue>> run(final TimeseriesQuery query)
+  {
+    return engine.process(
+        query,
+        SEGMENT.as(CursorFactory.class),
+        SEGMENT.as(TimeBoundaryInspector.class),
+        null
+    ).toList();
+  }
+
+  private static class RecordingQueryMetrics extends DefaultTimeseriesQueryMetrics
+  {
+    private final List<Long> segmentRows = new ArrayList<>();
+    private final List<Long> preFilteredRows = new ArrayList<>();
+    private int numBitmapConstructionTimes = 0;
+
+    @Override
+    public QueryMetrics<TimeseriesQuery> reportSegmentRows(long numRows)
+    {
+      segmentRows.add(numRows);
+      return this;
+    }
+
+    @Override
+    public QueryMetrics<TimeseriesQuery> reportPreFilteredRows(long numRows)
+    {
+      preFilteredRows.add(numRows);
+      return this;
+    }
+
+    @Override
+    public QueryMetrics<TimeseriesQuery> reportBitmapConstructionTime(long timeNs)
+    {
+      numBitmapConstructionTimes++;
+      return this;
+    }
+  }
+
+  private static List<Interval> windows(
+      final Interval interval,
+      final Granularity granularity,
+      final boolean descending,
+      final int initialNumBuckets
+  )
+  {
+    final List<Interval> windows = new ArrayList<>();
+    new TimeseriesQueryEngine.BucketWindowIterator(interval, granularity, descending, initialNumBuckets)
+        .forEachRemaining(windows::add);
+    return windows;
+  }
+
+  private static TimeseriesQuery makeQuery(
+      final DimFilter filter,
+      final Granularity granularity,
+      final boolean descending,
+      final boolean skipEmptyBuckets,
+      final int limit
+  )
+  {
+    return Druids.newTimeseriesQueryBuilder()
+                 .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+                 .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+                 .granularity(granularity)
+                 .filters(filter)
+                 .descending(descending)
+                 .limit(limit)
+                 .aggregators(QueryRunnerTestHelper.ROWS_COUNT, QueryRunnerTestHelper.INDEX_DOUBLE_SUM)
+                 .context(Map.of(TimeseriesQuery.SKIP_EMPTY_BUCKETS, skipEmptyBuckets))
+                 .build();
+  }
+}
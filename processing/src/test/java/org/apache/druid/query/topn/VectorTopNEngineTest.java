@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.collections.StupidPool;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.dimension.ExtractionDimensionSpec;
+import org.apache.druid.query.extraction.SubstringDimExtractionFn;
+import org.apache.druid.query.extraction.TimeFormatExtractionFn;
+import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.segment.ColumnInspector;
+import org.apache.druid.segment.QueryableIndexSegment;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.segment.TestIndex;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.apache.druid.timeline.SegmentId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+public class VectorTopNEngineTest extends InitializedNullHandlingTest
+{
+  private static final QueryableIndexSegment SEGMENT =
+      new QueryableIndexSegment(TestIndex.getMMappedTestIndex(), SegmentId.dummy("test"));
+
+  @Test
+  public void testCanVectorizeSingleValueDictionaryEncodedString()
+  {
+    final TopNQuery query = makeQuery(QueryRunnerTestHelper.MARKET_DIMENSION, Granularities.ALL);
+    Assertions.assertTrue(VectorTopNEngine.canVectorize(query, inspector(stringCapabilities(false, true))));
+  }
+
+  @Test
+  public void testCannotVectorizeMultiValueString()
+  {
+    final TopNQuery query = makeQuery(QueryRunnerTestHelper.MARKET_DIMENSION, Granularities.ALL);
+    Assertions.assertFalse(VectorTopNEngine.canVectorize(query, inspector(stringCapabilities(true, true))));
+  }
+
+  @Test
+  public void testCannotVectorizeNonUniqueDictionary()
+  {
+    final TopNQuery query = makeQuery(QueryRunnerTestHelper.MARKET_DIMENSION, Granularities.ALL);
+    Assertions.assertFalse(VectorTopNEngine.canVectorize(query, inspector(stringCapabilities(false, false))));
+  }
+
+  @Test
+  public void testCannotVectorizeNumericOrMissingColumn()
+  {
+    final TopNQuery query = makeQuery(QueryRunnerTestHelper.MARKET_DIMENSION, Granularities.ALL);
+    Assertions.assertFalse(
+        VectorTopNEngine.canVectorize(
+            query,
+            inspector(ColumnCapabilitiesImpl.createSimpleNumericColumnCapabilities(ColumnType.LONG))
+        )
+    );
+    Assertions.assertFalse(VectorTopNEngine.canVectorize(query, inspector(null)));
+  }
+
+  @Test
+  public void testCannotVectorizeExtractionFn()
+  {
+    final TopNQuery query = new TopNQueryBuilder(makeQuery(QueryRunnerTestHelper.MARKET_DIMENSION, Granularities.ALL))
+        .dimension(
+            new ExtractionDimensionSpec(
+                QueryRunnerTestHelper.MARKET_DIMENSION,
+                QueryRunnerTestHelper.MARKET_DIMENSION,
+                new SubstringDimExtractionFn(0, 1)
+            )
+        )
+        .build();
+    Assertions.assertFalse(VectorTopNEngine.canVectorize(query, inspector(stringCapabilities(false, true))));
+  }
+
+  @Test
+  public void testCanVectorizeTimeExtraction()
+  {
+    Assertions.assertTrue(
+        VectorTopNEngine.canVectorize(
+            makeTimeExtractionQuery(Granularities.ALL, dayOfWeekSpec()),
+            inspector(ColumnCapabilitiesImpl.createSimpleNumericColumnCapabilities(ColumnType.LONG))
+        )
+    );
+  }
+
+  @Test
+  public void testMatchesNonVectorizedAllGranularity()
+  {
+    assertVectorizedMatchesNonVectorized(
+        makeQuery(QueryRunnerTestHelper.QUALITY_DIMENSION, Granularities.ALL),
+        10_000_000
+    );
+  }
+
+  @Test
+  public void testMatchesNonVectorizedDayGranularity()
+  {
+    assertVectorizedMatchesNonVectorized(
+        makeQuery(QueryRunnerTestHelper.QUALITY_DIMENSION, Granularities.DAY),
+        10_000_000
+    );
+  }
+
+  @Test
+  public void testMatchesNonVectorizedMultiPass()
+  {
+    // Buffer holds only a few dictionary ids worth of aggregators, forcing several passes per bucket.
+    assertVectorizedMatchesNonVectorized(makeQuery(QueryRunnerTestHelper.QUALITY_DIMENSION, Granularities.ALL), 100);
+    assertVectorizedMatchesNonVectorized(makeQuery(QueryRunnerTestHelper.QUALITY_DIMENSION, Granularities.DAY), 100);
+  }
+
+  @Test
+  public void testMatchesNonVectorizedMultiPassFiltered()
+  {
+    // Passes after the first over each bucket read a cursor over just that bucket, with its own filter bitmaps.
+    final SelectorDimFilter filter = new SelectorDimFilter(QueryRunnerTestHelper.MARKET_DIMENSION, "spot", null);
+    final TopNQuery query = makeQuery(QueryRunnerTestHelper.QUALITY_DIMENSION, Granularities.DAY);
+    final TopNQuery timeExtractionQuery = makeTimeExtractionQuery(Granularities.MONTH, dayOfWeekSpec());
+    assertVectorizedMatchesNonVectorized(new TopNQueryBuilder(query).filters(filter).build(), 100);
+    assertVectorizedMatchesNonVectorized(new TopNQueryBuilder(timeExtractionQuery).filters(filter).build(), 100);
+  }
+
+  @Test
+  public void testTimeExtractionMatchesNonVectorized()
+  {
+    assertVectorizedMatchesNonVectorized(makeTimeExtractionQuery(Granularities.ALL, dayOfWeekSpec()), 10_000_000);
+    assertVectorizedMatchesNonVectorized(makeTimeExtractionQuery(Granularities.MONTH, dayOfWeekSpec()), 10_000_000);
+  }
+
+  @Test
+  public void testTimeExtractionNonStringOutputType()
+  {
+    final ExtractionDimensionSpec dayMillis = new ExtractionDimensionSpec(
+        ColumnHolder.TIME_COLUMN_NAME,
+        "day",
+        ColumnType.LONG,
+        new TimeFormatExtractionFn(null, null, null, Granularities.DAY, true)
+    );
+    assertVectorizedMatchesNonVectorized(makeTimeExtractionQuery(Granularities.MONTH, dayMillis), 10_000_000);
+  }
+
+  @Test
+  public void testTimeExtractionMultiplePasses()
+  {
+    // Buffer holds only a few slots, so each bucket needs multiple passes to aggregate every day of the week.
+    assertVectorizedMatchesNonVectorized(makeTimeExtractionQuery(Granularities.ALL, dayOfWeekSpec()), 100);
+    assertVectorizedMatchesNonVectorized(makeTimeExtractionQuery(Granularities.MONTH, dayOfWeekSpec()), 100);
+  }
+
+  private static void assertVectorizedMatchesNonVectorized(final TopNQuery query, final int bufferSize)
+  {
+    final TopNQueryEngine engine = new TopNQueryEngine(
+        new StupidPool<>("VectorTopNEngineTest", () -> ByteBuffer.allocate(bufferSize))
+    );
+
+    final List<Result<TopNResultValue>> nonVectorized =
+        engine.query(withVectorize(query, "false"), SEGMENT, null).toList();
+    final List<Result<TopNResultValue>> vectorized =
+        engine.query(withVectorize(query, "force"), SEGMENT, null).toList();
+
+    Assertions.assertFalse(nonVectorized.isEmpty());
+    TestHelper.assertExpectedResults(nonVectorized, vectorized);
+  }
+
+  private static TopNQuery withVectorize(final TopNQuery query, final String vectorize)
+  {
+    return query.withOverriddenContext(Map.of(QueryContexts.VECTORIZE_KEY, vectorize));
+  }
+
+  private static TopNQuery makeQuery(final String dimension, final Granularity granularity)
+  {
+    return new TopNQueryBuilder()
+        .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .granularity(granularity)
+        .dimension(new DefaultDimensionSpec(dimension, dimension))
+        .metric(QueryRunnerTestHelper.INDEX_METRIC)
+        .threshold(4)
+        .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .aggregators(
+            ImmutableList.of(
+                new CountAggregatorFactory("rows"),
+                new DoubleSumAggregatorFactory(QueryRunnerTestHelper.INDEX_METRIC, QueryRunnerTestHelper.INDEX_METRIC),
+                new LongSumAggregatorFactory("qualityLong", "qualityLong")
+            )
+        )
+        .build();
+  }
+
+  private static TopNQuery makeTimeExtractionQuery(
+      final Granularity granularity,
+      final ExtractionDimensionSpec dimensionSpec
+  )
+  {
+    return new TopNQueryBuilder(makeQuery(QueryRunnerTestHelper.MARKET_DIMENSION, granularity))
+        .dimension(dimensionSpec)
+        .build();
+  }
+
+  private static ExtractionDimensionSpec dayOfWeekSpec()
+  {
+    return new ExtractionDimensionSpec(
+        ColumnHolder.TIME_COLUMN_NAME,
+        "dayOfWeek",
+        new TimeFormatExtractionFn("EEEE", null, null, null, false)
+    );
+  }
+
+  private static ColumnCapabilities stringCapabilities(final boolean multiValue, final boolean unique)
+  {
+    return new ColumnCapabilitiesImpl()
+        .setType(ColumnType.STRING)
+        .setHasMultipleValues(multiValue)
+        .setDictionaryEncoded(true)
+        .setDictionaryValuesUnique(unique);
+  }
+
+  private static ColumnInspector inspector(final ColumnCapabilities capabilities)
+  {
+    return column -> capabilities;
+  }
+}
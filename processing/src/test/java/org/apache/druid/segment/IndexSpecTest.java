@@ -83,6 +83,20 @@ public class IndexSpecTest
     Assertions.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
   }
 
+  @Test
+  public void testSerdeWithNumericZoneMaps() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"numericZoneMaps\" : true }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+    Assertions.assertEquals(Boolean.TRUE, spec.getNumericZoneMaps());
+    Assertions.assertEquals(Boolean.TRUE, spec.getEffectiveSpec().getNumericZoneMaps());
+    Assertions.assertNull(IndexSpec.getDefault().getEffectiveSpec().getNumericZoneMaps());
+
+    Assertions.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
   @Test
   public void testEquals()
   {
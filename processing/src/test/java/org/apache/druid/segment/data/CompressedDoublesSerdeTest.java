@@ -243,6 +243,8 @@ public class CompressedDoublesSerdeTest
     final ByteArrayOutputStream baos = new ByteArrayOutputStream();
     serializer.writeTo(Channels.newChannel(baos), null);
     Assertions.assertEquals(baos.size(), serializer.getSerializedSize());
+    // the header records zstd_dictionary as plain zstd, since these columns have no dictionary section
+    Assertions.assertEquals(compressionStrategy.withoutDictionary().getId(), baos.toByteArray()[9]);
     Supplier<ColumnarDoubles> supplier = CompressedColumnarDoublesSuppliers
         .fromByteBuffer(ByteBuffer.wrap(baos.toByteArray()), order, null);
     try (ColumnarDoubles doubles = supplier.get()) {
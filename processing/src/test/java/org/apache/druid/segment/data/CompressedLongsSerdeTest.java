@@ -22,6 +22,8 @@ package org.apache.druid.segment.data;
 import com.google.common.base.Supplier;
 import com.google.common.primitives.Longs;
 import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.MutableBitmap;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
 import org.apache.druid.java.util.common.io.smoosh.SmooshedFileMapper;
@@ -234,6 +236,70 @@ public class CompressedLongsSerdeTest
     }
   }
 
+  @Test
+  public void testBlockDeltaZoneMap() throws Exception
+  {
+    Assumptions.assumeTrue(encodingStrategy == CompressionFactory.LongEncodingStrategy.BLOCK_DELTA);
+
+    // increasing timestamps, narrowly ranged within blocks but not across the column, plus a block spanning all longs
+    final long[] values = new long[20_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1_700_000_000_000L + i * 1000L + (i % 7);
+    }
+    values[9000] = Long.MIN_VALUE;
+    values[9001] = Long.MAX_VALUE;
+
+    final SegmentWriteOutMedium segmentWriteOutMedium = new OffHeapMemorySegmentWriteOutMedium();
+    try {
+      final ColumnarLongsSerializer serializer = CompressionFactory.getLongSerializer(
+          "test",
+          segmentWriteOutMedium,
+          "test",
+          order,
+          encodingStrategy,
+          compressionStrategy,
+          segmentWriteOutMedium.getCloser()
+      );
+      serializer.open();
+      serializer.addAll(values, 0, values.length);
+      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      serializer.writeTo(Channels.newChannel(baos), null);
+
+      final CompressedColumnarLongsSupplier supplier =
+          CompressedColumnarLongsSupplier.fromByteBuffer(ByteBuffer.wrap(baos.toByteArray()), order, null);
+      final BitmapFactory bitmapFactory = RoaringBitmapSerdeFactory.getInstance().getBitmapFactory();
+      final MutableBitmap nullRows = bitmapFactory.makeEmptyMutableBitmap();
+      nullRows.add(3);
+      nullRows.add(values.length - 1);
+      final NumericZoneMap zoneMap = supplier.getZoneMap(bitmapFactory.makeImmutableBitmap(nullRows));
+      Assertions.assertNotNull(zoneMap);
+      Assertions.assertEquals(values.length, zoneMap.getNumRows());
+      Assertions.assertTrue(zoneMap.getNumBlocks() > 1);
+      for (int block = 0; block < zoneMap.getNumBlocks(); block++) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int row = zoneMap.getBlockStart(block); row < zoneMap.getBlockEnd(block); row++) {
+          min = Math.min(min, values[row]);
+          max = Math.max(max, values[row]);
+        }
+        Assertions.assertEquals(min, zoneMap.getMinKey(block));
+        Assertions.assertEquals(max, zoneMap.getMaxKey(block));
+      }
+      Assertions.assertEquals(1, zoneMap.getNullCount(0));
+      Assertions.assertEquals(1, zoneMap.getNullCount(zoneMap.getNumBlocks() - 1));
+      Assertions.assertEquals(0, zoneMap.getNullCount(1));
+      Assertions.assertTrue(zoneMap.overlaps(0, values[10], values[10]));
+      Assertions.assertFalse(zoneMap.overlaps(0, values[values.length - 1], Long.MAX_VALUE));
+
+      try (ColumnarLongs longs = supplier.get()) {
+        assertIndexMatchesVals(longs, values);
+      }
+    }
+    finally {
+      segmentWriteOutMedium.close();
+    }
+  }
+
   public void testWithValues(long[] values) throws Exception
   {
     testValues(values);
@@ -260,6 +326,11 @@ public class CompressedLongsSerdeTest
     final ByteArrayOutputStream baos = new ByteArrayOutputStream();
     serializer.writeTo(Channels.newChannel(baos), null);
     Assertions.assertEquals(baos.size(), serializer.getSerializedSize());
+    // the header records zstd_dictionary as plain zstd, since these columns have no dictionary section
+    Assertions.assertEquals(
+        compressionStrategy.withoutDictionary().getId(),
+        CompressionFactory.clearEncodingFlag(baos.toByteArray()[9])
+    );
     CompressedColumnarLongsSupplier supplier = CompressedColumnarLongsSupplier
         .fromByteBuffer(ByteBuffer.wrap(baos.toByteArray()), order, null);
     try (ColumnarLongs longs = supplier.get()) {
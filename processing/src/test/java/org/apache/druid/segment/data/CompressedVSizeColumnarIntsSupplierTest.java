@@ -28,6 +28,7 @@ import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntArrays;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.math.expr.ExpressionProcessing;
 import org.apache.druid.segment.CompressedPools;
 import org.apache.druid.utils.CloseableUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -197,6 +198,33 @@ public class CompressedVSizeColumnarIntsSupplierTest
     }
   }
 
+  @Test
+  public void testContiguousReadsWithSimdUnpacking() throws Exception
+  {
+    ExpressionProcessing.initializeForVectorApiTests();
+    try {
+      Assertions.assertTrue(VSizeLongSerde.useSimdUnpacking());
+      for (int maxValue : MAX_VALUES) {
+        final int chunkSize = 1024;
+        setupLargeChunks(chunkSize, 5 * chunkSize + 123, maxValue);
+
+        final Random random = new Random(maxValue);
+        final int[] out = new int[vals.length + 1];
+        for (int i = 0; i < 200; i++) {
+          final int start = random.nextInt(vals.length);
+          final int length = random.nextInt(Math.min(vals.length - start, 3 * chunkSize)) + 1;
+          columnarInts.get(out, 1, start, length);
+          for (int j = 0; j < length; j++) {
+            Assertions.assertEquals(vals[start + j], out[1 + j]);
+          }
+        }
+      }
+    }
+    finally {
+      ExpressionProcessing.initializeForTests();
+    }
+  }
+
   @Test
   public void testChunkTooBig() throws Exception
   {
@@ -19,6 +19,7 @@
 
 package org.apache.druid.segment.data;
 
+import org.apache.druid.java.util.common.HumanReadableBytes;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
 import org.apache.druid.java.util.common.io.smoosh.SmooshedFileMapper;
 import org.apache.druid.segment.CompressedPools;
@@ -305,4 +306,142 @@ public class CompressedVariableSizeBlobColumnTest
     reader.close();
     fileMapper.close();
   }
+
+  @Test
+  public void testZstdDictionary() throws IOException
+  {
+    // values drawn from a vocabulary shared by all blocks, which a dictionary holds once rather than in every block
+    final Random r = new Random(42);
+    final byte[][] vocabulary = new byte[400][];
+    for (int i = 0; i < vocabulary.length; i++) {
+      vocabulary[i] = new byte[60];
+      for (int j = 0; j < vocabulary[i].length; j++) {
+        vocabulary[i][j] = (byte) ('a' + r.nextInt(26));
+      }
+    }
+    final List<byte[]> values = new ArrayList<>();
+    for (int i = 0; i < 30_000; i++) {
+      values.add(vocabulary[r.nextInt(vocabulary.length)]);
+    }
+
+    final int zstdSize = writeAndVerifyBlobs("zstd", CompressionStrategy.ZSTD, values, CompressedBlockReader.VERSION);
+    final int dictionarySize = writeAndVerifyBlobs(
+        "dictionary",
+        CompressionStrategy.ZSTD_DICTIONARY,
+        values,
+        CompressedBlockReader.VERSION_DICTIONARY
+    );
+    Assertions.assertTrue(dictionarySize < zstdSize, dictionarySize + " < " + zstdSize);
+  }
+
+  @Test
+  public void testZstdDictionaryTooFewBlocks() throws IOException
+  {
+    // a single block is not worth a dictionary, and is stored as plain zstd
+    final Random r = new Random(42);
+    final List<byte[]> values = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final byte[] value = new byte[100];
+      r.nextBytes(value);
+      values.add(value);
+    }
+    writeAndVerifyBlobs("dictionary", CompressionStrategy.ZSTD_DICTIONARY, values, CompressedBlockReader.VERSION);
+  }
+
+  @Test
+  public void testDecompressedBlockCache() throws IOException
+  {
+    DecompressedBlockCache.initialize(new DecompressedBlockCacheConfig(new HumanReadableBytes(1 << 24)));
+    try {
+      final Random r = new Random(42);
+      final List<byte[]> values = new ArrayList<>();
+      for (int i = 0; i < 10_000; i++) {
+        final byte[] value = new byte[100];
+        r.nextBytes(value);
+        values.add(value);
+      }
+      // blocks are cached once read a second time, so the third pass reads them all from the cache
+      writeAndVerifyBlobs("cached", CompressionStrategy.LZ4, values, CompressedBlockReader.VERSION, 3);
+      final DecompressedBlockCache cache = DecompressedBlockCache.getInstance();
+      Assertions.assertTrue(cache.getStats().hitCount() > 0);
+      Assertions.assertTrue(cache.getNumEntries() > 0);
+    }
+    finally {
+      DecompressedBlockCache.initialize(new DecompressedBlockCacheConfig(null));
+    }
+  }
+
+  private int writeAndVerifyBlobs(
+      String dirName,
+      CompressionStrategy compressionStrategy,
+      List<byte[]> values,
+      byte expectedVersion
+  ) throws IOException
+  {
+    return writeAndVerifyBlobs(dirName, compressionStrategy, values, expectedVersion, 1);
+  }
+
+  /**
+   * Writes the values with the given compression, checks they read back, reading all of them the given number of
+   * times, and returns the size of the compressed blobs.
+   */
+  private int writeAndVerifyBlobs(
+      String dirName,
+      CompressionStrategy compressionStrategy,
+      List<byte[]> values,
+      byte expectedVersion,
+      int passes
+  ) throws IOException
+  {
+    final File tmpFile = new File(tempFolder, dirName);
+    tmpFile.mkdir();
+    final FileSmoosher smoosher = new FileSmoosher(tmpFile);
+
+    final File tmpFile2 = new File(tempFolder, dirName + "_writeOut");
+    tmpFile2.mkdir();
+    final SegmentWriteOutMedium writeOutMedium =
+        TmpFileSegmentWriteOutMediumFactory.instance().makeSegmentWriteOutMedium(tmpFile2);
+
+    final String fileNameBase = "test";
+    CompressedVariableSizedBlobColumnSerializer serializer = new CompressedVariableSizedBlobColumnSerializer(
+        fileNameBase,
+        writeOutMedium,
+        compressionStrategy
+    );
+    serializer.open();
+    for (byte[] value : values) {
+      serializer.addValue(value);
+    }
+
+    SegmentFileChannel writer = smoosher.addWithChannel(fileNameBase, serializer.getSerializedSize());
+    serializer.writeTo(writer, smoosher);
+    writer.close();
+    smoosher.close();
+    writeOutMedium.close();
+    SmooshedFileMapper fileMapper = SmooshedFileMapper.load(tmpFile);
+
+    final ByteBuffer blobs = fileMapper.mapFile(
+        CompressedVariableSizedBlobColumnSerializer.getCompressedBlobsFileName(fileNameBase)
+    );
+    Assertions.assertEquals(expectedVersion, blobs.get(0));
+
+    CompressedVariableSizedBlobColumn column = CompressedVariableSizedBlobColumnSupplier.fromByteBuffer(
+        fileNameBase,
+        fileMapper.mapFile(fileNameBase),
+        ByteOrder.nativeOrder(),
+        ByteOrder.nativeOrder(),
+        fileMapper
+    ).get();
+    for (int pass = 0; pass < passes; pass++) {
+      for (int row = 0; row < values.size(); row++) {
+        ByteBuffer value = column.get(row);
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        Assertions.assertArrayEquals(values.get(row), bytes, "Row " + row);
+      }
+    }
+    column.close();
+    fileMapper.close();
+    return blobs.remaining();
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.HumanReadableBytes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DecompressedBlockCacheTest
+{
+  private static final int BLOCK_SIZE = 64;
+
+  @AfterEach
+  public void tearDown()
+  {
+    DecompressedBlockCache.initialize(new DecompressedBlockCacheConfig(null));
+  }
+
+  @Test
+  public void testAdmitOnSecondOffer()
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(1 << 20, 2 * BLOCK_SIZE);
+    final long columnId = DecompressedBlockCache.nextColumnId();
+
+    cache.offer(columnId, 0, makeBlock(1));
+    Assertions.assertNull(cache.get(columnId, 0));
+
+    cache.offer(columnId, 0, makeBlock(1));
+    try (ResourceHolder<ByteBuffer> holder = cache.get(columnId, 0)) {
+      Assertions.assertNotNull(holder);
+      final ByteBuffer cached = holder.get();
+      Assertions.assertTrue(cached.isReadOnly());
+      Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, cached.order());
+      Assertions.assertEquals(0, cached.position());
+      Assertions.assertEquals(BLOCK_SIZE, cached.limit());
+      Assertions.assertEquals(1L, cached.getLong(0));
+    }
+    Assertions.assertNull(cache.get(DecompressedBlockCache.nextColumnId(), 0));
+    Assertions.assertNull(cache.get(columnId, 1));
+  }
+
+  @Test
+  public void testEvictBySize()
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(4 * BLOCK_SIZE, BLOCK_SIZE);
+    final long columnId = DecompressedBlockCache.nextColumnId();
+    for (int i = 0; i < 16; i++) {
+      cache.offer(columnId, i, makeBlock(i));
+      cache.offer(columnId, i, makeBlock(i));
+    }
+    Assertions.assertTrue(cache.getSizeBytes() <= 4 * BLOCK_SIZE);
+    Assertions.assertTrue(cache.getNumEntries() <= 4);
+    Assertions.assertTrue(cache.getStats().evictionCount() > 0);
+  }
+
+  @Test
+  public void testEvictedBlockKeptUntilReleased()
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(BLOCK_SIZE, BLOCK_SIZE);
+    final long columnId = DecompressedBlockCache.nextColumnId();
+    cache.offer(columnId, 0, makeBlock(100));
+    cache.offer(columnId, 0, makeBlock(100));
+    final ResourceHolder<ByteBuffer> holder = cache.get(columnId, 0);
+    Assertions.assertNotNull(holder);
+
+    // the cache holds one block, and the only other slot is taken by the first block admitted after block 0 is evicted
+    for (int i = 1; i < 16; i++) {
+      cache.offer(columnId, i, makeBlock(i));
+      cache.offer(columnId, i, makeBlock(i));
+    }
+    Assertions.assertEquals(100L, holder.get().getLong(0));
+    Assertions.assertTrue(cache.getNumEntries() <= 1);
+    holder.close();
+
+    // once released, the slot of block 0 may be reused, but never by two cached blocks at once
+    for (int i = 16; i < 32; i++) {
+      cache.offer(columnId, i, makeBlock(i));
+      cache.offer(columnId, i, makeBlock(i));
+    }
+    for (int i = 1; i < 32; i++) {
+      try (ResourceHolder<ByteBuffer> cached = cache.get(columnId, i)) {
+        if (cached != null) {
+          Assertions.assertEquals(i, cached.get().getLong(0));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBlockLargerThanSlotNotCached()
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(1 << 20, BLOCK_SIZE / 2);
+    final long columnId = DecompressedBlockCache.nextColumnId();
+    cache.offer(columnId, 0, makeBlock(1));
+    cache.offer(columnId, 0, makeBlock(1));
+    Assertions.assertNull(cache.get(columnId, 0));
+  }
+
+  @Test
+  public void testWrapDisabled()
+  {
+    final Indexed<ResourceHolder<ByteBuffer>> blocks = new ListIndexed<>(holder(makeBlock(0), new AtomicInteger()));
+    Assertions.assertNull(DecompressedBlockCache.getInstance());
+    Assertions.assertSame(blocks, DecompressedBlockCache.wrap(0, CompressionStrategy.LZ4, blocks));
+  }
+
+  @Test
+  public void testWrapUncompressed()
+  {
+    DecompressedBlockCache.initialize(new DecompressedBlockCacheConfig(new HumanReadableBytes(1 << 20)));
+    final Indexed<ResourceHolder<ByteBuffer>> blocks = new ListIndexed<>(holder(makeBlock(0), new AtomicInteger()));
+    Assertions.assertSame(blocks, DecompressedBlockCache.wrap(0, CompressionStrategy.UNCOMPRESSED, blocks));
+  }
+
+  @Test
+  public void testWrapReadsThroughCache()
+  {
+    DecompressedBlockCache.initialize(new DecompressedBlockCacheConfig(new HumanReadableBytes(1 << 20)));
+    final AtomicInteger decompressed = new AtomicInteger();
+    final Indexed<ResourceHolder<ByteBuffer>> blocks = DecompressedBlockCache.wrap(
+        DecompressedBlockCache.nextColumnId(),
+        CompressionStrategy.LZ4,
+        new ListIndexed<>(holder(makeBlock(7), decompressed), holder(makeBlock(8), decompressed))
+    );
+    Assertions.assertEquals(2, blocks.size());
+
+    for (int i = 0; i < 4; i++) {
+      try (ResourceHolder<ByteBuffer> holder = blocks.get(1)) {
+        Assertions.assertEquals(8L, holder.get().getLong(0));
+      }
+    }
+    // decompressed until the second read admits the block, then read from the cache
+    Assertions.assertEquals(2, decompressed.get());
+    Assertions.assertEquals(2, DecompressedBlockCache.getInstance().getStats().hitCount());
+    Assertions.assertEquals(2, DecompressedBlockCache.getInstance().getStats().missCount());
+    Assertions.assertEquals(1, DecompressedBlockCache.getInstance().getNumEntries());
+  }
+
+  private static ByteBuffer makeBlock(long value)
+  {
+    final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    block.putLong(0, value);
+    return block;
+  }
+
+  private static ResourceHolder<ByteBuffer> holder(ByteBuffer block, AtomicInteger decompressed)
+  {
+    return new ResourceHolder<>()
+    {
+      @Override
+      public ByteBuffer get()
+      {
+        return block;
+      }
+
+      @Override
+      public void close()
+      {
+        // only holders of decompressed blocks are closed by the reader, cached blocks are handed out in new holders
+        decompressed.incrementAndGet();
+      }
+    };
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.collections.bitmap.RoaringBitmapFactory;
+import org.apache.druid.collections.bitmap.WrappedImmutableRoaringBitmap;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.IntIterator;
+
+import java.nio.ByteBuffer;
+
+class InlineRoaringBitmapSerdeFactoryTest
+{
+  @Test
+  public void testSerde() throws Exception
+  {
+    final ObjectMapper mapper = new DefaultObjectMapper();
+    final BitmapSerdeFactory factory = mapper.readValue("{\"type\":\"inlineRoaring\"}", BitmapSerdeFactory.class);
+    Assertions.assertEquals(new InlineRoaringBitmapSerdeFactory(null), factory);
+    Assertions.assertEquals(
+        InlineRoaringBitmapSerdeFactory.DEFAULT_MAX_INLINE_ROWS,
+        ((InlineRoaringBitmapSerdeFactory) factory).getMaxInlineRows()
+    );
+
+    final InlineRoaringBitmapSerdeFactory custom = new InlineRoaringBitmapSerdeFactory(4);
+    Assertions.assertEquals(custom, mapper.readValue(mapper.writeValueAsString(custom), BitmapSerdeFactory.class));
+    Assertions.assertNotEquals(RoaringBitmapSerdeFactory.getInstance(), factory);
+  }
+
+  @Test
+  public void testSmallBitmapIsInlined()
+  {
+    final ObjectStrategy<ImmutableBitmap> strategy = new InlineRoaringBitmapSerdeFactory(null).getObjectStrategy();
+    final ImmutableBitmap bitmap = makeBitmap(3, 70_000, 1_000_000);
+
+    final byte[] bytes = strategy.toBytes(bitmap);
+    Assertions.assertEquals(InlineRoaringBitmapSerdeFactory.INLINE_MARKER, bytes[0]);
+    Assertions.assertEquals(1 + 3 * Integer.BYTES, bytes.length);
+    Assertions.assertTrue(
+        bytes.length < RoaringBitmapSerdeFactory.getInstance().getObjectStrategy().toBytes(bitmap).length
+    );
+    assertRoundTrip(strategy, bitmap);
+  }
+
+  @Test
+  public void testLargeBitmapIsRunOptimizedRoaring()
+  {
+    final ObjectStrategy<ImmutableBitmap> strategy = new InlineRoaringBitmapSerdeFactory(null).getObjectStrategy();
+    final int[] rows = new int[100_000];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i;
+    }
+    final ImmutableBitmap bitmap = makeBitmap(rows);
+
+    final byte[] bytes = strategy.toBytes(bitmap);
+    Assertions.assertNotEquals(InlineRoaringBitmapSerdeFactory.INLINE_MARKER, bytes[0]);
+    // a single run per container
+    Assertions.assertTrue(bytes.length < 64, "bytes[" + bytes.length + "]");
+    assertRoundTrip(strategy, bitmap);
+  }
+
+  @Test
+  public void testInliningDisabled()
+  {
+    final ObjectStrategy<ImmutableBitmap> strategy = new InlineRoaringBitmapSerdeFactory(0).getObjectStrategy();
+    final ImmutableBitmap bitmap = makeBitmap(7);
+
+    Assertions.assertNotEquals(InlineRoaringBitmapSerdeFactory.INLINE_MARKER, strategy.toBytes(bitmap)[0]);
+    assertRoundTrip(strategy, bitmap);
+  }
+
+  @Test
+  public void testEmptyBitmap()
+  {
+    final ObjectStrategy<ImmutableBitmap> strategy = new InlineRoaringBitmapSerdeFactory(null).getObjectStrategy();
+    Assertions.assertEquals(0, strategy.toBytes(null).length);
+    Assertions.assertTrue(strategy.fromByteBuffer(ByteBuffer.allocate(0), 0).isEmpty());
+  }
+
+  private static ImmutableBitmap makeBitmap(int... rows)
+  {
+    final MutableBitmap bitmap = RoaringBitmapFactory.INSTANCE.makeEmptyMutableBitmap();
+    for (int row : rows) {
+      bitmap.add(row);
+    }
+    return RoaringBitmapFactory.INSTANCE.makeImmutableBitmap(bitmap);
+  }
+
+  private static void assertRoundTrip(ObjectStrategy<ImmutableBitmap> strategy, ImmutableBitmap expected)
+  {
+    final byte[] bytes = strategy.toBytes(expected);
+    // read from the middle of a larger buffer, as a column would
+    final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 8);
+    buffer.position(4);
+    buffer.put(bytes);
+    buffer.position(4);
+    final ImmutableBitmap actual = strategy.fromByteBuffer(buffer, bytes.length);
+    Assertions.assertEquals(expected.size(), actual.size());
+    Assertions.assertInstanceOf(WrappedImmutableRoaringBitmap.class, actual);
+    final IntIterator expectedRows = expected.iterator();
+    final IntIterator actualRows = actual.iterator();
+    while (expectedRows.hasNext()) {
+      Assertions.assertEquals(expectedRows.next(), actualRows.next());
+    }
+    Assertions.assertFalse(actualRows.hasNext());
+  }
+}
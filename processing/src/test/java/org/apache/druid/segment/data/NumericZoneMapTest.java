@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+public class NumericZoneMapTest
+{
+  @Test
+  public void testRoundTrip() throws IOException
+  {
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(4);
+    // block 0: values and a null
+    writer.add(5);
+    writer.addNull();
+    writer.add(-3);
+    writer.add(10);
+    // block 1: only nulls
+    writer.addNull();
+    writer.addNull();
+    writer.addNull();
+    writer.addNull();
+    // block 2: partial
+    writer.add(Long.MAX_VALUE);
+    writer.add(7);
+
+    final NumericZoneMap zoneMap = roundTrip(writer);
+    Assertions.assertEquals(4, zoneMap.getRowsPerBlock());
+    Assertions.assertEquals(10, zoneMap.getNumRows());
+    Assertions.assertEquals(3, zoneMap.getNumBlocks());
+
+    Assertions.assertEquals(-3, zoneMap.getMinKey(0));
+    Assertions.assertEquals(10, zoneMap.getMaxKey(0));
+    Assertions.assertEquals(1, zoneMap.getNullCount(0));
+    Assertions.assertEquals(0, zoneMap.getBlockStart(0));
+    Assertions.assertEquals(4, zoneMap.getBlockEnd(0));
+
+    Assertions.assertEquals(4, zoneMap.getNullCount(1));
+    Assertions.assertFalse(zoneMap.overlaps(1, Long.MIN_VALUE, Long.MAX_VALUE));
+
+    Assertions.assertEquals(7, zoneMap.getMinKey(2));
+    Assertions.assertEquals(Long.MAX_VALUE, zoneMap.getMaxKey(2));
+    Assertions.assertEquals(0, zoneMap.getNullCount(2));
+    Assertions.assertEquals(8, zoneMap.getBlockStart(2));
+    Assertions.assertEquals(10, zoneMap.getBlockEnd(2));
+
+    Assertions.assertTrue(zoneMap.overlaps(0, 10, 20));
+    Assertions.assertTrue(zoneMap.overlaps(0, -10, -3));
+    Assertions.assertTrue(zoneMap.overlaps(0, 0, 0));
+    Assertions.assertFalse(zoneMap.overlaps(0, 11, 20));
+    Assertions.assertFalse(zoneMap.overlaps(0, -10, -4));
+  }
+
+  @Test
+  public void testDoubleKeys() throws IOException
+  {
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(8);
+    writer.add(NumericKeyRanges.doubleKey(-1.5));
+    writer.add(NumericKeyRanges.doubleKey(2.25));
+    writer.add(NumericKeyRanges.doubleKey(-0.0));
+
+    final NumericZoneMap zoneMap = roundTrip(writer);
+    Assertions.assertEquals(1, zoneMap.getNumBlocks());
+    Assertions.assertEquals(NumericKeyRanges.doubleKey(-1.5), zoneMap.getMinKey(0));
+    Assertions.assertEquals(NumericKeyRanges.doubleKey(2.25), zoneMap.getMaxKey(0));
+    Assertions.assertTrue(
+        zoneMap.overlaps(0, NumericKeyRanges.doubleKey(2.0), NumericKeyRanges.doubleKey(Double.NaN))
+    );
+    Assertions.assertFalse(
+        zoneMap.overlaps(0, NumericKeyRanges.doubleKey(2.5), NumericKeyRanges.doubleKey(Double.NaN))
+    );
+  }
+
+  @Test
+  public void testEmpty() throws IOException
+  {
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(4);
+    final NumericZoneMap zoneMap = roundTrip(writer);
+    Assertions.assertEquals(0, zoneMap.getNumRows());
+    Assertions.assertEquals(0, zoneMap.getNumBlocks());
+  }
+
+  @Test
+  public void testFullBlocks() throws IOException
+  {
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(2);
+    for (int i = 0; i < 6; i++) {
+      writer.add(i);
+    }
+    final NumericZoneMap zoneMap = roundTrip(writer);
+    Assertions.assertEquals(3, zoneMap.getNumBlocks());
+    for (int block = 0; block < 3; block++) {
+      Assertions.assertEquals(block * 2, zoneMap.getMinKey(block));
+      Assertions.assertEquals(block * 2 + 1, zoneMap.getMaxKey(block));
+      Assertions.assertEquals(block * 2 + 2, zoneMap.getBlockEnd(block));
+    }
+  }
+
+  @Test
+  public void testUnknownVersion()
+  {
+    final ByteBuffer buffer = ByteBuffer.allocate(9);
+    buffer.put(0, (byte) 0x7F);
+    Assertions.assertThrows(IAE.class, () -> NumericZoneMap.read(buffer));
+  }
+
+  private static NumericZoneMap roundTrip(NumericZoneMap.Writer writer) throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(Channels.newChannel(out));
+    Assertions.assertEquals(writer.getSerializedSize(), out.size());
+
+    // trailing bytes must be left alone
+    final ByteBuffer buffer = ByteBuffer.allocate(out.size() + 3);
+    buffer.put(out.toByteArray()).flip();
+    buffer.limit(buffer.capacity());
+    final NumericZoneMap zoneMap = NumericZoneMap.read(buffer);
+    Assertions.assertEquals(3, buffer.remaining());
+    return zoneMap;
+  }
+}
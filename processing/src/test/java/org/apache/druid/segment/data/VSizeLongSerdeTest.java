@@ -22,16 +22,23 @@ package org.apache.druid.segment.data;
 
 import com.google.common.primitives.Ints;
 import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.math.expr.ExpressionProcessing;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedClass;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 public class VSizeLongSerdeTest
@@ -85,6 +92,132 @@ public class VSizeLongSerdeTest
     }
   }
 
+  /**
+   * Reads every size in a separate JVM started without the jdk.incubator.vector module, to check that the scalar
+   * read path never touches the Vector API classes.
+   */
+  public static class NoVectorModuleTest
+  {
+    @Test
+    public void testReadWithoutVectorModule() throws Exception
+    {
+      final Process process = new ProcessBuilder(
+          List.of(
+              System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+              "-cp",
+              System.getProperty("java.class.path"),
+              NoVectorModuleTest.class.getName()
+          )
+      ).redirectErrorStream(true).start();
+      final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      Assertions.assertEquals(0, process.waitFor(), output);
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+      if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+        throw new IllegalStateException("jdk.incubator.vector must not be present");
+      }
+      // even with the Vector API enabled, a missing module must fall back to the scalar path
+      ExpressionProcessing.initializeForVectorApiTests();
+      if (VSizeLongSerde.useSimdUnpacking()) {
+        throw new IllegalStateException("SIMD unpacking must be disabled without jdk.incubator.vector");
+      }
+      final Random random = new Random(0);
+      for (int numBits : VSizeLongSerde.SUPPORTED_SIZES) {
+        final long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = numBits == 64 ? random.nextLong() : random.nextLong() & ((1L << numBits) - 1);
+        }
+        testSerde(numBits, values);
+      }
+    }
+  }
+
+  @ParameterizedClass
+  @MethodSource("data")
+  public static class SimdUnpackingTest
+  {
+    private final int numBits;
+
+    public SimdUnpackingTest(int numBits)
+    {
+      this.numBits = numBits;
+    }
+
+    public static Collection<Object[]> data()
+    {
+      return Arrays.stream(VSizeLongSerde.SUPPORTED_SIZES)
+                   .filter(value -> value <= Integer.SIZE)
+                   .mapToObj(value -> new Object[]{value})
+                   .collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    public void setUp()
+    {
+      ExpressionProcessing.initializeForVectorApiTests();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+      ExpressionProcessing.initializeForTests();
+    }
+
+    @Test
+    public void testSerde() throws IOException
+    {
+      Assertions.assertTrue(VSizeLongSerde.useSimdUnpacking());
+      VSizeLongSerdeTest.testSerde(numBits, randomValues(1000));
+    }
+
+    @Test
+    public void testContiguousReads() throws IOException
+    {
+      final long[] values = randomValues(1000);
+      final ByteBuffer buffer = ByteBuffer.allocate(VSizeLongSerde.getSerializedSize(numBits, values.length));
+      final VSizeLongSerde.LongSerializer serializer = VSizeLongSerde.getSerializer(numBits, buffer, 0);
+      for (long value : values) {
+        serializer.write(value);
+      }
+      serializer.close();
+
+      final VSizeLongSerde.LongDeserializer deserializer = VSizeLongSerde.getDeserializer(numBits, buffer, 0);
+      final long[] table = new long[numBits <= 8 ? 1 << numBits : 0];
+      for (int i = 0; i < table.length; i++) {
+        table[i] = -7L * i;
+      }
+      final long[] out = new long[values.length + 1];
+
+      // every start within the first few 32-bit words, with lengths ending both on and off word boundaries
+      for (int start = 0; start < 40; start++) {
+        for (int length : new int[]{64, 100, 512, values.length - start}) {
+          deserializer.getDelta(out, 1, start, length, 10);
+          for (int i = 0; i < length; i++) {
+            Assertions.assertEquals(values[start + i] + 10, out[1 + i]);
+          }
+          if (table.length > 0) {
+            deserializer.getTable(out, 1, start, length, table);
+            for (int i = 0; i < length; i++) {
+              Assertions.assertEquals(table[(int) values[start + i]], out[1 + i]);
+            }
+          }
+        }
+      }
+    }
+
+    private long[] randomValues(int numValues)
+    {
+      final Random random = new Random(numBits);
+      final long[] values = new long[numValues];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextLong() & ((1L << numBits) - 1);
+      }
+      return values;
+    }
+  }
+
   public static class SpecificValuesTest
   {
     private final long[] values0 = {0, 1, 1, 0, 1, 1, 1, 1, 0, 0, 1, 1};
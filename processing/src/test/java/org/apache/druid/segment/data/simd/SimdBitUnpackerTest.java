@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data.simd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class SimdBitUnpackerTest
+{
+  @Test
+  public void testAlignment()
+  {
+    Assertions.assertEquals(32, SimdBitUnpacker.alignment(1));
+    Assertions.assertEquals(16, SimdBitUnpacker.alignment(2));
+    Assertions.assertEquals(8, SimdBitUnpacker.alignment(12));
+    Assertions.assertEquals(4, SimdBitUnpacker.alignment(24));
+    Assertions.assertEquals(32, SimdBitUnpacker.alignment(31));
+    Assertions.assertEquals(1, SimdBitUnpacker.alignment(32));
+  }
+
+  @Test
+  public void testUnpackBigEndian()
+  {
+    for (int bitsPerValue = 1; bitsPerValue <= Integer.SIZE; bitsPerValue++) {
+      assertUnpack(bitsPerValue, ByteOrder.BIG_ENDIAN);
+    }
+  }
+
+  @Test
+  public void testUnpackLittleEndian()
+  {
+    for (int bitsPerValue = 1; bitsPerValue <= Integer.SIZE; bitsPerValue++) {
+      assertUnpack(bitsPerValue, ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  @Test
+  public void testReadWordsPastLimit()
+  {
+    final ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6}).order(ByteOrder.BIG_ENDIAN);
+    final int[] words = new int[3];
+    SimdBitUnpacker.readWords(buffer, 1, words, 3);
+    Assertions.assertArrayEquals(new int[]{0x02030405, 0x06000000, 0}, words);
+
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    SimdBitUnpacker.readWords(buffer, 1, words, 3);
+    Assertions.assertArrayEquals(new int[]{0x05040302, 0x00000006, 0}, words);
+  }
+
+  private static void assertUnpack(int bitsPerValue, ByteOrder byteOrder)
+  {
+    final Random random = new Random(bitsPerValue);
+    final int[] values = new int[1000];
+    final long mask = (1L << bitsPerValue) - 1;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (int) (random.nextLong() & mask);
+    }
+    final ByteBuffer buffer = pack(values, bitsPerValue, byteOrder);
+
+    final int alignment = SimdBitUnpacker.alignment(bitsPerValue);
+    for (int start = 0; start < values.length; start += alignment * 7) {
+      for (int length : new int[]{0, 1, 63, 64, 65, values.length - start}) {
+        if (start + length > values.length) {
+          continue;
+        }
+        final int[] words = new int[SimdBitUnpacker.wordsFor(bitsPerValue, length)];
+        SimdBitUnpacker.readWords(buffer, start * bitsPerValue / Byte.SIZE, words, words.length);
+        final int[] out = new int[length + 1];
+        SimdBitUnpacker.unpack(words, bitsPerValue, byteOrder == ByteOrder.BIG_ENDIAN, length, out, 1);
+        for (int i = 0; i < length; i++) {
+          Assertions.assertEquals(
+              values[start + i],
+              out[1 + i],
+              "bitsPerValue[" + bitsPerValue + "], byteOrder[" + byteOrder + "], index[" + (start + i) + "]"
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * Packs values as a bit stream, most significant bit first for big-endian and least significant bit first for
+   * little-endian.
+   */
+  private static ByteBuffer pack(int[] values, int bitsPerValue, ByteOrder byteOrder)
+  {
+    final byte[] bytes = new byte[(values.length * bitsPerValue + Byte.SIZE - 1) / Byte.SIZE];
+    for (int i = 0; i < values.length; i++) {
+      for (int b = 0; b < bitsPerValue; b++) {
+        final int bit = i * bitsPerValue + b;
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+          if (((values[i] >>> (bitsPerValue - 1 - b)) & 1) != 0) {
+            bytes[bit / Byte.SIZE] |= (byte) (0x80 >>> (bit % Byte.SIZE));
+          }
+        } else if (((values[i] >>> b) & 1) != 0) {
+          bytes[bit / Byte.SIZE] |= (byte) (1 << (bit % Byte.SIZE));
+        }
+      }
+    }
+    return ByteBuffer.wrap(bytes).order(byteOrder);
+  }
+}
@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 class SegmentFileMapperV10Test
@@ -136,6 +137,31 @@ class SegmentFileMapperV10Test
     }
   }
 
+  @Test
+  void testReadahead() throws IOException
+  {
+    File baseDir = new File(tempDir, "base_" + ThreadLocalRandom.current().nextInt());
+    FileUtils.mkdirp(baseDir);
+
+    try (SegmentFileBuilderV10 builder = SegmentFileBuilderV10.create(JSON_MAPPER, baseDir)) {
+      for (int i = 0; i < 20; ++i) {
+        File tmpFile = new File(tempDir, StringUtils.format("smoosh-%s.bin", i));
+        Files.write(Ints.toByteArray(i), tmpFile);
+        builder.add(StringUtils.format("%d", i), tmpFile);
+      }
+    }
+
+    File segmentFile = new File(baseDir, IndexIO.V10_FILE_NAME);
+    SegmentFileMapperV10 mapper = SegmentFileMapperV10.create(segmentFile, JSON_MAPPER);
+    mapper.readahead(Set.of("1", "5", "unknown"));
+    mapper.readahead(Set.of("1", "6"));
+    validateInternalFiles(mapper);
+    mapper.close();
+
+    // reading ahead a closed mapper does nothing, rather than touching unmapped containers
+    mapper.readahead(Set.of("7"));
+  }
+
   private static void validateInternalFiles(SegmentFileMapperV10 mapper) throws IOException
   {
     for (int i = 0; i < 20; ++i) {
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.data.input.impl.DoubleDimensionSchema;
+import org.apache.druid.data.input.impl.FloatDimensionSchema;
+import org.apache.druid.data.input.impl.LongDimensionSchema;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.query.DefaultBitmapResultFactory;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.RangeFilter;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.CursorBuildSpec;
+import org.apache.druid.segment.CursorHolder;
+import org.apache.druid.segment.IndexBuilder;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexCursorFactory;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.data.CompressionFactory;
+import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.segment.index.semantic.NumericZoneMapIndexes;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+
+/**
+ * Range filters on numeric columns with per-block minimum and maximum values, which are used as inexact indexes.
+ */
+class NumericZoneMapFilterTest extends InitializedNullHandlingTest
+{
+  private static final int NUM_ROWS = 20_000;
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void testBlockDeltaLongs()
+  {
+    final IndexSpec indexSpec = IndexSpec.builder()
+                                         .withLongEncoding(CompressionFactory.LongEncodingStrategy.BLOCK_DELTA)
+                                         .build();
+    try (QueryableIndex index = buildIndex(indexSpec)) {
+      // rows 10000 to 10099 are all in the third block of 4096 rows
+      final ImmutableBitmap blocks = computeZoneMapIndex(index, "l", 10_000L, 10_100L);
+      Assertions.assertEquals(4096, blocks.size());
+      Assertions.assertTrue(blocks.get(8192));
+      Assertions.assertFalse(blocks.get(8191));
+
+      assertLongFilters(index);
+      // no zone maps were asked for, so the other columns have none
+      Assertions.assertNull(index.getColumnHolder("d").getIndexSupplier().as(NumericZoneMapIndexes.class));
+    }
+  }
+
+  @Test
+  void testNumericZoneMaps()
+  {
+    for (CompressionFactory.LongEncodingStrategy longEncoding : CompressionFactory.LongEncodingStrategy.values()) {
+      final IndexSpec indexSpec = IndexSpec.builder()
+                                           .withLongEncoding(longEncoding)
+                                           .withNumericZoneMaps(true)
+                                           .build();
+      try (QueryableIndex index = buildIndex(indexSpec)) {
+        // blocks of 8192 rows for longs and doubles, except with block_delta, and 16384 rows for floats
+        final int longRowsPerBlock = longEncoding == CompressionFactory.LongEncodingStrategy.BLOCK_DELTA ? 4096 : 8192;
+        Assertions.assertEquals(longRowsPerBlock, computeZoneMapIndex(index, "l", 10_000L, 10_100L).size());
+        Assertions.assertEquals(8192, computeZoneMapIndex(index, "d", 5_000.0, 5_050.0).size());
+        Assertions.assertEquals(NUM_ROWS - 16384, computeZoneMapIndex(index, "f", 17_000f, 17_100f).size());
+
+        assertLongFilters(index);
+        assertFilterMatches(
+            index,
+            new RangeFilter("d", ColumnType.DOUBLE, 5_000.0, 5_050.0, false, true, null),
+            v -> v >= 5_000.0 && v < 5_050.0
+        );
+        assertFilterMatches(
+            index,
+            new RangeFilter("d", ColumnType.LONG, null, 10L, false, true, null),
+            v -> v < 10.0
+        );
+        assertFilterMatches(
+            index,
+            new RangeFilter("f", ColumnType.FLOAT, 17_000f, 17_100f, true, false, null),
+            v -> v > 17_000 && v <= 17_100
+        );
+        assertFilterMatches(
+            index,
+            new RangeFilter("f", ColumnType.DOUBLE, -1.0, 0.5, false, false, null),
+            v -> v >= -1.0 && v <= 0.5
+        );
+      }
+    }
+  }
+
+  @Test
+  void testNoZoneMaps()
+  {
+    try (QueryableIndex index = buildIndex(IndexSpec.getDefault())) {
+      for (String column : List.of("l", "d", "f")) {
+        Assertions.assertNull(index.getColumnHolder(column).getIndexSupplier().as(NumericZoneMapIndexes.class));
+      }
+      assertLongFilters(index);
+    }
+  }
+
+  private static void assertLongFilters(QueryableIndex index)
+  {
+    assertFilterMatches(
+        index,
+        new RangeFilter("l", ColumnType.LONG, 10_000L, 10_100L, false, true, null),
+        v -> v >= 10_000 && v < 10_100
+    );
+    assertFilterMatches(index, new RangeFilter("l", ColumnType.LONG, null, 5L, false, false, null), v -> v <= 5);
+    assertFilterMatches(
+        index,
+        new RangeFilter("l", ColumnType.DOUBLE, 19_990.5, null, true, false, null),
+        v -> v > 19_990.5
+    );
+    assertFilterMatches(index, new RangeFilter("l", ColumnType.LONG, 30_000L, null, false, false, null), v -> false);
+  }
+
+  /**
+   * Each column holds a number derived from the row number, so it is narrowly ranged within blocks, and is null in
+   * one row of every hundred: "l" is the row number, "d" half of it and "f" the row number as a float.
+   */
+  private static Number value(String column, int row)
+  {
+    switch (column) {
+      case "l":
+        return row % 100 == 0 ? null : (long) row;
+      case "d":
+        return row % 100 == 50 ? null : row / 2.0;
+      default:
+        return row % 100 == 25 ? null : (float) row;
+    }
+  }
+
+  private QueryableIndex buildIndex(IndexSpec indexSpec)
+  {
+    final List<InputRow> rows = new ArrayList<>(NUM_ROWS);
+    final long start = DateTimes.of("2025-01-01").getMillis();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      final Map<String, Object> event = new HashMap<>();
+      for (String column : List.of("l", "d", "f")) {
+        event.put(column, value(column, i));
+      }
+      rows.add(new MapBasedInputRow(start + i, List.of("l", "d", "f"), event));
+    }
+    return IndexBuilder.create()
+                       .tmpDir(tempDir)
+                       .schema(
+                           IncrementalIndexSchema.builder()
+                                                 .withDimensionsSpec(
+                                                     DimensionsSpec.builder()
+                                                                   .setDimensions(
+                                                                       List.of(
+                                                                           new LongDimensionSchema("l"),
+                                                                           new DoubleDimensionSchema("d"),
+                                                                           new FloatDimensionSchema("f")
+                                                                       )
+                                                                   )
+                                                                   .build()
+                                                 )
+                                                 .withRollup(false)
+                                                 .build()
+                       )
+                       .indexSpec(indexSpec)
+                       .rows(rows)
+                       .buildMMappedIndex();
+  }
+
+  private static ImmutableBitmap computeZoneMapIndex(QueryableIndex index, String column, Number lower, Number upper)
+  {
+    final NumericZoneMapIndexes zoneMapIndexes =
+        index.getColumnHolder(column).getIndexSupplier().as(NumericZoneMapIndexes.class);
+    Assertions.assertNotNull(zoneMapIndexes, column);
+    return zoneMapIndexes.forRange(lower, false, upper, true).computeBitmapResult(
+        new DefaultBitmapResultFactory(index.getBitmapFactoryForDimensions()),
+        false
+    );
+  }
+
+  /**
+   * Checks that the filter matches the rows whose non-null values in the filtered column match the expected predicate.
+   */
+  private static void assertFilterMatches(QueryableIndex index, RangeFilter filter, DoublePredicate expectedMatch)
+  {
+    int expected = 0;
+    for (int i = 0; i < NUM_ROWS; i++) {
+      final Number value = value(filter.getColumn(), i);
+      if (value != null && expectedMatch.test(value.doubleValue())) {
+        expected++;
+      }
+    }
+    Assertions.assertEquals(expected, countRows(index, filter), filter.toString());
+  }
+
+  private static int countRows(QueryableIndex index, Filter filter)
+  {
+    final CursorBuildSpec buildSpec = CursorBuildSpec.builder().setFilter(filter).build();
+    try (CursorHolder cursorHolder = new QueryableIndexCursorFactory(index).makeCursorHolder(buildSpec)) {
+      final Cursor cursor = cursorHolder.asCursor();
+      int count = 0;
+      while (!cursor.isDone()) {
+        count++;
+        cursor.advance();
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.serde;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.query.BitmapResultFactory;
+import org.apache.druid.query.DefaultBitmapResultFactory;
+import org.apache.druid.query.filter.NumericKeyRanges;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.NumericZoneMap;
+import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+import org.apache.druid.segment.index.semantic.NullValueIndex;
+import org.apache.druid.segment.index.semantic.NumericZoneMapIndexes;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.IntIterator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.stream.IntStream;
+
+public class NumericZoneMapIndexSupplierTest extends InitializedNullHandlingTest
+{
+  private static final int ROWS_PER_BLOCK = 4;
+
+  private final BitmapFactory bitmapFactory = RoaringBitmapSerdeFactory.getInstance().getBitmapFactory();
+  private final BitmapResultFactory<ImmutableBitmap> bitmapResultFactory =
+      new DefaultBitmapResultFactory(bitmapFactory);
+
+  @Test
+  public void testLongRanges()
+  {
+    final NumericZoneMapIndexes indexes = makeLongIndexes(
+        1L, 2L, 3L, 4L,
+        10L, null, 12L, 13L,
+        null, null, null, null,
+        20L, 21L, 22L, 23L
+    );
+
+    checkBitmap(compute(indexes.forRange(null, false, null, false), false), blocks(0, 1, 3));
+    checkBitmap(compute(indexes.forRange(2L, false, 11L, false), false), blocks(0, 1));
+    checkBitmap(compute(indexes.forRange(4L, true, 10L, true), false));
+    checkBitmap(compute(indexes.forRange(4L, false, 10L, true), false), blocks(0));
+    checkBitmap(compute(indexes.forRange(13L, false, null, false), false), blocks(1, 3));
+    checkBitmap(compute(indexes.forRange(null, false, 0L, false), false));
+    checkBitmap(compute(indexes.forRange(null, false, 0L, false), true), blocks(1, 2));
+    checkBitmap(compute(indexes.forRange(14L, false, 19L, false), true), blocks(1, 2));
+
+    // double bounds are rounded the same way as the long predicate of RangeFilter
+    checkBitmap(compute(indexes.forRange(4.5, false, 9.5, false), false));
+    checkBitmap(compute(indexes.forRange(3.5, true, 9.5, false), false), blocks(0));
+    checkBitmap(compute(indexes.forRange(13.5, false, 19.5, true), false));
+    checkBitmap(compute(indexes.forRange(13.5, false, 20.5, true), false), blocks(3));
+  }
+
+  @Test
+  public void testDoubleRanges()
+  {
+    // block 0: [-1.5, 0.0, 2.5, NaN], block 1: [3.0, 3.5, null, 4.0]
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(ROWS_PER_BLOCK);
+    final MutableBitmap nulls = bitmapFactory.makeEmptyMutableBitmap();
+    final Double[] values = new Double[]{-1.5, 0.0, 2.5, Double.NaN, 3.0, 3.5, null, 4.0};
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        nulls.add(i);
+        writer.addNull();
+      } else {
+        writer.add(NumericKeyRanges.doubleKey(values[i]));
+      }
+    }
+    final NumericZoneMapIndexes indexes = makeIndexes(ValueType.DOUBLE, nulls, writer);
+
+    checkBitmap(compute(indexes.forRange(2.5, false, 3.0, false), false), blocks(0, 1));
+    checkBitmap(compute(indexes.forRange(3.1, false, 5.0, false), false), blocks(0, 1));
+    checkBitmap(compute(indexes.forRange(null, false, 2.9, false), false), blocks(0));
+    checkBitmap(compute(indexes.forRange(4.0, true, null, false), false), blocks(0));
+    // NaN sorts after every other double, so the first block may match any range without an upper bound
+    checkBitmap(compute(indexes.forRange(4.0, true, 100.0, false), false), blocks(0));
+    checkBitmap(compute(indexes.forRange(4.0, true, 100.0, false), true), blocks(0, 1));
+    checkBitmap(compute(indexes.forRange(-10.0, false, -2.0, false), false));
+  }
+
+  @Test
+  public void testFloatRanges()
+  {
+    // block 0: [1.1f, 1.2f, 1.3f, 1.4f], block 1: [5.0f]
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(ROWS_PER_BLOCK);
+    for (float value : new float[]{1.1f, 1.2f, 1.3f, 1.4f, 5.0f}) {
+      writer.add(NumericKeyRanges.floatKey(value));
+    }
+    final NumericZoneMapIndexes indexes = makeIndexes(ValueType.FLOAT, bitmapFactory.makeEmptyMutableBitmap(), writer);
+
+    // 1.4f widened to double is slightly less than 1.4
+    checkBitmap(compute(indexes.forRange(1.4, false, 2.0, false), false));
+    checkBitmap(compute(indexes.forRange((double) 1.4f, false, 2.0, false), false), blocks(0));
+    checkBitmap(compute(indexes.forRange(1.35, false, 5.0, true), false), blocks(0));
+    checkBitmap(compute(indexes.forRange(5.0, false, null, false), false), IntStream.of(4).toArray());
+  }
+
+  @Test
+  public void testIndexIsInexact()
+  {
+    final NumericZoneMapIndexes indexes = makeLongIndexes(1L, 2L, 3L, 4L, 10L, 11L, 12L, 13L);
+    final BitmapColumnIndex index = indexes.forRange(2L, false, 3L, false);
+    Assertions.assertFalse(index.getIndexCapabilities().isExact());
+    Assertions.assertFalse(index.getIndexCapabilities().isInvertible());
+    Assertions.assertEquals(2, index.estimatedComputeCost());
+  }
+
+  @Test
+  public void testNothingToSkip()
+  {
+    final NumericZoneMapIndexes indexes = makeLongIndexes(1L, 2L, 3L, 4L, 10L, 11L, 12L, 13L);
+    // every block may match, so there is no point in using the index when building a cursor
+    Assertions.assertNull(
+        indexes.forRange(4L, false, 10L, false).computeBitmapResult(bitmapResultFactory, 8, 8, false)
+    );
+    checkBitmap(
+        indexes.forRange(5L, false, 10L, false).computeBitmapResult(bitmapResultFactory, 8, 8, false),
+        blocks(1)
+    );
+    checkBitmap(compute(indexes.forRange(4L, false, 10L, false), false), blocks(0, 1));
+  }
+
+  @Test
+  public void testNullValueIndex()
+  {
+    final NullValueIndex nullValueIndex = makeLongSupplier(1L, null, 3L).as(NullValueIndex.class);
+    Assertions.assertNotNull(nullValueIndex);
+    checkBitmap(compute(nullValueIndex.get(), false), 1);
+  }
+
+  private NumericZoneMapIndexes makeLongIndexes(Long... values)
+  {
+    final NumericZoneMapIndexes indexes = makeLongSupplier(values).as(NumericZoneMapIndexes.class);
+    Assertions.assertNotNull(indexes);
+    return indexes;
+  }
+
+  private NumericZoneMapIndexSupplier makeLongSupplier(Long... values)
+  {
+    final NumericZoneMap.Writer writer = new NumericZoneMap.Writer(ROWS_PER_BLOCK);
+    final MutableBitmap nulls = bitmapFactory.makeEmptyMutableBitmap();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        nulls.add(i);
+        writer.addNull();
+      } else {
+        writer.add(values[i]);
+      }
+    }
+    return makeSupplier(ValueType.LONG, nulls, writer);
+  }
+
+  private NumericZoneMapIndexes makeIndexes(ValueType valueType, MutableBitmap nulls, NumericZoneMap.Writer writer)
+  {
+    final NumericZoneMapIndexes indexes = makeSupplier(valueType, nulls, writer).as(NumericZoneMapIndexes.class);
+    Assertions.assertNotNull(indexes);
+    return indexes;
+  }
+
+  private NumericZoneMapIndexSupplier makeSupplier(
+      ValueType valueType,
+      MutableBitmap nulls,
+      NumericZoneMap.Writer writer
+  )
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writer.writeTo(Channels.newChannel(out));
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return new NumericZoneMapIndexSupplier(
+        valueType,
+        bitmapFactory,
+        bitmapFactory.makeImmutableBitmap(nulls),
+        NumericZoneMap.read(ByteBuffer.wrap(out.toByteArray()))
+    );
+  }
+
+  private ImmutableBitmap compute(BitmapColumnIndex index, boolean includeUnknown)
+  {
+    return index.computeBitmapResult(bitmapResultFactory, includeUnknown);
+  }
+
+  private static int[] blocks(int... blocks)
+  {
+    return IntStream.of(blocks)
+                    .flatMap(block -> IntStream.range(block * ROWS_PER_BLOCK, (block + 1) * ROWS_PER_BLOCK))
+                    .toArray();
+  }
+
+  private static void checkBitmap(ImmutableBitmap bitmap, int... expectedRows)
+  {
+    final IntIterator iterator = bitmap.iterator();
+    for (int i : expectedRows) {
+      Assertions.assertTrue(iterator.hasNext());
+      Assertions.assertEquals(i, iterator.next());
+    }
+    Assertions.assertFalse(iterator.hasNext());
+  }
+}
@@ -20,7 +20,9 @@
 package org.apache.druid.client;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.joda.time.Period;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 /**
@@ -42,6 +44,9 @@ public class BrokerSegmentWatcherConfig
   @JsonProperty
   private boolean awaitInitializationOnStart = true;
 
+  @JsonProperty
+  private Period timelineSnapshotPeriod = null;
+
   public Set<String> getWatchedTiers()
   {
     return watchedTiers;
@@ -66,4 +71,14 @@ public class BrokerSegmentWatcherConfig
   {
     return awaitInitializationOnStart;
   }
+
+  /**
+   * How often {@link BrokerServerView} publishes the snapshots of its timelines that queries read from. Null means
+   * queries read the live timelines directly.
+   */
+  @Nullable
+  public Period getTimelineSnapshotPeriod()
+  {
+    return timelineSnapshotPeriod;
+  }
 }
@@ -19,8 +19,10 @@
 
 package org.apache.druid.client;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Ordering;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import com.google.inject.Inject;
 import org.apache.druid.client.selector.ServerSelector;
 import org.apache.druid.client.selector.TierSelectorStrategy;
@@ -28,7 +30,9 @@ import org.apache.druid.guice.ManageLifecycle;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.Pair;
 import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.concurrent.ScheduledExecutors;
 import org.apache.druid.java.util.common.lifecycle.LifecycleStart;
+import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
@@ -41,10 +45,13 @@ import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.SegmentId;
 import org.apache.druid.timeline.VersionedIntervalTimeline;
 import org.apache.druid.timeline.partition.PartitionChunk;
+import org.joda.time.Duration;
 
+import javax.annotation.Nullable;
 import javax.inject.Named;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -53,11 +60,20 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
+ * Broker's view of the segments served across the cluster, kept as one {@link VersionedIntervalTimeline} per
+ * datasource.
  *
+ * If {@link BrokerSegmentWatcherConfig#getTimelineSnapshotPeriod()} is set, queries do not read the live timelines,
+ * which are updated one inventory event at a time under {@link #lock}. They read copies instead, which are
+ * republished once per period for the datasources that changed, so that a stream of segment announcements does not
+ * contend with query planning. Removals are applied to the published copies straight away, so queries are never
+ * routed to a segment that no server holds any more; additions become visible at the next publish, or earlier if a
+ * removal from the same datasource republishes its copy.
  */
 @ManageLifecycle
 public class BrokerServerView implements TimelineServerView
@@ -69,6 +85,19 @@ public class BrokerServerView implements TimelineServerView
   private final ConcurrentMap<String, QueryableDruidServer> clients = new ConcurrentHashMap<>();
   private final Map<SegmentId, ServerSelector> selectors = new HashMap<>();
   private final Map<String, VersionedIntervalTimeline<String, ServerSelector>> timelines = new HashMap<>();
+  private final ConcurrentMap<String, VersionedIntervalTimeline<String, ServerSelector>> timelineSnapshots =
+      new ConcurrentHashMap<>();
+  /**
+   * Chunks added to {@link #timelines} since the last {@link #publishTimelineSnapshots}, by datasource, which are not
+   * in {@link #timelineSnapshots} yet.
+   */
+  @GuardedBy("lock")
+  private final Map<String, List<VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector>>>
+      pendingTimelineAdditions = new HashMap<>();
+  @GuardedBy("lock")
+  private int pendingTimelineUpdates = 0;
+  @GuardedBy("lock")
+  private long oldestPendingTimelineUpdateMillis = 0;
   private final ConcurrentMap<TimelineCallback, Executor> timelineCallbacks = new ConcurrentHashMap<>();
   private final QueryableDruidServer.Maker druidClientFactory;
   private final TierSelectorStrategy historicalTierSelectorStrategy;
@@ -79,6 +108,9 @@ public class BrokerServerView implements TimelineServerView
   private final CountDownLatch initialized = new CountDownLatch(1);
   private final FilteredServerInventoryView baseView;
   private final BrokerViewOfCoordinatorConfig brokerViewOfCoordinatorConfig;
+  private final boolean snapshotTimelines;
+  @Nullable
+  private ScheduledExecutorService timelineSnapshotExec;
 
   @Inject
   public BrokerServerView(
@@ -103,6 +135,7 @@ public class BrokerServerView implements TimelineServerView
     // Validate and set the segment watcher config
     validateSegmentWatcherConfig(segmentWatcherConfig);
     this.segmentWatcherConfig = segmentWatcherConfig;
+    this.snapshotTimelines = segmentWatcherConfig.getTimelineSnapshotPeriod() != null;
 
     this.segmentFilter = (Pair<DruidServerMetadata, DataSegment> metadataAndSegment) -> {
 
@@ -150,6 +183,7 @@ public class BrokerServerView implements TimelineServerView
           @Override
           public CallbackAction segmentViewInitialized()
           {
+            publishTimelineSnapshots();
             initialized.countDown();
             runTimelineCallbacks(TimelineCallback::timelineInitialized);
             return ServerView.CallbackAction.CONTINUE;
@@ -191,6 +225,12 @@ public class BrokerServerView implements TimelineServerView
   @LifecycleStart
   public void start() throws InterruptedException
   {
+    if (snapshotTimelines) {
+      final Duration period = segmentWatcherConfig.getTimelineSnapshotPeriod().toStandardDuration();
+      timelineSnapshotExec = Execs.scheduledSingleThreaded("BrokerServerView-snapshot-%d");
+      ScheduledExecutors.scheduleWithFixedDelay(timelineSnapshotExec, period, period, this::publishTimelineSnapshots);
+    }
+
     if (segmentWatcherConfig.isAwaitInitializationOnStart()) {
       final long startMillis = System.currentTimeMillis();
       log.info("BrokerServerView waiting for initialization.");
@@ -204,6 +244,14 @@ public class BrokerServerView implements TimelineServerView
     }
   }
 
+  @LifecycleStop
+  public void stop()
+  {
+    if (timelineSnapshotExec != null) {
+      timelineSnapshotExec.shutdownNow();
+    }
+  }
+
   public boolean isInitialized()
   {
     return initialized.getCount() == 0;
@@ -287,8 +335,13 @@ public class BrokerServerView implements TimelineServerView
             timelines.put(segment.getDataSource(), timeline);
           }
 
-          timeline.add(segment.getInterval(), segment.getVersion(), segment.getShardSpec().createChunk(selector));
+          final PartitionChunk<ServerSelector> chunk = segment.getShardSpec().createChunk(selector);
+          timeline.add(segment.getInterval(), segment.getVersion(), chunk);
           selectors.put(segmentId, selector);
+          markTimelineChanged(
+              segment.getDataSource(),
+              new VersionedIntervalTimeline.PartitionChunkEntry<>(segment.getInterval(), segment.getVersion(), chunk)
+          );
         }
 
         QueryableDruidServer queryableDruidServer = clients.get(server.getName());
@@ -365,6 +418,9 @@ public class BrokerServerView implements TimelineServerView
               segment.getVersion()
           );
         } else {
+          if (snapshotTimelines) {
+            applyRemovalToSnapshot(segment, removedPartition);
+          }
           runTimelineCallbacks(callback -> callback.segmentRemoved(segment));
         }
       }
@@ -374,11 +430,104 @@ public class BrokerServerView implements TimelineServerView
   @Override
   public Optional<VersionedIntervalTimeline<String, ServerSelector>> getTimeline(final TableDataSource dataSource)
   {
+    if (snapshotTimelines) {
+      return Optional.ofNullable(timelineSnapshots.get(dataSource.getName()));
+    }
     synchronized (lock) {
       return Optional.ofNullable(timelines.get(dataSource.getName()));
     }
   }
 
+  @GuardedBy("lock")
+  private void markTimelineChanged(
+      final String dataSource,
+      final VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector> addedChunk
+  )
+  {
+    if (snapshotTimelines) {
+      if (pendingTimelineUpdates++ == 0) {
+        oldestPendingTimelineUpdateMillis = System.currentTimeMillis();
+      }
+      pendingTimelineAdditions.computeIfAbsent(dataSource, ds -> new ArrayList<>()).add(addedChunk);
+    }
+  }
+
+  /**
+   * Makes a removal visible to queries straight away, by patching the published snapshot. Pending additions to the
+   * same datasource whose intervals overlap the removed segment are applied first: the removed segment may have been
+   * replaced by one of them, and removing it alone would leave its interval uncovered until the next publish. Other
+   * pending additions wait for the next publish, so a removal costs time in the number of pending additions to the
+   * datasource, not in the size of its timeline.
+   */
+  @GuardedBy("lock")
+  private void applyRemovalToSnapshot(final DataSegment segment, final PartitionChunk<ServerSelector> removedPartition)
+  {
+    final String dataSource = segment.getDataSource();
+    final List<VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector>> pending =
+        pendingTimelineAdditions.get(dataSource);
+    final List<VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector>> overlapping = new ArrayList<>();
+    if (pending != null) {
+      final Iterator<VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector>> it = pending.iterator();
+      while (it.hasNext()) {
+        final VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector> entry = it.next();
+        if (entry.getInterval().overlaps(segment.getInterval())) {
+          overlapping.add(entry);
+          it.remove();
+        }
+      }
+    }
+
+    final VersionedIntervalTimeline<String, ServerSelector> snapshot =
+        overlapping.isEmpty() ? timelineSnapshots.get(dataSource) : getOrCreateSnapshot(dataSource);
+    if (snapshot != null) {
+      snapshot.addAll(overlapping.iterator());
+      snapshot.remove(segment.getInterval(), segment.getVersion(), removedPartition);
+    }
+  }
+
+  /**
+   * Adds the chunks added to each timeline since the last call to its published snapshot, and reports how many
+   * inventory updates went into this batch and how stale the oldest of them was. Each snapshot is patched in place, so
+   * a publish costs time in the number of pending updates, not in the size of the timelines.
+   */
+  @VisibleForTesting
+  void publishTimelineSnapshots()
+  {
+    if (!snapshotTimelines) {
+      return;
+    }
+
+    final int batchSize;
+    final long snapshotAgeMillis;
+    synchronized (lock) {
+      // pendingTimelineAdditions may be empty even with updates pending, if removals already applied those additions
+      if (pendingTimelineUpdates == 0) {
+        return;
+      }
+      for (Map.Entry<String, List<VersionedIntervalTimeline.PartitionChunkEntry<String, ServerSelector>>> entry
+          : pendingTimelineAdditions.entrySet()) {
+        getOrCreateSnapshot(entry.getKey()).addAll(entry.getValue().iterator());
+      }
+      pendingTimelineAdditions.clear();
+      batchSize = pendingTimelineUpdates;
+      snapshotAgeMillis = System.currentTimeMillis() - oldestPendingTimelineUpdateMillis;
+      pendingTimelineUpdates = 0;
+    }
+
+    emitter.emit(ServiceMetricEvent.builder().setMetric("serverview/timeline/updateBatchSize", batchSize));
+    emitter.emit(ServiceMetricEvent.builder().setMetric("serverview/timeline/snapshotAge", snapshotAgeMillis));
+  }
+
+  @GuardedBy("lock")
+  private VersionedIntervalTimeline<String, ServerSelector> getOrCreateSnapshot(final String dataSource)
+  {
+    // broker needs to skip tombstones
+    return timelineSnapshots.computeIfAbsent(
+        dataSource,
+        ds -> new VersionedIntervalTimeline<>(Ordering.natural(), true)
+    );
+  }
+
   @Override
   public void registerTimelineCallback(final Executor exec, final TimelineCallback callback)
   {
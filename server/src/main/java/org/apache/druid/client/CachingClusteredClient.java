@@ -46,6 +46,8 @@ import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.java.util.common.Pair;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.BaseSequence;
 import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.ParallelMergeCombiningSequence;
@@ -344,10 +346,14 @@ public class CachingClusteredClient implements QuerySegmentWalker
         computeUncoveredIntervals(timeline);
       }
 
-      final Set<SegmentServerSelector> segmentServers = computeSegmentsToQuery(timeline, specificSegments);
-      final CloneQueryMode cloneQueryMode = query.context().getCloneQueryMode();
       @Nullable
       final byte[] queryCacheKey = cacheKeyManager.computeSegmentLevelQueryCacheKey();
+      final Set<SegmentServerSelector> segmentServers = computeSegmentsToQuery(timeline, specificSegments);
+      // bucket descriptors are only used to look up the cache and to query data servers; the scheduler and the
+      // queried segment count see whole segments
+      final Set<SegmentServerSelector> segmentsToQuery =
+          queryCacheKey == null ? segmentServers : splitSegmentsByGranularity(segmentServers);
+      final CloneQueryMode cloneQueryMode = query.context().getCloneQueryMode();
       @Nullable
       final String prevEtag = (String) query.getContext().get(QueryResource.HEADER_IF_NONE_MATCH);
       if (prevEtag != null) {
@@ -362,15 +368,17 @@ public class CachingClusteredClient implements QuerySegmentWalker
       }
 
       final List<Pair<Interval, byte[]>> alreadyCachedResults =
-          pruneSegmentsWithCachedResults(queryCacheKey, segmentServers);
+          pruneSegmentsWithCachedResults(queryCacheKey, segmentsToQuery);
+      final Set<SegmentServerSelector> uncachedSegments =
+          segmentsToQuery == segmentServers ? segmentServers : segmentsWithDescriptors(segmentServers, segmentsToQuery);
 
-      query = scheduler.prioritizeAndLaneQuery(queryPlus, segmentServers);
+      query = scheduler.prioritizeAndLaneQuery(queryPlus, uncachedSegments);
       queryPlus = queryPlus.withQuery(query);
       queryPlus = queryPlus.withQueryMetrics(toolChest);
-      queryPlus.getQueryMetrics().reportQueriedSegmentCount(segmentServers.size()).emit(emitter);
+      queryPlus.getQueryMetrics().reportQueriedSegmentCount(uncachedSegments.size()).emit(emitter);
 
       final SortedMap<DruidServer, List<SegmentDescriptor>> segmentsByServer = groupSegmentsByServer(
-          segmentServers,
+          segmentsToQuery,
           cloneQueryMode
       );
       LazySequence<T> mergedResultSequence = new LazySequence<>(() -> {
@@ -484,6 +492,77 @@ public class CachingClusteredClient implements QuerySegmentWalker
       return segments;
     }
 
+    /**
+     * If {@link CacheConfig#getMaxGranularBucketsPerSegment()} is positive, splits each historical segment of a
+     * timeseries or groupBy query with a granularity other than "all" into one descriptor per granularity bucket. Each
+     * piece gets its own segment-level cache entry, so a query whose interval slides forward, like a dashboard showing
+     * the last 24 hours, reuses the cached buckets and only computes the new ones. Realtime segments are left whole
+     * since their results are never cached, and so are segments that span more buckets than the limit.
+     */
+    private Set<SegmentServerSelector> splitSegmentsByGranularity(final Set<SegmentServerSelector> segments)
+    {
+      final int maxBuckets = cacheConfig.getMaxGranularBucketsPerSegment();
+      final Granularity granularity = query.getGranularity();
+      if (maxBuckets <= 0
+          || isBySegment
+          || !(Query.TIMESERIES.equals(query.getType()) || Query.GROUP_BY.equals(query.getType()))
+          || Granularities.ALL.equals(granularity)
+          || Granularities.NONE.equals(granularity)) {
+        return segments;
+      }
+
+      final Set<SegmentServerSelector> retVal = new LinkedHashSet<>();
+      for (SegmentServerSelector segment : segments) {
+        final SegmentDescriptor descriptor = segment.getSegmentDescriptor();
+        final List<Interval> buckets = new ArrayList<>();
+        if (!segment.getServer().isRealtimeSegment()) {
+          for (Interval bucket : granularity.getIterable(descriptor.getInterval())) {
+            if (buckets.size() == maxBuckets) {
+              buckets.clear();
+              break;
+            }
+            buckets.add(bucket.overlap(descriptor.getInterval()));
+          }
+        }
+
+        if (buckets.size() <= 1) {
+          retVal.add(segment);
+        } else {
+          for (Interval bucket : buckets) {
+            retVal.add(
+                new SegmentServerSelector(
+                    segment.getServer(),
+                    new SegmentDescriptor(bucket, descriptor.getVersion(), descriptor.getPartitionNumber())
+                )
+            );
+          }
+        }
+      }
+      return retVal;
+    }
+
+    /**
+     * Returns the whole segments from {@code segments} that still have at least one bucket descriptor, as produced by
+     * {@link #splitSegmentsByGranularity}, left in {@code descriptors}.
+     */
+    private Set<SegmentServerSelector> segmentsWithDescriptors(
+        final Set<SegmentServerSelector> segments,
+        final Set<SegmentServerSelector> descriptors
+    )
+    {
+      final Set<ServerSelector> remaining = Sets.newIdentityHashSet();
+      for (SegmentServerSelector descriptor : descriptors) {
+        remaining.add(descriptor.getServer());
+      }
+      final Set<SegmentServerSelector> retVal = new LinkedHashSet<>();
+      for (SegmentServerSelector segment : segments) {
+        if (remaining.contains(segment.getServer())) {
+          retVal.add(segment);
+        }
+      }
+      return retVal;
+    }
+
     private void computeUncoveredIntervals(TimelineLookup<String, ServerSelector> timeline)
     {
       final List<Interval> uncoveredIntervals = new ArrayList<>(uncoveredIntervalsLimit);
@@ -34,6 +34,7 @@ import org.apache.druid.java.util.common.guava.BaseSequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.java.util.http.client.HttpClient;
 import org.apache.druid.java.util.http.client.Request;
@@ -44,6 +45,7 @@ import org.apache.druid.java.util.http.client.response.StatusResponseHolder;
 import org.apache.druid.query.Queries;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContext;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
@@ -55,6 +57,7 @@ import org.apache.druid.query.ResourceLimitExceededException;
 import org.apache.druid.query.aggregation.MetricManipulatorFns;
 import org.apache.druid.query.context.ConcurrentResponseContext;
 import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.segment.column.RowSignature;
 import org.apache.druid.server.QueryResource;
 import org.apache.druid.utils.CloseableUtils;
 import org.jboss.netty.buffer.ChannelBuffer;
@@ -157,6 +160,11 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     QueryToolChest<T, Query<T>> toolChest = conglomerate.getToolChest(query);
     boolean isBySegment = query.context().isBySegment();
     final JavaType queryResultType = isBySegment ? toolChest.getBySegmentResultType() : toolChest.getBaseResultType();
+    final RowSignature frameSignature =
+        !isBySegment && query.context().getBoolean(
+            QueryContexts.FRAME_RESULT_TRANSPORT_KEY,
+            QueryContexts.DEFAULT_FRAME_RESULT_TRANSPORT
+        ) ? toolChest.frameTransportSignature(query) : null;
 
     final ListenableFuture<InputStream> future;
     final String url = scheme + "://" + host + "/druid/v2/";
@@ -512,18 +520,18 @@ public class DirectDruidClient<T> implements QueryRunner<T>
       // we can increment the count earlier so that we can route the request to a different server
       openConnections.getAndIncrement();
       try {
-        future = httpClient.go(
-            new Request(
-                HttpMethod.POST,
-                new URL(url)
-            ).setContent(objectMapper.writeValueAsBytes(Queries.withTimeout(query, timeLeft)))
-             .setHeader(
-                 HttpHeaders.Names.CONTENT_TYPE,
-                 isSmile ? SmileMediaTypes.APPLICATION_JACKSON_SMILE : MediaType.APPLICATION_JSON
-             ),
-            responseHandler,
-            Duration.millis(timeLeft)
-        );
+        final Request request = new Request(
+            HttpMethod.POST,
+            new URL(url)
+        ).setContent(objectMapper.writeValueAsBytes(Queries.withTimeout(query, timeLeft)))
+         .setHeader(
+             HttpHeaders.Names.CONTENT_TYPE,
+             isSmile ? SmileMediaTypes.APPLICATION_JACKSON_SMILE : MediaType.APPLICATION_JSON
+         );
+        if (frameSignature != null) {
+          request.setHeader(QueryResource.HEADER_ACCEPT_FRAMES, "true");
+        }
+        future = httpClient.go(request, responseHandler, Duration.millis(timeLeft));
       }
       catch (Exception e) {
         openConnections.getAndDecrement();
@@ -559,11 +567,24 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     }
 
     Sequence<T> retVal = new BaseSequence<>(
-        new BaseSequence.IteratorMaker<T, JsonParserIterator<T>>()
+        new BaseSequence.IteratorMaker<T, CloseableIterator<T>>()
         {
           @Override
-          public JsonParserIterator<T> make()
+          public CloseableIterator<T> make()
           {
+            if (frameSignature != null) {
+              return new FrameParserIterator<>(
+                  queryResultType,
+                  future,
+                  url,
+                  query,
+                  host,
+                  toolChest.decorateObjectMapper(objectMapper, query),
+                  frameSignature,
+                  toolChest.makeFromFrameTransportFn(query)
+              );
+            }
+
             return new JsonParserIterator<>(
                 queryResultType,
                 future,
@@ -575,7 +596,7 @@ public class DirectDruidClient<T> implements QueryRunner<T>
           }
 
           @Override
-          public void cleanup(JsonParserIterator<T> iterFromMake)
+          public void cleanup(CloseableIterator<T> iterFromMake)
           {
             CloseableUtils.closeAndWrapExceptions(iterFromMake);
           }
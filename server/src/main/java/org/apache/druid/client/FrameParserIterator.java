@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.client;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import org.apache.druid.frame.Frame;
+import org.apache.druid.frame.channel.ReadableByteChunksFrameChannel;
+import org.apache.druid.frame.file.FrameFileWriter;
+import org.apache.druid.frame.read.FrameReader;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryInterruptedException;
+import org.apache.druid.query.QueryTimeoutException;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.CursorBuildSpec;
+import org.apache.druid.segment.CursorHolder;
+import org.apache.druid.segment.column.RowSignature;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Iterator over a data server response that was requested as frames, see
+ * {@link org.apache.druid.server.QueryResource#HEADER_ACCEPT_FRAMES}. Frames are decoded straight into results with
+ * {@link org.apache.druid.query.QueryToolChest#makeFromFrameTransportFn}, skipping JSON parsing entirely.
+ * <p>
+ * Data servers fall back to JSON or Smile when they cannot send frames: for example, when they predate frame
+ * transport, or when the query fails before any results are written. Those responses are handed off to a
+ * {@link JsonParserIterator}. The two are told apart by the first byte of the response, since a frame file always
+ * starts with {@link FrameFileWriter#MAGIC}, which is neither valid JSON nor a Smile header.
+ */
+public class FrameParserIterator<T> implements CloseableIterator<T>
+{
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  private final JavaType typeRef;
+  private final Future<InputStream> future;
+  private final String url;
+  private final Query<T> query;
+  private final String host;
+  private final ObjectMapper objectMapper;
+  private final RowSignature signature;
+  private final FrameReader frameReader;
+  private final Function<Object[], T> fromArrayFn;
+  private final long timeoutAt;
+
+  @Nullable
+  private JsonParserIterator<T> jsonIterator;
+  @Nullable
+  private InputStream in;
+  @Nullable
+  private ReadableByteChunksFrameChannel channel;
+  private Iterator<T> frameRows = Collections.emptyIterator();
+  private byte[] readBuffer;
+
+  public FrameParserIterator(
+      final JavaType typeRef,
+      final Future<InputStream> future,
+      final String url,
+      final Query<T> query,
+      final String host,
+      final ObjectMapper objectMapper,
+      final RowSignature signature,
+      final Function<Object[], T> fromArrayFn
+  )
+  {
+    this.typeRef = typeRef;
+    this.future = future;
+    this.url = url;
+    this.query = query;
+    this.host = host;
+    this.objectMapper = objectMapper;
+    this.signature = signature;
+    this.frameReader = FrameReader.create(signature);
+    this.fromArrayFn = fromArrayFn;
+    this.timeoutAt = query.context().getLong(DirectDruidClient.QUERY_FAIL_TIME, -1L);
+  }
+
+  @Override
+  public boolean hasNext()
+  {
+    init();
+
+    if (jsonIterator != null) {
+      return jsonIterator.hasNext();
+    }
+
+    try {
+      while (!frameRows.hasNext()) {
+        if (channel.canRead()) {
+          frameRows = readFrame(channel.read().as(Frame.class));
+        } else if (channel.isFinished()) {
+          return false;
+        } else {
+          readChunk();
+        }
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      if (timeoutAt > -1 && timeoutAt <= System.currentTimeMillis()) {
+        final QueryTimeoutException timeoutException =
+            new QueryTimeoutException(StringUtils.nonStrictFormat("url[%s] timed out", url), host);
+        timeoutException.addSuppressed(e);
+        throw timeoutException;
+      }
+      throw new QueryInterruptedException(e, host);
+    }
+
+    return true;
+  }
+
+  @Override
+  public T next()
+  {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    return jsonIterator != null ? jsonIterator.next() : frameRows.next();
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    final Closer closer = Closer.create();
+    closer.register(jsonIterator);
+    closer.register(in);
+    if (channel != null) {
+      closer.register(channel::close);
+    }
+    closer.close();
+  }
+
+  private void init()
+  {
+    if (jsonIterator != null || channel != null) {
+      return;
+    }
+
+    final PushbackInputStream stream = awaitResponse();
+    if (stream != null && startsWithFrameMagic(stream)) {
+      in = stream;
+      channel = ReadableByteChunksFrameChannel.create(StringUtils.format("%s[%s]", url, query.getId()), false, null);
+      readBuffer = new byte[READ_BUFFER_SIZE];
+    } else {
+      jsonIterator = new JsonParserIterator<>(
+          typeRef,
+          stream == null ? future : Futures.immediateFuture(stream),
+          url,
+          query,
+          host,
+          objectMapper
+      );
+    }
+  }
+
+  /**
+   * Returns the response stream, or null if it could not be obtained. In that case the {@link JsonParserIterator}
+   * fallback, which gets the same outcome from {@link #future}, reports the failure.
+   */
+  @Nullable
+  private PushbackInputStream awaitResponse()
+  {
+    try {
+      final InputStream stream;
+      if (timeoutAt > -1) {
+        stream = future.get(Math.max(timeoutAt - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+      } else {
+        stream = future.get();
+      }
+      return stream == null ? null : new PushbackInputStream(stream, 1);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    catch (ExecutionException | CancellationException | TimeoutException e) {
+      return null;
+    }
+  }
+
+  private static boolean startsWithFrameMagic(final PushbackInputStream stream)
+  {
+    try {
+      final int firstByte = stream.read();
+      if (firstByte >= 0) {
+        stream.unread(firstByte);
+      }
+      return firstByte == (FrameFileWriter.MAGIC[0] & 0xff);
+    }
+    catch (IOException e) {
+      // Let the JSON iterator surface the error.
+      return false;
+    }
+  }
+
+  private void readChunk() throws IOException
+  {
+    final int numBytes = in.read(readBuffer);
+    if (numBytes < 0) {
+      channel.doneWriting();
+    } else if (numBytes > 0) {
+      channel.addChunk(Arrays.copyOf(readBuffer, numBytes));
+    }
+  }
+
+  private Iterator<T> readFrame(final Frame frame)
+  {
+    final List<T> rows = new ArrayList<>(frame.numRows());
+
+    try (final CursorHolder cursorHolder =
+             frameReader.makeCursorFactory(frame).makeCursorHolder(CursorBuildSpec.FULL_SCAN)) {
+      final Cursor cursor = cursorHolder.asCursor();
+      final ColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
+      final ColumnValueSelector<?>[] selectors = new ColumnValueSelector[signature.size()];
+      for (int i = 0; i < selectors.length; i++) {
+        selectors[i] = columnSelectorFactory.makeColumnValueSelector(signature.getColumnName(i));
+      }
+
+      while (!cursor.isDone()) {
+        final Object[] row = new Object[selectors.length];
+        for (int i = 0; i < selectors.length; i++) {
+          row[i] = selectors[i].getObject();
+        }
+        rows.add(fromArrayFn.apply(row));
+        cursor.advance();
+      }
+    }
+
+    return rows.iterator();
+  }
+}
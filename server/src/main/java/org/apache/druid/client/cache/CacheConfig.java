@@ -63,6 +63,10 @@ public class CacheConfig
   @JsonProperty
   private int resultLevelCacheLimit = Integer.MAX_VALUE;
 
+  @JsonProperty
+  @Min(0)
+  private int maxGranularBucketsPerSegment = 0;
+
   public boolean isPopulateCache()
   {
     return populateCache;
@@ -103,6 +107,15 @@ public class CacheConfig
     return resultLevelCacheLimit;
   }
 
+  /**
+   * Maximum number of granularity buckets a segment is split into on the Broker, so that timeseries and groupBy
+   * results are cached per segment and bucket rather than per segment and query interval. Zero disables splitting.
+   */
+  public int getMaxGranularBucketsPerSegment()
+  {
+    return maxGranularBucketsPerSegment;
+  }
+
   public boolean isQueryCacheable(Query query)
   {
     return isQueryCacheable(query.getType());
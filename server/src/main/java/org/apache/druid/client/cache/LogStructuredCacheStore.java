@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.io.Closer;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One tier of a {@link TieredCache}. Values are appended to a ring of fixed-size regions, and once the ring wraps
+ * around the oldest region is evicted as a whole before it is reused, the way log-structured flash caches work. This
+ * keeps writes sequential and eviction cheap, at the cost of FIFO rather than LRU eviction. Only the index from keys
+ * to value locations lives on heap; the values live in the regions, which are either direct buffers or memory-mapped
+ * slices of a file.
+ */
+class LogStructuredCacheStore implements Closeable
+{
+  private final String name;
+  private final int regionSize;
+  private final ByteBuffer[] regions;
+  private final Closer closer;
+  private final ConcurrentHashMap<Cache.NamedKey, Long> index = new ConcurrentHashMap<>();
+
+  /**
+   * Held for reading while a value is copied into or out of a region, and for writing while a region is recycled or
+   * the regions are released by {@link #close()}.
+   */
+  private final ReentrantReadWriteLock recycleLock = new ReentrantReadWriteLock();
+
+  @GuardedBy("this")
+  private final List<List<Cache.NamedKey>> regionKeys;
+  @GuardedBy("this")
+  private final int[] regionUsedBytes;
+  @GuardedBy("this")
+  private int currentRegion = 0;
+  @GuardedBy("recycleLock")
+  private boolean closed = false;
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+  private final AtomicLong evictionCount = new AtomicLong(0);
+  private final AtomicLong usedBytes = new AtomicLong(0);
+
+  private LogStructuredCacheStore(String name, int regionSize, ByteBuffer[] regions, Closer closer)
+  {
+    this.name = name;
+    this.regionSize = regionSize;
+    this.regions = regions;
+    this.closer = closer;
+    this.regionKeys = new ArrayList<>(regions.length);
+    for (int i = 0; i < regions.length; i++) {
+      regionKeys.add(new ArrayList<>());
+    }
+    this.regionUsedBytes = new int[regions.length];
+  }
+
+  /**
+   * Creates a tier backed by direct memory.
+   */
+  static LogStructuredCacheStore offHeap(String name, long sizeBytes, int regionSize)
+  {
+    final ByteBuffer[] regions = new ByteBuffer[numRegions(sizeBytes, regionSize)];
+    final Closer closer = Closer.create();
+    for (int i = 0; i < regions.length; i++) {
+      final ByteBuffer region = ByteBuffer.allocateDirect(regionSize);
+      closer.register(() -> ByteBufferUtils.free(region));
+      regions[i] = region;
+    }
+    return new LogStructuredCacheStore(name, regionSize, regions, closer);
+  }
+
+  /**
+   * Creates a tier backed by a memory-mapped file in the given directory. Whatever the file held before is discarded.
+   */
+  static LogStructuredCacheStore mapped(String name, File directory, long sizeBytes, int regionSize)
+      throws IOException
+  {
+    final ByteBuffer[] regions = new ByteBuffer[numRegions(sizeBytes, regionSize)];
+    final Closer closer = Closer.create();
+    FileUtils.mkdirp(directory);
+    final File file = new File(directory, "druid-cache.bin");
+    closer.register(() -> Files.deleteIfExists(file.toPath()));
+    try {
+      final RandomAccessFile raf = closer.register(new RandomAccessFile(file, "rw"));
+      raf.setLength(0);
+      raf.setLength((long) regions.length * regionSize);
+      final FileChannel channel = raf.getChannel();
+      for (int i = 0; i < regions.length; i++) {
+        final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * regionSize, regionSize);
+        closer.register(() -> ByteBufferUtils.unmap(region));
+        regions[i] = region;
+      }
+    }
+    catch (Throwable t) {
+      throw closer.rethrow(t);
+    }
+    return new LogStructuredCacheStore(name, regionSize, regions, closer);
+  }
+
+  private static int numRegions(long sizeBytes, int regionSize)
+  {
+    final long numRegions = sizeBytes / regionSize;
+    Preconditions.checkArgument(
+        numRegions >= 2,
+        "Cache tier of [%s] bytes must hold at least two regions of [%s] bytes",
+        sizeBytes,
+        regionSize
+    );
+    Preconditions.checkArgument(numRegions <= Integer.MAX_VALUE, "Too many regions of [%s] bytes", regionSize);
+    return (int) numRegions;
+  }
+
+  String getName()
+  {
+    return name;
+  }
+
+  @Nullable
+  byte[] get(Cache.NamedKey key)
+  {
+    recycleLock.readLock().lock();
+    try {
+      final Long location = closed ? null : index.get(key);
+      if (location == null) {
+        missCount.incrementAndGet();
+        return null;
+      }
+      final ByteBuffer region = regions[regionOf(location)];
+      final int offset = offsetOf(location);
+      final byte[] value = new byte[region.getInt(offset)];
+      region.get(offset + Integer.BYTES, value);
+      hitCount.incrementAndGet();
+      return value;
+    }
+    finally {
+      recycleLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Appends the value, evicting the oldest region if the current one is full. Returns false if the value does not
+   * fit in a region, or the store is closed, and was not stored.
+   */
+  synchronized boolean put(Cache.NamedKey key, byte[] value)
+  {
+    final int length = Integer.BYTES + value.length;
+    if (length > regionSize) {
+      return false;
+    }
+    if (regionUsedBytes[currentRegion] + length > regionSize) {
+      // takes the write lock, so this must happen before the read lock below is taken
+      recycle((currentRegion + 1) % regions.length);
+    }
+
+    recycleLock.readLock().lock();
+    try {
+      // once closed, the regions may have been freed or unmapped, and writing to them could crash the JVM
+      if (closed) {
+        return false;
+      }
+      final int offset = regionUsedBytes[currentRegion];
+      final ByteBuffer region = regions[currentRegion];
+      region.putInt(offset, value.length);
+      region.put(offset + Integer.BYTES, value);
+      regionUsedBytes[currentRegion] += length;
+      regionKeys.get(currentRegion).add(key);
+      usedBytes.addAndGet(length);
+      index.put(key, ((long) currentRegion << 32) | offset);
+      return true;
+    }
+    finally {
+      recycleLock.readLock().unlock();
+    }
+  }
+
+  @GuardedBy("this")
+  private void recycle(final int region)
+  {
+    recycleLock.writeLock().lock();
+    try {
+      for (Cache.NamedKey key : regionKeys.get(region)) {
+        // the key may have been written again to a newer region since, in which case that entry stays
+        index.computeIfPresent(
+            key,
+            (k, location) -> {
+              if (regionOf(location) == region) {
+                evictionCount.incrementAndGet();
+                return null;
+              }
+              return location;
+            }
+        );
+      }
+      regionKeys.get(region).clear();
+      usedBytes.addAndGet(-regionUsedBytes[region]);
+      regionUsedBytes[region] = 0;
+      currentRegion = region;
+    }
+    finally {
+      recycleLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drops the index entries of a namespace. Their bytes are reclaimed when their regions are recycled.
+   */
+  void remove(String namespace)
+  {
+    index.keySet().removeIf(key -> key.namespace.equals(namespace));
+  }
+
+  long getNumHits()
+  {
+    return hitCount.get();
+  }
+
+  long getNumMisses()
+  {
+    return missCount.get();
+  }
+
+  long getNumEvictions()
+  {
+    return evictionCount.get();
+  }
+
+  long getNumEntries()
+  {
+    return index.size();
+  }
+
+  /**
+   * Bytes taken by values in regions that have not been recycled yet, including values that were since overwritten or
+   * removed.
+   */
+  long getSizeInBytes()
+  {
+    return usedBytes.get();
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    recycleLock.writeLock().lock();
+    try {
+      if (!closed) {
+        closed = true;
+        index.clear();
+        closer.close();
+      }
+    }
+    finally {
+      recycleLock.writeLock().unlock();
+    }
+  }
+
+  private static int regionOf(long location)
+  {
+    return (int) (location >>> 32);
+  }
+
+  private static int offsetOf(long location)
+  {
+    return (int) location;
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.druid.java.util.common.RE;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.utils.CloseableUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local cache with an off-heap memory tier in front of a memory-mapped tier on local disk. Values are compressed with
+ * LZ4 before they are stored. Puts go to the memory tier right away and to the disk tier through a bounded write-behind
+ * queue; if the queue is full, the value is only kept in memory. Gets that miss the memory tier fall through to the
+ * disk tier and promote what they find back into memory.
+ *
+ * @see LogStructuredCacheStore for how each tier stores and evicts values
+ */
+public class TieredCache implements Cache
+{
+  private static final Logger log = new Logger(TieredCache.class);
+  private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+  private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4_FACTORY.fastDecompressor();
+  private static final LZ4Compressor LZ4_COMPRESSOR = LZ4_FACTORY.fastCompressor();
+
+  private final TieredCacheConfig config;
+  private final LogStructuredCacheStore memory;
+  @Nullable
+  private final LogStructuredCacheStore disk;
+  @Nullable
+  private final ThreadPoolExecutor writeBehindExec;
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+  private final AtomicLong writeBehindDropCount = new AtomicLong(0);
+
+  public static TieredCache create(final TieredCacheConfig config)
+  {
+    log.info("Config: %s", config);
+    final int regionSize = Ints.checkedCast(config.getRegionSizeBytes());
+    final LogStructuredCacheStore memory =
+        LogStructuredCacheStore.offHeap("memory", config.getMemorySizeBytes(), regionSize);
+    if (config.getDiskPath() == null) {
+      return new TieredCache(config, memory, null);
+    }
+
+    try {
+      final LogStructuredCacheStore disk = LogStructuredCacheStore.mapped(
+          "disk",
+          new File(config.getDiskPath()),
+          config.getDiskSizeBytes(),
+          regionSize
+      );
+      return new TieredCache(config, memory, disk);
+    }
+    catch (IOException e) {
+      CloseableUtils.closeAndSuppressExceptions(memory, e::addSuppressed);
+      throw new RE(e, "Failed to create disk cache tier in [%s]", config.getDiskPath());
+    }
+  }
+
+  private TieredCache(
+      final TieredCacheConfig config,
+      final LogStructuredCacheStore memory,
+      @Nullable final LogStructuredCacheStore disk
+  )
+  {
+    this.config = config;
+    this.memory = memory;
+    this.disk = disk;
+    if (disk == null) {
+      this.writeBehindExec = null;
+    } else {
+      this.writeBehindExec = new ThreadPoolExecutor(
+          1,
+          1,
+          0,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(config.getWriteBehindQueueSize()),
+          Execs.makeThreadFactory("TieredCache-writeBehind-%d"),
+          (runnable, executor) -> writeBehindDropCount.incrementAndGet()
+      );
+    }
+  }
+
+  @Nullable
+  @Override
+  public byte[] get(NamedKey key)
+  {
+    byte[] value = memory.get(key);
+    if (value == null && disk != null) {
+      value = disk.get(key);
+      if (value != null) {
+        memory.put(key, value);
+      }
+    }
+
+    if (value == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return decompress(value);
+  }
+
+  @Override
+  public void put(NamedKey key, byte[] value)
+  {
+    final byte[] compressed = compress(value);
+    memory.put(key, compressed);
+    if (writeBehindExec != null) {
+      writeBehindExec.execute(() -> disk.put(key, compressed));
+    }
+  }
+
+  @Override
+  public Map<NamedKey, byte[]> getBulk(Iterable<NamedKey> keys)
+  {
+    final Map<NamedKey, byte[]> retVal = new HashMap<>();
+    for (NamedKey key : keys) {
+      final byte[] value = get(key);
+      if (value != null) {
+        retVal.put(key, value);
+      }
+    }
+    return retVal;
+  }
+
+  // Racy with put, like the other local caches; anything missed is evicted later with its region.
+  @Override
+  public void close(String namespace)
+  {
+    if (config.isEvictOnClose()) {
+      memory.remove(namespace);
+      if (disk != null) {
+        disk.remove(namespace);
+      }
+    }
+  }
+
+  @Override
+  @LifecycleStop
+  public void close() throws IOException
+  {
+    if (writeBehindExec != null) {
+      writeBehindExec.shutdownNow();
+      try {
+        // the writer must be done with the disk tier before it is unmapped
+        writeBehindExec.awaitTermination(1, TimeUnit.MINUTES);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    CloseableUtils.closeAll(memory, disk);
+  }
+
+  /**
+   * Values are written to both tiers, so adding the two would count most entries twice. With a disk tier, entries,
+   * size and evictions are those of the disk tier, since a value evicted only from memory is still cached. Values
+   * dropped by a full write-behind queue are not counted. Per-tier numbers are emitted by {@link #doMonitor}.
+   */
+  @Override
+  public CacheStats getStats()
+  {
+    final LogStructuredCacheStore lastTier = disk == null ? memory : disk;
+    return new CacheStats(
+        hitCount.get(),
+        missCount.get(),
+        lastTier.getNumEntries(),
+        lastTier.getSizeInBytes(),
+        lastTier.getNumEvictions(),
+        0,
+        0
+    );
+  }
+
+  @Override
+  public boolean isLocal()
+  {
+    return true;
+  }
+
+  @Override
+  public void doMonitor(ServiceEmitter emitter)
+  {
+    emitTierMetrics(emitter, memory);
+    if (disk != null) {
+      emitTierMetrics(emitter, disk);
+      emitter.emit(
+          ServiceMetricEvent.builder()
+                            .setMetric("query/cache/tiered/total/writeBehindDrops", writeBehindDropCount.get())
+      );
+    }
+  }
+
+  private static void emitTierMetrics(ServiceEmitter emitter, LogStructuredCacheStore tier)
+  {
+    final ServiceMetricEvent.Builder builder = ServiceMetricEvent.builder().setDimension("tier", tier.getName());
+    emitter.emit(builder.setMetric("query/cache/tiered/total/hits", tier.getNumHits()));
+    emitter.emit(builder.setMetric("query/cache/tiered/total/misses", tier.getNumMisses()));
+    emitter.emit(builder.setMetric("query/cache/tiered/total/evictions", tier.getNumEvictions()));
+    emitter.emit(builder.setMetric("query/cache/tiered/total/numEntries", tier.getNumEntries()));
+    emitter.emit(builder.setMetric("query/cache/tiered/total/sizeBytes", tier.getSizeInBytes()));
+  }
+
+  /**
+   * Waits for the puts queued so far to reach the disk tier.
+   */
+  @VisibleForTesting
+  void awaitWriteBehind() throws ExecutionException, InterruptedException
+  {
+    if (writeBehindExec != null) {
+      writeBehindExec.submit(() -> {}).get();
+    }
+  }
+
+  private static byte[] decompress(byte[] bytes)
+  {
+    final int decompressedLen = ByteBuffer.wrap(bytes).getInt();
+    final byte[] out = new byte[decompressedLen];
+    LZ4_DECOMPRESSOR.decompress(bytes, Integer.BYTES, out, 0, out.length);
+    return out;
+  }
+
+  private static byte[] compress(byte[] value)
+  {
+    final int len = LZ4_COMPRESSOR.maxCompressedLength(value.length);
+    final byte[] out = new byte[len];
+    final int compressedSize = LZ4_COMPRESSOR.compress(value, 0, value.length, out, 0);
+    return ByteBuffer.allocate(compressedSize + Integer.BYTES)
+                     .putInt(value.length)
+                     .put(out, 0, compressedSize)
+                     .array();
+  }
+}
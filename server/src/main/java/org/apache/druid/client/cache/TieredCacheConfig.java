@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Min;
+import org.apache.druid.java.util.common.HumanReadableBytes;
+
+import javax.annotation.Nullable;
+
+public class TieredCacheConfig
+{
+  @JsonProperty
+  private HumanReadableBytes memorySizeBytes = HumanReadableBytes.valueOf(256L * 1024 * 1024);
+
+  @JsonProperty
+  private String diskPath = null;
+
+  @JsonProperty
+  private HumanReadableBytes diskSizeBytes = HumanReadableBytes.valueOf(10L * 1024 * 1024 * 1024);
+
+  @JsonProperty
+  private HumanReadableBytes regionSizeBytes = HumanReadableBytes.valueOf(16L * 1024 * 1024);
+
+  @JsonProperty
+  @Min(1)
+  private int writeBehindQueueSize = 10_000;
+
+  @JsonProperty
+  private boolean evictOnClose = false;
+
+  public long getMemorySizeBytes()
+  {
+    return memorySizeBytes.getBytes();
+  }
+
+  /**
+   * Directory holding the file that backs the disk tier. Null disables the disk tier.
+   */
+  @Nullable
+  public String getDiskPath()
+  {
+    return diskPath;
+  }
+
+  public long getDiskSizeBytes()
+  {
+    return diskSizeBytes.getBytes();
+  }
+
+  public long getRegionSizeBytes()
+  {
+    return regionSizeBytes.getBytes();
+  }
+
+  public int getWriteBehindQueueSize()
+  {
+    return writeBehindQueueSize;
+  }
+
+  public boolean isEvictOnClose()
+  {
+    return evictOnClose;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "TieredCacheConfig{" +
+           "memorySizeBytes=" + memorySizeBytes +
+           ", diskPath='" + diskPath + '\'' +
+           ", diskSizeBytes=" + diskSizeBytes +
+           ", regionSizeBytes=" + regionSizeBytes +
+           ", writeBehindQueueSize=" + writeBehindQueueSize +
+           ", evictOnClose=" + evictOnClose +
+           '}';
+  }
+}
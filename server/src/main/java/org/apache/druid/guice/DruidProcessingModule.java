@@ -49,6 +49,11 @@ import org.apache.druid.query.PrioritizedExecutorService;
 import org.apache.druid.query.QueryProcessingPool;
 import org.apache.druid.query.groupby.GroupByQueryConfig;
 import org.apache.druid.query.groupby.GroupByResourcesReservationPool;
+import org.apache.druid.segment.data.DecompressedBlockCache;
+import org.apache.druid.segment.data.DecompressedBlockCacheConfig;
+import org.apache.druid.segment.file.SegmentReadahead;
+import org.apache.druid.segment.file.SegmentReadaheadConfig;
+import org.apache.druid.server.metrics.DecompressedBlockCacheMonitor;
 import org.apache.druid.server.metrics.MetricsModule;
 import org.apache.druid.utils.RuntimeInfo;
 
@@ -68,6 +73,8 @@ public class DruidProcessingModule implements Module
   public void configure(Binder binder)
   {
     registerConfigsAndMonitor(binder);
+    registerDecompressedBlockCache(binder);
+    registerSegmentReadahead(binder);
   }
 
   @Provides
@@ -125,6 +132,25 @@ public class DruidProcessingModule implements Module
     MetricsModule.register(binder, ExecutorServiceMonitor.class);
   }
 
+  /**
+   * Sets up the {@link DecompressedBlockCache} shared by the segments a service reads, for services that serve them.
+   */
+  public static void registerDecompressedBlockCache(Binder binder)
+  {
+    JsonConfigProvider.bind(binder, DecompressedBlockCacheConfig.PROPERTY_PREFIX, DecompressedBlockCacheConfig.class);
+    binder.requestStaticInjection(DecompressedBlockCache.class);
+    MetricsModule.register(binder, DecompressedBlockCacheMonitor.class);
+  }
+
+  /**
+   * Sets up the {@link SegmentReadahead} threads shared by the segments a service reads, for services that serve them.
+   */
+  public static void registerSegmentReadahead(Binder binder)
+  {
+    JsonConfigProvider.bind(binder, SegmentReadaheadConfig.PROPERTY_PREFIX, SegmentReadaheadConfig.class);
+    binder.requestStaticInjection(SegmentReadahead.class);
+  }
+
   public static CachePopulator createCachePopulator(
       ObjectMapper smileMapper,
       CachePopulatorStats cachePopulatorStats,
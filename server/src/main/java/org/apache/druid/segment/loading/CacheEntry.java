@@ -49,4 +49,13 @@ public interface CacheEntry
    * Removes the physical artifacts of a cache entry from the location it is currently mounted
    */
   void unmount();
+
+  /**
+   * Whether queries read this entry often enough that {@link StorageLocation} should pass over it once more before
+   * evicting it, beyond the second chance every recently used entry gets.
+   */
+  default boolean isFrequentlyAccessed()
+  {
+    return false;
+  }
 }
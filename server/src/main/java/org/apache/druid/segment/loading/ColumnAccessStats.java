@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.loading;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.logger.Logger;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-datasource counts of how often queries read each projection (cache-layer bundle) of partially loaded segments,
+ * and which columns they read from it. Recorded by the partial-segment cursor path through
+ * {@link org.apache.druid.segment.PartialBundleAcquirer#recordAccess}, persisted alongside the segment cache by
+ * {@link SegmentLocalCacheManager} so they survive restarts, and used to
+ * <ul>
+ *   <li>warm the most-read columns of the most-read projections of segments restored at startup, and</li>
+ *   <li>give frequently-read bundles a second chance before {@link StorageLocation} evicts them, see
+ *       {@link CacheEntry#isFrequentlyAccessed()}.</li>
+ * </ul>
+ * Counts are halved each time they are loaded from disk, so access patterns from earlier runs fade out over a few
+ * restarts rather than pinning what used to be hot forever.
+ */
+public class ColumnAccessStats
+{
+  private static final Logger log = new Logger(ColumnAccessStats.class);
+
+  /**
+   * A bundle is considered frequently accessed if it has been read at least 1/HOT_ACCESS_RATIO as often as the most
+   * read bundle of the same datasource.
+   */
+  private static final int HOT_ACCESS_RATIO = 4;
+
+  private final ConcurrentHashMap<String, DataSourceStats> dataSources = new ConcurrentHashMap<>();
+
+  /**
+   * Count one read of {@code columns} from bundle {@code bundleName} of a segment of {@code dataSource}.
+   */
+  public void record(String dataSource, String bundleName, Set<String> columns)
+  {
+    final DataSourceStats dataSourceStats = dataSources.computeIfAbsent(dataSource, ds -> new DataSourceStats());
+    final BundleStats bundleStats = dataSourceStats.bundles.computeIfAbsent(bundleName, b -> new BundleStats());
+    bundleStats.count.increment();
+    for (String column : columns) {
+      bundleStats.columns.computeIfAbsent(column, c -> new LongAdder()).increment();
+    }
+    dataSourceStats.maxCount.accumulateAndGet(bundleStats.count.sum(), Math::max);
+  }
+
+  public long getAccessCount(String dataSource, String bundleName)
+  {
+    final BundleStats bundleStats = getBundleStats(dataSource, bundleName);
+    return bundleStats == null ? 0 : bundleStats.count.sum();
+  }
+
+  /**
+   * Whether bundle {@code bundleName} is read often relative to the other bundles of {@code dataSource}. Cheap enough
+   * to call from eviction, which does so while holding the storage location lock.
+   */
+  public boolean isFrequentlyAccessed(String dataSource, String bundleName)
+  {
+    final DataSourceStats dataSourceStats = dataSources.get(dataSource);
+    if (dataSourceStats == null) {
+      return false;
+    }
+    final BundleStats bundleStats = dataSourceStats.bundles.get(bundleName);
+    if (bundleStats == null) {
+      return false;
+    }
+    final long count = bundleStats.count.sum();
+    return count > 0 && count * HOT_ACCESS_RATIO >= dataSourceStats.maxCount.get();
+  }
+
+  /**
+   * The frequently accessed bundles of {@code dataSource}, most read first.
+   */
+  public List<String> getFrequentlyAccessedBundles(String dataSource)
+  {
+    final DataSourceStats dataSourceStats = dataSources.get(dataSource);
+    if (dataSourceStats == null) {
+      return List.of();
+    }
+    final List<String> bundles = new ArrayList<>();
+    for (String bundleName : dataSourceStats.bundles.keySet()) {
+      if (isFrequentlyAccessed(dataSource, bundleName)) {
+        bundles.add(bundleName);
+      }
+    }
+    bundles.sort(Comparator.comparingLong((String b) -> getAccessCount(dataSource, b)).reversed());
+    return bundles;
+  }
+
+  /**
+   * Up to {@code limit} columns of bundle {@code bundleName} of {@code dataSource}, most read first.
+   */
+  public List<String> getTopColumns(String dataSource, String bundleName, int limit)
+  {
+    final BundleStats bundleStats = getBundleStats(dataSource, bundleName);
+    if (bundleStats == null || limit <= 0) {
+      return List.of();
+    }
+    final Map<String, Long> counts = new HashMap<>();
+    bundleStats.columns.forEach((column, count) -> counts.put(column, count.sum()));
+    return counts.entrySet()
+                 .stream()
+                 .sorted(
+                     Map.Entry.<String, Long>comparingByValue()
+                              .reversed()
+                              .thenComparing(Map.Entry.comparingByKey())
+                 )
+                 .limit(limit)
+                 .map(Map.Entry::getKey)
+                 .toList();
+  }
+
+  /**
+   * Load stats previously written by {@link #write}, halving every count. Returns empty stats if the file does not
+   * exist or cannot be read, since losing access history only costs warmup quality.
+   */
+  public static ColumnAccessStats read(ObjectMapper jsonMapper, File file)
+  {
+    final ColumnAccessStats stats = new ColumnAccessStats();
+    if (!file.exists()) {
+      return stats;
+    }
+    final Map<String, Map<String, PersistedBundleStats>> persisted;
+    try {
+      persisted = jsonMapper.readValue(file, new TypeReference<>() {});
+    }
+    catch (IOException e) {
+      log.warn(e, "Unable to read column access stats from [%s], starting over.", file);
+      return stats;
+    }
+    persisted.forEach(
+        (dataSource, bundles) -> bundles.forEach(
+            (bundleName, persistedBundle) -> stats.restore(dataSource, bundleName, persistedBundle)
+        )
+    );
+    return stats;
+  }
+
+  /**
+   * Atomically write the current stats to {@code file}.
+   */
+  public void write(ObjectMapper jsonMapper, File file) throws IOException
+  {
+    final Map<String, Map<String, PersistedBundleStats>> persisted = new HashMap<>();
+    dataSources.forEach((dataSource, dataSourceStats) -> {
+      final Map<String, PersistedBundleStats> bundles = new HashMap<>();
+      dataSourceStats.bundles.forEach((bundleName, bundleStats) -> {
+        final Map<String, Long> columns = new HashMap<>();
+        bundleStats.columns.forEach((column, count) -> columns.put(column, count.sum()));
+        bundles.put(bundleName, new PersistedBundleStats(bundleStats.count.sum(), columns));
+      });
+      persisted.put(dataSource, bundles);
+    });
+    FileUtils.mkdirp(file.getParentFile());
+    FileUtils.writeAtomically(
+        file,
+        out -> {
+          jsonMapper.writeValue(out, persisted);
+          return null;
+        }
+    );
+  }
+
+  private void restore(String dataSource, String bundleName, PersistedBundleStats persistedBundle)
+  {
+    final long count = persistedBundle.getCount() / 2;
+    if (count <= 0) {
+      return;
+    }
+    final DataSourceStats dataSourceStats = dataSources.computeIfAbsent(dataSource, ds -> new DataSourceStats());
+    final BundleStats bundleStats = dataSourceStats.bundles.computeIfAbsent(bundleName, b -> new BundleStats());
+    bundleStats.count.add(count);
+    persistedBundle.getColumns().forEach((column, columnCount) -> {
+      if (columnCount / 2 > 0) {
+        bundleStats.columns.computeIfAbsent(column, c -> new LongAdder()).add(columnCount / 2);
+      }
+    });
+    dataSourceStats.maxCount.accumulateAndGet(bundleStats.count.sum(), Math::max);
+  }
+
+  @Nullable
+  private BundleStats getBundleStats(String dataSource, String bundleName)
+  {
+    final DataSourceStats dataSourceStats = dataSources.get(dataSource);
+    return dataSourceStats == null ? null : dataSourceStats.bundles.get(bundleName);
+  }
+
+  private static class DataSourceStats
+  {
+    private final ConcurrentHashMap<String, BundleStats> bundles = new ConcurrentHashMap<>();
+    private final AtomicLong maxCount = new AtomicLong();
+  }
+
+  private static class BundleStats
+  {
+    private final LongAdder count = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> columns = new ConcurrentHashMap<>();
+  }
+
+  private static class PersistedBundleStats
+  {
+    private final long count;
+    private final Map<String, Long> columns;
+
+    @JsonCreator
+    PersistedBundleStats(
+        @JsonProperty("count") long count,
+        @JsonProperty("columns") @Nullable Map<String, Long> columns
+    )
+    {
+      this.count = count;
+      this.columns = columns == null ? Map.of() : columns;
+    }
+
+    @JsonProperty
+    public long getCount()
+    {
+      return count;
+    }
+
+    @JsonProperty
+    public Map<String, Long> getColumns()
+    {
+      return columns;
+    }
+  }
+}
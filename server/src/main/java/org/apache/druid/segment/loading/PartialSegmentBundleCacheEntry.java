@@ -222,6 +222,12 @@ public class PartialSegmentBundleCacheEntry implements CacheEntry
     return mounted;
   }
 
+  @Override
+  public boolean isFrequentlyAccessed()
+  {
+    return metadataEntry.isBundleFrequentlyAccessed(bundleName);
+  }
+
   public SegmentId getSegmentId()
   {
     return segmentId;
@@ -135,6 +135,11 @@ public class PartialSegmentMetadataCacheEntry implements SegmentCacheEntry, Resi
   // under entryLock at call time), so safe to share across all acquireReference() calls.
   private final PartialBundleAcquirer bundleAcquirer;
 
+  // Where the bundle acquirer records which bundles and columns queries read, set by the cache manager right after
+  // construction. Null when access isn't being tracked.
+  @Nullable
+  private volatile ColumnAccessStats columnAccessStats;
+
   // Optional deferred-cleanup hook invoked by doActualUnmount after the mapper is closed.
   private final AtomicReference<Runnable> onUnmount = new AtomicReference<>();
 
@@ -571,6 +576,57 @@ public class PartialSegmentMetadataCacheEntry implements SegmentCacheEntry, Resi
     }
   }
 
+  /**
+   * Track the bundles and columns that queries read from this segment in {@code columnAccessStats}.
+   */
+  void setColumnAccessStats(@Nullable ColumnAccessStats columnAccessStats)
+  {
+    this.columnAccessStats = columnAccessStats;
+  }
+
+  /**
+   * Whether the named bundle is among the most read bundles of this segment's datasource, see
+   * {@link ColumnAccessStats#isFrequentlyAccessed}.
+   */
+  boolean isBundleFrequentlyAccessed(String bundleName)
+  {
+    final ColumnAccessStats stats = columnAccessStats;
+    return stats != null && stats.isFrequentlyAccessed(segmentId.getDataSource(), bundleName);
+  }
+
+  /**
+   * Mount the named bundle and download the files of {@code columns} from it, then release the transient acquire
+   * hold, leaving the bundle resident but eviction eligible. Does nothing if this segment has no such bundle. Used to
+   * warm the columns queries are known to read, see {@link PartialQueryableIndex#planBundlePrefetch}.
+   */
+  public void warmColumns(String bundleName, Set<String> columns) throws IOException
+  {
+    final PartialSegmentFileMapperV10 mapper = getFileMapper();
+    final PartialQueryableIndex index = getOrCreateQueryableIndex();
+    if (mapper == null || index == null) {
+      throw DruidException.defensive("warmColumns on unmounted partial metadata entry[%s]", id);
+    }
+    final String resolvedBundleName = PartialSegmentBundleCacheEntry.resolveBundleName(mapper, bundleName);
+    if (PartialSegmentBundleCacheEntry.findContainersForBundle(mapper, resolvedBundleName).isEmpty()) {
+      // other segments of the datasource have this bundle but this one doesn't, e.g. it predates the projection
+      return;
+    }
+    final Closeable acquired = bundleAcquirer.acquire(bundleName);
+    try {
+      for (PartialSegmentFileMapperV10.PlannedFetch fetch : index.planBundlePrefetch(bundleName, columns)) {
+        fetch.fetch();
+      }
+    }
+    finally {
+      CloseableUtils.closeAndSuppressExceptions(acquired, t -> LOG.warn(
+          t,
+          "Failed to release transient bundle-acquire hold for bundle[%s] on segment[%s]",
+          bundleName,
+          segmentId
+      ));
+    }
+  }
+
   /**
    * Mount and eagerly download the named bundle. Drives an acquire through the internal
    * {@link #bundleAcquirer} (which mounts the bundle if needed, causing {@link #registerBundle} to fire), downloads
@@ -1018,24 +1074,10 @@ public class PartialSegmentMetadataCacheEntry implements SegmentCacheEntry, Resi
 
   private Optional<Segment> buildSegmentWithExtraClose(@Nullable Closeable extraOnClose)
   {
-    final PartialQueryableIndex index;
-    entryLock.lock();
-    try {
-      if (fileMapper == null) {
-        CloseableUtils.closeAndSuppressExceptions(extraOnClose, ignored -> {});
-        return Optional.empty();
-      }
-      if (queryableIndex == null) {
-        queryableIndex = new PartialQueryableIndex(
-            fileMapper.getSegmentFileMetadata(),
-            fileMapper,
-            ColumnConfig.DEFAULT
-        );
-      }
-      index = queryableIndex;
-    }
-    finally {
-      entryLock.unlock();
+    final PartialQueryableIndex index = getOrCreateQueryableIndex();
+    if (index == null) {
+      CloseableUtils.closeAndSuppressExceptions(extraOnClose, ignored -> {});
+      return Optional.empty();
     }
     if (!hasStoragePool()) {
       CloseableUtils.closeAndSuppressExceptions(extraOnClose, ignored -> {});
@@ -1201,6 +1243,31 @@ public class PartialSegmentMetadataCacheEntry implements SegmentCacheEntry, Resi
     return mapper == null ? null : mapper.getSegmentFileMetadata();
   }
 
+  /**
+   * The {@link PartialQueryableIndex} for the mounted file mapper, built on first use, or null if not mounted.
+   */
+  @Nullable
+  private PartialQueryableIndex getOrCreateQueryableIndex()
+  {
+    entryLock.lock();
+    try {
+      if (fileMapper == null) {
+        return null;
+      }
+      if (queryableIndex == null) {
+        queryableIndex = new PartialQueryableIndex(
+            fileMapper.getSegmentFileMetadata(),
+            fileMapper,
+            ColumnConfig.DEFAULT
+        );
+      }
+      return queryableIndex;
+    }
+    finally {
+      entryLock.unlock();
+    }
+  }
+
   /**
    * Build the {@link PartialBundleAcquirer} cached at construction time on {@link #bundleAcquirer}. The acquirer the
    * partial-aware cursor factory uses after projection matching looks up an existing bundle entry by name on this
@@ -1247,6 +1314,15 @@ public class PartialSegmentMetadataCacheEntry implements SegmentCacheEntry, Resi
         return storagePool.submitUnmanagedAsyncResource(task);
       }
 
+      @Override
+      public void recordAccess(String bundleName, Set<String> columns)
+      {
+        final ColumnAccessStats stats = columnAccessStats;
+        if (stats != null) {
+          stats.record(segmentId.getDataSource(), bundleName, columns);
+        }
+      }
+
       @Override
       public Closeable acquire(String requestedBundleName)
       {
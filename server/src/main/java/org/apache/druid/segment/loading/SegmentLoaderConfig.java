@@ -50,6 +50,7 @@ public class SegmentLoaderConfig
   private static final boolean DEFAULT_VIRTUAL_STORAGE_IS_EPHEMERAL = false;
   private static final long DEFAULT_VIRTUAL_STORAGE_METADATA_RESERVATION_ESTIMATE = 16L * 1024L * 1024L;
   private static final boolean DEFAULT_VIRTUAL_STORAGE_PARTIAL_DOWNLOADS_ENABLED = false;
+  private static final int DEFAULT_VIRTUAL_STORAGE_WARMUP_COLUMNS = 0;
 
   private final RuntimeInfo runtimeInfo;
 
@@ -146,6 +147,15 @@ public class SegmentLoaderConfig
   @JsonProperty("virtualStorageMaxFetchRunBytes")
   private final long virtualStorageMaxFetchRunBytes;
 
+  /**
+   * Number of most-queried columns per projection (as recorded by {@link ColumnAccessStats}) to download in the
+   * background for each frequently-queried projection of a partial segment restored at startup, so the first queries
+   * after a restart don't all pay the deep-storage round trip. Only applies when partial downloads are enabled.
+   * {@code <= 0} (the default) disables warmup.
+   */
+  @JsonProperty("virtualStorageWarmupColumns")
+  private final int virtualStorageWarmupColumns;
+
   @JsonCreator
   public SegmentLoaderConfig(
       @JacksonInject @Nullable RuntimeInfo runtimeInfo,
@@ -167,7 +177,8 @@ public class SegmentLoaderConfig
       @JsonProperty("virtualStorageMetadataReservationEstimate") @Nullable Long virtualStorageMetadataReservationEstimate,
       @JsonProperty("virtualStoragePartialDownloadsEnabled") @Nullable Boolean virtualStoragePartialDownloadsEnabled,
       @JsonProperty("virtualStorageCoalesceGapBytes") @Nullable Long virtualStorageCoalesceGapBytes,
-      @JsonProperty("virtualStorageMaxFetchRunBytes") @Nullable Long virtualStorageMaxFetchRunBytes
+      @JsonProperty("virtualStorageMaxFetchRunBytes") @Nullable Long virtualStorageMaxFetchRunBytes,
+      @JsonProperty("virtualStorageWarmupColumns") @Nullable Integer virtualStorageWarmupColumns
   )
   {
     // RuntimeInfo is an injected @LazySingleton (test-overridable); fall back to a fresh instance when it is not
@@ -220,6 +231,10 @@ public class SegmentLoaderConfig
         virtualStorageMaxFetchRunBytes,
         PartialSegmentFileMapperV10.DEFAULT_MAX_FETCH_RUN_BYTES
     );
+    this.virtualStorageWarmupColumns = Configs.valueOrDefault(
+        virtualStorageWarmupColumns,
+        DEFAULT_VIRTUAL_STORAGE_WARMUP_COLUMNS
+    );
   }
 
   public List<StorageLocationConfig> getLocations()
@@ -325,6 +340,11 @@ public class SegmentLoaderConfig
     return virtualStorageMaxFetchRunBytes;
   }
 
+  public int getVirtualStorageWarmupColumns()
+  {
+    return virtualStorageWarmupColumns;
+  }
+
   /**
    * Returns a copy of this config configured as an ephemeral, on-demand virtual-storage cache:
    * {@link #isVirtualStorage()} and {@link #isVirtualStorageEphemeral()} are set, and the settings that only apply to
@@ -391,7 +411,8 @@ public class SegmentLoaderConfig
         .virtualStorageMetadataReservationEstimate(virtualStorageMetadataReservationEstimate)
         .virtualStoragePartialDownloadsEnabled(virtualStoragePartialDownloadsEnabled)
         .virtualStorageCoalesceGapBytes(virtualStorageCoalesceGapBytes)
-        .virtualStorageMaxFetchRunBytes(virtualStorageMaxFetchRunBytes);
+        .virtualStorageMaxFetchRunBytes(virtualStorageMaxFetchRunBytes)
+        .virtualStorageWarmupColumns(virtualStorageWarmupColumns);
   }
 
   @Override
@@ -417,6 +438,7 @@ public class SegmentLoaderConfig
            ", virtualStoragePartialDownloadsEnabled=" + virtualStoragePartialDownloadsEnabled +
            ", virtualStorageCoalesceGapBytes=" + virtualStorageCoalesceGapBytes +
            ", virtualStorageMaxFetchRunBytes=" + virtualStorageMaxFetchRunBytes +
+           ", virtualStorageWarmupColumns=" + virtualStorageWarmupColumns +
            '}';
   }
 
@@ -472,6 +494,8 @@ public class SegmentLoaderConfig
     private Long virtualStorageCoalesceGapBytes;
     @Nullable
     private Long virtualStorageMaxFetchRunBytes;
+    @Nullable
+    private Integer virtualStorageWarmupColumns;
 
     public Builder runtimeInfo(@Nullable RuntimeInfo runtimeInfo)
     {
@@ -599,6 +623,12 @@ public class SegmentLoaderConfig
       return this;
     }
 
+    public Builder virtualStorageWarmupColumns(int virtualStorageWarmupColumns)
+    {
+      this.virtualStorageWarmupColumns = virtualStorageWarmupColumns;
+      return this;
+    }
+
     public SegmentLoaderConfig build()
     {
       return new SegmentLoaderConfig(
@@ -621,7 +651,8 @@ public class SegmentLoaderConfig
           virtualStorageMetadataReservationEstimate,
           virtualStoragePartialDownloadsEnabled,
           virtualStorageCoalesceGapBytes,
-          virtualStorageMaxFetchRunBytes
+          virtualStorageMaxFetchRunBytes,
+          virtualStorageWarmupColumns
       );
     }
   }
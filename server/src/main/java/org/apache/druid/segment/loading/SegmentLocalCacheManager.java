@@ -59,6 +59,7 @@ import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -84,6 +85,7 @@ import java.util.function.Supplier;
 public class SegmentLocalCacheManager implements SegmentCacheManager
 {
   private static final String DROP_PATH = "__drop";
+  private static final String COLUMN_ACCESS_STATS_FILE_NAME = "__column_access_stats.json";
 
   @VisibleForTesting
   static final String DOWNLOAD_START_MARKER_FILE_NAME = "downloadStartMarker";
@@ -126,6 +128,9 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
   private final IndexIO indexIO;
 
   private final StorageLoadingThreadPool virtualStorageLoadingThreadPool;
+  // which bundles and columns queries read from partially loaded segments, null unless partial downloads are enabled
+  @Nullable
+  private final ColumnAccessStats columnAccessStats;
   private ExecutorService loadOnBootstrapExec = null;
   private ExecutorService loadOnDownloadExec = null;
 
@@ -148,6 +153,14 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
 
     log.info("Using storage location strategy[%s].", this.strategy.getClass().getSimpleName());
 
+    if (!config.isVirtualStoragePartialDownloadsEnabled()) {
+      this.columnAccessStats = null;
+    } else if (isColumnAccessStatsPersisted()) {
+      this.columnAccessStats = ColumnAccessStats.read(mapper, getColumnAccessStatsFile());
+    } else {
+      this.columnAccessStats = new ColumnAccessStats();
+    }
+
     if (config.isVirtualStorage()) {
       if (config.getNumThreadsToLoadSegmentsIntoPageCacheOnDownload() > 0) {
         throw DruidException.defensive(
@@ -232,11 +245,20 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
     final File[] segmentsToLoad = retrieveSegmentMetadataFiles();
     final CountDownLatch latch = new CountDownLatch(segmentsToLoad.length);
 
-    // If there is no dedicated bootstrap executor, perform the loading sequentially on the current thread.
-    final boolean isLoadingSegmentsSequentially = loadOnBootstrapExec == null;
-    final ExecutorService executorService = isLoadingSegmentsSequentially
-                                            ? MoreExecutors.newDirectExecutorService()
-                                            : loadOnBootstrapExec;
+    // If there is no dedicated bootstrap executor, read the info files on a temporary pool of bootstrap threads, or
+    // sequentially on the current thread if there is only one.
+    final boolean isUsingTemporaryExecutor = loadOnBootstrapExec == null;
+    final ExecutorService executorService;
+    if (!isUsingTemporaryExecutor) {
+      executorService = loadOnBootstrapExec;
+    } else if (config.getNumBootstrapThreads() > 1 && segmentsToLoad.length > 1) {
+      executorService = Execs.multiThreaded(
+          Math.min(config.getNumBootstrapThreads(), segmentsToLoad.length),
+          "Read-CachedSegmentInfo-%s"
+      );
+    } else {
+      executorService = MoreExecutors.newDirectExecutorService();
+    }
 
     AtomicInteger ignoredFilesCounter = new AtomicInteger(0);
 
@@ -270,8 +292,8 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
     stopwatch.stop();
     log.info("Loaded [%d/%d] cached segments in [%d]ms.", cachedSegments.size(), segmentsToLoad.length, stopwatch.millisElapsed());
 
-    if (isLoadingSegmentsSequentially) {
-      // Shutdown the direct executor service we created previously in this method.
+    if (isUsingTemporaryExecutor) {
+      // Shutdown the executor service we created previously in this method.
       executorService.shutdown();
     }
 
@@ -371,7 +393,7 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
               location,
               config.getVirtualStorageCoalesceGapBytes(),
               config.getVirtualStorageMaxFetchRunBytes()
-          );
+          ).setColumnAccessStats(columnAccessStats);
           cachedSegments.add(segment);
         }
         catch (Throwable t) {
@@ -890,18 +912,22 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
       }
       final StorageLocation.ReservationHold<SegmentCacheEntry> hold = location.addWeakReservationHold(
           id,
-          () -> new PartialSegmentMetadataCacheEntry(
-              dataSegment.getId(),
-              partialDir,
-              IndexIO.V10_FILE_NAME,
-              List.of(),
-              rangeReader,
-              jsonMapper,
-              virtualStorageLoadingThreadPool,
-              config.getVirtualStorageMetadataReservationEstimate(),
-              config.getVirtualStorageCoalesceGapBytes(),
-              config.getVirtualStorageMaxFetchRunBytes()
-          )
+          () -> {
+            final PartialSegmentMetadataCacheEntry entry = new PartialSegmentMetadataCacheEntry(
+                dataSegment.getId(),
+                partialDir,
+                IndexIO.V10_FILE_NAME,
+                List.of(),
+                rangeReader,
+                jsonMapper,
+                virtualStorageLoadingThreadPool,
+                config.getVirtualStorageMetadataReservationEstimate(),
+                config.getVirtualStorageCoalesceGapBytes(),
+                config.getVirtualStorageMaxFetchRunBytes()
+            );
+            entry.setColumnAccessStats(columnAccessStats);
+            return entry;
+          }
       );
       if (hold == null) {
         atomicMoveAndDeleteCacheEntryDirectory(partialDir);
@@ -1461,6 +1487,7 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
                     partial.getRealizedBytes()
                 );
               }
+              warmFrequentlyAccessedColumns(partial);
             } else {
               throw DruidException.defensive(
                   "Unexpected cache entry type[%s] for segment[%s] during bootstrap",
@@ -1648,6 +1675,56 @@ public class SegmentLocalCacheManager implements SegmentCacheManager
     if (loadOnDownloadExec != null) {
       loadOnDownloadExec.shutdown();
     }
+    if (columnAccessStats != null && isColumnAccessStatsPersisted()) {
+      try {
+        columnAccessStats.write(jsonMapper, getColumnAccessStatsFile());
+      }
+      catch (IOException e) {
+        log.warn(e, "Unable to persist column access stats to [%s]", getColumnAccessStatsFile());
+      }
+    }
+  }
+
+  /**
+   * In the background, download the {@link SegmentLoaderConfig#getVirtualStorageWarmupColumns()} most read columns
+   * of each frequently read bundle of a partial segment restored at startup, according to {@link #columnAccessStats}.
+   * Best effort: warmup failures are only logged, since queries download whatever they need regardless.
+   */
+  private void warmFrequentlyAccessedColumns(PartialSegmentMetadataCacheEntry partial)
+  {
+    final int numColumns = config.getVirtualStorageWarmupColumns();
+    if (columnAccessStats == null || numColumns <= 0 || !virtualStorageLoadingThreadPool.isAvailable()) {
+      return;
+    }
+    final String dataSource = partial.getSegmentId().getDataSource();
+    for (String bundleName : columnAccessStats.getFrequentlyAccessedBundles(dataSource)) {
+      final Set<String> columns =
+          new LinkedHashSet<>(columnAccessStats.getTopColumns(dataSource, bundleName, numColumns));
+      try {
+        virtualStorageLoadingThreadPool.getExecutorService().submit(() -> {
+          try {
+            partial.warmColumns(bundleName, columns);
+          }
+          catch (Throwable t) {
+            log.warn(t, "Failed to warm columns of bundle[%s] of segment[%s]", bundleName, partial.getSegmentId());
+          }
+        });
+      }
+      catch (RejectedExecutionException e) {
+        log.debug(e, "Skipping column warmup of segment[%s], loading pool is shutting down", partial.getSegmentId());
+        return;
+      }
+    }
+  }
+
+  private boolean isColumnAccessStatsPersisted()
+  {
+    return !config.isVirtualStorageEphemeral() && locations != null && !locations.isEmpty();
+  }
+
+  private File getColumnAccessStatsFile()
+  {
+    return new File(locations.get(0).getPath(), COLUMN_ACCESS_STATS_FILE_NAME);
   }
 
   @VisibleForTesting
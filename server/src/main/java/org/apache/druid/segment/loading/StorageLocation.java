@@ -76,8 +76,10 @@ import java.util.function.Supplier;
  * to {@link WeakCacheEntry#prev} immediately and we try again. If no holds are present, then it is checked if it has
  * been marked as {@link WeakCacheEntry#visited} - if so then it is unmarked as visited, and the hand moves to
  * {@link WeakCacheEntry#prev} (allowing this entry to be reclaimed the next time we pass if it has not been visited
- * again). Lastly, if neither under a hold or marked, the entry will be unlinked from the queue AND unmounted from the
- * storage location (deleting the files from disk) with {@link #unlinkWeakEntry(WeakCacheEntry)}. This process
+ * again). An unmarked entry that is {@link CacheEntry#isFrequentlyAccessed()} is passed over once more in the same
+ * way, tracked by {@link WeakCacheEntry#reprieved}. Lastly, if neither under a hold or marked, the entry will be
+ * unlinked from the queue AND unmounted from the storage location (deleting the files from disk) with
+ * {@link #unlinkWeakEntry(WeakCacheEntry)}. This process
  * is repeated until either a sufficient amount of space has been reclaimed, or no additional space is able to be
  * reclaimed, in which case the new reservation fails.
  * <p>
@@ -914,6 +916,10 @@ public class StorageLocation
    * {@link #hand}.
    * <p>
    * If {@link WeakCacheEntry#isHeld()}, it is also skipped, moving {@link #hand} to {@link WeakCacheEntry#prev}.
+   * <p>
+   * If the entry is not visited but {@link CacheEntry#isFrequentlyAccessed()}, it is skipped once, setting
+   * {@link WeakCacheEntry#reprieved} so it is removed the next time it is the {@link #hand} unless it was visited in
+   * the meantime.
    *
    * Otherwise, this method will remove entries until either it frees up enough space or runs out of entries to remove
    * (either because there are no more entries or all remaining entries are under a hold).
@@ -951,6 +957,12 @@ public class StorageLocation
         // item is visited, unmark so we can consider it the next time it is hand
         unmarked = true;
         hand.visited = false;
+        hand.reprieved = false;
+        hand = hand.prev;
+      } else if (!hand.reprieved && hand.cacheEntry.isFrequentlyAccessed()) {
+        // item is not visited but is frequently read, pass over it one more time before removing it
+        unmarked = true;
+        hand.reprieved = true;
         hand = hand.prev;
       } else {
         // item is valid to remove
@@ -1097,6 +1109,13 @@ public class StorageLocation
      */
     private volatile boolean visited;
 
+    /**
+     * Set by {@link #reclaim(long)} when it passes over an unvisited entry because
+     * {@link CacheEntry#isFrequentlyAccessed()}, so that the next pass removes it unless it has been visited since.
+     * Only accessed while holding {@link #lock}.
+     */
+    private boolean reprieved;
+
     private WeakCacheEntry(CacheEntry cacheEntry)
     {
       this.cacheEntry = cacheEntry;
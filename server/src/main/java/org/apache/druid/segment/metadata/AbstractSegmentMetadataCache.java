@@ -83,6 +83,7 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -211,6 +212,11 @@ public abstract class AbstractSegmentMetadataCache<T extends DataSourceInformati
    */
   protected final ConcurrentHashMap<String, T> tables = new ConcurrentHashMap<>();
 
+  /**
+   * Incremented whenever an entry of {@link #tables} is added, removed or changed, see {@link #getSchemaVersion()}.
+   */
+  private final AtomicLong schemaVersion = new AtomicLong();
+
   /**
    * This lock coordinates the access from multiple threads to those variables guarded by this lock.
    * Currently, there are 2 threads that can access these variables.
@@ -400,6 +406,23 @@ public abstract class AbstractSegmentMetadataCache<T extends DataSourceInformati
     return tables.get(name);
   }
 
+  /**
+   * Version of the schema information in this cache, which changes whenever a datasource is added or removed, or its
+   * schema changes. Lets callers holding state derived from the schema, such as query plans, detect that it is stale.
+   */
+  public long getSchemaVersion()
+  {
+    return schemaVersion.get();
+  }
+
+  /**
+   * Records that the schema information of some datasource was added, removed or changed.
+   */
+  protected void markSchemaChanged()
+  {
+    schemaVersion.incrementAndGet();
+  }
+
   /**
    * @return Map of datasource and corresponding schema information.
    */
@@ -605,7 +628,9 @@ public abstract class AbstractSegmentMetadataCache<T extends DataSourceInformati
               }
               removeSegmentAction(segment.getId());
               if (segmentsMap.isEmpty()) {
-                tables.remove(segment.getDataSource());
+                if (tables.remove(segment.getDataSource()) != null) {
+                  markSchemaChanged();
+                }
                 log.info("dataSource [%s] no longer exists, all metadata removed.", segment.getDataSource());
                 return null;
               } else {
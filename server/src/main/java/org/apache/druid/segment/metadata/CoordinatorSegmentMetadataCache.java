@@ -519,7 +519,9 @@ public class CoordinatorSegmentMetadataCache extends AbstractSegmentMetadataCach
             + " Removing all cached metadata.",
             dataSource
         );
-        tables.remove(dataSource);
+        if (tables.remove(dataSource) != null) {
+          markSchemaChanged();
+        }
         continue;
       }
 
@@ -527,6 +529,7 @@ public class CoordinatorSegmentMetadataCache extends AbstractSegmentMetadataCach
       final DataSourceInformation oldTable = tables.put(dataSource, druidTable);
 
       if (oldTable == null || !oldTable.getRowSignature().equals(druidTable.getRowSignature())) {
+        markSchemaChanged();
         log.info("Datasource[%s] has a new row signature[%s].", dataSource, druidTable.getRowSignature());
       } else {
         log.debug("Datasource[%s] row signature is unchanged.", dataSource);
@@ -79,6 +79,16 @@ public class BrokerQueryResource extends QueryResource
     this.brokerServerView = brokerServerView;
   }
 
+  /**
+   * The Broker merges results and applies post-aggregators, so it never sends frames, which only hold the unmerged
+   * results of a data server.
+   */
+  @Override
+  protected boolean canWriteFrames()
+  {
+    return false;
+  }
+
   @POST
   @Path("/candidates")
   @Produces({MediaType.APPLICATION_JSON, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
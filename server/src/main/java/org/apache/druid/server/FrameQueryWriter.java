@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.druid.frame.Frame;
+import org.apache.druid.frame.allocation.ArenaMemoryAllocatorFactory;
+import org.apache.druid.frame.channel.ByteTracker;
+import org.apache.druid.frame.file.FrameFileWriter;
+import org.apache.druid.frame.processor.FrameRowTooLargeException;
+import org.apache.druid.frame.write.FrameWriter;
+import org.apache.druid.frame.write.FrameWriterFactory;
+import org.apache.druid.frame.write.FrameWriters;
+import org.apache.druid.query.rowsandcols.serde.WireTransferableContext;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.RowAdapter;
+import org.apache.druid.segment.RowBasedColumnSelectorFactory;
+import org.apache.druid.segment.column.RowSignature;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+
+/**
+ * Writes query results as a frame file, rather than JSON or Smile. Used by data servers when the Broker asks for
+ * frames with {@link QueryResource#HEADER_ACCEPT_FRAMES}; the Broker reads the response with
+ * {@link org.apache.druid.client.FrameParserIterator}.
+ * <p>
+ * Rows are converted to arrays with {@link org.apache.druid.query.QueryToolChest#makeToFrameTransportFn} and written
+ * into columnar frames of up to {@link #FRAME_SIZE} bytes. If the query fails after the response has started, the frame
+ * file is left without its footer, which the Broker reports as a truncated response.
+ */
+class FrameQueryWriter implements QueryResultPusher.Writer
+{
+  static final int FRAME_SIZE = 8_000_000;
+
+  private final int frameSize;
+  private final OutputStream out;
+  private final Function<Object, Object[]> toArrayFn;
+  private final FrameWriterFactory frameWriterFactory;
+  private final ColumnSelectorFactory columnSelectorFactory;
+  private final FrameFileWriter fileWriter;
+
+  @Nullable
+  private FrameWriter frameWriter;
+  @Nullable
+  private Object[] currentRow;
+  private boolean done;
+
+  FrameQueryWriter(
+      final RowSignature signature,
+      final Function<Object, Object[]> toArrayFn,
+      final OutputStream out
+  )
+  {
+    this(signature, toArrayFn, out, FRAME_SIZE);
+  }
+
+  @VisibleForTesting
+  FrameQueryWriter(
+      final RowSignature signature,
+      final Function<Object, Object[]> toArrayFn,
+      final OutputStream out,
+      final int frameSize
+  )
+  {
+    this.frameSize = frameSize;
+    this.out = out;
+    this.toArrayFn = toArrayFn;
+    this.frameWriterFactory = FrameWriters.makeColumnBasedFrameWriterFactory(
+        new ArenaMemoryAllocatorFactory(frameSize),
+        signature,
+        new ArrayList<>()
+    );
+
+    final RowAdapter<Object[]> rowAdapter = columnName -> {
+      final int columnIndex = signature.indexOf(columnName);
+      return columnIndex < 0 ? row -> null : row -> row[columnIndex];
+    };
+    this.columnSelectorFactory = RowBasedColumnSelectorFactory.create(rowAdapter, () -> currentRow, signature, false);
+
+    // Frames are always written in the legacy format, so the Broker can read them without a WireTransferableContext.
+    // The stream is shielded because the servlet response is closed by close(), not by finishing the frame file.
+    this.fileWriter = FrameFileWriter.open(
+        Channels.newChannel(CloseShieldOutputStream.wrap(out)),
+        null,
+        ByteTracker.unboundedTracker(),
+        new WireTransferableContext(null, null, true)
+    );
+  }
+
+  @Override
+  public void writeResponseStart()
+  {
+    // Nothing to do: the frame file header is written along with the first frame.
+  }
+
+  @Override
+  public void writeRow(final Object obj) throws IOException
+  {
+    if (obj instanceof Throwable) {
+      // QueryResultPusher writes mid-stream errors as rows, which a frame file has no way to represent. Leaving the
+      // file unfinished makes the Broker fail the query instead.
+      throw new IOException("Cannot write an error into a frame response", (Throwable) obj);
+    }
+
+    currentRow = toArrayFn.apply(obj);
+
+    if (frameWriter == null) {
+      frameWriter = frameWriterFactory.newFrameWriter(columnSelectorFactory);
+    }
+
+    if (!frameWriter.addSelection()) {
+      writeFrame();
+      frameWriter = frameWriterFactory.newFrameWriter(columnSelectorFactory);
+
+      if (!frameWriter.addSelection()) {
+        throw new FrameRowTooLargeException(frameSize);
+      }
+    }
+  }
+
+  @Override
+  public void writeResponseEnd() throws IOException
+  {
+    writeFrame();
+    fileWriter.close();
+    done = true;
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    try {
+      if (frameWriter != null) {
+        frameWriter.close();
+        frameWriter = null;
+      }
+
+      if (!done) {
+        fileWriter.abort();
+      }
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Writes out the frame being built, if it has any rows, and flushes it to the client.
+   */
+  private void writeFrame() throws IOException
+  {
+    if (frameWriter != null) {
+      try {
+        if (frameWriter.getNumRows() > 0) {
+          fileWriter.write(Frame.wrap(frameWriter.toByteArray()).asRAC(), FrameFileWriter.NO_PARTITION);
+          out.flush();
+        }
+      }
+      finally {
+        frameWriter.close();
+        frameWriter = null;
+      }
+    }
+  }
+}
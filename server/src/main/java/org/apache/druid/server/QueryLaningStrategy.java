@@ -24,7 +24,9 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.google.common.primitives.Ints;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import org.apache.druid.client.SegmentServerSelector;
+import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryPlus;
+import org.apache.druid.server.scheduling.CostBasedQueryLaningStrategy;
 import org.apache.druid.server.scheduling.HiLoQueryLaningStrategy;
 import org.apache.druid.server.scheduling.ManualQueryLaningStrategy;
 import org.apache.druid.server.scheduling.NoQueryLaningStrategy;
@@ -39,7 +41,8 @@ import java.util.Set;
     @JsonSubTypes.Type(name = "none", value = NoQueryLaningStrategy.class),
     @JsonSubTypes.Type(name = "hilo", value = HiLoQueryLaningStrategy.class),
     @JsonSubTypes.Type(name = "manual", value = ManualQueryLaningStrategy.class),
-    @JsonSubTypes.Type(name = "weighted", value = WeightedQueryLaningStrategy.class)
+    @JsonSubTypes.Type(name = "weighted", value = WeightedQueryLaningStrategy.class),
+    @JsonSubTypes.Type(name = "cost", value = CostBasedQueryLaningStrategy.class)
 })
 public interface QueryLaningStrategy
 {
@@ -56,6 +59,17 @@ public interface QueryLaningStrategy
    */
   <T> Optional<String> computeLane(QueryPlus<T> query, Set<SegmentServerSelector> segments);
 
+  /**
+   * Called by {@link QueryScheduler} when a query it ran has completed successfully, with the time in milliseconds it
+   * held its lane. Strategies that learn from past query runtimes may override this; by default it does nothing.
+   *
+   * This method must be thread safe
+   */
+  default void onQueryFinished(Query<?> query, long elapsedMillis)
+  {
+    // do nothing
+  }
+
   default int computeLimitFromPercent(int totalLimit, int value)
   {
     return Ints.checkedCast((long) Math.ceil(totalLimit * ((double) value / 100)));
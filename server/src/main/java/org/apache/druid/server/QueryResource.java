@@ -85,6 +85,11 @@ public class QueryResource implements QueryCountStatsProvider
    */
   public static final String HEADER_RESPONSE_CONTEXT = "X-Druid-Response-Context";
   public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+  /**
+   * HTTP request header the Broker sets to "true" when it can read results as frames. See {@link FrameQueryWriter}.
+   * Only data servers honor it, and only for queries on specific segments, which are what the Broker sends them.
+   */
+  public static final String HEADER_ACCEPT_FRAMES = "X-Druid-Accept-Frames";
   public static final String QUERY_ID_RESPONSE_HEADER = "X-Druid-Query-Id";
   public static final String ERROR_MESSAGE_TRAILER_HEADER = "X-Error-Message";
   public static final String RESPONSE_COMPLETE_TRAILER_HEADER = "X-Druid-Response-Complete";
@@ -126,6 +131,15 @@ public class QueryResource implements QueryCountStatsProvider
     this.serverConfig = serverConfig;
   }
 
+  /**
+   * Whether results may be written as frames to callers that send {@link #HEADER_ACCEPT_FRAMES}. Frames carry the
+   * unmerged results of a data server, without post-aggregators, so only data servers write them.
+   */
+  protected boolean canWriteFrames()
+  {
+    return true;
+  }
+
   @DELETE
   @Path("{id}")
   @Produces(MediaType.APPLICATION_JSON)
@@ -199,7 +213,7 @@ public class QueryResource implements QueryCountStatsProvider
       }
 
       final QueryResourceQueryResultPusherFactory.QueryResourceQueryResultPusher pusher =
-          queryResultPusherFactory.factorize(counter, req, queryLifecycle, io);
+          queryResultPusherFactory.factorize(counter, req, queryLifecycle, io, canWriteFrames());
       return pusher.push();
     }
     catch (Exception e) {
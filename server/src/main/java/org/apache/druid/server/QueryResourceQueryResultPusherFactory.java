@@ -25,7 +25,12 @@ import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import org.apache.druid.guice.annotations.Json;
 import org.apache.druid.guice.annotations.Self;
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.spec.MultipleSpecificSegmentSpec;
+import org.apache.druid.segment.column.RowSignature;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.MediaType;
@@ -61,7 +66,8 @@ public class QueryResourceQueryResultPusherFactory
       final QueryResource.QueryMetricCounter counter,
       final HttpServletRequest req,
       final QueryLifecycle queryLifecycle,
-      final ResourceIOReaderWriterFactory.ResourceIOReaderWriter io
+      final ResourceIOReaderWriterFactory.ResourceIOReaderWriter io,
+      final boolean canWriteFrames
   )
   {
     return new QueryResourceQueryResultPusher(
@@ -71,14 +77,17 @@ public class QueryResourceQueryResultPusherFactory
         counter,
         req,
         queryLifecycle,
-        io
+        io,
+        canWriteFrames
     );
   }
 
   /**
    * Handles query results for {@link QueryResource}, pushing the results to the client.
    * <p>
-   * It uses the provided {@link QueryLifecycle} to execute the query and writes the results via {@link QueryResource.NativeQueryWriter}.
+   * It uses the provided {@link QueryLifecycle} to execute the query and writes the results via
+   * {@link QueryResource.NativeQueryWriter}, or via {@link FrameQueryWriter} if this is a data server, the Broker
+   * accepts frames and the query can be sent as frames.
    */
   public static class QueryResourceQueryResultPusher extends QueryResultPusher
   {
@@ -86,6 +95,7 @@ public class QueryResourceQueryResultPusherFactory
     private final QueryLifecycle queryLifecycle;
     private final ResourceIOReaderWriterFactory.ResourceIOReaderWriter io;
     private final QueryResource.QueryMetricCounter counter;
+    private final boolean canWriteFrames;
 
     public QueryResourceQueryResultPusher(
         final ObjectMapper jsonMapper,
@@ -94,7 +104,8 @@ public class QueryResourceQueryResultPusherFactory
         final QueryResource.QueryMetricCounter counter,
         final HttpServletRequest req,
         final QueryLifecycle queryLifecycle,
-        final ResourceIOReaderWriterFactory.ResourceIOReaderWriter io
+        final ResourceIOReaderWriterFactory.ResourceIOReaderWriter io,
+        final boolean canWriteFrames
     )
     {
       super(
@@ -112,6 +123,7 @@ public class QueryResourceQueryResultPusherFactory
       this.queryLifecycle = queryLifecycle;
       this.io = io;
       this.counter = counter;
+      this.canWriteFrames = canWriteFrames;
     }
 
     @Override
@@ -146,6 +158,19 @@ public class QueryResourceQueryResultPusherFactory
         @Override
         public Writer makeWriter(OutputStream out) throws IOException
         {
+          final Query<?> query = queryLifecycle.getQuery();
+          if (canWriteFrames
+              && isFromBroker(query)
+              && Boolean.parseBoolean(req.getHeader(QueryResource.HEADER_ACCEPT_FRAMES))) {
+            final QueryToolChest toolChest = queryLifecycle.getToolChest();
+            final RowSignature signature =
+                query.context().isBySegment() ? null : toolChest.frameTransportSignature(query);
+            if (signature != null) {
+              //noinspection unchecked
+              return new FrameQueryWriter(signature, toolChest.makeToFrameTransportFn(query), out);
+            }
+          }
+
           return new QueryResource.NativeQueryWriter(queryLifecycle.newOutputWriter(io), out);
         }
 
@@ -177,6 +202,15 @@ public class QueryResourceQueryResultPusherFactory
     }
   }
 
+  /**
+   * Whether the query is one the Broker sends to a data server, which always lists the segments to query.
+   */
+  private static boolean isFromBroker(final Query<?> query)
+  {
+    return query instanceof BaseQuery
+           && ((BaseQuery<?>) query).getQuerySegmentSpec() instanceof MultipleSpecificSegmentSpec;
+  }
+
   private static String getPreviousEtag(final HttpServletRequest req)
   {
     return req.getHeader(QueryResource.HEADER_IF_NONE_MATCH);
@@ -52,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * QueryScheduler (potentially) assigns any {@link Query} that is to be executed to a 'query lane' using the
@@ -199,10 +200,13 @@ public class QueryScheduler implements QueryWatcher
     return Sequences.wrap(resultSequence, new SequenceWrapper()
     {
       private List<Bulkhead> bulkheads = null;
+      private long startNs;
+
       @Override
       public void before()
       {
         bulkheads = acquireLanes(query);
+        startNs = System.nanoTime();
       }
 
       @Override
@@ -210,6 +214,9 @@ public class QueryScheduler implements QueryWatcher
       {
         if (bulkheads != null) {
           finishLanes(bulkheads);
+          if (isDone && thrown == null) {
+            laningStrategy.onQueryFinished(query, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs));
+          }
         }
       }
     });
@@ -28,6 +28,7 @@ import org.apache.druid.client.coordinator.CoordinatorClient;
 import org.apache.druid.common.guava.FutureUtils;
 import org.apache.druid.guice.ManageLifecycle;
 import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.Stopwatch;
 import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.lifecycle.LifecycleStart;
@@ -47,10 +48,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -152,14 +153,17 @@ public class SegmentCacheBootstrapper
    * Bulk loading of the following segments into the page cache at startup:
    * <li> Previously cached segments </li>
    * <li> Bootstrap segments from the coordinator </li>
+   * Loading of the cached segments starts as soon as they have been read from the segment cache, overlapping the
+   * fetch of bootstrap segments from the coordinator, and loaded segments are announced in batches in the background
+   * while the rest are still loading (if {@link SegmentLoaderConfig#getAnnounceIntervalMillis()} is positive). The
+   * wall time of each phase is emitted as a metric.
    */
   private void loadSegmentsOnStartup() throws IOException
   {
-    final List<DataSegment> segmentsOnStartup = new ArrayList<>();
-    segmentsOnStartup.addAll(segmentManager.getCachedSegments());
-    segmentsOnStartup.addAll(getBootstrapSegments());
-
-    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final Stopwatch totalStopwatch = Stopwatch.createStarted();
+    final Stopwatch phaseStopwatch = Stopwatch.createStarted();
+    final List<DataSegment> cachedSegments = segmentManager.getCachedSegments();
+    emitPhaseMetrics("cached", phaseStopwatch.millisElapsed(), cachedSegments.size());
 
     // Start a temporary thread pool to load segments into page cache during bootstrap
     final ExecutorService bootstrapExecutor = Execs.multiThreaded(
@@ -173,58 +177,23 @@ public class SegmentCacheBootstrapper
         Execs.makeThreadFactory("Background-Segment-Announcer-%s")
     );
 
+    final List<Future<?>> loads = new ArrayList<>();
     try (final BackgroundSegmentAnnouncer backgroundSegmentAnnouncer =
              new BackgroundSegmentAnnouncer(segmentAnnouncer, backgroundAnnouncerExecutor, config.getAnnounceIntervalMillis())) {
 
       backgroundSegmentAnnouncer.startAnnouncing();
 
-      final int numSegments = segmentsOnStartup.size();
-      final CountDownLatch latch = new CountDownLatch(numSegments);
       final AtomicInteger counter = new AtomicInteger(0);
       final ConcurrentLinkedQueue<DataSegment> failedSegments = new ConcurrentLinkedQueue<>();
-      for (final DataSegment segment : segmentsOnStartup) {
-        bootstrapExecutor.submit(
-            () -> {
-              try {
-                log.info(
-                    "Loading segment[%d/%d][%s]",
-                    counter.incrementAndGet(), numSegments, segment.getId()
-                );
-                final DataSegment loaded;
-                try {
-                  loaded = segmentManager.loadSegmentOnBootstrap(
-                      segment,
-                      () -> loadDropHandler.removeSegment(segment, DataSegmentChangeCallback.NOOP, false)
-                  );
-                }
-                catch (Exception e) {
-                  loadDropHandler.removeSegment(segment, DataSegmentChangeCallback.NOOP, false);
-                  throw new SegmentLoadingException(e, "Exception loading segment[%s]", segment.getId());
-                }
-                try {
-                  // loadSegmentOnBootstrap returns a PartialLoadedDataSegment wrapper when the historical
-                  // materialized a partial-load footprint on restart; enqueue that so the announcement carries
-                  // accurate loadedBytes (see PartialLoadedDataSegment + SegmentChangeRequestLoad.forAnnouncement).
-                  backgroundSegmentAnnouncer.announceSegment(loaded);
-                }
-                catch (InterruptedException e) {
-                  Thread.currentThread().interrupt();
-                  throw new SegmentLoadingException(e, "Loading Interrupted");
-                }
-              }
-              catch (SegmentLoadingException e) {
-                log.error(e, "[%s] failed to load", segment.getId());
-                failedSegments.add(segment);
-              }
-              finally {
-                latch.countDown();
-              }
-            }
-        );
-      }
+      phaseStopwatch.restart();
+      submitLoads(cachedSegments, bootstrapExecutor, backgroundSegmentAnnouncer, counter, failedSegments, loads);
+      submitLoads(getBootstrapSegments(), bootstrapExecutor, backgroundSegmentAnnouncer, counter, failedSegments, loads);
 
       try {
-        latch.await();
+        for (Future<?> load : loads) {
+          load.get();
+        }
+        emitPhaseMetrics("load", phaseStopwatch.millisElapsed(), loads.size());
 
         if (!failedSegments.isEmpty()) {
           log.makeAlert("[%,d] errors seen while loading segments on startup", failedSegments.size())
@@ -236,25 +205,97 @@ public class SegmentCacheBootstrapper
         Thread.currentThread().interrupt();
         log.makeAlert(e, "LoadingInterrupted").emit();
       }
+      catch (ExecutionException e) {
+        // each load handles its own failures, so this is a bug
+        log.makeAlert(e.getCause(), "Unexpected failure loading segments on startup").emit();
+      }
 
+      phaseStopwatch.restart();
       backgroundSegmentAnnouncer.finishAnnouncing();
+      emitPhaseMetrics("announce", phaseStopwatch.millisElapsed(), loads.size());
     }
     catch (SegmentLoadingException e) {
       log.makeAlert(e, "Failed to load segments on startup -- likely problem with announcing.")
-         .addData("numSegments", segmentsOnStartup.size())
+         .addData("numSegments", loads.size())
          .emit();
     }
     finally {
       bootstrapExecutor.shutdownNow();
       backgroundAnnouncerExecutor.shutdownNow();
-      stopwatch.stop();
+      totalStopwatch.stop();
       // At this stage, all tasks have been submitted, send a shutdown command to cleanup any resources alloted
       // for the bootstrapping function.
       segmentManager.shutdownBootstrap();
-      log.info("Loaded [%d] segments on startup in [%,d]ms.", segmentsOnStartup.size(), stopwatch.millisElapsed());
+      emitPhaseMetrics("total", totalStopwatch.millisElapsed(), loads.size());
+      log.info("Loaded [%d] segments on startup in [%,d]ms.", loads.size(), totalStopwatch.millisElapsed());
+    }
+  }
+
+  /**
+   * Submit a load of each segment on startup to {@code bootstrapExecutor}, which announces the segment through
+   * {@code backgroundSegmentAnnouncer} once it is loaded.
+   */
+  private void submitLoads(
+      List<DataSegment> segments,
+      ExecutorService bootstrapExecutor,
+      BackgroundSegmentAnnouncer backgroundSegmentAnnouncer,
+      AtomicInteger counter,
+      ConcurrentLinkedQueue<DataSegment> failedSegments,
+      List<Future<?>> loads
+  )
+  {
+    for (final DataSegment segment : segments) {
+      loads.add(
+          bootstrapExecutor.submit(
+              () -> {
+                try {
+                  log.info("Loading segment[%d][%s]", counter.incrementAndGet(), segment.getId());
+                  final DataSegment loaded;
+                  try {
+                    loaded = segmentManager.loadSegmentOnBootstrap(
+                        segment,
+                        () -> loadDropHandler.removeSegment(segment, DataSegmentChangeCallback.NOOP, false)
+                    );
+                  }
+                  catch (Exception e) {
+                    loadDropHandler.removeSegment(segment, DataSegmentChangeCallback.NOOP, false);
+                    throw new SegmentLoadingException(e, "Exception loading segment[%s]", segment.getId());
+                  }
+                  try {
+                    // loadSegmentOnBootstrap returns a PartialLoadedDataSegment wrapper when the historical
+                    // materialized a partial-load footprint on restart; enqueue that so the announcement carries
+                    // accurate loadedBytes (see PartialLoadedDataSegment + SegmentChangeRequestLoad.forAnnouncement).
+                    backgroundSegmentAnnouncer.announceSegment(loaded);
+                  }
+                  catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SegmentLoadingException(e, "Loading Interrupted");
+                  }
+                }
+                catch (SegmentLoadingException e) {
+                  log.error(e, "[%s] failed to load", segment.getId());
+                  failedSegments.add(segment);
+                }
+              }
+          )
+      );
     }
   }
 
+  /**
+   * Emits the wall time and number of segments of a phase of loading segments on startup as
+   * {@code segment/bootstrap/<phase>/time} and {@code segment/bootstrap/<phase>/count}.
+   */
+  private void emitPhaseMetrics(String phase, long millis, int numSegments)
+  {
+    emitter.emit(
+        new ServiceMetricEvent.Builder().setMetric(StringUtils.format("segment/bootstrap/%s/time", phase), millis)
+    );
+    emitter.emit(
+        new ServiceMetricEvent.Builder().setMetric(StringUtils.format("segment/bootstrap/%s/count", phase), numSegments)
+    );
+  }
+
   /**
    * @return a list of bootstrap segments. When bootstrap segments cannot be found, an empty list is returned.
    * The bootstrap segments returned are filtered by the broadcast datasources indicated by
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.druid.discovery.NodeRole;
+import org.apache.druid.guice.annotations.LoadScope;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.java.util.metrics.AbstractMonitor;
+import org.apache.druid.segment.data.DecompressedBlockCache;
+
+/**
+ * Emits the hits, misses and evictions of the {@link DecompressedBlockCache} since the last emission, and its size.
+ */
+@LoadScope(roles = {
+    NodeRole.HISTORICAL_JSON_NAME,
+    NodeRole.INDEXER_JSON_NAME,
+    NodeRole.PEON_JSON_NAME
+})
+public class DecompressedBlockCacheMonitor extends AbstractMonitor
+{
+  private CacheStats prevStats = CacheStats.empty();
+
+  @Override
+  public boolean doMonitor(ServiceEmitter emitter)
+  {
+    final DecompressedBlockCache cache = DecompressedBlockCache.getInstance();
+    if (cache == null) {
+      return true;
+    }
+
+    final CacheStats currStats = cache.getStats();
+    final CacheStats deltaStats = currStats.minus(prevStats);
+    prevStats = currStats;
+
+    final ServiceMetricEvent.Builder builder = new ServiceMetricEvent.Builder();
+    emitter.emit(builder.setMetric("segment/blockCache/hits", deltaStats.hitCount()));
+    emitter.emit(builder.setMetric("segment/blockCache/misses", deltaStats.missCount()));
+    emitter.emit(builder.setMetric("segment/blockCache/evictions", deltaStats.evictionCount()));
+    emitter.emit(builder.setMetric("segment/blockCache/evictionBytes", deltaStats.evictionWeight()));
+    emitter.emit(builder.setMetric("segment/blockCache/sizeBytes", cache.getSizeBytes()));
+    emitter.emit(builder.setMetric("segment/blockCache/numEntries", cache.getNumEntries()));
+    return true;
+  }
+}
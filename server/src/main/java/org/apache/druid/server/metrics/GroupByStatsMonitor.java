@@ -76,6 +76,11 @@ public class GroupByStatsMonitor extends AbstractMonitor
       emitter.emit(builder.setMetric("groupBy/maxSpilledBytes", statsContainer.getMaxSpilledBytes()));
     }
 
+    if (statsContainer.getSpillTimeNs() > 0) {
+      emitter.emit(builder.setMetric("groupBy/spillTimeNs", statsContainer.getSpillTimeNs()));
+      emitter.emit(builder.setMetric("groupBy/spillMergeTimeNs", statsContainer.getSpillMergeTimeNs()));
+    }
+
     if (statsContainer.getMergeDictionarySize() > 0) {
       emitter.emit(builder.setMetric("groupBy/mergeDictionarySize", statsContainer.getMergeDictionarySize()));
       emitter.emit(builder.setMetric("groupBy/maxMergeDictionarySize", statsContainer.getMaxMergeDictionarySize()));
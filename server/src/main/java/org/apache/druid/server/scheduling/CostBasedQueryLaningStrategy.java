@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.scheduling;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.apache.druid.client.SegmentServerSelector;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.server.QueryLaningStrategy;
+import org.apache.druid.server.QueryScheduler;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.SegmentId;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Query laning strategy that estimates how much work a query will do from the segments it is going to scan, then
+ * assigns it to the most restrictive lane whose {@code minCost} the estimate meets. Unlike
+ * {@link WeightedQueryLaningStrategy}, which counts breached thresholds, the cost here is an estimate of the number
+ * of column values read: for every segment, its row count times the number of columns the query touches, scaled by
+ * the optional {@link #FILTER_SELECTIVITY_KEY} context hint. Lanes are cost bands, so a handful of very expensive
+ * queries are confined to a small share of the scheduler capacity no matter how few of them there are.
+ *
+ * If {@code millisCost} is set, the strategy also remembers an exponentially weighted moving average of the runtime
+ * of each query fingerprint (query type, datasources and required columns), fed back through
+ * {@link #onQueryFinished}, and charges the larger of the scan estimate and the remembered runtime times
+ * {@code millisCost}. This catches queries that read little data but are still slow, for example because of
+ * expensive aggregators or high cardinality grouping.
+ *
+ * <p>Configuration example:
+ * <pre>{@code
+ * {
+ *   "strategy": "cost",
+ *   "millisCost": 1000000,
+ *   "lanes": {
+ *     "heavy": { "minCost": 1000000000, "maxPercent": 30 },
+ *     "giant": { "minCost": 100000000000, "maxPercent": 10 }
+ *   }
+ * }
+ * }</pre>
+ */
+public class CostBasedQueryLaningStrategy implements QueryLaningStrategy
+{
+  /**
+   * Query context key for a hint, in the range (0, 1], of the fraction of rows which will match the query filter.
+   */
+  public static final String FILTER_SELECTIVITY_KEY = "filterSelectivity";
+
+  static final long DEFAULT_SEGMENT_ROWS = 5_000_000L;
+  static final int DEFAULT_MAX_FINGERPRINTS = 10_000;
+
+  /**
+   * Weight of the newest sample in the per-fingerprint runtime moving average.
+   */
+  private static final double RUNTIME_ALPHA = 0.3;
+
+  @JsonProperty
+  private final Map<String, LaneConfig> lanes;
+
+  @JsonProperty
+  private final long defaultSegmentRows;
+
+  @JsonProperty
+  @Nullable
+  private final Long millisCost;
+
+  @JsonProperty
+  private final int maxFingerprints;
+
+  // fingerprint -> moving average of observed runtime in milliseconds, null if millisCost is not set
+  @Nullable
+  private final Cache<String, Double> runtimes;
+
+  @JsonCreator
+  public CostBasedQueryLaningStrategy(
+      @JsonProperty("lanes") Map<String, LaneConfig> lanes,
+      @JsonProperty("defaultSegmentRows") @Nullable Long defaultSegmentRows,
+      @JsonProperty("millisCost") @Nullable Long millisCost,
+      @JsonProperty("maxFingerprints") @Nullable Integer maxFingerprints
+  )
+  {
+    Preconditions.checkArgument(
+        lanes != null && !lanes.isEmpty(),
+        "At least one lane must be defined"
+    );
+    Preconditions.checkArgument(
+        !lanes.containsKey(QueryScheduler.TOTAL),
+        "Lane cannot be named '%s'", QueryScheduler.TOTAL
+    );
+    Preconditions.checkArgument(
+        !lanes.containsKey(QueryScheduler.DEFAULT),
+        "Lane cannot be named '%s'", QueryScheduler.DEFAULT
+    );
+    long distinctCosts = lanes.values().stream().mapToLong(LaneConfig::getMinCost).distinct().count();
+    Preconditions.checkArgument(
+        distinctCosts == lanes.size(),
+        "Each lane must have a unique minCost so that lane selection is deterministic, got lanes [%s]",
+        lanes
+    );
+    Preconditions.checkArgument(
+        defaultSegmentRows == null || defaultSegmentRows > 0,
+        "defaultSegmentRows must be > 0, got [%s]", defaultSegmentRows
+    );
+    Preconditions.checkArgument(
+        millisCost == null || millisCost > 0,
+        "millisCost must be > 0, got [%s]", millisCost
+    );
+    Preconditions.checkArgument(
+        maxFingerprints == null || maxFingerprints > 0,
+        "maxFingerprints must be > 0, got [%s]", maxFingerprints
+    );
+
+    this.lanes = lanes;
+    this.defaultSegmentRows = defaultSegmentRows == null ? DEFAULT_SEGMENT_ROWS : defaultSegmentRows;
+    this.millisCost = millisCost;
+    this.maxFingerprints = maxFingerprints == null ? DEFAULT_MAX_FINGERPRINTS : maxFingerprints;
+    this.runtimes = millisCost == null ? null : Caffeine.newBuilder().maximumSize(this.maxFingerprints).build();
+  }
+
+  @Override
+  public Object2IntMap<String> getLaneLimits(int totalLimit)
+  {
+    Object2IntMap<String> limits = new Object2IntArrayMap<>(lanes.size());
+    for (Map.Entry<String, LaneConfig> entry : lanes.entrySet()) {
+      limits.put(entry.getKey(), computeLimitFromPercent(totalLimit, entry.getValue().maxPercent));
+    }
+    return limits;
+  }
+
+  @Override
+  public <T> Optional<String> computeLane(QueryPlus<T> query, Set<SegmentServerSelector> segments)
+  {
+    final String existingLane = query.getQuery().context().getLane();
+    if (existingLane != null) {
+      return Optional.of(existingLane);
+    }
+
+    final long cost = computeCost(query.getQuery(), segments);
+
+    // Find the lane with the highest minCost that this query meets
+    String highestLane = null;
+    long highestMinCost = 0;
+    for (Map.Entry<String, LaneConfig> entry : lanes.entrySet()) {
+      long minCost = entry.getValue().minCost;
+      if (cost >= minCost && minCost > highestMinCost) {
+        highestLane = entry.getKey();
+        highestMinCost = minCost;
+      }
+    }
+    return Optional.ofNullable(highestLane);
+  }
+
+  @Override
+  public void onQueryFinished(Query<?> query, long elapsedMillis)
+  {
+    if (runtimes == null) {
+      return;
+    }
+    runtimes.asMap().merge(
+        fingerprint(query),
+        (double) elapsedMillis,
+        (previous, sample) -> previous + RUNTIME_ALPHA * (sample - previous)
+    );
+  }
+
+  @VisibleForTesting
+  <T> long computeCost(Query<T> query, Set<SegmentServerSelector> segments)
+  {
+    final Set<String> requiredColumns = query.getRequiredColumns();
+    // Accumulated as a double so that large rows times columns products over many segments cannot overflow; the
+    // result is only compared against lane bands, so the lost precision does not matter.
+    double scanCost = 0;
+    // a segment may be queried through several descriptors, e.g. one per granularity bucket, but is scanned once
+    final Set<SegmentId> costedSegments = new HashSet<>();
+    for (SegmentServerSelector segment : segments) {
+      final DataSegment dataSegment = segment.getServer() == null ? null : segment.getServer().getSegment();
+      if (dataSegment != null && !costedSegments.add(dataSegment.getId())) {
+        continue;
+      }
+      final long rows;
+      final int columns;
+      if (dataSegment == null) {
+        rows = defaultSegmentRows;
+        columns = requiredColumns == null ? 1 : Math.max(1, requiredColumns.size());
+      } else {
+        rows = dataSegment.getTotalRows() == null ? defaultSegmentRows : dataSegment.getTotalRows();
+        columns = requiredColumns == null
+                  ? 1 + dataSegment.getDimensions().size() + dataSegment.getMetrics().size()
+                  : Math.max(1, requiredColumns.size());
+      }
+      scanCost += (double) rows * columns;
+    }
+    scanCost *= getFilterSelectivity(query);
+
+    double runtimeCost = 0;
+    if (runtimes != null) {
+      final Double runtime = runtimes.getIfPresent(fingerprint(query));
+      if (runtime != null) {
+        runtimeCost = runtime * millisCost;
+      }
+    }
+
+    final double cost = Math.max(scanCost, runtimeCost);
+    return cost >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) cost;
+  }
+
+  private static float getFilterSelectivity(Query<?> query)
+  {
+    // this is only a hint, so an out of range value is ignored rather than failing the query
+    final float selectivity = query.context().getFloat(FILTER_SELECTIVITY_KEY, 1f);
+    return selectivity > 0 && selectivity <= 1 ? selectivity : 1f;
+  }
+
+  /**
+   * Key under which the runtime of a query is remembered. Queries of the same type over the same datasources reading
+   * the same columns are assumed to cost about the same; intervals are deliberately left out, since those change with
+   * every run of a dashboard query while the amount of work mostly does not.
+   */
+  @VisibleForTesting
+  static String fingerprint(Query<?> query)
+  {
+    final Set<String> requiredColumns = query.getRequiredColumns();
+    return query.getType()
+           + '|' + new TreeSet<>(query.getDataSource().getTableNames())
+           + '|' + (requiredColumns == null ? "" : new TreeSet<>(requiredColumns));
+  }
+
+  public static class LaneConfig
+  {
+    private final long minCost;
+    private final int maxPercent;
+
+    @JsonCreator
+    public LaneConfig(
+        @JsonProperty("minCost") long minCost,
+        @JsonProperty("maxPercent") int maxPercent
+    )
+    {
+      Preconditions.checkArgument(minCost > 0, "minCost must be > 0, got [%s]", minCost);
+      Preconditions.checkArgument(
+          maxPercent > 0 && maxPercent <= 100,
+          "maxPercent must be in the range 1 to 100, got [%s]", maxPercent
+      );
+      this.minCost = minCost;
+      this.maxPercent = maxPercent;
+    }
+
+    @JsonProperty
+    public long getMinCost()
+    {
+      return minCost;
+    }
+
+    @JsonProperty
+    public int getMaxPercent()
+    {
+      return maxPercent;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      LaneConfig that = (LaneConfig) o;
+      return minCost == that.minCost && maxPercent == that.maxPercent;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(minCost, maxPercent);
+    }
+
+    @Override
+    public String toString()
+    {
+      return "LaneConfig{minCost=" + minCost + ", maxPercent=" + maxPercent + '}';
+    }
+  }
+}
@@ -55,6 +55,7 @@ import org.apache.druid.timeline.partition.PartitionHolder;
 import org.apache.druid.timeline.partition.SingleElementPartitionChunk;
 import org.easymock.EasyMock;
 import org.joda.time.Interval;
+import org.joda.time.Period;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -141,6 +142,160 @@ public class BrokerServerViewTest
     Assertions.assertNull(timeline.findChunk(intervals, "v1", partition));
   }
 
+  @Test
+  public void testTimelineSnapshots() throws Exception
+  {
+    segmentViewInitLatch = new CountDownLatch(1);
+    segmentAddedLatch = new CountDownLatch(1);
+    segmentRemovedLatch = new CountDownLatch(1);
+
+    setupViews(
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        new BrokerSegmentWatcherConfig()
+        {
+          @Override
+          public Period getTimelineSnapshotPeriod()
+          {
+            // long enough that only the explicit publishes below take effect
+            return Period.hours(1);
+          }
+        }
+    );
+
+    final DruidServer druidServer = setupHistoricalServer("default_tier", "localhost:1234", 0);
+    final DataSegment segment1 = dataSegmentWithIntervalAndVersion("2014-10-20T00:00:00Z/P1D", "v1");
+    final DataSegment segment2 = dataSegmentWithIntervalAndVersion("2014-10-21T00:00:00Z/P1D", "v1");
+    final TableDataSource dataSource = new TableDataSource("test_broker_server_view");
+
+    baseView.addSegment(druidServer, segment1);
+    Assertions.assertTrue(awaitLatch(segmentViewInitLatch));
+    Assertions.assertTrue(awaitLatch(segmentAddedLatch));
+    brokerServerView.publishTimelineSnapshots();
+
+    final TimelineLookup<String, ServerSelector> snapshot = brokerServerView.getTimeline(dataSource).get();
+    Assertions.assertEquals(1, snapshot.lookup(segment1.getInterval()).size());
+
+    // additions are only visible to queries once the next snapshot is published
+    segmentAddedLatch = new CountDownLatch(1);
+    baseView.addSegment(druidServer, segment2);
+    Assertions.assertTrue(awaitLatch(segmentAddedLatch));
+    Assertions.assertSame(snapshot, brokerServerView.getTimeline(dataSource).get());
+    Assertions.assertEquals(0, snapshot.lookup(segment2.getInterval()).size());
+
+    brokerServerView.publishTimelineSnapshots();
+    final TimelineLookup<String, ServerSelector> republished = brokerServerView.getTimeline(dataSource).get();
+    Assertions.assertNotSame(snapshot, republished);
+    Assertions.assertEquals(1, republished.lookup(segment2.getInterval()).size());
+
+    // removals are applied to the published snapshot straight away
+    baseView.removeSegment(druidServer, segment1);
+    Assertions.assertTrue(awaitLatch(segmentRemovedLatch));
+    Assertions.assertEquals(0, republished.lookup(segment1.getInterval()).size());
+    Assertions.assertEquals(1, republished.lookup(segment2.getInterval()).size());
+  }
+
+  @Test
+  public void testTimelineSnapshotRemovalOfReplacedSegment() throws Exception
+  {
+    segmentViewInitLatch = new CountDownLatch(1);
+    segmentAddedLatch = new CountDownLatch(1);
+    segmentRemovedLatch = new CountDownLatch(1);
+
+    setupViews(
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        new BrokerSegmentWatcherConfig()
+        {
+          @Override
+          public Period getTimelineSnapshotPeriod()
+          {
+            return Period.hours(1);
+          }
+        }
+    );
+
+    final DruidServer druidServer = setupHistoricalServer("default_tier", "localhost:1234", 0);
+    final DataSegment v1 = dataSegmentWithIntervalAndVersion("2014-10-20T00:00:00Z/P1D", "v1");
+    final DataSegment v2 = dataSegmentWithIntervalAndVersion("2014-10-20T00:00:00Z/P1D", "v2");
+    final TableDataSource dataSource = new TableDataSource("test_broker_server_view");
+
+    baseView.addSegment(druidServer, v1);
+    Assertions.assertTrue(awaitLatch(segmentViewInitLatch));
+    Assertions.assertTrue(awaitLatch(segmentAddedLatch));
+    brokerServerView.publishTimelineSnapshots();
+
+    // v2 overshadows v1 and v1 is dropped within the same period, before v2 has been published
+    segmentAddedLatch = new CountDownLatch(1);
+    baseView.addSegment(druidServer, v2);
+    Assertions.assertTrue(awaitLatch(segmentAddedLatch));
+    baseView.removeSegment(druidServer, v1);
+    Assertions.assertTrue(awaitLatch(segmentRemovedLatch));
+
+    final List<TimelineObjectHolder<String, ServerSelector>> holders =
+        brokerServerView.getTimeline(dataSource).get().lookup(v1.getInterval());
+    Assertions.assertEquals(1, holders.size());
+    Assertions.assertEquals("v2", holders.get(0).getVersion());
+    Assertions.assertEquals(
+        v2.getId(),
+        Iterables.getOnlyElement(holders.get(0).getObject()).getObject().getSegment().getId()
+    );
+
+    // nothing is left to publish for the datasource, and a later publish keeps serving v2
+    brokerServerView.publishTimelineSnapshots();
+    Assertions.assertEquals(
+        "v2",
+        Iterables.getOnlyElement(brokerServerView.getTimeline(dataSource).get().lookup(v1.getInterval())).getVersion()
+    );
+  }
+
+  @Test
+  public void testTimelineSnapshotRemovalKeepsOtherAdditionsPending() throws Exception
+  {
+    segmentViewInitLatch = new CountDownLatch(1);
+    segmentAddedLatch = new CountDownLatch(1);
+    segmentRemovedLatch = new CountDownLatch(1);
+
+    setupViews(
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        new BrokerSegmentWatcherConfig()
+        {
+          @Override
+          public Period getTimelineSnapshotPeriod()
+          {
+            return Period.hours(1);
+          }
+        }
+    );
+
+    final DruidServer druidServer = setupHistoricalServer("default_tier", "localhost:1234", 0);
+    final DataSegment first = dataSegmentWithIntervalAndVersion("2014-10-20T00:00:00Z/P1D", "v1");
+    final DataSegment second = dataSegmentWithIntervalAndVersion("2014-10-21T00:00:00Z/P1D", "v1");
+    final TableDataSource dataSource = new TableDataSource("test_broker_server_view");
+
+    baseView.addSegment(druidServer, first);
+    Assertions.assertTrue(awaitLatch(segmentViewInitLatch));
+    Assertions.assertTrue(awaitLatch(segmentAddedLatch));
+    brokerServerView.publishTimelineSnapshots();
+
+    // the removal of the first segment is visible straight away, the addition of the second waits for the publish
+    segmentAddedLatch = new CountDownLatch(1);
+    baseView.addSegment(druidServer, second);
+    Assertions.assertTrue(awaitLatch(segmentAddedLatch));
+    baseView.removeSegment(druidServer, first);
+    Assertions.assertTrue(awaitLatch(segmentRemovedLatch));
+
+    final Interval bothDays = Intervals.of("2014-10-20/2014-10-22");
+    Assertions.assertTrue(brokerServerView.getTimeline(dataSource).get().lookup(bothDays).isEmpty());
+
+    brokerServerView.publishTimelineSnapshots();
+    final List<TimelineObjectHolder<String, ServerSelector>> holders =
+        brokerServerView.getTimeline(dataSource).get().lookup(bothDays);
+    Assertions.assertEquals(1, holders.size());
+    Assertions.assertEquals(second.getInterval(), holders.get(0).getInterval());
+  }
+
   @Test
   public void testMultipleServerAddedRemovedSegment() throws Exception
   {
@@ -866,5 +1021,8 @@ public class BrokerServerViewTest
     if (baseView != null) {
       baseView.stop();
     }
+    if (brokerServerView != null) {
+      brokerServerView.stop();
+    }
   }
 }
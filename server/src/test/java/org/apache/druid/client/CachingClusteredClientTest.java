@@ -131,6 +131,7 @@ import org.apache.druid.timeline.partition.ShardSpec;
 import org.apache.druid.timeline.partition.SingleDimensionShardSpec;
 import org.apache.druid.timeline.partition.SingleElementPartitionChunk;
 import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
 import org.joda.time.DateTime;
@@ -2597,6 +2598,38 @@ public class CachingClusteredClientTest
       final Cache cache,
       final int mergeLimit
   )
+  {
+    return makeClient(cachePopulator, cache, mergeLimit, 0);
+  }
+
+  protected CachingClusteredClient makeClient(
+      final CachePopulator cachePopulator,
+      final Cache cache,
+      final int mergeLimit,
+      final int maxGranularBucketsPerSegment
+  )
+  {
+    return makeClient(
+        cachePopulator,
+        cache,
+        mergeLimit,
+        maxGranularBucketsPerSegment,
+        new QueryScheduler(
+            0,
+            ManualQueryPrioritizationStrategy.INSTANCE,
+            NoQueryLaningStrategy.INSTANCE,
+            new ServerConfig()
+        )
+    );
+  }
+
+  protected CachingClusteredClient makeClient(
+      final CachePopulator cachePopulator,
+      final Cache cache,
+      final int mergeLimit,
+      final int maxGranularBucketsPerSegment,
+      final QueryScheduler scheduler
+  )
   {
     return new CachingClusteredClient(
         conglomerateRule.getConglomerate(),
@@ -2665,6 +2698,12 @@ public class CachingClusteredClientTest
           {
             return mergeLimit;
           }
+
+          @Override
+          public int getMaxGranularBucketsPerSegment()
+          {
+            return maxGranularBucketsPerSegment;
+          }
         },
         new DruidHttpClientConfig()
         {
@@ -2697,12 +2736,7 @@ public class CachingClusteredClientTest
           }
         },
         ForkJoinPool.commonPool(),
-        new QueryScheduler(
-            0,
-            ManualQueryPrioritizationStrategy.INSTANCE,
-            NoQueryLaningStrategy.INSTANCE,
-            new ServerConfig()
-        ),
+        scheduler,
         new NoopServiceEmitter()
     );
   }
@@ -3225,6 +3259,96 @@ public class CachingClusteredClientTest
     Assertions.assertEquals(1, remainingResponseMap.get(queryInclude.getId()).intValue());
   }
 
+  @Test
+  public void testSplitSegmentsByGranularityBucket()
+  {
+    final Interval interval = Intervals.of("2016-01-01/2016-01-02");
+    final DataSegment dataSegment = new DataSegment(
+        "dataSource",
+        interval,
+        "ver",
+        ImmutableMap.of("type", "hdfs", "path", "/tmp"),
+        ImmutableList.of("product"),
+        ImmutableList.of("visited_sum"),
+        NoneShardSpec.instance(),
+        9,
+        12334
+    );
+    final ServerSelector selector = new ServerSelector(
+        dataSegment,
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        HistoricalFilter.IDENTITY_FILTER
+    );
+    selector.addServerAndUpdateSegment(new QueryableDruidServer(servers[0], null), dataSegment);
+    timeline.add(interval, "ver", new SingleElementPartitionChunk<>(selector));
+
+    final Capture<QueryPlus> capture = Capture.newInstance(CaptureType.ALL);
+    final QueryRunner mockRunner = EasyMock.createNiceMock(QueryRunner.class);
+    EasyMock.expect(mockRunner.run(EasyMock.capture(capture), EasyMock.anyObject()))
+            .andReturn(Sequences.empty())
+            .anyTimes();
+    EasyMock.expect(serverView.getQueryRunner(servers[0]))
+            .andReturn(mockRunner)
+            .anyTimes();
+    EasyMock.replay(serverView);
+    EasyMock.replay(mockRunner);
+
+    final List<Integer> scheduledSegmentCounts = new ArrayList<>();
+    final QueryScheduler scheduler = new QueryScheduler(
+        0,
+        ManualQueryPrioritizationStrategy.INSTANCE,
+        NoQueryLaningStrategy.INSTANCE,
+        new ServerConfig()
+    )
+    {
+      @Override
+      public <T> Query<T> prioritizeAndLaneQuery(QueryPlus<T> queryPlus, Set<SegmentServerSelector> segments)
+      {
+        scheduledSegmentCounts.add(segments.size());
+        return super.prioritizeAndLaneQuery(queryPlus, segments);
+      }
+    };
+    final CachingClusteredClient splittingClient = makeClient(
+        new ForegroundCachePopulator(JSON_MAPPER, new CachePopulatorStats(), -1),
+        cache,
+        10,
+        24,
+        scheduler
+    );
+    final Druids.TimeseriesQueryBuilder builder = Druids.newTimeseriesQueryBuilder()
+                                                        .dataSource(DATA_SOURCE)
+                                                        .intervals("2016-01-01T21:30/2016-01-02")
+                                                        .aggregators(new CountAggregatorFactory("rows"));
+
+    // hourly buckets: the partial first hour and two whole hours are queried, and cached, separately
+    final TimeseriesQuery hourly = builder.granularity(Granularities.HOUR).randomQueryId().build();
+    splittingClient.getQueryRunnerForIntervals(hourly, hourly.getIntervals()).run(QueryPlus.wrap(hourly)).toList();
+    Assertions.assertEquals(
+        new MultipleSpecificSegmentSpec(
+            ImmutableList.of(
+                new SegmentDescriptor(Intervals.of("2016-01-01T21:30/2016-01-01T22:00"), "ver", 0),
+                new SegmentDescriptor(Intervals.of("2016-01-01T22:00/2016-01-01T23:00"), "ver", 0),
+                new SegmentDescriptor(Intervals.of("2016-01-01T23:00/2016-01-02T00:00"), "ver", 0)
+            )
+        ),
+        ((TimeseriesQuery) capture.getValues().get(0).getQuery()).getQuerySegmentSpec()
+    );
+    // the scheduler sees the segment once, not once per bucket
+    Assertions.assertEquals(ImmutableList.of(1), scheduledSegmentCounts);
+
+    // more buckets than the limit: the segment is queried whole
+    final TimeseriesQuery perMinute = builder.granularity(Granularities.MINUTE).randomQueryId().build();
+    splittingClient.getQueryRunnerForIntervals(perMinute, perMinute.getIntervals())
+                   .run(QueryPlus.wrap(perMinute))
+                   .toList();
+    Assertions.assertEquals(
+        new MultipleSpecificSegmentSpec(
+            ImmutableList.of(new SegmentDescriptor(Intervals.of("2016-01-01T21:30/2016-01-02"), "ver", 0))
+        ),
+        ((TimeseriesQuery) capture.getValues().get(1).getQuery()).getQuerySegmentSpec()
+    );
+  }
+
   @SuppressWarnings("unchecked")
   private QueryRunner getDefaultQueryRunner()
   {
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.metrics.StubServiceEmitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+class TieredCacheTest extends CacheTestBase<TieredCache>
+{
+  private static final byte[] HI = StringUtils.toUtf8("hiiiiiiiiiiiiiiiiiii");
+  private static final byte[] HO = StringUtils.toUtf8("hooooooooooooooooooo");
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() throws IOException
+  {
+    // two 1 KiB regions in memory and sixteen on disk
+    cache = TieredCache.create(makeConfig("{\"memorySizeBytes\": 2048, \"diskSizeBytes\": 16384, "
+                                          + "\"regionSizeBytes\": 1024, \"evictOnClose\": true, "
+                                          + "\"diskPath\": \"" + tempDir.getAbsolutePath() + "\"}"));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException
+  {
+    cache.close();
+  }
+
+  @Test
+  void testSanity()
+  {
+    final Cache.NamedKey hiKey = new Cache.NamedKey("a", HI);
+    final Cache.NamedKey hoKey = new Cache.NamedKey("a", HO);
+    Assertions.assertNull(cache.get(hiKey));
+    cache.put(hiKey, HI);
+    cache.put(hoKey, HO);
+    Assertions.assertArrayEquals(HI, cache.get(hiKey));
+    Assertions.assertArrayEquals(HO, cache.get(hoKey));
+
+    final Map<Cache.NamedKey, byte[]> bulk =
+        cache.getBulk(ImmutableList.of(hiKey, hoKey, new Cache.NamedKey("b", HI)));
+    Assertions.assertEquals(2, bulk.size());
+    Assertions.assertArrayEquals(HO, bulk.get(hoKey));
+
+    final CacheStats stats = cache.getStats();
+    Assertions.assertEquals(4, stats.getNumHits());
+    Assertions.assertEquals(2, stats.getNumMisses());
+  }
+
+  @Test
+  void testEvictedFromMemoryServedFromDisk() throws Exception
+  {
+    final Random random = new Random(0);
+    final byte[][] values = new byte[10][];
+    for (int i = 0; i < values.length; i++) {
+      // incompressible, so three values fill a region
+      values[i] = new byte[300];
+      random.nextBytes(values[i]);
+      cache.put(key(i), values[i]);
+    }
+    cache.awaitWriteBehind();
+
+    // the first values were evicted from memory with their regions, but the disk tier still has them
+    final StubServiceEmitter emitter = new StubServiceEmitter();
+    cache.doMonitor(emitter);
+    final Map<String, Object> memoryTier = Map.of("tier", "memory");
+    Assertions.assertTrue(
+        emitter.getMetricValues("query/cache/tiered/total/evictions", memoryTier).get(0).longValue() > 0
+    );
+    Assertions.assertEquals(0, cache.getStats().getNumEvictions());
+    Assertions.assertEquals(values.length, cache.getStats().getNumEntries());
+    for (int i = 0; i < values.length; i++) {
+      Assertions.assertArrayEquals(values[i], cache.get(key(i)));
+    }
+    Assertions.assertEquals(values.length, cache.getStats().getNumHits());
+  }
+
+  @Test
+  void testValueLargerThanRegionIsNotCached() throws Exception
+  {
+    final byte[] value = new byte[4096];
+    new Random(0).nextBytes(value);
+    cache.put(key(0), value);
+    cache.awaitWriteBehind();
+    Assertions.assertNull(cache.get(key(0)));
+  }
+
+  @Test
+  void testCloseNamespace() throws Exception
+  {
+    final Cache.NamedKey hiKey = new Cache.NamedKey("a", HI);
+    final Cache.NamedKey hoKey = new Cache.NamedKey("b", HO);
+    cache.put(hiKey, HI);
+    cache.put(hoKey, HO);
+    cache.awaitWriteBehind();
+
+    cache.close("a");
+    Assertions.assertNull(cache.get(hiKey));
+    Assertions.assertArrayEquals(HO, cache.get(hoKey));
+  }
+
+  @Test
+  void testPutAfterClose() throws IOException
+  {
+    cache.close();
+
+    // enough values to recycle regions of both tiers, whose buffers are released by now
+    final Random random = new Random(0);
+    for (int i = 0; i < 100; i++) {
+      final byte[] value = new byte[300];
+      random.nextBytes(value);
+      cache.put(key(i), value);
+    }
+    for (int i = 0; i < 100; i++) {
+      Assertions.assertNull(cache.get(key(i)));
+    }
+  }
+
+  @Test
+  void testMemoryOnly() throws IOException
+  {
+    try (TieredCache memoryOnly = TieredCache.create(
+        makeConfig("{\"memorySizeBytes\": 2048, \"regionSizeBytes\": 1024}")
+    )) {
+      final Cache.NamedKey hiKey = new Cache.NamedKey("a", HI);
+      memoryOnly.put(hiKey, HI);
+      Assertions.assertArrayEquals(HI, memoryOnly.get(hiKey));
+    }
+  }
+
+  @Test
+  void testProviderSerde() throws IOException
+  {
+    final CacheProvider provider = new DefaultObjectMapper().readValue(
+        "{\"type\": \"tiered\", \"memorySizeBytes\": \"4KiB\", \"regionSizeBytes\": \"1KiB\"}",
+        CacheProvider.class
+    );
+    Assertions.assertInstanceOf(TieredCacheProvider.class, provider);
+    Assertions.assertEquals(4096, ((TieredCacheProvider) provider).getMemorySizeBytes());
+    Assertions.assertNull(((TieredCacheProvider) provider).getDiskPath());
+  }
+
+  private static TieredCacheConfig makeConfig(String json) throws IOException
+  {
+    return new DefaultObjectMapper().readValue(json, TieredCacheConfig.class);
+  }
+
+  private static Cache.NamedKey key(int i)
+  {
+    return new Cache.NamedKey("ns", new byte[]{(byte) i});
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.loading;
+
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+class ColumnAccessStatsTest
+{
+  @TempDir
+  File tempDir;
+
+  @Test
+  void testRecord()
+  {
+    final ColumnAccessStats stats = new ColumnAccessStats();
+    for (int i = 0; i < 8; i++) {
+      stats.record("wiki", "__base", Set.of("__time", "page"));
+    }
+    stats.record("wiki", "__base", Set.of("__time", "user"));
+    stats.record("wiki", "__base", Set.of("__time", "user"));
+    stats.record("wiki", "daily_page", Set.of("page"));
+    stats.record("wiki", "hourly_user", Set.of("user"));
+    stats.record("wiki", "hourly_user", Set.of("user"));
+    stats.record("other", "__base", Set.of("x"));
+
+    Assertions.assertEquals(10, stats.getAccessCount("wiki", "__base"));
+    Assertions.assertEquals(0, stats.getAccessCount("wiki", "missing"));
+    Assertions.assertEquals(List.of("__time", "page"), stats.getTopColumns("wiki", "__base", 2));
+    Assertions.assertEquals(List.of("__time", "page", "user"), stats.getTopColumns("wiki", "__base", 10));
+    Assertions.assertEquals(List.of(), stats.getTopColumns("wiki", "__base", 0));
+
+    // frequency is relative to the most read bundle of the same datasource
+    Assertions.assertTrue(stats.isFrequentlyAccessed("wiki", "__base"));
+    Assertions.assertFalse(stats.isFrequentlyAccessed("wiki", "daily_page"));
+    Assertions.assertFalse(stats.isFrequentlyAccessed("wiki", "hourly_user"));
+    Assertions.assertTrue(stats.isFrequentlyAccessed("other", "__base"));
+    Assertions.assertFalse(stats.isFrequentlyAccessed("missing", "__base"));
+
+    stats.record("wiki", "hourly_user", Set.of("user"));
+    Assertions.assertTrue(stats.isFrequentlyAccessed("wiki", "hourly_user"));
+    Assertions.assertEquals(List.of("__base", "hourly_user"), stats.getFrequentlyAccessedBundles("wiki"));
+    Assertions.assertEquals(List.of(), stats.getFrequentlyAccessedBundles("missing"));
+  }
+
+  @Test
+  void testPersistHalvesCounts() throws Exception
+  {
+    final DefaultObjectMapper jsonMapper = new DefaultObjectMapper();
+    final File file = new File(tempDir, "stats.json");
+    final ColumnAccessStats stats = new ColumnAccessStats();
+    for (int i = 0; i < 8; i++) {
+      stats.record("wiki", "__base", Set.of("__time", "page"));
+    }
+    stats.record("wiki", "__base", Set.of("user"));
+    stats.record("wiki", "daily_page", Set.of("page"));
+    stats.write(jsonMapper, file);
+
+    final ColumnAccessStats restored = ColumnAccessStats.read(jsonMapper, file);
+    Assertions.assertEquals(4, restored.getAccessCount("wiki", "__base"));
+    Assertions.assertEquals(List.of("__time", "page"), restored.getTopColumns("wiki", "__base", 10));
+    // a single read decays away entirely
+    Assertions.assertEquals(0, restored.getAccessCount("wiki", "daily_page"));
+    Assertions.assertEquals(List.of("__base"), restored.getFrequentlyAccessedBundles("wiki"));
+  }
+
+  @Test
+  void testReadMissingOrCorruptFile() throws Exception
+  {
+    final DefaultObjectMapper jsonMapper = new DefaultObjectMapper();
+    final File file = new File(tempDir, "stats.json");
+    Assertions.assertEquals(0, ColumnAccessStats.read(jsonMapper, file).getAccessCount("wiki", "__base"));
+
+    Files.write(file.toPath(), "not json".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertEquals(0, ColumnAccessStats.read(jsonMapper, file).getAccessCount("wiki", "__base"));
+  }
+}
@@ -89,6 +89,29 @@ class StorageLocationTest
     Assertions.assertEquals(100, location.currentWeakSizeBytes());
   }
 
+  @Test
+  public void testWeakReclaimPassesOverFrequentlyAccessedEntryOnce()
+  {
+    StorageLocation location = new StorageLocation(tempDir, 100L, null);
+    CacheEntry entry1 = new TestCacheEntry("1", 25, true);
+    CacheEntry entry2 = new TestCacheEntry("2", 25);
+    CacheEntry entry3 = new TestCacheEntry("3", 25);
+    CacheEntry entry4 = new TestCacheEntry("4", 25);
+    CacheEntry entry5 = new TestCacheEntry("5", 25);
+
+    location.reserveWeak(entry1);
+    location.reserveWeak(entry2);
+    location.reserveWeak(entry3);
+    location.reserveWeak(entry4);
+    location.reserveWeak(entry5);
+    // entry1 is the oldest, but frequently accessed, so the next oldest is removed in its place
+    Assertions.assertTrue(location.isWeakReserved(entry1.getId()));
+    Assertions.assertFalse(location.isWeakReserved(entry2.getId()));
+    Assertions.assertTrue(location.isWeakReserved(entry3.getId()));
+    Assertions.assertTrue(location.isWeakReserved(entry5.getId()));
+    Assertions.assertEquals(100, location.currentWeakSizeBytes());
+  }
+
   @Test
   public void testRemoveFromHead()
   {
@@ -761,12 +784,19 @@ class StorageLocationTest
   {
     private final StringCacheIdentifier id;
     private final long size;
+    private final boolean frequentlyAccessed;
     private boolean isMounted = false;
 
     private TestCacheEntry(String id, long size)
+    {
+      this(id, size, false);
+    }
+
+    private TestCacheEntry(String id, long size, boolean frequentlyAccessed)
     {
       this.id = new StringCacheIdentifier(id);
       this.size = size;
+      this.frequentlyAccessed = frequentlyAccessed;
     }
 
     @Override
@@ -798,6 +828,12 @@ class StorageLocationTest
     {
       // do nothing
     }
+
+    @Override
+    public boolean isFrequentlyAccessed()
+    {
+      return frequentlyAccessed;
+    }
   }
 
   /**
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import org.apache.druid.client.FrameParserIterator;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryInterruptedException;
+import org.apache.druid.query.QueryToolChest;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.post.ExpressionPostAggregator;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.expression.TestExprMacroTable;
+import org.apache.druid.query.groupby.GroupByQuery;
+import org.apache.druid.query.groupby.GroupByQueryQueryToolChest;
+import org.apache.druid.query.groupby.ResultRow;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+import org.apache.druid.query.timeseries.TimeseriesQueryQueryToolChest;
+import org.apache.druid.query.timeseries.TimeseriesResultValue;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.column.RowSignature;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FrameQueryWriterTest extends InitializedNullHandlingTest
+{
+  private static final GroupByQueryQueryToolChest GROUP_BY_TOOL_CHEST = new GroupByQueryQueryToolChest(null, null);
+
+  private static final GroupByQuery GROUP_BY_QUERY =
+      GroupByQuery.builder()
+                  .setDataSource("foo")
+                  .setGranularity(Granularities.DAY)
+                  .setInterval(Intervals.ONLY_ETERNITY)
+                  .setDimensions(DefaultDimensionSpec.of("dim"))
+                  .setAggregatorSpecs(new CountAggregatorFactory("rows"), new DoubleSumAggregatorFactory("idx", "idx"))
+                  .setContext(ImmutableMap.of(QueryContexts.FINALIZE_KEY, false))
+                  .build();
+
+  @Test
+  public void testGroupByRoundTrip() throws IOException
+  {
+    final List<ResultRow> rows = makeRows(500);
+
+    // Small frames, so the response spans many of them.
+    final byte[] response = writeFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, rows, 1000, true);
+    Assertions.assertEquals(rows, readFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, response));
+  }
+
+  @Test
+  public void testGroupByEmptyResult() throws IOException
+  {
+    final byte[] response =
+        writeFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, List.of(), FrameQueryWriter.FRAME_SIZE, true);
+    Assertions.assertEquals(List.of(), readFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, response));
+  }
+
+  @Test
+  public void testTimeseriesRoundTrip() throws IOException
+  {
+    final TimeseriesQueryQueryToolChest toolChest = new TimeseriesQueryQueryToolChest();
+    final TimeseriesQuery query =
+        Druids.newTimeseriesQueryBuilder()
+              .dataSource("foo")
+              .granularity(Granularities.DAY)
+              .intervals("2000/2001")
+              .aggregators(new CountAggregatorFactory("rows"), new DoubleSumAggregatorFactory("idx", "idx"))
+              .context(ImmutableMap.of(QueryContexts.FINALIZE_KEY, false))
+              .build();
+
+    final List<Result<TimeseriesResultValue>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      final Map<String, Object> values = new HashMap<>();
+      values.put("rows", (long) i);
+      values.put("idx", i == 3 ? null : i * 2.5);
+      results.add(new Result<>(DateTimes.of("2000-01-01").plusDays(i), new TimeseriesResultValue(values)));
+    }
+
+    final byte[] response = writeFrames(query, toolChest, results, FrameQueryWriter.FRAME_SIZE, true);
+    Assertions.assertEquals(results, readFrames(query, toolChest, response));
+  }
+
+  @Test
+  public void testTruncatedResponse() throws IOException
+  {
+    // Some frames make it out before the failure, but the file never gets its footer.
+    final byte[] response = writeFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, makeRows(500), 1000, false);
+    Assertions.assertTrue(response.length > 1000);
+
+    Assertions.assertThrows(
+        QueryInterruptedException.class,
+        () -> readFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, response)
+    );
+  }
+
+  @Test
+  public void testJsonResponseFallback() throws IOException
+  {
+    // Data servers that cannot send frames respond with JSON.
+    final List<ResultRow> rows = ImmutableList.of(ResultRow.of(0L, "a", 1L, 1.5), ResultRow.of(0L, null, 2L, 2.5));
+    final byte[] response = new DefaultObjectMapper().writeValueAsBytes(rows);
+
+    final List<ResultRow> results = readFrames(GROUP_BY_QUERY, GROUP_BY_TOOL_CHEST, response);
+    Assertions.assertEquals(rows.size(), results.size());
+    for (int i = 0; i < rows.size(); i++) {
+      Assertions.assertEquals(rows.get(i).get(1), results.get(i).get(1));
+      Assertions.assertEquals(rows.get(i).getLong(2), results.get(i).getLong(2));
+      Assertions.assertEquals(rows.get(i).get(3), results.get(i).get(3));
+    }
+  }
+
+  @Test
+  public void testGroupBySignatureExcludesPostAggregators()
+  {
+    final GroupByQuery query = GROUP_BY_QUERY.withPostAggregatorSpecs(
+        ImmutableList.of(new ExpressionPostAggregator("p", "idx / rows", null, null, TestExprMacroTable.INSTANCE))
+    );
+
+    Assertions.assertEquals(
+        RowSignature.builder()
+                    .addTimeColumn()
+                    .add("dim", ColumnType.STRING)
+                    .add("rows", ColumnType.LONG)
+                    .add("idx", ColumnType.DOUBLE)
+                    .build(),
+        GROUP_BY_TOOL_CHEST.frameTransportSignature(query)
+    );
+  }
+
+  private static List<ResultRow> makeRows(final int numRows)
+  {
+    final List<ResultRow> rows = new ArrayList<>();
+    for (int i = 0; i < numRows; i++) {
+      final String dim = i % 7 == 0 ? null : "v" + i;
+      rows.add(ResultRow.of(DateTimes.of("2000-01-01").getMillis() + i, dim, (long) i, i * 1.5));
+    }
+    return rows;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> byte[] writeFrames(
+      final Query<T> query,
+      final QueryToolChest toolChest,
+      final List<T> results,
+      final int frameSize,
+      final boolean complete
+  ) throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (FrameQueryWriter writer = new FrameQueryWriter(
+        toolChest.frameTransportSignature(query),
+        toolChest.makeToFrameTransportFn(query),
+        out,
+        frameSize
+    )) {
+      writer.writeResponseStart();
+      for (T result : results) {
+        writer.writeRow(result);
+      }
+      if (complete) {
+        writer.writeResponseEnd();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> List<T> readFrames(
+      final Query<T> query,
+      final QueryToolChest toolChest,
+      final byte[] response
+  ) throws IOException
+  {
+    final List<T> results = new ArrayList<>();
+    try (FrameParserIterator<T> iterator = new FrameParserIterator<>(
+        toolChest.getBaseResultType(),
+        Futures.immediateFuture(new ByteArrayInputStream(response)),
+        "url",
+        query,
+        "host",
+        toolChest.decorateObjectMapper(new DefaultObjectMapper(), query),
+        toolChest.frameTransportSignature(query),
+        toolChest.makeFromFrameTransportFn(query)
+    )) {
+      iterator.forEachRemaining(results::add);
+    }
+    return results;
+  }
+}
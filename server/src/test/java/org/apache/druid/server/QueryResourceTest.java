@@ -38,6 +38,7 @@ import org.apache.druid.error.DruidException;
 import org.apache.druid.error.DruidExceptionMatcher;
 import org.apache.druid.error.ErrorResponse;
 import org.apache.druid.error.InvalidInput;
+import org.apache.druid.frame.file.FrameFileWriter;
 import org.apache.druid.guice.GuiceInjectors;
 import org.apache.druid.guice.annotations.Smile;
 import org.apache.druid.jackson.DefaultObjectMapper;
@@ -78,6 +79,7 @@ import org.apache.druid.query.filter.NullFilter;
 import org.apache.druid.query.policy.NoopPolicyEnforcer;
 import org.apache.druid.query.policy.RowFilterPolicy;
 import org.apache.druid.query.timeboundary.TimeBoundaryResultValue;
+import org.apache.druid.query.timeseries.TimeseriesResultValue;
 import org.apache.druid.server.broker.BrokerDynamicConfig;
 import org.apache.druid.server.broker.QueryConfigSnapshot;
 import org.apache.druid.server.initialization.ServerConfig;
@@ -925,6 +927,45 @@ public class QueryResourceTest
     Assertions.assertEquals(200, emitter.getMetricEvents("query/time").get(0).toMap().get(DruidMetrics.STATUS_CODE));
   }
 
+  @Test
+  public void testAcceptFramesHeaderOnIntervalQuery() throws IOException
+  {
+    expectPermissiveHappyPathAuth();
+    testServletRequest.headers.put(QueryResource.HEADER_ACCEPT_FRAMES, "true");
+
+    // Only queries on specific segments, which the Broker sends to data servers, get frames
+    final MockHttpServletResponse response = expectAsyncRequestFlow(SIMPLE_TIMESERIES_QUERY);
+    Assertions.assertEquals(HttpStatus.SC_OK, response.getStatus());
+    final List<Result<TimeseriesResultValue>> results = jsonMapper.readValue(
+        response.baos.toByteArray(),
+        new TypeReference<>()
+        {
+        }
+    );
+    Assertions.assertEquals(0, results.size());
+  }
+
+  @Test
+  public void testAcceptFramesHeaderOnSegmentQuery() throws IOException
+  {
+    expectPermissiveHappyPathAuth();
+    testServletRequest.headers.put(QueryResource.HEADER_ACCEPT_FRAMES, "true");
+
+    final String query = "{\n"
+                         + "  \"queryType\": \"timeseries\",\n"
+                         + "  \"dataSource\": \"mmx_metrics\",\n"
+                         + "  \"granularity\": \"hour\",\n"
+                         + "  \"intervals\": {\n"
+                         + "    \"type\": \"segments\",\n"
+                         + "    \"segments\": [{\"itvl\": \"2014-12-17/2015-12-30\", \"ver\": \"v1\", \"part\": 0}]\n"
+                         + "  },\n"
+                         + "  \"aggregations\": [{\"type\": \"count\", \"name\": \"rows\"}]\n"
+                         + "}";
+    final MockHttpServletResponse response = expectAsyncRequestFlow(query);
+    Assertions.assertEquals(HttpStatus.SC_OK, response.getStatus());
+    Assertions.assertEquals(FrameFileWriter.MAGIC[0], response.baos.toByteArray()[0]);
+  }
+
   @Test
   public void testGoodQueryWithEmptyAcceptHeader() throws IOException
   {
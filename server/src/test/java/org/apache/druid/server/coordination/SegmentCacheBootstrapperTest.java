@@ -231,6 +231,11 @@ public class SegmentCacheBootstrapperTest
 
     serviceEmitter.verifyValue("segment/bootstrap/count", expectedBootstrapSegments.size());
     serviceEmitter.verifyEmitted("segment/bootstrap/time", 1);
+    serviceEmitter.verifyValue("segment/bootstrap/cached/count", 0);
+    serviceEmitter.verifyValue("segment/bootstrap/load/count", expectedBootstrapSegments.size());
+    serviceEmitter.verifyEmitted("segment/bootstrap/load/time", 1);
+    serviceEmitter.verifyEmitted("segment/bootstrap/announce/time", 1);
+    serviceEmitter.verifyValue("segment/bootstrap/total/count", expectedBootstrapSegments.size());
 
     bootstrapper.stop();
   }
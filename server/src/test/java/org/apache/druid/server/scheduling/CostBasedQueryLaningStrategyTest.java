@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.scheduling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.apache.druid.client.SegmentServerSelector;
+import org.apache.druid.client.selector.HighestPriorityTierSelectorStrategy;
+import org.apache.druid.client.selector.HistoricalFilter;
+import org.apache.druid.client.selector.RandomServerSelectorStrategy;
+import org.apache.druid.client.selector.ServerSelector;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.SegmentDescriptor;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.server.QueryLaningStrategy;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.NumberedShardSpec;
+import org.joda.time.Interval;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class CostBasedQueryLaningStrategyTest
+{
+  private static final Map<String, CostBasedQueryLaningStrategy.LaneConfig> TWO_LANES = Map.of(
+      "heavy", new CostBasedQueryLaningStrategy.LaneConfig(1_000_000, 30),
+      "giant", new CostBasedQueryLaningStrategy.LaneConfig(100_000_000, 10)
+  );
+
+  private Druids.TimeseriesQueryBuilder queryBuilder;
+
+  @BeforeEach
+  public void setup()
+  {
+    // requires __time and "m", so every segment is charged two columns per row
+    queryBuilder = Druids.newTimeseriesQueryBuilder()
+                         .dataSource("test")
+                         .intervals(List.of(Intervals.of("2020-01-01/2020-01-02")))
+                         .granularity(Granularities.DAY)
+                         .aggregators(new CountAggregatorFactory("count"), new LongSumAggregatorFactory("sum", "m"));
+  }
+
+  @Test
+  public void testGetLaneLimits()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, null, null);
+
+    Object2IntMap<String> limits = strategy.getLaneLimits(100);
+    Assertions.assertEquals(2, limits.size());
+    Assertions.assertEquals(30, limits.getInt("heavy"));
+    Assertions.assertEquals(10, limits.getInt("giant"));
+  }
+
+  @Test
+  public void testComputeLane_bySegmentRows()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, null, null);
+    TimeseriesQuery query = queryBuilder.build();
+
+    // 10 segments * 1,000 rows * 2 columns = 20,000 -> interactive
+    Assertions.assertEquals(20_000, strategy.computeCost(query, makeSegments(10, 1_000)));
+    Assertions.assertFalse(strategy.computeLane(QueryPlus.wrap(query), makeSegments(10, 1_000)).isPresent());
+
+    // 10 segments * 100,000 rows * 2 columns = 2,000,000 -> heavy
+    Assertions.assertEquals(
+        Optional.of("heavy"),
+        strategy.computeLane(QueryPlus.wrap(query), makeSegments(10, 100_000))
+    );
+
+    // 100 segments * 1,000,000 rows * 2 columns = 200,000,000 -> giant
+    Assertions.assertEquals(
+        Optional.of("giant"),
+        strategy.computeLane(QueryPlus.wrap(query), makeSegments(100, 1_000_000))
+    );
+  }
+
+  @Test
+  public void testComputeLane_filterSelectivityHint()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, null, null);
+    Set<SegmentServerSelector> segments = makeSegments(10, 100_000);
+
+    TimeseriesQuery selective = queryBuilder.context(Map.of(CostBasedQueryLaningStrategy.FILTER_SELECTIVITY_KEY, 0.1))
+                                            .build();
+    Assertions.assertEquals(200_000, strategy.computeCost(selective, segments));
+    Assertions.assertFalse(strategy.computeLane(QueryPlus.wrap(selective), segments).isPresent());
+
+    // out of range hints are ignored
+    TimeseriesQuery invalid = queryBuilder.context(Map.of(CostBasedQueryLaningStrategy.FILTER_SELECTIVITY_KEY, 2))
+                                          .build();
+    Assertions.assertEquals(2_000_000, strategy.computeCost(invalid, segments));
+  }
+
+  @Test
+  public void testComputeLane_segmentSplitIntoBuckets()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, null, null);
+    TimeseriesQuery query = queryBuilder.build();
+
+    // each segment is queried through one descriptor per hour, but is still only scanned once
+    Set<SegmentServerSelector> segments = new HashSet<>();
+    for (SegmentServerSelector segment : makeSegments(10, 100_000)) {
+      final SegmentDescriptor descriptor = segment.getSegmentDescriptor();
+      for (Interval hour : Granularities.HOUR.getIterable(descriptor.getInterval())) {
+        segments.add(
+            new SegmentServerSelector(
+                segment.getServer(),
+                new SegmentDescriptor(hour, descriptor.getVersion(), descriptor.getPartitionNumber())
+            )
+        );
+      }
+    }
+    Assertions.assertEquals(240, segments.size());
+    Assertions.assertEquals(2_000_000, strategy.computeCost(query, segments));
+    Assertions.assertEquals(Optional.of("heavy"), strategy.computeLane(QueryPlus.wrap(query), segments));
+  }
+
+  @Test
+  public void testComputeLane_unknownRowsAndColumns()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, 1_000L, null, null);
+    TimeseriesQuery query = queryBuilder.build();
+
+    // segments hosted locally have no metadata, so the default row count is used
+    Set<SegmentServerSelector> segments = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      segments.add(new SegmentServerSelector(new SegmentDescriptor(Intervals.of("2020-01-01/2020-01-02"), "v1", i)));
+    }
+    Assertions.assertEquals(6_000, strategy.computeCost(query, segments));
+  }
+
+  @Test
+  public void testComputeLane_historicalRuntime()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, 1_000L, null);
+    TimeseriesQuery query = queryBuilder.build();
+    Set<SegmentServerSelector> segments = makeSegments(1, 1_000);
+
+    Assertions.assertFalse(strategy.computeLane(QueryPlus.wrap(query), segments).isPresent());
+
+    // a slow run puts later queries with the same fingerprint in a lane, even though they read little data
+    strategy.onQueryFinished(query, 10_000);
+    Assertions.assertEquals(10_000_000, strategy.computeCost(query, segments));
+    Assertions.assertEquals(Optional.of("heavy"), strategy.computeLane(QueryPlus.wrap(query), segments));
+
+    // the moving average decays with faster runs
+    strategy.onQueryFinished(query, 0);
+    Assertions.assertEquals(7_000_000, strategy.computeCost(query, segments));
+
+    // a query reading other columns has a different fingerprint
+    TimeseriesQuery other = queryBuilder.aggregators(new LongSumAggregatorFactory("sum", "other")).build();
+    Assertions.assertNotEquals(
+        CostBasedQueryLaningStrategy.fingerprint(query),
+        CostBasedQueryLaningStrategy.fingerprint(other)
+    );
+    Assertions.assertFalse(strategy.computeLane(QueryPlus.wrap(other), segments).isPresent());
+  }
+
+  @Test
+  public void testComputeLane_historicalRuntimeDisabled()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, null, null);
+    TimeseriesQuery query = queryBuilder.build();
+    Set<SegmentServerSelector> segments = makeSegments(1, 1_000);
+
+    strategy.onQueryFinished(query, 10_000);
+    Assertions.assertEquals(2_000, strategy.computeCost(query, segments));
+  }
+
+  @Test
+  public void testComputeLane_existingLanePreserved()
+  {
+    CostBasedQueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(TWO_LANES, null, null, null);
+    TimeseriesQuery query = queryBuilder.context(Map.of(QueryContexts.LANE_KEY, "custom")).build();
+
+    Assertions.assertEquals(
+        Optional.of("custom"),
+        strategy.computeLane(QueryPlus.wrap(query), makeSegments(100, 1_000_000))
+    );
+  }
+
+  @Test
+  public void testInvalidConfig()
+  {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy(Map.of(), null, null, null)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy(
+            Map.of("total", new CostBasedQueryLaningStrategy.LaneConfig(1, 10)),
+            null,
+            null,
+            null
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy(
+            Map.of(
+                "a", new CostBasedQueryLaningStrategy.LaneConfig(1, 10),
+                "b", new CostBasedQueryLaningStrategy.LaneConfig(1, 20)
+            ),
+            null,
+            null,
+            null
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy(TWO_LANES, 0L, null, null)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy(TWO_LANES, null, -1L, null)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy.LaneConfig(0, 10)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new CostBasedQueryLaningStrategy.LaneConfig(1, 101)
+    );
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    ObjectMapper mapper = TestHelper.makeJsonMapper();
+    String json = "{\n"
+                  + "  \"strategy\": \"cost\",\n"
+                  + "  \"millisCost\": 1000,\n"
+                  + "  \"lanes\": {\n"
+                  + "    \"heavy\": { \"minCost\": 1000000, \"maxPercent\": 30 },\n"
+                  + "    \"giant\": { \"minCost\": 100000000000, \"maxPercent\": 10 }\n"
+                  + "  }\n"
+                  + "}";
+
+    QueryLaningStrategy deserialized = mapper.readValue(json, QueryLaningStrategy.class);
+    Assertions.assertTrue(deserialized instanceof CostBasedQueryLaningStrategy);
+
+    Object2IntMap<String> limits = deserialized.getLaneLimits(100);
+    Assertions.assertEquals(30, limits.getInt("heavy"));
+    Assertions.assertEquals(10, limits.getInt("giant"));
+
+    QueryLaningStrategy roundTrip = mapper.readValue(
+        mapper.writeValueAsString(deserialized),
+        QueryLaningStrategy.class
+    );
+    Assertions.assertEquals(limits, roundTrip.getLaneLimits(100));
+  }
+
+  private static Set<SegmentServerSelector> makeSegments(int count, int rowsPerSegment)
+  {
+    Set<SegmentServerSelector> segments = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      final DataSegment segment = DataSegment.builder()
+                                             .dataSource("test")
+                                             .interval(Intervals.of("2020-01-01/2020-01-02"))
+                                             .version("v1")
+                                             .shardSpec(new NumberedShardSpec(i, 0))
+                                             .totalRows(rowsPerSegment)
+                                             .build();
+      segments.add(new SegmentServerSelector(
+          new ServerSelector(
+              segment,
+              new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+              HistoricalFilter.IDENTITY_FILTER
+          ),
+          segment.toDescriptor()
+      ));
+    }
+    return segments;
+  }
+}
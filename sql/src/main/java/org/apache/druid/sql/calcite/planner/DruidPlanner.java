@@ -37,9 +37,11 @@ import org.apache.druid.server.security.Resource;
 import org.apache.druid.server.security.ResourceAction;
 import org.apache.druid.sql.calcite.parser.DruidSqlInsert;
 import org.apache.druid.sql.calcite.parser.DruidSqlReplace;
+import org.apache.druid.sql.calcite.rel.DruidQuery;
 import org.apache.druid.sql.calcite.run.SqlEngine;
 import org.joda.time.DateTimeZone;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.util.HashSet;
 import java.util.Map;
@@ -97,15 +99,26 @@ public class DruidPlanner implements Closeable
   private final PlannerContext plannerContext;
   private final SqlEngine engine;
   private final PlannerHook hook;
+  @Nullable
+  private final PlanCache planCache;
   private State state = State.START;
   private SqlStatementHandler handler;
   private boolean authorized;
+  @Nullable
+  private Long schemaVersion;
+  @Nullable
+  private PlanCache.Key planCacheKey;
+  @Nullable
+  private DruidQuery plannedQuery;
+  @Nullable
+  private PrepareResult cachedPrepareResult;
 
   DruidPlanner(
       final FrameworkConfig frameworkConfig,
       final PlannerContext plannerContext,
       final SqlEngine engine,
-      final PlannerHook hook
+      final PlannerHook hook,
+      @Nullable final PlanCache planCache
   )
   {
     this.frameworkConfig = frameworkConfig;
@@ -113,6 +126,7 @@ public class DruidPlanner implements Closeable
     this.plannerContext = plannerContext;
     this.engine = engine;
     this.hook = hook == null ? NoOpPlannerHook.INSTANCE : hook;
+    this.planCache = planCache;
   }
 
   /**
@@ -125,6 +139,12 @@ public class DruidPlanner implements Closeable
   {
     Preconditions.checkState(state == State.START);
 
+    // Read before validation, so that a schema change during validation or planning leaves the plan under the old
+    // version, which is never looked up again.
+    if (planCache != null) {
+      schemaVersion = planCache.schemaVersion();
+    }
+
     // Validate query context.
     engine.validateContext(plannerContext.queryContextMap());
     planner.skipParse();
@@ -238,14 +258,38 @@ public class DruidPlanner implements Closeable
    * Ideally, the query can be planned into a native Druid query, but will
    * fall-back to bindable convention if this is not possible.
    * <p>
-   * Planning reuses the validation done in {@code validate()} which must be called first.
+   * Planning reuses the validation done in {@code validate()} which must be called first. SELECT statements reuse
+   * the plan kept by the {@link PlanCache}, if enabled, of an earlier statement with the same key.
    */
   public PlannerResult plan()
   {
     Preconditions.checkState(state == State.VALIDATED || state == State.PREPARED);
     Preconditions.checkState(authorized);
     state = State.PLANNED;
-    return handler.plan();
+    if (planCache != null
+        && handler instanceof QueryHandler.SelectHandler
+        && ((QueryHandler) handler).explain == null) {
+      planCacheKey = planCache.keyFor(plannerContext, schemaVersion);
+    }
+    if (planCacheKey == null) {
+      return handler.plan();
+    }
+
+    final PlanCache.CachedPlan cachedPlan = planCache.get(planCacheKey);
+    if (cachedPlan != null) {
+      cachedPrepareResult = cachedPlan.prepareResult();
+      return cachedPlan.toPlannerResult(plannerContext);
+    }
+    final PlannerResult plannerResult = handler.plan();
+    if (plannedQuery != null
+        && plannerContext.isPlanReusable()
+        && plannerContext.getQueryMaker().forPlannerContext(plannerContext) != null) {
+      planCache.put(
+          planCacheKey,
+          new PlanCache.CachedPlan(plannedQuery, plannerContext.getQueryMaker(), handler.prepareResult())
+      );
+    }
+    return plannerResult;
   }
 
   public PlannerContext getPlannerContext()
@@ -255,7 +299,7 @@ public class DruidPlanner implements Closeable
 
   public PrepareResult prepareResult()
   {
-    return handler.prepareResult();
+    return cachedPrepareResult != null ? cachedPrepareResult : handler.prepareResult();
   }
 
   @Override
@@ -319,6 +363,18 @@ public class DruidPlanner implements Closeable
     {
       return hook;
     }
+
+    @Override
+    public boolean isPlanCacheable()
+    {
+      return planCacheKey != null;
+    }
+
+    @Override
+    public void cachePlan(DruidQuery druidQuery)
+    {
+      plannedQuery = druidQuery;
+    }
   }
 
   public static DruidException translateException(Exception e)
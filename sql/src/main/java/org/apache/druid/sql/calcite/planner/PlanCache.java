@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.sql.calcite.planner;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.calcite.avatica.remote.TypedValue;
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.server.security.AuthorizationResult;
+import org.apache.druid.server.security.ResourceType;
+import org.apache.druid.sql.calcite.rel.DruidQuery;
+import org.apache.druid.sql.calcite.run.QueryMaker;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Member of {@link PlannerFactory} that keeps the native queries planned for SQL SELECT statements, so a statement
+ * that is planned again with the same SQL, context and parameters, by a user with the same authorization result,
+ * skips conversion to relational algebra, rule application and native query generation. Validation and
+ * authorization still run for every statement.
+ *
+ * Plans are keyed by the version of the Druid schema, so that they are not reused once a datasource is added, removed
+ * or changes its schema. Statements which read views, refer to the time of planning or consult lookups while planning
+ * are never cached, since their plans may change without a schema change.
+ */
+public class PlanCache
+{
+  private final Cache<Key, CachedPlan> cache;
+  private final Supplier<Long> schemaVersion;
+
+  /**
+   * @param maxSize       maximum number of plans to keep
+   * @param schemaVersion supplies the current version of the schema, or null if it is not tracked, which disables
+   *                      caching
+   */
+  public PlanCache(final int maxSize, final Supplier<Long> schemaVersion)
+  {
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+    this.schemaVersion = schemaVersion;
+  }
+
+  /**
+   * Returns the current version of the schema, or null if it is not tracked. Planners read it before validating a
+   * statement, so that a plan made against an older schema is never cached under a newer version.
+   */
+  @Nullable
+  Long schemaVersion()
+  {
+    return schemaVersion.get();
+  }
+
+  /**
+   * Returns the key under which the plan of a validated and authorized statement is cached, or null if its plan must
+   * not be cached.
+   *
+   * @param version version of the schema from {@link #schemaVersion()}, read before the statement was validated
+   */
+  @Nullable
+  Key keyFor(final PlannerContext plannerContext, @Nullable final Long version)
+  {
+    if (version == null || plannerContext.queryContextMap().containsKey(BaseQuery.QUERY_ID)) {
+      // Queries with a user-supplied ID cannot share the ID of the query the plan was made for.
+      return null;
+    }
+    if (plannerContext.getResourceActions()
+                      .stream()
+                      .anyMatch(action -> ResourceType.VIEW.equals(action.getResource().getType()))) {
+      return null;
+    }
+
+    final Map<String, Object> context = new HashMap<>(plannerContext.queryContextMap());
+    context.remove(QueryContexts.CTX_SQL_QUERY_ID);
+    return new Key(
+        plannerContext.getEngine().name(),
+        plannerContext.getSqlNode().toString(),
+        plannerContext.getParameters(),
+        context,
+        plannerContext.getAuthorizationResult(),
+        version
+    );
+  }
+
+  @Nullable
+  CachedPlan get(final Key key)
+  {
+    return cache.getIfPresent(key);
+  }
+
+  void put(final Key key, final CachedPlan plan)
+  {
+    cache.put(key, plan);
+  }
+
+  public long size()
+  {
+    return cache.estimatedSize();
+  }
+
+  /**
+   * Number of statements whose plan was served from this cache.
+   */
+  public long hitCount()
+  {
+    return cache.stats().hitCount();
+  }
+
+  static class Key
+  {
+    private final String engine;
+    private final String sql;
+    private final List<TypedValue> parameters;
+    private final Map<String, Object> context;
+    private final AuthorizationResult authorizationResult;
+    private final long schemaVersion;
+
+    Key(
+        final String engine,
+        final String sql,
+        final List<TypedValue> parameters,
+        final Map<String, Object> context,
+        final AuthorizationResult authorizationResult,
+        final long schemaVersion
+    )
+    {
+      this.engine = engine;
+      this.sql = sql;
+      this.parameters = parameters;
+      this.context = context;
+      this.authorizationResult = authorizationResult;
+      this.schemaVersion = schemaVersion;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return schemaVersion == key.schemaVersion
+             && engine.equals(key.engine)
+             && sql.equals(key.sql)
+             && parameters.equals(key.parameters)
+             && context.equals(key.context)
+             && Objects.equals(authorizationResult, key.authorizationResult);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(engine, sql, parameters, context, authorizationResult, schemaVersion);
+    }
+  }
+
+  /**
+   * A native query planned for a statement, along with what is needed to run it on behalf of another statement.
+   */
+  static class CachedPlan
+  {
+    private final DruidQuery druidQuery;
+    private final QueryMaker queryMaker;
+    private final PrepareResult prepareResult;
+
+    CachedPlan(final DruidQuery druidQuery, final QueryMaker queryMaker, final PrepareResult prepareResult)
+    {
+      this.druidQuery = druidQuery;
+      this.queryMaker = queryMaker;
+      this.prepareResult = prepareResult;
+    }
+
+    PrepareResult prepareResult()
+    {
+      return prepareResult;
+    }
+
+    /**
+     * Returns the plan of a statement with the same key as the one this plan was made for.
+     */
+    PlannerResult toPlannerResult(final PlannerContext plannerContext)
+    {
+      final QueryMaker reboundQueryMaker = queryMaker.forPlannerContext(plannerContext);
+      plannerContext.setQueryMaker(reboundQueryMaker);
+      return new PlannerResult(() -> reboundQueryMaker.runQuery(druidQuery), prepareResult.getReturnedRowType());
+    }
+  }
+}
@@ -83,6 +83,9 @@ public class PlannerConfig
   @JsonProperty
   private boolean enableSysQueriesTable = false;
 
+  @JsonProperty
+  private int planCacheSize = 0;
+
   public int getMaxNumericInFilters()
   {
     return maxNumericInFilters;
@@ -160,6 +163,14 @@ public class PlannerConfig
     return enableSysQueriesTable;
   }
 
+  /**
+   * Returns the maximum number of native query plans kept by the {@link PlanCache}. Zero disables the cache.
+   */
+  public int getPlanCacheSize()
+  {
+    return planCacheSize;
+  }
+
   public PlannerConfig withOverrides(final Map<String, Object> queryContext)
   {
     if (queryContext.isEmpty()) {
@@ -189,6 +200,7 @@ public class PlannerConfig
            && forceExpressionVirtualColumns == that.forceExpressionVirtualColumns
            && maxNumericInFilters == that.maxNumericInFilters
            && enableSysQueriesTable == that.enableSysQueriesTable
+           && planCacheSize == that.planCacheSize
            && Objects.equals(sqlTimeZone, that.sqlTimeZone)
            && Objects.equals(nativeQuerySqlPlanningMode, that.nativeQuerySqlPlanningMode);
   }
@@ -210,7 +222,8 @@ public class PlannerConfig
         forceExpressionVirtualColumns,
         maxNumericInFilters,
         nativeQuerySqlPlanningMode,
-        enableSysQueriesTable
+        enableSysQueriesTable,
+        planCacheSize
     );
   }
 
@@ -227,6 +240,7 @@ public class PlannerConfig
            ", useNativeQueryExplain=" + useNativeQueryExplain +
            ", nativeQuerySqlPlanningMode=" + nativeQuerySqlPlanningMode +
            ", enableSysQueriesTable=" + enableSysQueriesTable +
+           ", planCacheSize=" + planCacheSize +
            '}';
   }
 
@@ -262,6 +276,7 @@ public class PlannerConfig
     private int maxNumericInFilters;
     private String nativeQuerySqlPlanningMode;
     private boolean enableSysQueriesTable;
+    private int planCacheSize;
 
     public Builder(PlannerConfig base)
     {
@@ -282,6 +297,7 @@ public class PlannerConfig
       maxNumericInFilters = base.getMaxNumericInFilters();
       nativeQuerySqlPlanningMode = base.getNativeQuerySqlPlanningMode();
       enableSysQueriesTable = base.isEnableSysQueriesTable();
+      planCacheSize = base.getPlanCacheSize();
     }
 
     public Builder requireTimeCondition(boolean option)
@@ -362,6 +378,12 @@ public class PlannerConfig
       return this;
     }
 
+    public Builder planCacheSize(int size)
+    {
+      this.planCacheSize = size;
+      return this;
+    }
+
     public Builder withOverrides(final Map<String, Object> queryContext)
     {
       useApproximateCountDistinct = QueryContexts.parseBoolean(
@@ -459,6 +481,7 @@ public class PlannerConfig
       config.forceExpressionVirtualColumns = forceExpressionVirtualColumns;
       config.nativeQuerySqlPlanningMode = nativeQuerySqlPlanningMode;
       config.enableSysQueriesTable = enableSysQueriesTable;
+      config.planCacheSize = planCacheSize;
       return config;
     }
   }
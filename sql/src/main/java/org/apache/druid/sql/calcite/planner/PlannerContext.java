@@ -153,6 +153,8 @@ public class PlannerContext
   private boolean reverseLookup;
   private boolean useGranularity;
   private DateTime localNow;
+  // whether the plan refers to the time of planning, for example through CURRENT_TIMESTAMP
+  private boolean localNowUsed;
 
   // bindings for dynamic parameters to bind during planning
   private List<TypedValue> parameters = Collections.emptyList();
@@ -286,6 +288,7 @@ public class PlannerContext
 
   public DateTime getLocalNow()
   {
+    localNowUsed = true;
     return localNow;
   }
 
@@ -665,6 +668,15 @@ public class PlannerContext
     return lookupCache.getLookup(lookupName);
   }
 
+  /**
+   * Whether the plan made with this context so far depends only on the statement, its context and parameters, and the
+   * schema, and not on the time of planning or the contents of lookups. Only such plans are kept by {@link PlanCache}.
+   */
+  boolean isPlanReusable()
+  {
+    return !localNowUsed && lookupCache == null;
+  }
+
   public <T> void dispatchHook(HookKey<T> key, T object)
   {
     plannerToolbox.getHookDispatcher().dispatch(key, object);
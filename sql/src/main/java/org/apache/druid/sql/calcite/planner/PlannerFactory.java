@@ -48,17 +48,23 @@ import org.apache.druid.sql.calcite.parser.DruidSqlParser;
 import org.apache.druid.sql.calcite.parser.StatementAndSetContext;
 import org.apache.druid.sql.calcite.planner.convertlet.DruidConvertletTable;
 import org.apache.druid.sql.calcite.run.SqlEngine;
+import org.apache.druid.sql.calcite.schema.DruidSchema;
 import org.apache.druid.sql.calcite.schema.DruidSchemaCatalog;
 import org.apache.druid.sql.calcite.schema.DruidSchemaName;
+import org.apache.druid.sql.calcite.schema.NamedSchema;
 import org.apache.druid.sql.hook.DruidHook;
 import org.apache.druid.sql.hook.DruidHookDispatcher;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 public class PlannerFactory extends PlannerToolbox
 {
+  @Nullable
+  private final PlanCache planCache;
+
   @Inject
   public PlannerFactory(
       final DruidSchemaCatalog rootSchema,
@@ -91,6 +97,9 @@ public class PlannerFactory extends PlannerToolbox
         policyEnforcer,
         hookDispatcher
     );
+    this.planCache = plannerConfig.getPlanCacheSize() > 0
+                     ? new PlanCache(plannerConfig.getPlanCacheSize(), this::druidSchemaVersion)
+                     : null;
   }
 
   /**
@@ -127,7 +136,7 @@ public class PlannerFactory extends PlannerToolbox
     );
     context.dispatchHook(DruidHook.SQL, sql);
 
-    return new DruidPlanner(buildFrameworkConfig(context), context, engine, hook);
+    return new DruidPlanner(buildFrameworkConfig(context), context, engine, hook, planCache);
   }
 
   /**
@@ -164,6 +173,25 @@ public class PlannerFactory extends PlannerToolbox
     return authorizerMapper;
   }
 
+  @Nullable
+  public PlanCache getPlanCache()
+  {
+    return planCache;
+  }
+
+  /**
+   * Version of the tables of the Druid schema, or null if it is not known, see {@link DruidSchema#getSchemaVersion()}.
+   */
+  @Nullable
+  private Long druidSchemaVersion()
+  {
+    final NamedSchema namedSchema = rootSchema == null ? null : rootSchema.getNamedSchema(druidSchemaName);
+    if (namedSchema != null && namedSchema.getSchema() instanceof DruidSchema) {
+      return ((DruidSchema) namedSchema.getSchema()).getSchemaVersion();
+    }
+    return null;
+  }
+
   private FrameworkConfig buildFrameworkConfig(PlannerContext plannerContext)
   {
     final SqlToRelConverter.Config sqlToRelConverterConfig = SqlToRelConverter
@@ -613,6 +613,14 @@ public abstract class QueryHandler extends SqlStatementHandler.BaseStatementHand
             "Authorization sanity check failed"
         );
 
+        // A union runs each of its inputs as a separate native query, so only other rels, which run as a single
+        // native query, can be kept by the PlanCache.
+        if (handlerContext.isPlanCacheable() && !(druidRel instanceof DruidUnionRel)) {
+          // Build the native query now, rather than when the query runs, so the PlanCache can keep it.
+          final DruidQuery druidQuery = druidRel.toDruidQuery(false);
+          handlerContext.cachePlan(druidQuery);
+          return new PlannerResult(() -> plannerContext.getQueryMaker().runQuery(druidQuery), rowType);
+        }
         return new PlannerResult(druidRel::runQuery, rowType);
       }
     }
@@ -24,6 +24,7 @@ import org.apache.calcite.schema.SchemaPlus;
 import org.apache.druid.query.QueryContext;
 import org.apache.druid.query.explain.ExplainAttributes;
 import org.apache.druid.server.security.ResourceAction;
+import org.apache.druid.sql.calcite.rel.DruidQuery;
 import org.apache.druid.sql.calcite.run.SqlEngine;
 import org.joda.time.DateTimeZone;
 
@@ -57,6 +58,14 @@ public interface SqlStatementHandler
     ObjectMapper jsonMapper();
     DateTimeZone timeZone();
     PlannerHook hook();
+
+    /**
+     * Whether the plan of this statement may be kept by the {@link PlanCache}. If so, handlers which plan a native
+     * query report it through {@link #cachePlan(DruidQuery)}.
+     */
+    boolean isPlanCacheable();
+
+    void cachePlan(DruidQuery druidQuery);
   }
 
   abstract class BaseStatementHandler implements SqlStatementHandler
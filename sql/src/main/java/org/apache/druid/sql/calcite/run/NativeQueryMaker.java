@@ -32,8 +32,10 @@ import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.UOE;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.DataSource;
 import org.apache.druid.query.InlineDataSource;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryDataSource;
 import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.filter.BoundDimFilter;
 import org.apache.druid.query.filter.DimFilter;
@@ -54,6 +56,7 @@ import org.apache.druid.sql.calcite.rel.DruidQuery;
 import org.apache.druid.sql.hook.DruidHook;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -65,23 +68,48 @@ public class NativeQueryMaker implements QueryMaker
   private final ObjectMapper jsonMapper;
   private final List<Entry<Integer, String>> fieldMapping;
 
+  /**
+   * Whether queries run by this maker were planned for another statement, see {@link #forPlannerContext}.
+   */
+  private final boolean reusedPlan;
+
   public NativeQueryMaker(
       final QueryLifecycleFactory queryLifecycleFactory,
       final PlannerContext plannerContext,
       final ObjectMapper jsonMapper,
       final List<Entry<Integer, String>> fieldMapping
   )
+  {
+    this(queryLifecycleFactory, plannerContext, jsonMapper, fieldMapping, false);
+  }
+
+  private NativeQueryMaker(
+      final QueryLifecycleFactory queryLifecycleFactory,
+      final PlannerContext plannerContext,
+      final ObjectMapper jsonMapper,
+      final List<Entry<Integer, String>> fieldMapping,
+      final boolean reusedPlan
+  )
   {
     this.queryLifecycleFactory = queryLifecycleFactory;
     this.plannerContext = plannerContext;
     this.jsonMapper = jsonMapper;
     this.fieldMapping = fieldMapping;
+    this.reusedPlan = reusedPlan;
+  }
+
+  @Override
+  public QueryMaker forPlannerContext(final PlannerContext newPlannerContext)
+  {
+    return new NativeQueryMaker(queryLifecycleFactory, newPlannerContext, jsonMapper, fieldMapping, true);
   }
 
   @Override
   public QueryResponse<Object[]> runQuery(final DruidQuery druidQuery)
   {
-    final Query<?> query = druidQuery.getQuery();
+    final Query<?> query = reusedPlan
+                           ? withContext(druidQuery.getQuery(), plannerContext.queryContextMap())
+                           : druidQuery.getQuery();
 
     if (plannerContext.getPlannerConfig().isRequireTimeCondition()
         && !(druidQuery.getDataSource() instanceof InlineDataSource)) {
@@ -155,6 +183,32 @@ public class NativeQueryMaker implements QueryMaker
     );
   }
 
+  /**
+   * Applies the context of the statement being run to a query, and the queries it reads from, which were planned with
+   * the context of another statement. The contexts differ only in identifiers such as the SQL query ID.
+   */
+  private static Query<?> withContext(final Query<?> query, final Map<String, Object> context)
+  {
+    final Query<?> withContext = query.withOverriddenContext(context);
+    return withContext.withDataSource(withContext(withContext.getDataSource(), context));
+  }
+
+  private static DataSource withContext(final DataSource dataSource, final Map<String, Object> context)
+  {
+    if (dataSource instanceof QueryDataSource) {
+      return new QueryDataSource(withContext(((QueryDataSource) dataSource).getQuery(), context));
+    } else if (dataSource.getChildren().isEmpty()) {
+      return dataSource;
+    } else {
+      return dataSource.withChildren(
+          dataSource.getChildren()
+                    .stream()
+                    .map(child -> withContext(child, context))
+                    .collect(Collectors.toList())
+      );
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private <T> QueryResponse<Object[]> execute(
       Query<?> query, // Not final: may be reassigned with query ID added
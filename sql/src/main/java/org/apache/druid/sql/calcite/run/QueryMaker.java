@@ -20,10 +20,13 @@
 package org.apache.druid.sql.calcite.run;
 
 import org.apache.druid.server.QueryResponse;
+import org.apache.druid.sql.calcite.planner.PlannerContext;
 import org.apache.druid.sql.calcite.planner.QueryHandler;
 import org.apache.druid.sql.calcite.rel.DruidQuery;
 import org.apache.druid.sql.calcite.rel.logical.DruidLogicalNode;
 
+import javax.annotation.Nullable;
+
 /**
  * Interface for executing Druid queries. Each one is created by a {@link SqlEngine} and is tied to a
  * specific SQL query.
@@ -37,6 +40,18 @@ public interface QueryMaker
    */
   QueryResponse<Object[]> runQuery(DruidQuery druidQuery);
 
+  /**
+   * Returns a QueryMaker which runs the queries this QueryMaker was created for on behalf of another statement, with
+   * the same SQL, context and parameters, planned with the given context. This lets
+   * {@link org.apache.druid.sql.calcite.planner.PlanCache} reuse a plan. Returns null if this QueryMaker cannot be
+   * reused, which is the default.
+   */
+  @Nullable
+  default QueryMaker forPlannerContext(PlannerContext plannerContext)
+  {
+    return null;
+  }
+
 
   /**
    * Marks that the {@link QueryMaker} supports executing
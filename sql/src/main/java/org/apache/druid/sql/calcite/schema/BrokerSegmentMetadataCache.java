@@ -251,7 +251,9 @@ public class BrokerSegmentMetadataCache extends AbstractSegmentMetadataCache<Phy
       final RowSignature rowSignature = buildDataSourceRowSignature(dataSource);
       if (rowSignature == null) {
         log.info("datasource [%s] no longer exists, all metadata removed.", dataSource);
-        tables.remove(dataSource);
+        if (tables.remove(dataSource) != null) {
+          markSchemaChanged();
+        }
         emitMetric(
             Metric.DATASOURCE_REMOVED,
             1,
@@ -265,7 +267,9 @@ public class BrokerSegmentMetadataCache extends AbstractSegmentMetadataCache<Phy
         log.info("datasource [%s] schema has not been initialized yet, "
                  + "check coordinator logs if this message is persistent.", dataSource);
         // this is a harmless call
-        tables.remove(dataSource);
+        if (tables.remove(dataSource) != null) {
+          markSchemaChanged();
+        }
         emitMetric(
             Metric.DATASOURCE_REMOVED,
             1,
@@ -358,6 +362,12 @@ public class BrokerSegmentMetadataCache extends AbstractSegmentMetadataCache<Phy
   private void updateDSMetadata(String dataSource, PhysicalDatasourceMetadata physicalDatasourceMetadata)
   {
     final PhysicalDatasourceMetadata oldTable = tables.put(dataSource, physicalDatasourceMetadata);
+    if (oldTable == null
+        || !oldTable.getRowSignature().equals(physicalDatasourceMetadata.getRowSignature())
+        || oldTable.isJoinable() != physicalDatasourceMetadata.isJoinable()
+        || oldTable.isBroadcast() != physicalDatasourceMetadata.isBroadcast()) {
+      markSchemaChanged();
+    }
     final RowSignature newRowSignature = physicalDatasourceMetadata.getRowSignature();
     final int newColumnCount = newRowSignature.getColumnNames().size();
 
@@ -24,6 +24,7 @@ import org.apache.druid.sql.calcite.planner.CatalogResolver;
 import org.apache.druid.sql.calcite.table.DatasourceTable;
 import org.apache.druid.sql.calcite.table.DruidTable;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import java.util.Set;
@@ -55,6 +56,20 @@ public class DruidSchema extends AbstractTableSchema
     return segmentMetadataCache;
   }
 
+  /**
+   * Version of the tables served by this schema, which changes whenever a datasource is added or removed, or its
+   * schema changes. Null if tables are defined by a {@link DruidSchemaManager} or catalog, whose changes this schema
+   * does not track.
+   */
+  @Nullable
+  public Long getSchemaVersion()
+  {
+    if (druidSchemaManager != null || !(catalogResolver instanceof CatalogResolver.NullCatalogResolver)) {
+      return null;
+    }
+    return segmentMetadataCache.getSchemaVersion();
+  }
+
   @Override
   public Table getTable(String name)
   {
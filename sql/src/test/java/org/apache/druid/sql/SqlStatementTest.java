@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.calcite.avatica.SqlType;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.druid.error.DruidException;
@@ -62,8 +63,14 @@ import org.apache.druid.sql.calcite.planner.PlannerConfig;
 import org.apache.druid.sql.calcite.planner.PlannerFactory;
 import org.apache.druid.sql.calcite.planner.PrepareResult;
 import org.apache.druid.sql.calcite.schema.DruidSchemaCatalog;
+import org.apache.druid.sql.calcite.schema.NoopDruidSchemaManager;
 import org.apache.druid.sql.calcite.util.CalciteTests;
+import org.apache.druid.sql.calcite.util.QueryFrameworkUtils;
+import org.apache.druid.sql.calcite.util.SqlTestFramework;
+import org.apache.druid.sql.calcite.view.InProcessViewManager;
+import org.apache.druid.sql.calcite.view.ViewManager;
 import org.apache.druid.sql.hook.DruidHookDispatcher;
+import org.apache.druid.sql.http.SqlParameter;
 import org.easymock.EasyMock;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -73,6 +80,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 
 import java.io.File;
@@ -102,6 +110,7 @@ public class SqlStatementTest
 
   private PolicyEnforcer policyEnforcer;
   private SqlStatementFactory sqlStatementFactory;
+  private PlannerFactory plannerFactory;
 
   @BeforeAll
   public static void setUpClass()
@@ -207,6 +216,107 @@ public class SqlStatementTest
     stmt.close();
   }
 
+  @Test
+  public void testDirectReusesCachedPlan()
+  {
+    sqlStatementFactory = buildSqlStatementFactory(PlannerConfig.builder().planCacheSize(10).build(), null);
+    final String sql = "SELECT dim1, COUNT(*) AS cnt FROM druid.foo WHERE dim1 <> 'abc' GROUP BY dim1";
+    final List<Object[]> expected = runDirect(sql);
+    assertEquals(1, plannerFactory.getPlanCache().size());
+    assertEquals(0, plannerFactory.getPlanCache().hitCount());
+
+    final List<Object[]> cached = runDirect(sql);
+    assertEquals(1, plannerFactory.getPlanCache().hitCount());
+    assertEquals(expected.size(), cached.size());
+    assertResultsEquals(sql, expected, cached);
+
+    // Plans which refer to the time of planning are not cached.
+    runDirect("SELECT COUNT(*) FROM druid.foo WHERE __time < CURRENT_TIMESTAMP");
+    runDirect("SELECT COUNT(*) FROM druid.foo WHERE __time < CURRENT_TIMESTAMP");
+    assertEquals(1, plannerFactory.getPlanCache().size());
+    assertEquals(1, plannerFactory.getPlanCache().hitCount());
+  }
+
+  @Test
+  public void testPlanCacheMissesOnDifferentContext()
+  {
+    sqlStatementFactory = buildSqlStatementFactory(PlannerConfig.builder().planCacheSize(10).build(), null);
+    final String sql = "SELECT COUNT(*) FROM druid.foo";
+    runDirect(SqlQueryPlus.builder(sql).auth(CalciteTests.REGULAR_USER_AUTH_RESULT).build());
+    runDirect(
+        SqlQueryPlus.builder(sql)
+                    .queryContext(ImmutableMap.of(QueryContexts.PRIORITY_KEY, 1))
+                    .auth(CalciteTests.REGULAR_USER_AUTH_RESULT)
+                    .build()
+    );
+    assertEquals(2, plannerFactory.getPlanCache().size());
+    assertEquals(0, plannerFactory.getPlanCache().hitCount());
+  }
+
+  @Test
+  public void testPlanCacheMissesOnDifferentParameters()
+  {
+    sqlStatementFactory = buildSqlStatementFactory(PlannerConfig.builder().planCacheSize(10).build(), null);
+    final String sql = "SELECT COUNT(*) FROM druid.foo WHERE dim1 <> ?";
+    final List<Object[]> abc = runDirect(parameterized(sql, "abc"));
+    final List<Object[]> def = runDirect(parameterized(sql, "def"));
+    assertEquals(2, plannerFactory.getPlanCache().size());
+    assertEquals(0, plannerFactory.getPlanCache().hitCount());
+
+    // The same parameter values are served from the cache.
+    assertResultsEquals(sql, abc, runDirect(parameterized(sql, "abc")));
+    assertResultsEquals(sql, def, runDirect(parameterized(sql, "def")));
+    assertEquals(2, plannerFactory.getPlanCache().hitCount());
+  }
+
+  @Test
+  public void testPlanCacheSkipsViews()
+  {
+    final ViewManager viewManager = new InProcessViewManager(SqlTestFramework.DRUID_VIEW_MACRO_FACTORY);
+    sqlStatementFactory = buildSqlStatementFactory(PlannerConfig.builder().planCacheSize(10).build(), viewManager);
+    viewManager.createView(plannerFactory, "aview", "SELECT SUBSTRING(dim1, 1, 1) AS dim1_firstchar FROM foo");
+
+    final String sql = "SELECT COUNT(*) FROM view.aview";
+    assertResultsEquals(sql, runDirect(sql), runDirect(sql));
+    assertEquals(0, plannerFactory.getPlanCache().size());
+    assertEquals(0, plannerFactory.getPlanCache().hitCount());
+  }
+
+  @Test
+  public void testPlanCacheSkipsUnionAll()
+  {
+    sqlStatementFactory = buildSqlStatementFactory(PlannerConfig.builder().planCacheSize(10).build(), null);
+    // Plans to a union of native queries, which runs each of them separately.
+    final String sql = "SELECT COUNT(*) FROM foo UNION ALL SELECT SUM(cnt) FROM foo UNION ALL SELECT COUNT(*) FROM foo";
+    final List<Object[]> results = runDirect(sql);
+    assertEquals(3, results.size());
+    assertResultsEquals(sql, results, runDirect(sql));
+    assertEquals(0, plannerFactory.getPlanCache().size());
+  }
+
+  private List<Object[]> runDirect(final String sql)
+  {
+    return runDirect(queryPlus(sql, CalciteTests.REGULAR_USER_AUTH_RESULT));
+  }
+
+  private SqlQueryPlus parameterized(final String sql, final String parameter)
+  {
+    return SqlQueryPlus.builder(sql)
+                       .sqlParameters(ImmutableList.of(new SqlParameter(SqlType.VARCHAR, parameter)))
+                       .auth(CalciteTests.REGULAR_USER_AUTH_RESULT)
+                       .build();
+  }
+
+  private List<Object[]> runDirect(final SqlQueryPlus sqlQueryPlus)
+  {
+    final DirectStatement stmt = sqlStatementFactory.directStatement(sqlQueryPlus);
+    final ResultSet resultSet = stmt.plan();
+    final List<Object[]> results = resultSet.run().getResults().toList();
+    resultSet.close();
+    stmt.close();
+    return results;
+  }
+
   @Test
   public void testDirectPlanTwice()
   {
@@ -538,12 +648,23 @@ public class SqlStatementTest
 
   private SqlStatementFactory buildSqlStatementFactory()
   {
-    final PlannerConfig plannerConfig = PlannerConfig.builder().build();
-    final DruidSchemaCatalog rootSchema = CalciteTests.createMockRootSchema(
+    return buildSqlStatementFactory(PlannerConfig.builder().build(), null);
+  }
+
+  private SqlStatementFactory buildSqlStatementFactory(
+      final PlannerConfig plannerConfig,
+      @Nullable final ViewManager viewManager
+  )
+  {
+    final DruidSchemaCatalog rootSchema = QueryFrameworkUtils.createMockRootSchema(
+        CalciteTests.INJECTOR,
         conglomerate,
         walker,
         plannerConfig,
-        CalciteTests.TEST_AUTHORIZER_MAPPER
+        viewManager,
+        new NoopDruidSchemaManager(),
+        CalciteTests.TEST_AUTHORIZER_MAPPER,
+        CatalogResolver.NULL_RESOLVER
     );
     final DruidOperatorTable operatorTable = CalciteTests.createOperatorTable();
     final ExprMacroTable macroTable = CalciteTests.createExprMacroTable();
@@ -551,7 +672,7 @@ public class SqlStatementTest
     TestRequestLogger testRequestLogger = new TestRequestLogger();
     final JoinableFactoryWrapper joinableFactoryWrapper = CalciteTests.createJoinableFactoryWrapper();
 
-    final PlannerFactory plannerFactory = new PlannerFactory(
+    plannerFactory = new PlannerFactory(
         rootSchema,
         operatorTable,
         macroTable,
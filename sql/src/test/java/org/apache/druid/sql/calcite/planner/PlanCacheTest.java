@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.sql.calcite.planner;
+
+import org.apache.calcite.avatica.ColumnMetaData;
+import org.apache.calcite.avatica.remote.TypedValue;
+import org.apache.calcite.sql.SqlLiteral;
+import org.apache.calcite.sql.parser.SqlParserPos;
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.server.security.Action;
+import org.apache.druid.server.security.AuthorizationResult;
+import org.apache.druid.server.security.Resource;
+import org.apache.druid.server.security.ResourceAction;
+import org.apache.druid.server.security.ResourceType;
+import org.apache.druid.sql.calcite.run.SqlEngine;
+import org.easymock.EasyMock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+class PlanCacheTest
+{
+  private static final Set<ResourceAction> READ_FOO =
+      Set.of(new ResourceAction(new Resource("foo", ResourceType.DATASOURCE), Action.READ));
+
+  private final AtomicLong schemaVersion = new AtomicLong();
+  private final PlanCache planCache = new PlanCache(10, schemaVersion::get);
+
+  @Test
+  void testSameStatementSameKey()
+  {
+    Assertions.assertEquals(
+        keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO)),
+        keyFor(context("SELECT 1", Map.of(QueryContexts.CTX_SQL_QUERY_ID, "id"), List.of(), READ_FOO))
+    );
+  }
+
+  @Test
+  void testSchemaVersionChangesKey()
+  {
+    final PlanCache.Key before = keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO));
+    schemaVersion.incrementAndGet();
+    final PlanCache.Key after = keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO));
+    Assertions.assertNotEquals(before, after);
+  }
+
+  @Test
+  void testSchemaVersionReadBeforeValidation()
+  {
+    // the schema changes while the statement is being validated and planned
+    final Long versionAtValidation = planCache.schemaVersion();
+    final PlanCache.Key before = keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO));
+    schemaVersion.incrementAndGet();
+    Assertions.assertEquals(
+        before,
+        planCache.keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO), versionAtValidation)
+    );
+    Assertions.assertNotEquals(before, keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO)));
+  }
+
+  @Test
+  void testContextAndParametersChangeKey()
+  {
+    final PlanCache.Key key = keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO));
+    Assertions.assertNotEquals(
+        key,
+        keyFor(context("SELECT 1", Map.of(QueryContexts.PRIORITY_KEY, 1), List.of(), READ_FOO))
+    );
+    final List<TypedValue> parameters = List.of(TypedValue.create(ColumnMetaData.Rep.STRING.name(), "abc"));
+    Assertions.assertNotEquals(key, keyFor(context("SELECT 1", Map.of(), parameters, READ_FOO)));
+  }
+
+  @Test
+  void testUncacheableStatements()
+  {
+    final Set<ResourceAction> readView =
+        Set.of(new ResourceAction(new Resource("aview", ResourceType.VIEW), Action.READ));
+    Assertions.assertNull(keyFor(context("SELECT 1", Map.of(), List.of(), readView)));
+    Assertions.assertNull(
+        keyFor(context("SELECT 1", Map.of(BaseQuery.QUERY_ID, "id"), List.of(), READ_FOO))
+    );
+    final PlanCache untracked = new PlanCache(10, () -> null);
+    Assertions.assertNull(
+        untracked.keyFor(context("SELECT 1", Map.of(), List.of(), READ_FOO), untracked.schemaVersion())
+    );
+  }
+
+  @Nullable
+  private PlanCache.Key keyFor(final PlannerContext plannerContext)
+  {
+    return planCache.keyFor(plannerContext, planCache.schemaVersion());
+  }
+
+  private static PlannerContext context(
+      final String sql,
+      final Map<String, Object> queryContext,
+      final List<TypedValue> parameters,
+      final Set<ResourceAction> resourceActions
+  )
+  {
+    final SqlEngine engine = EasyMock.createMock(SqlEngine.class);
+    EasyMock.expect(engine.name()).andReturn("native").anyTimes();
+    final PlannerContext plannerContext = EasyMock.createMock(PlannerContext.class);
+    EasyMock.expect(plannerContext.queryContextMap()).andReturn(queryContext).anyTimes();
+    EasyMock.expect(plannerContext.getResourceActions()).andReturn(resourceActions).anyTimes();
+    EasyMock.expect(plannerContext.getEngine()).andReturn(engine).anyTimes();
+    EasyMock.expect(plannerContext.getSqlNode()).andReturn(SqlLiteral.createCharString(sql, SqlParserPos.ZERO))
+            .anyTimes();
+    EasyMock.expect(plannerContext.getParameters()).andReturn(parameters).anyTimes();
+    EasyMock.expect(plannerContext.getAuthorizationResult())
+            .andReturn(AuthorizationResult.ALLOW_NO_RESTRICTION)
+            .anyTimes();
+    EasyMock.replay(engine, plannerContext);
+    return plannerContext;
+  }
+}